@@ -137,20 +137,11 @@ function MemberDashboardScreen() {
 
         // Fetch Latest Notification
         try {
-            const response = await fetch(`${BASE_URL}/notifications`);
+            // ✅ Inbox is newest first, so the first row is the latest notification
+            const response = await fetch(`${BASE_URL}/notifications/member/${memberData.id}?limit=1`);
             if (response.ok) {
-                const allNotifications: Notification[] = await response.json();
-                
-                // Filter notifications for the current user
-                const userNotifications = allNotifications.filter(
-                    (n) => n.member?.id === memberData.id
-                );
-
-                // Sort by creation date to get the truly latest notification
-                userNotifications.sort((a, b) => new Date(a.createdOn).getTime() - new Date(b.createdOn).getTime());
-
-                // Find the latest notification
-                const latest = userNotifications.length > 0 ? userNotifications[userNotifications.length - 1] : null;
+                const userNotifications: Notification[] = await response.json();
+                const latest = userNotifications.length > 0 ? userNotifications[0] : null;
 
                 if (latest) {
                     // Check if it's unread
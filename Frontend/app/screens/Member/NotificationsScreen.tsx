@@ -50,18 +50,12 @@ export default function NotificationsScreen() {
         return;
       }
 
-      // It's generally more efficient to fetch notifications specific to the user
-      // if your backend has such an endpoint (e.g., /notifications/by-user/{userId}).
-      // For now, filtering on the client-side as you do is fine if that's not available.
-      const res = await fetch(`${BASE_URL}/notifications`); // Fetches ALL notifications
+      // ✅ Member inbox: only this user's notifications, newest first
+      const res = await fetch(`${BASE_URL}/notifications/member/${userId}?limit=200`);
       if (!res.ok) {
         throw new Error(`HTTP error! status: ${res.status}`);
       }
-      const allNotifications: Notification[] = await res.json();
-
-      const userNotifications = allNotifications.filter(
-        (n) => n.member?.id === userId
-      );
+      const userNotifications: Notification[] = await res.json();
 
       setNotifications(userNotifications);
     } catch (err) {
@@ -128,11 +122,11 @@ export default function NotificationsScreen() {
     }
 
     try {
-      // ✅ CHANGED: Using PATCH method and the new batch endpoint
-      const response = await fetch(`${BASE_URL}/notifications/mark-many-as-read`, {
+      const userId = await AsyncStorage.getItem('userId');
+      // ✅ One set-based update for all of this member's unread notifications (including ones not loaded yet)
+      const response = await fetch(`${BASE_URL}/notifications/member/${userId}/mark-all-read`, {
         method: 'PATCH',
         headers: { 'Content-Type': 'application/json' },
-        body: JSON.stringify(unreadNotificationIds), // Sending array of IDs in the body
       });
 
       if (!response.ok) {
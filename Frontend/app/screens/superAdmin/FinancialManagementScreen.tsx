@@ -17,21 +17,16 @@ import SuperAdminBottomNav from '../../components/SuperAdminBottomNav';
 export default function ContributionSummaryScreen() {
   const [groups, setGroups] = useState<any[]>([]);
   const [selectedGroup, setSelectedGroup] = useState<string | undefined>(undefined);
-  const [contributions, setContributions] = useState<any[]>([]);
+  const [totalContributions, setTotalContributions] = useState<number>(0);
   const [loading, setLoading] = useState<boolean>(false);
   const router = useRouter();
 
   useEffect(() => {
     fetchGroups();
-    fetchContributions(); // Initial load with all groups
   }, []);
 
   useEffect(() => {
-    if (selectedGroup) {
-      fetchContributionsByGroup(selectedGroup);
-    } else {
-      fetchContributions();
-    }
+    fetchTotalContributions(selectedGroup);
   }, [selectedGroup]);
 
   const fetchGroups = async () => {
@@ -43,35 +38,21 @@ export default function ContributionSummaryScreen() {
     }
   };
 
-  const fetchContributions = async () => {
+  // The contribution lists are paged, so the total comes from the summary the server adds up over every row
+  const fetchTotalContributions = async (groupId?: string) => {
     try {
       setLoading(true);
-      const response = await axios.get('http://localhost:8080/api/contributions');
-      setContributions(response.data);
+      const response = await axios.get('http://localhost:8080/api/contributions/summary', {
+        params: groupId ? { groupId } : {},
+      });
+      setTotalContributions(Number(response.data.totalContributions) || 0);
     } catch (error) {
-      console.error('Failed to fetch contributions:', error);
+      console.error('Failed to fetch contribution total:', error);
     } finally {
       setLoading(false);
     }
   };
 
-  const fetchContributionsByGroup = async (groupId: string) => {
-    try {
-      setLoading(true);
-      const response = await axios.get(`http://localhost:8080/api/contributions/group/${groupId}`);
-      setContributions(response.data);
-    } catch (error) {
-      console.error('Failed to fetch contributions by group:', error);
-    } finally {
-      setLoading(false);
-    }
-  };
-
-  const totalAmount = (items: { amount: number }[]) =>
-    items.reduce((sum, item) => sum + item.amount, 0);
-
-  const totalContributions = totalAmount(contributions);
-
   return (
     <SafeAreaView style={styles.safeArea}>
       <View style={styles.header}>
@@ -0,0 +1,95 @@
+package com.manpower.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manpower.dto.AccessPrincipal;
+import com.manpower.dto.ErrorResponse;
+import com.manpower.service.AccessContext;
+import com.manpower.service.AccessTokenService;
+import com.manpower.service.InvalidAccessTokenException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// Verifies the "Authorization: Bearer <token>" header of API requests and exposes the caller through
+// AccessContext. A bad or expired token is answered 401 here. Requests without a token pass through
+// unless security.token.required is set (sign-in and the PesaPal IPN are always open).
+@Component
+public class AccessTokenFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+    private static final String[] OPEN_PATHS = {"/api/auth/login", "/api/auth/forgot-password", "/api/payments/ipn"};
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${security.token.required:false}")
+    private boolean tokenRequired;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflights carry no Authorization header
+        return "OPTIONS".equals(request.getMethod())
+                || !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            if (tokenRequired && !isOpen(request)) {
+                reject(response, "Sign in to continue.", "TOKEN_MISSING");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AccessPrincipal principal;
+        try {
+            principal = accessTokenService.verify(header.substring(BEARER.length()).trim());
+        } catch (InvalidAccessTokenException e) {
+            reject(response, e.isExpired() ? "Your session has expired. Please sign in again." : "Invalid access token.",
+                    e.isExpired() ? "TOKEN_EXPIRED" : "TOKEN_INVALID");
+            return;
+        }
+        request.setAttribute(AccessContext.ATTRIBUTE, principal);
+        chain.doFilter(request, response);
+    }
+
+    private boolean isOpen(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String open : OPEN_PATHS) {
+            if (pathMatcher.match(open, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(HttpServletResponse response, String message, String errorCode) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE,
+                "TOKEN_MISSING".equals(errorCode) ? "Bearer" : "Bearer error=\"invalid_token\"");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message, errorCode));
+    }
+}
@@ -0,0 +1,141 @@
+package com.manpower.config;
+
+import com.manpower.service.BoundedTtlCache;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process Hibernate second-level cache, one {@link BoundedTtlCache} per region.
+ *
+ * Entity, collection and query-result regions hold at most {@code second-level-cache.max-entries} entries
+ * each and drop them after {@code second-level-cache.ttl-seconds}. Writes made through Hibernate update or
+ * invalidate the affected entries straight away; the TTL bounds how long a change made elsewhere (another
+ * node, a manual SQL fix) can go unseen.
+ *
+ * The update-timestamps region is a plain map with neither bound: Hibernate treats a query result as current
+ * when it finds no timestamp for a table, so losing one would serve stale query results. It has one entry
+ * per table.
+ */
+public class BoundedCacheRegionFactory extends RegionFactoryTemplate {
+
+    private static final long serialVersionUID = 1L;
+    private static final int STRIPES = 16;
+
+    private int maxEntries;
+    private long ttlMillis;
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map configValues) {
+        maxEntries = intValue(configValues, "second-level-cache.max-entries", 5000);
+        ttlMillis = intValue(configValues, "second-level-cache.ttl-seconds", 300) * 1000L;
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        // Regions are released one by one through StorageAccess.release
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                   DomainDataRegionBuildingContext buildingContext) {
+        return new BoundedStorage(new BoundedTtlCache<>(regionConfig.getRegionName(), maxEntries, ttlMillis, STRIPES));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return new BoundedStorage(new BoundedTtlCache<>(regionName, maxEntries, ttlMillis, STRIPES));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return new TimestampsStorage();
+    }
+
+    private static int intValue(Map configValues, String key, int defaultValue) {
+        Object value = configValues.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value.toString().trim());
+    }
+
+    private static final class BoundedStorage implements DomainDataStorageAccess {
+        private final BoundedTtlCache<Object, Object> cache;
+
+        BoundedStorage(BoundedTtlCache<Object, Object> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return cache.getIfPresent(key) != null;
+        }
+
+        @Override
+        public void evictData() {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void release() {
+            cache.invalidateAll();
+        }
+    }
+
+    private static final class TimestampsStorage implements StorageAccess {
+        private final Map<Object, Object> timestamps = new ConcurrentHashMap<>();
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return timestamps.get(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            timestamps.put(key, value);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return timestamps.containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            timestamps.clear();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            timestamps.remove(key);
+        }
+
+        @Override
+        public void release() {
+            timestamps.clear();
+        }
+    }
+}
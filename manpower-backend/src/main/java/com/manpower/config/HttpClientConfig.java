@@ -0,0 +1,108 @@
+package com.manpower.config;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+// Outbound HTTP (PesaPal): a pooled keep-alive client with bounded connect, read and pool-wait times,
+// so a slow or unreachable PesaPal fails the request instead of pinning Tomcat threads indefinitely.
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${pesapal.api.base-url}")
+    private String pesapalApiBaseUrl;
+
+    @Value("${pesapal.http.max-total:100}")
+    private int maxTotal;
+
+    @Value("${pesapal.http.max-per-route:50}")
+    private int pesapalMaxPerRoute;
+
+    @Value("${pesapal.http.default-max-per-route:10}")
+    private int defaultMaxPerRoute;
+
+    @Value("${pesapal.http.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${pesapal.http.read-timeout-ms:15000}")
+    private int readTimeoutMs;
+
+    @Value("${pesapal.http.pool-timeout-ms:2000}")
+    private int poolTimeoutMs;
+
+    @Value("${pesapal.http.idle-evict-seconds:30}")
+    private long idleEvictSeconds;
+
+    @Value("${pesapal.http.connection-ttl-seconds:300}")
+    private long connectionTtlSeconds;
+
+    @Value("${pesapal.http.validate-after-inactivity-ms:2000}")
+    private int validateAfterInactivityMs;
+
+    @Bean
+    public PoolingHttpClientConnectionManager httpConnectionManager() {
+        // Connections are retired after the TTL so DNS changes on PesaPal's side are picked up
+        PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager(connectionTtlSeconds, TimeUnit.SECONDS);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(defaultMaxPerRoute);
+        connectionManager.setValidateAfterInactivity(validateAfterInactivityMs);
+        HttpRoute pesapalRoute = routeFor(pesapalApiBaseUrl);
+        if (pesapalRoute != null) {
+            connectionManager.setMaxPerRoute(pesapalRoute, pesapalMaxPerRoute);
+        }
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMs)
+                .setSocketTimeout(readTimeoutMs)
+                .setConnectionRequestTimeout(poolTimeoutMs) // Wait for a free pooled connection
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(httpConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEvictSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Defines the RestTemplate used by PesaPalServiceImpl and PesaPalTokenProvider to call the PesaPal API.
+     */
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    /**
+     * The pool route for a base URL, matching what the client plans for requests to it (no proxy).
+     * @return null if the URL is blank or has no host.
+     */
+    public static HttpRoute routeFor(String baseUrl) {
+        if (baseUrl == null || baseUrl.trim().isEmpty()) {
+            return null;
+        }
+        URI uri = URI.create(baseUrl.trim());
+        if (uri.getHost() == null) {
+            return null;
+        }
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase() : "http";
+        boolean secure = "https".equals(scheme);
+        int port = uri.getPort() > 0 ? uri.getPort() : (secure ? 443 : 80);
+        return new HttpRoute(new HttpHost(uri.getHost(), port, scheme), null, secure);
+    }
+}
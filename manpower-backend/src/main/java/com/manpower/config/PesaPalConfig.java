@@ -21,6 +21,10 @@ public class PesaPalConfig {
     @Value("${pesapal.callback.url}") // FIX: Corrected typo from 'pesapesal' to 'pesapal'
     private String pesapalCallbackUrl;
 
+    // ID PesaPal assigned when the IPN URL (/api/payments/ipn) was registered; sent with every order
+    @Value("${pesapal.ipn.notification-id:}")
+    private String pesapalIpnNotificationId;
+
     // Getters
     public String getPesapalApiBaseUrl() {
         return pesapalApiBaseUrl;
@@ -38,5 +42,9 @@ public class PesaPalConfig {
         return pesapalCallbackUrl;
     }
 
+    public String getPesapalIpnNotificationId() {
+        return pesapalIpnNotificationId;
+    }
+
     // You might also add setters if needed, but typically config values are read-only
 }
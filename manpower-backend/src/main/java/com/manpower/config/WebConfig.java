@@ -1,6 +1,8 @@
 package com.manpower.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
 import org.springframework.web.servlet.config.annotation.*;
 
 @Configuration
@@ -11,4 +13,18 @@ public class WebConfig implements WebMvcConfigurer {
             .addResourceHandler("/uploads/**")
             .addResourceLocations("file:uploads/");
     }
+
+    // Replaces Spring Boot's open-in-view registration (which backs off when this bean exists) so it can
+    // skip the notification streams: a Server-Sent Events request lives for minutes, and open-in-view
+    // would hold the JDBC connection it touched for that whole time.
+    @Bean
+    public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        return new OpenEntityManagerInViewInterceptor();
+    }
+
+    @Override
+    public void addInterceptors(@org.springframework.lang.NonNull InterceptorRegistry registry) {
+        registry.addWebRequestInterceptor(openEntityManagerInViewInterceptor())
+                .excludePathPatterns("/api/notifications/member/*/stream");
+    }
 }
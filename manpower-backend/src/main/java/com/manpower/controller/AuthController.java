@@ -1,18 +1,26 @@
 package com.manpower.controller;
 
+import com.manpower.dto.AccessPrincipal;
+import com.manpower.dto.ErrorResponse;
 import com.manpower.dto.LoginRequest;
 import com.manpower.dto.LoginResponse;
 import com.manpower.dto.ForgotPasswordRequest; // NEW: Import ForgotPasswordRequest DTO
 import com.manpower.entity.Member;
 import com.manpower.repository.MemberRepository;
+import com.manpower.service.AccessContext;
+import com.manpower.service.AccessTokenService;
+import com.manpower.service.LoginRateLimiter;
 import com.manpower.service.MemberService; // NEW: Import MemberService
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid; // For @Valid annotation on request bodies
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 
 @RestController
@@ -26,8 +34,19 @@ public class AuthController {
     @Autowired
     private MemberService memberService; // NEW: Autowire MemberService
 
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        long retryAfter = loginRateLimiter.checkLogin(httpRequest.getRemoteAddr(), request.getEmail());
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter, "Too many sign-in attempts. Please wait a moment and try again.");
+        }
+
         Optional<Member> memberOpt = memberRepository.findByEmail(request.getEmail());
 
         if (!memberOpt.isPresent()) {
@@ -36,10 +55,41 @@ public class AuthController {
 
         Member member = memberOpt.get();
 
-        if (!member.getPassword().equals(request.getPassword())) {
+        boolean passwordValid;
+        try {
+            passwordValid = memberService.checkPassword(member, request.getPassword());
+        } catch (RejectedExecutionException e) {
+            // Password hashing is at capacity: answer now rather than queue behind the CPU
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Too many sign-ins in progress. Please try again in a moment.");
+        }
+        if (!passwordValid) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid password");
         }
 
+        return ResponseEntity.ok(toLoginResponse(member));
+    }
+
+    /**
+     * Issues a fresh access token for the caller of a still-valid one. The member is re-read, so a changed
+     * role or group is picked up; clients call this shortly before expiresIn runs out.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh() {
+        AccessPrincipal caller = AccessContext.current();
+        if (caller == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ErrorResponse("Sign in to continue.", "TOKEN_MISSING"));
+        }
+        Optional<Member> memberOpt = memberRepository.findById(caller.getMemberId());
+        if (!memberOpt.isPresent()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ErrorResponse("Member no longer exists.", "TOKEN_INVALID"));
+        }
+        return ResponseEntity.ok(toLoginResponse(memberOpt.get()));
+    }
+
+    private LoginResponse toLoginResponse(Member member) {
         // --- NEW: Populate all fields in LoginResponse ---
         String groupId = null;
         if (member.getGroup() != null) { // Check if member is associated with a group
@@ -62,8 +112,9 @@ public class AuthController {
                 member.getCreatedOn(),
                 member.getModifiedOn()
         );
-
-        return ResponseEntity.ok(response);
+        response.setAccessToken(accessTokenService.issue(member));
+        response.setExpiresIn(accessTokenService.getTtlSeconds());
+        return response;
     }
 
     /**
@@ -75,7 +126,12 @@ public class AuthController {
      * @return ResponseEntity indicating success or failure.
      */
     @PostMapping("/forgot-password") // NEW: Endpoint for forgot password
-    public ResponseEntity<?> forgotPassword(@Valid @RequestBody ForgotPasswordRequest request) {
+    public ResponseEntity<?> forgotPassword(@Valid @RequestBody ForgotPasswordRequest request, HttpServletRequest httpRequest) {
+        // Each reset rewrites the password and sends an email, so it is throttled much harder than login
+        long retryAfter = loginRateLimiter.checkForgotPassword(httpRequest.getRemoteAddr(), request.getEmail());
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter, "Too many password reset requests. Please try again later.");
+        }
         try {
             String message = memberService.resetPassword(request.getEmail());
             return ResponseEntity.ok(message); // Return success message
@@ -88,4 +144,10 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to reset password. Please try again later.");
         }
     }
+
+    private ResponseEntity<?> tooManyAttempts(long retryAfterSeconds, String message) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(message);
+    }
 }
@@ -1,10 +1,13 @@
 package com.manpower.controller;
 
+import com.manpower.dto.ContributionCursor;
+import com.manpower.dto.ContributionPage;
 import com.manpower.entity.Contribution;
 import com.manpower.service.ContributionService;
 import com.manpower.dto.ErrorResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,9 +19,12 @@ import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/contributions")
-@CrossOrigin(origins = "*") // Allow frontend to connect from any origin
+@CrossOrigin(origins = "*", exposedHeaders = ContributionController.NEXT_CURSOR_HEADER) // Allow frontend to connect from any origin
 public class ContributionController {
 
+    // Continuation token for the next keyset page; absent on the last page.
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private ContributionService contributionService;
 
@@ -34,17 +40,32 @@ public class ContributionController {
         }
     }
 
+    // Listings are keyset-paginated: the body stays a JSON array (one page) and the token for
+    // the next page is returned in the X-Next-Cursor header. Pass it back as ?cursor=...
     @GetMapping
-    public ResponseEntity<List<Contribution>> getAllContributions() {
-        List<Contribution> contributions = contributionService.getAllContributions();
-        return new ResponseEntity<>(contributions, HttpStatus.OK);
+    public ResponseEntity<Object> getAllContributions(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false, defaultValue = "0") int limit) {
+        ContributionCursor after;
+        try {
+            after = ContributionCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+        return toResponse(contributionService.getContributions(after, limit));
     }
 
     @GetMapping("/member/{memberId}")
-    public ResponseEntity<Object> getContributionsByMemberId(@PathVariable String memberId) {
+    public ResponseEntity<Object> getContributionsByMemberId(@PathVariable String memberId,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false, defaultValue = "0") int limit) {
+        ContributionCursor after;
         try {
-            List<Contribution> contributions = contributionService.getContributionsByMemberId(memberId);
-            return new ResponseEntity<>(contributions, HttpStatus.OK);
+            after = ContributionCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return toResponse(contributionService.getContributionsByMemberId(memberId, after, limit));
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.NOT_FOUND);
         } catch (Exception e) {
@@ -53,10 +74,17 @@ public class ContributionController {
     }
 
     @GetMapping("/group/{groupId}")
-    public ResponseEntity<Object> getContributionsByGroupId(@PathVariable String groupId) {
+    public ResponseEntity<Object> getContributionsByGroupId(@PathVariable String groupId,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false, defaultValue = "0") int limit) {
+        ContributionCursor after;
         try {
-            List<Contribution> contributions = contributionService.getContributionsByGroupId(groupId);
-            return new ResponseEntity<>(contributions, HttpStatus.OK);
+            after = ContributionCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return toResponse(contributionService.getContributionsByGroupId(groupId, after, limit));
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.NOT_FOUND);
         } catch (Exception e) {
@@ -64,6 +92,14 @@ public class ContributionController {
         }
     }
 
+    private ResponseEntity<Object> toResponse(ContributionPage page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            headers.set(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return new ResponseEntity<>(page.getItems(), headers, HttpStatus.OK);
+    }
+
     // ✅ NEW: Get total contributions for a group
     @GetMapping("/group/{groupId}/total")
     public ResponseEntity<Object> getTotalContributionsByGroup(@PathVariable String groupId) {
@@ -106,4 +142,14 @@ public class ContributionController {
             return new ResponseEntity<>(new ErrorResponse("Failed to fetch contribution summary: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    // ✅ Batch summaries for the SuperAdmin dashboard: /summary/groups?groupIds=a,b,c (omit for all groups)
+    @GetMapping("/summary/groups")
+    public ResponseEntity<Object> getContributionSummaries(@RequestParam(required = false) List<String> groupIds) {
+        try {
+            return new ResponseEntity<>(contributionService.getContributionSummaries(groupIds), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ErrorResponse("Failed to fetch contribution summaries: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 }
@@ -1,7 +1,9 @@
 package com.manpower.controller;
 
+import com.manpower.dto.CacheStats;
 import com.manpower.entity.Group;
 import com.manpower.service.GroupService;
+import com.manpower.service.ReferenceDataCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,10 +16,12 @@ import java.util.Optional;
 public class GroupController {
 
     private final GroupService groupService;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
-    public GroupController(GroupService groupService) {
+    public GroupController(GroupService groupService, ReferenceDataCache referenceDataCache) {
         this.groupService = groupService;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @PostMapping
@@ -30,6 +34,14 @@ public class GroupController {
         return groupService.getAllGroups();
     }
 
+    /**
+     * Group and member reference cache: size, hit ratio, evictions and invalidations.
+     */
+    @GetMapping("/reference-cache")
+    public List<CacheStats> getReferenceCacheStats() {
+        return referenceDataCache.getStats();
+    }
+
     @GetMapping("/{id}")
     public Optional<Group> getGroupById(@PathVariable String id) {
         return groupService.getGroupById(id);
@@ -0,0 +1,42 @@
+package com.manpower.controller;
+
+import com.manpower.dto.ErrorResponse;
+import com.manpower.dto.LedgerVerificationReport;
+import com.manpower.service.GroupLedgerService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Maintenance endpoints for the materialised group_ledger_totals table.
+@RestController
+@RequestMapping("/api/ledger")
+@CrossOrigin(origins = "*")
+public class LedgerController {
+
+    @Autowired
+    private GroupLedgerService groupLedgerService;
+
+    @Operation(summary = "Compare ledger totals with the contributions table and report drift")
+    @GetMapping("/verify")
+    public ResponseEntity<Object> verify(@RequestParam(required = false) String groupId) {
+        try {
+            LedgerVerificationReport report = groupLedgerService.verify(groupId);
+            return new ResponseEntity<>(report, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ErrorResponse("Failed to verify ledger: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @Operation(summary = "Recompute ledger totals from the contributions table")
+    @PostMapping("/rebuild")
+    public ResponseEntity<Object> rebuild(@RequestParam(required = false) String groupId) {
+        try {
+            LedgerVerificationReport report = groupLedgerService.rebuild(groupId);
+            return new ResponseEntity<>(report, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ErrorResponse("Failed to rebuild ledger: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
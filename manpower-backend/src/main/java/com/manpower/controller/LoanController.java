@@ -1,12 +1,18 @@
 // ✅ LOAN CONTROLLER
 package com.manpower.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manpower.dto.ErrorResponse;
+import com.manpower.dto.LoanRef;
 import com.manpower.entity.Loan;
 import com.manpower.service.LoanService;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +27,9 @@ public class LoanController {
     @Autowired
     private LoanService loanService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Operation(summary = "Create a loan")
     @PostMapping
     public Loan create(@RequestBody Loan loan) {
@@ -42,6 +51,24 @@ public class LoanController {
         return loanService.getLoanById(id);
     }
 
+    /**
+     * Streams the loan's repayment schedule followed by the payments made on it.
+     * Only this loan's rows are read, one at a time, however many loans and payments there are.
+     */
+    @Operation(summary = "Get a loan's repayment schedule and payments")
+    @GetMapping("/{id}/schedule")
+    public ResponseEntity<StreamingResponseBody> getSchedule(@PathVariable String id) {
+        LoanRef loan = loanService.getLoanRef(id);
+        if (loan == null) {
+            // The body type must be StreamingResponseBody for Spring to stream it, so the error is streamed too
+            ErrorResponse error = new ErrorResponse("Loan with ID " + id + " not found.");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, error));
+        }
+        StreamingResponseBody body = out -> loanService.writeSchedule(loan, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @Operation(summary = "Update a loan")
     @PutMapping("/{id}")
     public Loan update(@PathVariable String id, @RequestBody Loan loan) {
@@ -57,11 +84,12 @@ public class LoanController {
 
     /**
      * Endpoint to process a payment for a specific loan.
-     * This is the new method you need.
+     * Clients that may retry send an Idempotency-Key header; a retry with the same key is not applied twice.
      */
     @Operation(summary = "Process a payment for a loan")
     @PostMapping("/{loanId}/pay")
-    public ResponseEntity<Loan> processPayment(@PathVariable String loanId, @RequestBody Map<String, Object> payload) {
+    public ResponseEntity<Loan> processPayment(@PathVariable String loanId, @RequestBody Map<String, Object> payload,
+                                               @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             if (!payload.containsKey("paymentAmount") || payload.get("paymentAmount") == null) {
                 return ResponseEntity.badRequest().body(null);
@@ -75,7 +103,7 @@ public class LoanController {
                 return ResponseEntity.badRequest().body(null);
             }
 
-            Loan updatedLoan = loanService.processPayment(loanId, paymentAmount);
+            Loan updatedLoan = loanService.processPayment(loanId, paymentAmount, idempotencyKey);
             return ResponseEntity.ok(updatedLoan);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(null);
@@ -3,7 +3,7 @@ package com.manpower.controller;
 import com.manpower.entity.Meeting;
 //import com.manpower.entity.Group;
 import com.manpower.service.MeetingService;
-import com.manpower.repository.GroupRepository;
+import com.manpower.service.ReferenceDataCache;
 import com.manpower.dto.ErrorResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,7 +23,7 @@ public class MeetingController {
     private MeetingService meetingService;
 
     @Autowired
-    private GroupRepository groupRepository;
+    private ReferenceDataCache referenceDataCache;
 
     @PostMapping
     public ResponseEntity<Object> createMeeting(@RequestBody Meeting meeting) {
@@ -60,7 +60,7 @@ public class MeetingController {
                 }
 
                 if (meeting.getGroup() == null || meeting.getGroup().getId() == null ||
-                    !groupRepository.existsById(meeting.getGroup().getId())) {
+                    !referenceDataCache.groupExists(meeting.getGroup().getId())) {
                     return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                             .body(new ErrorResponse("GroupAdmin must provide a valid group."));
                 }
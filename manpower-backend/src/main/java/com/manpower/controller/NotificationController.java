@@ -1,26 +1,43 @@
 package com.manpower.controller;
 
+import com.manpower.dto.ErrorResponse;
+import com.manpower.dto.NotificationCursor;
+import com.manpower.dto.NotificationJobProgress;
+import com.manpower.dto.NotificationPage;
 import com.manpower.entity.Notification;
+import com.manpower.entity.NotificationJob;
 import com.manpower.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content; // Import for Swagger @Content
 import io.swagger.v3.oas.annotations.media.Schema; // Import for Swagger @Schema
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus; // Import for HttpStatus
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity; // Import for ResponseEntity
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set; // Import for Set
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
-@CrossOrigin(origins = {"http://localhost:8081", "http://192.168.0.103:8081"})
+@CrossOrigin(origins = {"http://localhost:8081", "http://192.168.0.103:8081"},
+        exposedHeaders = {NotificationController.JOB_ID_HEADER, ContributionController.NEXT_CURSOR_HEADER,
+                HttpHeaders.LOCATION, HttpHeaders.RETRY_AFTER})
 @RestController
 @RequestMapping("/api/notifications")
 public class NotificationController {
 
+    static final String JOB_ID_HEADER = "X-Job-Id";
+    private static final int QUEUE_FULL_RETRY_AFTER_SECONDS = 5;
+
     @Autowired
     private NotificationService notificationService;
 
@@ -41,6 +58,75 @@ public class NotificationController {
         return notificationService.getAllNotifications();
     }
 
+    @Operation(summary = "Get a member's notifications, newest first",
+            description = "Keyset-paginated: the body is one page and the X-Next-Cursor header carries the token for the next page.")
+    @ApiResponse(responseCode = "200", description = "One page of the member's inbox")
+    @ApiResponse(responseCode = "400", description = "Malformed cursor")
+    @ApiResponse(responseCode = "404", description = "Member not found")
+    @GetMapping("/member/{memberId}")
+    public ResponseEntity<Object> getInbox(@PathVariable String memberId,
+                                           @RequestParam(required = false, defaultValue = "false") boolean unreadOnly,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false, defaultValue = "0") int limit) {
+        NotificationCursor after;
+        try {
+            after = NotificationCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+        NotificationPage page;
+        try {
+            page = notificationService.getInbox(memberId, unreadOnly, after, limit);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.NOT_FOUND);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            headers.set(ContributionController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return new ResponseEntity<>(page.getItems(), headers, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Stream a member's new notifications (Server-Sent Events)",
+            description = "Sends a \"notification\" event per new notification. Reconnect with the Last-Event-ID header "
+                    + "(or ?lastEventId=) to replay what was missed; a \"resync\" event means too much was missed and "
+                    + "the inbox should be reloaded.")
+    @ApiResponse(responseCode = "200", description = "Event stream")
+    @ApiResponse(responseCode = "400", description = "Malformed Last-Event-ID")
+    @ApiResponse(responseCode = "404", description = "Member not found")
+    @ApiResponse(responseCode = "503", description = "Too many open streams on this server")
+    @GetMapping(path = "/member/{memberId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@PathVariable String memberId,
+                                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                                             @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        NotificationCursor lastEventId;
+        try {
+            lastEventId = NotificationCursor.decode(lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        try {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                    .header("X-Accel-Buffering", "no") // Stop nginx-style proxies from buffering the stream
+                    .body(notificationService.subscribe(memberId, lastEventId));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get a member's unread notification count")
+    @ApiResponse(responseCode = "200", description = "Unread count for the member")
+    @GetMapping("/member/{memberId}/unread-count")
+    public Map<String, Object> getUnreadCount(@PathVariable String memberId) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("memberId", memberId);
+        body.put("unreadCount", notificationService.getUnreadCount(memberId));
+        return body;
+    }
+
     @Operation(summary = "Get notification by ID")
     @GetMapping("/{id}")
     public Optional<Notification> getById(@PathVariable String id) {
@@ -60,15 +146,39 @@ public class NotificationController {
         notificationService.deleteNotification(id);
     }
 
-    @Operation(summary = "Send notification to all members in a group")
-    @ApiResponse(responseCode = "200", description = "Notifications sent successfully")
+    @Operation(summary = "Send notification to all members in a group",
+            description = "Queues the broadcast and returns immediately; the Location header points at the job status.")
+    @ApiResponse(responseCode = "202", description = "Notification queued for delivery")
+    @ApiResponse(responseCode = "503", description = "Dispatch queue is full; retry after the Retry-After delay")
     @PostMapping("/send-to-group/{groupId}")
-    public String sendToGroupMembers(
+    public ResponseEntity<?> sendToGroupMembers(
             @PathVariable String groupId,
             @RequestBody Notification template
     ) {
-        notificationService.sendToGroupMembers(groupId, template);
-        return "Notifications sent to all group members successfully.";
+        try {
+            NotificationJob job = notificationService.sendToGroupMembers(groupId, template);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, "/api/notifications/jobs/" + job.getId())
+                    .header(JOB_ID_HEADER, job.getId())
+                    .body("Notification queued for " + job.getTotalRecipients()
+                            + " group members (job " + job.getId() + ").");
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(QUEUE_FULL_RETRY_AFTER_SECONDS))
+                    .body(new ErrorResponse(e.getMessage(), "NOTIFICATION_QUEUE_FULL"));
+        }
+    }
+
+    @Operation(summary = "Get the progress of a group notification broadcast")
+    @ApiResponse(responseCode = "200", description = "Job progress",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = NotificationJobProgress.class)))
+    @ApiResponse(responseCode = "404", description = "Job not found")
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<NotificationJobProgress> getJobProgress(@PathVariable String jobId) {
+        return notificationService.getJobProgress(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
     // --- NEW ENDPOINTS FOR MARKING AS READ ---
@@ -86,15 +196,39 @@ public class NotificationController {
     }
 
     @Operation(summary = "Mark multiple notifications as read")
-    @ApiResponse(responseCode = "200", description = "Notifications marked as read",
-            content = @Content(mediaType = "application/json",
-                    schema = @Schema(implementation = Notification.class)))
+    @ApiResponse(responseCode = "200", description = "Number of notifications that changed from unread to read")
     @PatchMapping("/mark-many-as-read")
-    public ResponseEntity<List<Notification>> markManyAsRead(@RequestBody Set<String> notificationIds) {
+    public ResponseEntity<Map<String, Object>> markManyAsRead(@RequestBody Set<String> notificationIds) {
         if (notificationIds == null || notificationIds.isEmpty()) {
             return ResponseEntity.badRequest().build(); // Return 400 Bad Request if no IDs are provided
         }
-        List<Notification> updatedNotifications = notificationService.markNotificationsAsRead(notificationIds);
-        return ResponseEntity.ok(updatedNotifications); // Returns 200 OK with the list of updated notifications
+        return ResponseEntity.ok(updatedBody(null, notificationService.markNotificationsAsRead(notificationIds)));
+    }
+
+    @Operation(summary = "Mark several of a member's notifications as read")
+    @ApiResponse(responseCode = "200", description = "Number of notifications that changed from unread to read")
+    @PatchMapping("/member/{memberId}/mark-many-as-read")
+    public ResponseEntity<Map<String, Object>> markManyAsReadForMember(@PathVariable String memberId,
+                                                                       @RequestBody Set<String> notificationIds) {
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(updatedBody(memberId, notificationService.markNotificationsAsRead(memberId, notificationIds)));
+    }
+
+    @Operation(summary = "Mark all of a member's notifications as read")
+    @ApiResponse(responseCode = "200", description = "Number of notifications that changed from unread to read")
+    @PatchMapping("/member/{memberId}/mark-all-read")
+    public ResponseEntity<Map<String, Object>> markAllAsRead(@PathVariable String memberId) {
+        return ResponseEntity.ok(updatedBody(memberId, notificationService.markAllAsRead(memberId)));
+    }
+
+    private static Map<String, Object> updatedBody(String memberId, int updated) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        if (memberId != null) {
+            body.put("memberId", memberId);
+        }
+        body.put("updated", updated);
+        return body;
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,24 @@
 package com.manpower.controller;
 
+import com.manpower.dto.CircuitBreakerStats;
+import com.manpower.dto.ErrorResponse;
+import com.manpower.dto.HttpPoolStats;
 import com.manpower.dto.PesaPalInitiateRequest;
 import com.manpower.dto.PesaPalInitiateResponse;
+import com.manpower.service.HttpConnectionMetrics;
+import com.manpower.service.PesaPalCircuitBreaker;
 import com.manpower.service.PesaPalService;
+import com.manpower.service.PesaPalStatusReconciler;
+import com.manpower.service.PesaPalUnavailableException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/payments")
 @CrossOrigin(origins = "*") // Allows frontend apps to connect (adjust if needed)
@@ -15,6 +27,15 @@ public class PaymentController {
     @Autowired
     private PesaPalService pesaPalService;
 
+    @Autowired
+    private HttpConnectionMetrics httpConnectionMetrics;
+
+    @Autowired
+    private PesaPalStatusReconciler pesaPalStatusReconciler;
+
+    @Autowired
+    private PesaPalCircuitBreaker pesaPalCircuitBreaker;
+
     /**
      * Initiates a PesaPal payment and returns a redirect URL + tracking ID.
      * Frontend should redirect user to this URL.
@@ -26,6 +47,11 @@ public class PaymentController {
             return ResponseEntity.ok(response); // 200 OK with redirect URL
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Invalid input: " + e.getMessage()); // 400
+        } catch (PesaPalUnavailableException e) {
+            // Failed fast without waiting on PesaPal; the app shows this message as-is
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                 .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                                 .body("Payments are temporarily unavailable. Please try again in a moment."); // 503
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                                  .body("Failed to initiate payment: " + e.getMessage()); // 500
@@ -46,4 +72,64 @@ public class PaymentController {
                                  .body("Failed to check payment status: " + e.getMessage());
         }
     }
+
+    /**
+     * PesaPal IPN (Instant Payment Notification), registered with PesaPal as a GET URL.
+     * The notification only says that an order changed; its status is looked up in the background,
+     * so PesaPal gets its acknowledgement straight away.
+     */
+    @GetMapping("/ipn")
+    public ResponseEntity<?> receiveIpn(@RequestParam(value = "OrderTrackingId", required = false) String orderTrackingId,
+                                        @RequestParam(value = "OrderMerchantReference", required = false) String merchantReference,
+                                        @RequestParam(value = "OrderNotificationType", required = false) String notificationType) {
+        return acknowledgeIpn(orderTrackingId, merchantReference, notificationType);
+    }
+
+    /**
+     * PesaPal IPN registered as a POST URL: the same fields arrive as a JSON body.
+     */
+    @PostMapping("/ipn")
+    public ResponseEntity<?> receiveIpn(@RequestBody Map<String, String> notification) {
+        return acknowledgeIpn(notification.get("OrderTrackingId"), notification.get("OrderMerchantReference"),
+                notification.get("OrderNotificationType"));
+    }
+
+    private ResponseEntity<?> acknowledgeIpn(String orderTrackingId, String merchantReference, String notificationType) {
+        if (orderTrackingId == null || orderTrackingId.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("OrderTrackingId is required.", "IPN_INVALID"));
+        }
+        // The response body is the acknowledgement format PesaPal expects; status 500 asks it to retry later
+        Map<String, Object> acknowledgement = new LinkedHashMap<>();
+        acknowledgement.put("orderNotificationType", notificationType);
+        acknowledgement.put("orderTrackingId", orderTrackingId);
+        acknowledgement.put("orderMerchantReference", merchantReference);
+        if (!pesaPalStatusReconciler.enqueue(orderTrackingId.trim())) {
+            acknowledgement.put("status", 500);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").body(acknowledgement);
+        }
+        acknowledgement.put("status", 200);
+        return ResponseEntity.ok(acknowledgement);
+    }
+
+    /**
+     * PesaPal circuit breaker state and payment bulkhead usage.
+     */
+    @GetMapping("/circuit")
+    public ResponseEntity<CircuitBreakerStats> getCircuitBreakerStats() {
+        return ResponseEntity.ok(pesaPalCircuitBreaker.getStats());
+    }
+
+    /**
+     * Outbound connection pool usage: overall and for the PesaPal route.
+     */
+    @GetMapping("/http-pool")
+    public ResponseEntity<List<HttpPoolStats>> getHttpPoolStats() {
+        List<HttpPoolStats> stats = new ArrayList<>();
+        stats.add(httpConnectionMetrics.getTotalStats());
+        HttpPoolStats pesapal = httpConnectionMetrics.getPesaPalStats();
+        if (pesapal != null) {
+            stats.add(pesapal);
+        }
+        return ResponseEntity.ok(stats);
+    }
 }
@@ -0,0 +1,35 @@
+package com.manpower.dto;
+
+import com.manpower.enums.MemberRole;
+
+// The caller named by a verified access token: who they are, their role and group, as signed at login.
+public final class AccessPrincipal {
+
+    private final String memberId;
+    private final MemberRole role;
+    private final String groupId;      // Null for members not in a group (e.g. a SuperAdmin)
+    private final String tenantId;
+    private final long expiresAt;      // Epoch seconds
+
+    public AccessPrincipal(String memberId, MemberRole role, String groupId, String tenantId, long expiresAt) {
+        this.memberId = memberId;
+        this.role = role;
+        this.groupId = groupId;
+        this.tenantId = tenantId;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getMemberId() { return memberId; }
+    public MemberRole getRole() { return role; }
+    public String getGroupId() { return groupId; }
+    public String getTenantId() { return tenantId; }
+    public long getExpiresAt() { return expiresAt; }
+
+    public boolean isMember(String id) {
+        return memberId.equals(id);
+    }
+
+    public boolean isInGroup(String id) {
+        return groupId != null && groupId.equals(id);
+    }
+}
@@ -0,0 +1,39 @@
+package com.manpower.dto;
+
+// Snapshot of one in-process cache.
+public class CacheStats {
+    private final String name;
+    private final int size;
+    private final int maxEntries;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+
+    public CacheStats(String name, int size, int maxEntries, long hits, long misses, long evictions,
+                      long expirations, long invalidations) {
+        this.name = name;
+        this.size = size;
+        this.maxEntries = maxEntries;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+    }
+
+    public String getName() { return name; }
+    public int getSize() { return size; }
+    public int getMaxEntries() { return maxEntries; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }                  // Lookups that went to the database
+    public long getEvictions() { return evictions; }            // Dropped to stay within maxEntries
+    public long getExpirations() { return expirations; }        // Dropped for being older than the TTL
+    public long getInvalidations() { return invalidations; }    // Dropped because the row changed
+
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,44 @@
+package com.manpower.dto;
+
+// Snapshot of the PesaPal circuit breaker and payment bulkhead.
+public class CircuitBreakerStats {
+    private final String state;
+    private final double failureRate;
+    private final int bufferedCalls;
+    private final int inFlight;
+    private final int maxConcurrent;
+    private final long successfulCalls;
+    private final long failedCalls;
+    private final long slowCalls;
+    private final long rejectedOpen;
+    private final long rejectedBulkhead;
+    private final long stateTransitions;
+
+    public CircuitBreakerStats(String state, double failureRate, int bufferedCalls, int inFlight, int maxConcurrent,
+                               long successfulCalls, long failedCalls, long slowCalls, long rejectedOpen,
+                               long rejectedBulkhead, long stateTransitions) {
+        this.state = state;
+        this.failureRate = failureRate;
+        this.bufferedCalls = bufferedCalls;
+        this.inFlight = inFlight;
+        this.maxConcurrent = maxConcurrent;
+        this.successfulCalls = successfulCalls;
+        this.failedCalls = failedCalls;
+        this.slowCalls = slowCalls;
+        this.rejectedOpen = rejectedOpen;
+        this.rejectedBulkhead = rejectedBulkhead;
+        this.stateTransitions = stateTransitions;
+    }
+
+    public String getState() { return state; }                   // CLOSED, OPEN or HALF_OPEN
+    public double getFailureRate() { return failureRate; }       // Percentage of failed or slow calls in the window
+    public int getBufferedCalls() { return bufferedCalls; }      // Outcomes currently in the sliding window
+    public int getInFlight() { return inFlight; }                // PesaPal calls holding a bulkhead permit
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public long getSuccessfulCalls() { return successfulCalls; }
+    public long getFailedCalls() { return failedCalls; }         // Errors, and slow calls (also counted below)
+    public long getSlowCalls() { return slowCalls; }
+    public long getRejectedOpen() { return rejectedOpen; }       // Failed fast while the circuit was open
+    public long getRejectedBulkhead() { return rejectedBulkhead; }
+    public long getStateTransitions() { return stateTransitions; }
+}
@@ -0,0 +1,18 @@
+package com.manpower.dto;
+
+import com.manpower.enums.TransactionStatus;
+import com.manpower.enums.TransactionType;
+
+import java.math.BigDecimal;
+
+// Projection for one row of the grouped contribution aggregate query
+// (one row per group / transaction type / status combination).
+public interface ContributionAggregate {
+    String getGroupId();
+    TransactionType getTransactionType();
+    TransactionStatus getStatus();
+    Long getCount();
+    BigDecimal getTotal();
+    BigDecimal getMinAmount();
+    BigDecimal getMaxAmount();
+}
@@ -0,0 +1,66 @@
+package com.manpower.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque keyset cursor for contribution listings.
+// Encodes the (transactionDate, id) of the last row of a page so the next page
+// can continue with "WHERE (transactionDate, id) < (cursor)" instead of an OFFSET scan.
+public final class ContributionCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDate transactionDate;
+    private final String id;
+
+    public ContributionCursor(LocalDate transactionDate, String id) {
+        this.transactionDate = transactionDate;
+        this.id = id;
+    }
+
+    public LocalDate getTransactionDate() {
+        return transactionDate;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Encodes this cursor as a URL-safe token that clients pass back unchanged.
+     */
+    public String encode() {
+        String raw = transactionDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token The continuation token sent by the client (may be null or blank for the first page).
+     * @return The decoded cursor, or null if no token was supplied.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static ContributionCursor decode(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid contribution cursor.", e);
+        }
+        int split = raw.indexOf(SEPARATOR);
+        if (split <= 0 || split == raw.length() - 1) {
+            throw new IllegalArgumentException("Invalid contribution cursor.");
+        }
+        try {
+            return new ContributionCursor(LocalDate.parse(raw.substring(0, split)), raw.substring(split + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid contribution cursor.", e);
+        }
+    }
+}
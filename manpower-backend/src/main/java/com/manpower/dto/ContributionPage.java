@@ -0,0 +1,28 @@
+package com.manpower.dto;
+
+import com.manpower.entity.Contribution;
+
+import java.util.List;
+
+// One keyset page of contributions plus the token for the following page (null on the last page).
+public class ContributionPage {
+    private final List<Contribution> items;
+    private final String nextCursor;
+
+    public ContributionPage(List<Contribution> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Contribution> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
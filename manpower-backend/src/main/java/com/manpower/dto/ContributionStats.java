@@ -0,0 +1,50 @@
+package com.manpower.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Count / sum / min / max / average of contribution amounts for one bucket of a summary.
+// Built by merging ContributionAggregate rows, so the amounts stay exact BigDecimals.
+public class ContributionStats {
+    private long count;
+    private BigDecimal total = BigDecimal.ZERO;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+
+    public void add(ContributionAggregate row) {
+        count += row.getCount() != null ? row.getCount() : 0L;
+        if (row.getTotal() != null) {
+            total = total.add(row.getTotal());
+        }
+        if (row.getMinAmount() != null && (minAmount == null || row.getMinAmount().compareTo(minAmount) < 0)) {
+            minAmount = row.getMinAmount();
+        }
+        if (row.getMaxAmount() != null && (maxAmount == null || row.getMaxAmount().compareTo(maxAmount) > 0)) {
+            maxAmount = row.getMaxAmount();
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    // Average is derived from the exact sum rather than SQL AVG(), which Hibernate returns as a Double.
+    public BigDecimal getAverage() {
+        if (count == 0) {
+            return null;
+        }
+        return total.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,22 @@
+package com.manpower.dto;
+
+// The few fields of a group that write paths check on every request, cached by ReferenceDataCache.
+public final class GroupRef {
+    private final String id;
+    private final String status;      // Active or Terminated
+    private final String createdBy;
+
+    public GroupRef(String id, String status, String createdBy) {
+        this.id = id;
+        this.status = status;
+        this.createdBy = createdBy;
+    }
+
+    public String getId() { return id; }
+    public String getStatus() { return status; }
+    public String getCreatedBy() { return createdBy; }
+
+    public boolean isTerminated() {
+        return "Terminated".equalsIgnoreCase(status);
+    }
+}
@@ -0,0 +1,26 @@
+package com.manpower.dto;
+
+import org.apache.http.pool.PoolStats;
+
+// Snapshot of the outbound HTTP connection pool, overall or for one route (e.g. PesaPal).
+public class HttpPoolStats {
+    private final String route;
+    private final int leased;
+    private final int available;
+    private final int pending;
+    private final int max;
+
+    public HttpPoolStats(String route, PoolStats stats) {
+        this.route = route;
+        this.leased = stats.getLeased();
+        this.available = stats.getAvailable();
+        this.pending = stats.getPending();
+        this.max = stats.getMax();
+    }
+
+    public String getRoute() { return route; }
+    public int getLeased() { return leased; }          // Connections currently serving a request
+    public int getAvailable() { return available; }    // Idle keep-alive connections ready for reuse
+    public int getPending() { return pending; }        // Requests waiting for a connection
+    public int getMax() { return max; }
+}
@@ -0,0 +1,15 @@
+package com.manpower.dto;
+
+import com.manpower.enums.TransactionType;
+
+import java.math.BigDecimal;
+
+// Projection for completed contributions summed per (group, member, transaction type),
+// i.e. what a group_ledger_totals row should contain.
+public interface LedgerAggregate {
+    String getGroupId();
+    String getMemberId();
+    TransactionType getTransactionType();
+    Long getCount();
+    BigDecimal getTotal();
+}
@@ -0,0 +1,35 @@
+package com.manpower.dto;
+
+import com.manpower.enums.TransactionType;
+
+import java.math.BigDecimal;
+
+// One ledger row whose stored running total disagrees with the contributions table.
+public class LedgerDrift {
+    private final String groupId;
+    private final String memberId;
+    private final TransactionType transactionType;
+    private final BigDecimal expectedTotal;
+    private final BigDecimal actualTotal;
+    private final long expectedCount;
+    private final long actualCount;
+
+    public LedgerDrift(String groupId, String memberId, TransactionType transactionType,
+                       BigDecimal expectedTotal, BigDecimal actualTotal, long expectedCount, long actualCount) {
+        this.groupId = groupId;
+        this.memberId = memberId;
+        this.transactionType = transactionType;
+        this.expectedTotal = expectedTotal;
+        this.actualTotal = actualTotal;
+        this.expectedCount = expectedCount;
+        this.actualCount = actualCount;
+    }
+
+    public String getGroupId() { return groupId; }
+    public String getMemberId() { return memberId; }
+    public TransactionType getTransactionType() { return transactionType; }
+    public BigDecimal getExpectedTotal() { return expectedTotal; }
+    public BigDecimal getActualTotal() { return actualTotal; }
+    public long getExpectedCount() { return expectedCount; }
+    public long getActualCount() { return actualCount; }
+}
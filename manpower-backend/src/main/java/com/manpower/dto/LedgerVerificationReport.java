@@ -0,0 +1,30 @@
+package com.manpower.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Result of comparing group_ledger_totals against the contributions table (and optionally rebuilding it).
+public class LedgerVerificationReport {
+    private final String groupId; // null when the whole ledger was checked
+    private final int rowsChecked;
+    private final List<LedgerDrift> drift;
+    private final boolean rebuilt;
+    private final LocalDateTime checkedOn = LocalDateTime.now();
+
+    public LedgerVerificationReport(String groupId, int rowsChecked, List<LedgerDrift> drift, boolean rebuilt) {
+        this.groupId = groupId;
+        this.rowsChecked = rowsChecked;
+        this.drift = drift;
+        this.rebuilt = rebuilt;
+    }
+
+    public String getGroupId() { return groupId; }
+    public int getRowsChecked() { return rowsChecked; }
+    public List<LedgerDrift> getDrift() { return drift; }
+    public boolean isRebuilt() { return rebuilt; }
+    public LocalDateTime getCheckedOn() { return checkedOn; }
+
+    public boolean isConsistent() {
+        return drift.isEmpty();
+    }
+}
@@ -0,0 +1,35 @@
+package com.manpower.dto;
+
+import com.manpower.enums.RepaymentMethod;
+
+import java.math.BigDecimal;
+
+// The loan fields that head its repayment schedule, read without the member, group and approver rows.
+public final class LoanRef {
+    private final String id;
+    private final RepaymentMethod repaymentMethod;
+    private final BigDecimal amount;
+    private final BigDecimal calculatedInterest;
+    private final BigDecimal totalPaid;
+    private final BigDecimal outstandingBalance;
+    private final String status;
+
+    public LoanRef(String id, RepaymentMethod repaymentMethod, BigDecimal amount, BigDecimal calculatedInterest,
+                   BigDecimal totalPaid, BigDecimal outstandingBalance, String status) {
+        this.id = id;
+        this.repaymentMethod = repaymentMethod != null ? repaymentMethod : RepaymentMethod.Flat;
+        this.amount = amount;
+        this.calculatedInterest = calculatedInterest;
+        this.totalPaid = totalPaid;
+        this.outstandingBalance = outstandingBalance;
+        this.status = status;
+    }
+
+    public String getId() { return id; }
+    public RepaymentMethod getRepaymentMethod() { return repaymentMethod; }
+    public BigDecimal getAmount() { return amount; }
+    public BigDecimal getCalculatedInterest() { return calculatedInterest; }
+    public BigDecimal getTotalPaid() { return totalPaid; }
+    public BigDecimal getOutstandingBalance() { return outstandingBalance; }
+    public String getStatus() { return status; }
+}
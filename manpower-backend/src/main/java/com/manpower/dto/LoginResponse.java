@@ -19,6 +19,8 @@ public class LoginResponse {
     private String modifiedBy;     // NEW: Modified By
     private String createdOn;      // NEW: Created On (as String)
     private String modifiedOn;     // NEW: Modified On (as String)
+    private String accessToken;    // Signed token to send as "Authorization: Bearer ..."
+    private long expiresIn;        // Seconds until accessToken expires
 
     // Default constructor
     public LoginResponse() {
@@ -62,6 +64,8 @@ public class LoginResponse {
     public String getModifiedBy() { return modifiedBy; } // NEW
     public String getCreatedOn() { return createdOn; } // NEW
     public String getModifiedOn() { return modifiedOn; } // NEW
+    public String getAccessToken() { return accessToken; }
+    public long getExpiresIn() { return expiresIn; }
 
     // --- Setters ---
     public void setId(String id) { this.id = id; }
@@ -79,4 +83,6 @@ public class LoginResponse {
     public void setModifiedBy(String modifiedBy) { this.modifiedBy = modifiedBy; } // NEW
     public void setCreatedOn(LocalDateTime createdOn) { this.createdOn = (createdOn != null) ? createdOn.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null; } // NEW
     public void setModifiedOn(LocalDateTime modifiedOn) { this.modifiedOn = (modifiedOn != null) ? modifiedOn.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null; } // NEW
+    public void setAccessToken(String accessToken) { this.accessToken = accessToken; }
+    public void setExpiresIn(long expiresIn) { this.expiresIn = expiresIn; }
 }
@@ -0,0 +1,29 @@
+package com.manpower.dto;
+
+import com.manpower.enums.MemberRole;
+
+// The few fields of a member that write paths check on every request, cached by ReferenceDataCache.
+public final class MemberRef {
+    private final String id;
+    private final MemberRole role;
+    private final String groupId;     // Null for members not in a group
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+
+    public MemberRef(String id, MemberRole role, String groupId, String email, String firstName, String lastName) {
+        this.id = id;
+        this.role = role;
+        this.groupId = groupId;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    public String getId() { return id; }
+    public MemberRole getRole() { return role; }
+    public String getGroupId() { return groupId; }
+    public String getEmail() { return email; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+}
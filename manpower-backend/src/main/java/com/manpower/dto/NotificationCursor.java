@@ -0,0 +1,64 @@
+package com.manpower.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+// Opaque keyset cursor for a member's notification inbox.
+// Encodes the (createdOn, id) of the last row of a page; createdOn travels as epoch milliseconds.
+public final class NotificationCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final Date createdOn;
+    private final String id;
+
+    public NotificationCursor(Date createdOn, String id) {
+        this.createdOn = createdOn;
+        this.id = id;
+    }
+
+    public Date getCreatedOn() {
+        return createdOn;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Encodes this cursor as a URL-safe token that clients pass back unchanged.
+     */
+    public String encode() {
+        String raw = createdOn.getTime() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token The continuation token sent by the client (may be null or blank for the first page).
+     * @return The decoded cursor, or null if no token was supplied.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static NotificationCursor decode(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid notification cursor.", e);
+        }
+        int split = raw.indexOf(SEPARATOR);
+        if (split <= 0 || split == raw.length() - 1) {
+            throw new IllegalArgumentException("Invalid notification cursor.");
+        }
+        try {
+            return new NotificationCursor(new Date(Long.parseLong(raw.substring(0, split))), raw.substring(split + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid notification cursor.", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.manpower.dto;
+
+import com.manpower.entity.Notification;
+
+import java.util.Date;
+
+// Payload pushed to a member's notification stream. Flat (member ID only) so group fan-out can
+// publish it straight from the JDBC batch without loading Member entities.
+public class NotificationEvent {
+    private final String id;
+    private final String memberId;
+    private final String type;
+    private final String messageContent;
+    private final String channel;
+    private final Date sendDate;
+    private final Date createdOn;
+    private final boolean read;
+
+    public NotificationEvent(String id, String memberId, String type, String messageContent, String channel,
+                             Date sendDate, Date createdOn, boolean read) {
+        this.id = id;
+        this.memberId = memberId;
+        this.type = type;
+        this.messageContent = messageContent;
+        this.channel = channel;
+        this.sendDate = sendDate;
+        this.createdOn = createdOn;
+        this.read = read;
+    }
+
+    public static NotificationEvent from(Notification notification) {
+        return new NotificationEvent(notification.getId(), notification.getMember().getId(), notification.getType(),
+                notification.getMessageContent(), notification.getChannel(), notification.getSendDate(),
+                notification.getCreatedOn(), notification.isRead());
+    }
+
+    /**
+     * The SSE event ID: the inbox keyset position of this notification, so a reconnecting client's
+     * Last-Event-ID can be decoded with {@link NotificationCursor#decode(String)}.
+     */
+    public String eventId() {
+        return new NotificationCursor(createdOn, id).encode();
+    }
+
+    public String getId() { return id; }
+    public String getMemberId() { return memberId; }
+    public String getType() { return type; }
+    public String getMessageContent() { return messageContent; }
+    public String getChannel() { return channel; }
+    public Date getSendDate() { return sendDate; }
+    public Date getCreatedOn() { return createdOn; }
+    public boolean isRead() { return read; }
+}
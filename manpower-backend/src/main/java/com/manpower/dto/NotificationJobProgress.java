@@ -0,0 +1,62 @@
+package com.manpower.dto;
+
+import com.manpower.entity.NotificationJob;
+import com.manpower.enums.NotificationJobStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Status view of a group notification broadcast: progress, throughput and the dispatcher backlog.
+public class NotificationJobProgress {
+    private final String jobId;
+    private final String groupId;
+    private final NotificationJobStatus status;
+    private final long totalRecipients;
+    private final long sentCount;
+    private final double percentComplete;
+    private final double notificationsPerSecond;
+    private final String error;
+    private final LocalDateTime createdOn;
+    private final LocalDateTime startedOn;
+    private final LocalDateTime completedOn;
+    private final int queueDepth;
+
+    public NotificationJobProgress(NotificationJob job, int queueDepth) {
+        this.jobId = job.getId();
+        this.groupId = job.getGroupId();
+        this.status = job.getStatus();
+        this.totalRecipients = job.getTotalRecipients();
+        this.sentCount = job.getSentCount();
+        this.percentComplete = job.getTotalRecipients() == 0
+                ? (job.getStatus() == NotificationJobStatus.Completed ? 100.0 : 0.0)
+                : Math.min(100.0, job.getSentCount() * 100.0 / job.getTotalRecipients());
+        this.notificationsPerSecond = throughput(job);
+        this.error = job.getError();
+        this.createdOn = job.getCreatedOn();
+        this.startedOn = job.getStartedOn();
+        this.completedOn = job.getCompletedOn();
+        this.queueDepth = queueDepth;
+    }
+
+    private static double throughput(NotificationJob job) {
+        if (job.getStartedOn() == null || job.getSentCount() == 0) {
+            return 0.0;
+        }
+        LocalDateTime end = job.getCompletedOn() != null ? job.getCompletedOn() : LocalDateTime.now();
+        long millis = Math.max(1L, Duration.between(job.getStartedOn(), end).toMillis());
+        return job.getSentCount() * 1000.0 / millis;
+    }
+
+    public String getJobId() { return jobId; }
+    public String getGroupId() { return groupId; }
+    public NotificationJobStatus getStatus() { return status; }
+    public long getTotalRecipients() { return totalRecipients; }
+    public long getSentCount() { return sentCount; }
+    public double getPercentComplete() { return percentComplete; }
+    public double getNotificationsPerSecond() { return notificationsPerSecond; }
+    public String getError() { return error; }
+    public LocalDateTime getCreatedOn() { return createdOn; }
+    public LocalDateTime getStartedOn() { return startedOn; }
+    public LocalDateTime getCompletedOn() { return completedOn; }
+    public int getQueueDepth() { return queueDepth; }
+}
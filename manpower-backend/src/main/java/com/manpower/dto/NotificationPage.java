@@ -0,0 +1,28 @@
+package com.manpower.dto;
+
+import com.manpower.entity.Notification;
+
+import java.util.List;
+
+// One keyset page of a member's notifications plus the token for the following page (null on the last page).
+public class NotificationPage {
+    private final List<Notification> items;
+    private final String nextCursor;
+
+    public NotificationPage(List<Notification> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Notification> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
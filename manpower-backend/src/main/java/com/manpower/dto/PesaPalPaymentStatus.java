@@ -0,0 +1,20 @@
+package com.manpower.dto;
+
+import com.manpower.enums.TransactionStatus;
+
+// Result of a PesaPal GetTransactionStatus lookup for one order.
+public class PesaPalPaymentStatus {
+    private final String orderTrackingId;
+    private final String description;        // As reported by PesaPal, e.g. "Completed", "Failed", "Pending"
+    private final TransactionStatus status;  // Null while the payment is still in progress or the status is unknown
+
+    public PesaPalPaymentStatus(String orderTrackingId, String description, TransactionStatus status) {
+        this.orderTrackingId = orderTrackingId;
+        this.description = description;
+        this.status = status;
+    }
+
+    public String getOrderTrackingId() { return orderTrackingId; }
+    public String getDescription() { return description; }
+    public TransactionStatus getStatus() { return status; }
+}
@@ -0,0 +1,55 @@
+package com.manpower.entity;
+
+import com.manpower.enums.CachedEntity;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// One change to a cached group, member or loan, written by the node that made it and read by every other
+// node's DbPolledInvalidationTransport, which drops the entity from its own caches. Rows are only needed
+// for as long as a node might still be catching up, and are purged after cache.invalidation.retention-seconds.
+@Entity
+@Table(name = "cache_invalidations", indexes = {
+        @Index(name = "idx_cache_invalidations_created_on", columnList = "created_on")
+})
+public class CacheInvalidationEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Increasing, so each node reads on from the last event it saw
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private CachedEntity entityType;
+
+    @Column(name = "entity_id", nullable = false, length = 40)
+    private String entityId;
+
+    // The writing node, which has already updated its own caches and skips the event
+    @Column(name = "origin_node", nullable = false, length = 40)
+    private String originNode;
+
+    @Column(name = "created_on", nullable = false, updatable = false)
+    private LocalDateTime createdOn = LocalDateTime.now();
+
+    protected CacheInvalidationEvent() {
+        // For JPA
+    }
+
+    public CacheInvalidationEvent(CachedEntity entityType, String entityId, String originNode) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.originNode = originNode;
+    }
+
+    public Long getId() { return id; }
+    public CachedEntity getEntityType() { return entityType; }
+    public String getEntityId() { return entityId; }
+    public String getOriginNode() { return originNode; }
+    public LocalDateTime getCreatedOn() { return createdOn; }
+}
@@ -16,7 +16,14 @@ import java.time.LocalDate;     // Use modern Java Date/Time API
 import java.time.LocalDateTime; // Use modern Java Date/Time API
 
 @Entity
-@Table(name = "contributions")
+@Table(name = "contributions", indexes = {
+        // Both indexes end in (transactionDate, id) so the keyset pages are read straight off the index in order
+        @Index(name = "idx_contributions_group_date", columnList = "group_id, transactionDate, id"),
+        @Index(name = "idx_contributions_member_date", columnList = "member_id, transactionDate, id")
+}, uniqueConstraints = {
+        // PesaPal status lookups (IPN, reconciler, client polls) are point queries on this
+        @UniqueConstraint(name = "uk_contributions_pesapal_tracking_id", columnNames = "pesapal_tracking_id")
+})
 public class Contribution implements Serializable {
 
     @Id
@@ -61,6 +68,10 @@ public class Contribution implements Serializable {
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
+    // PesaPal's order tracking ID; null for other payment methods and until PesaPal accepts the order
+    @Column(name = "pesapal_tracking_id", length = 64)
+    private String pesapalTrackingId;
+
     @NotBlank(message = "Created by cannot be empty")
     @Column(name = "created_by", length = 40)
     private String createdBy;
@@ -129,6 +140,9 @@ public class Contribution implements Serializable {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
+    public String getPesapalTrackingId() { return pesapalTrackingId; }
+    public void setPesapalTrackingId(String pesapalTrackingId) { this.pesapalTrackingId = pesapalTrackingId; }
+
     public String getCreatedBy() { return createdBy; }
     public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
 
@@ -1,5 +1,8 @@
 package com.manpower.entity;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -16,7 +19,11 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // ✅ Added to fix serialization error
 @Entity
-@Table(name = "group_info")
+@Cacheable // Read far more than written: kept in the second-level cache (see BoundedCacheRegionFactory)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "group_info", indexes = {
+        @Index(name = "idx_group_info_created_by", columnList = "created_by")
+})
 public class Group implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -56,7 +63,12 @@ public class Group implements Serializable {
     @Column(name = "status", length = 20)
     private String status = "Active";
 
+    // Loaded through the "members" entity graph on GroupRepository where the endpoint returns it.
+    // Anywhere else (e.g. a group embedded in a contribution) member sets are fetched in batches, not one query per group.
+    // Cached as member IDs; saving or deleting a member evicts it (hibernate.cache.auto_evict_collection_cache)
     @OneToMany(mappedBy = "group", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonManagedReference
     private Set<Member> members = new HashSet<>();
 
@@ -0,0 +1,95 @@
+package com.manpower.entity;
+
+import com.manpower.enums.TransactionType;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Running total of completed contributions for one (group, member, transaction type).
+// Maintained incrementally by GroupLedgerService whenever a contribution is created, changed,
+// deleted or its payment status moves in or out of Completed, so dashboard totals never
+// have to SUM over the contributions table.
+@Entity
+@Table(name = "group_ledger_totals")
+@IdClass(GroupLedgerTotal.Key.class)
+public class GroupLedgerTotal implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "group_id", nullable = false, length = 40)
+    private String groupId;
+
+    @Id
+    @Column(name = "member_id", nullable = false, length = 40)
+    private String memberId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false, length = 20)
+    private TransactionType transactionType;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "contribution_count", nullable = false)
+    private long contributionCount;
+
+    @Column(name = "modified_on")
+    private LocalDateTime modifiedOn;
+
+    // --- Getters and Setters ---
+    public String getGroupId() { return groupId; }
+    public void setGroupId(String groupId) { this.groupId = groupId; }
+
+    public String getMemberId() { return memberId; }
+    public void setMemberId(String memberId) { this.memberId = memberId; }
+
+    public TransactionType getTransactionType() { return transactionType; }
+    public void setTransactionType(TransactionType transactionType) { this.transactionType = transactionType; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public long getContributionCount() { return contributionCount; }
+    public void setContributionCount(long contributionCount) { this.contributionCount = contributionCount; }
+
+    public LocalDateTime getModifiedOn() { return modifiedOn; }
+    public void setModifiedOn(LocalDateTime modifiedOn) { this.modifiedOn = modifiedOn; }
+
+    // Composite primary key (group_id, member_id, transaction_type)
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String groupId;
+        private String memberId;
+        private TransactionType transactionType;
+
+        public Key() {
+        }
+
+        public Key(String groupId, String memberId, TransactionType transactionType) {
+            this.groupId = groupId;
+            this.memberId = memberId;
+            this.transactionType = transactionType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(groupId, key.groupId)
+                    && Objects.equals(memberId, key.memberId)
+                    && transactionType == key.transactionType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(groupId, memberId, transactionType);
+        }
+    }
+}
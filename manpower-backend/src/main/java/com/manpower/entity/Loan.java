@@ -1,12 +1,22 @@
 package com.manpower.entity;
 
+import com.manpower.enums.RepaymentMethod;
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.Date;
 
+// totalPaid and outstandingBalance are the running sums of the loan's payments: they are written when the loan
+// is created and from then on only by LoanRepository's update statements, never by saving the entity, so a
+// save cannot put back a balance it read before a concurrent payment moved it. Updates also write only the
+// changed columns.
 @Entity
-@Table(name = "loans")
+@DynamicUpdate
+@Table(name = "loans", indexes = {
+        @Index(name = "idx_loans_group_status", columnList = "group_id, status")
+})
 public class Loan implements Serializable {
 
     @Id
@@ -31,6 +41,11 @@ public class Loan implements Serializable {
     @Column(name = "calculated_interest")
     private BigDecimal calculatedInterest;
 
+    // How the schedule in loan_installments is worked out; null on loans created before it existed means Flat
+    @Enumerated(EnumType.STRING)
+    @Column(name = "repayment_method", length = 20)
+    private RepaymentMethod repaymentMethod = RepaymentMethod.Flat;
+
     @Column(name = "startDate")
     @Temporal(TemporalType.DATE)
     private Date startDate;
@@ -42,11 +57,11 @@ public class Loan implements Serializable {
     @Column(name = "status", length = 50)
     private String status;
 
-    @Column(name = "outstandingBalance")
+    @Column(name = "outstandingBalance", updatable = false)
     private BigDecimal outstandingBalance;
 
     // New field to track the total amount paid
-    @Column(name = "total_paid")
+    @Column(name = "total_paid", updatable = false)
     private BigDecimal totalPaid = BigDecimal.ZERO;
 
     @ManyToOne
@@ -124,6 +139,14 @@ public class Loan implements Serializable {
         this.calculatedInterest = calculatedInterest;
     }
 
+    public RepaymentMethod getRepaymentMethod() {
+        return repaymentMethod;
+    }
+
+    public void setRepaymentMethod(RepaymentMethod repaymentMethod) {
+        this.repaymentMethod = repaymentMethod;
+    }
+
     public Date getStartDate() {
         return startDate;
     }
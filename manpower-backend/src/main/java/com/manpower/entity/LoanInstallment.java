@@ -0,0 +1,94 @@
+package com.manpower.entity;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// One installment of a loan's repayment schedule, as generated by AmortizationScheduleGenerator when the loan
+// is saved. Written and read in bulk by LoanScheduleRepository; the schedule is replaced as a whole whenever
+// the loan's terms are saved again.
+@Entity
+@Table(name = "loan_installments")
+@IdClass(LoanInstallment.Key.class)
+public class LoanInstallment implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "loan_id", nullable = false, length = 40)
+    private String loanId;
+
+    // 1 for the first installment
+    @Id
+    @Column(name = "installment_number", nullable = false)
+    private int installmentNumber;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    @Column(name = "principal_due", nullable = false, precision = 14, scale = 2)
+    private BigDecimal principalDue;
+
+    @Column(name = "interest_due", nullable = false, precision = 14, scale = 2)
+    private BigDecimal interestDue;
+
+    @Column(name = "total_due", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalDue;
+
+    // Principal still owed once this installment is paid
+    @Column(name = "balance_after", nullable = false, precision = 14, scale = 2)
+    private BigDecimal balanceAfter;
+
+    // --- Getters and Setters ---
+    public String getLoanId() { return loanId; }
+    public void setLoanId(String loanId) { this.loanId = loanId; }
+
+    public int getInstallmentNumber() { return installmentNumber; }
+    public void setInstallmentNumber(int installmentNumber) { this.installmentNumber = installmentNumber; }
+
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+
+    public BigDecimal getPrincipalDue() { return principalDue; }
+    public void setPrincipalDue(BigDecimal principalDue) { this.principalDue = principalDue; }
+
+    public BigDecimal getInterestDue() { return interestDue; }
+    public void setInterestDue(BigDecimal interestDue) { this.interestDue = interestDue; }
+
+    public BigDecimal getTotalDue() { return totalDue; }
+    public void setTotalDue(BigDecimal totalDue) { this.totalDue = totalDue; }
+
+    public BigDecimal getBalanceAfter() { return balanceAfter; }
+    public void setBalanceAfter(BigDecimal balanceAfter) { this.balanceAfter = balanceAfter; }
+
+    // Composite primary key (loan_id, installment_number)
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String loanId;
+        private int installmentNumber;
+
+        public Key() {
+        }
+
+        public Key(String loanId, int installmentNumber) {
+            this.loanId = loanId;
+            this.installmentNumber = installmentNumber;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(loanId, key.loanId) && installmentNumber == key.installmentNumber;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(loanId, installmentNumber);
+        }
+    }
+}
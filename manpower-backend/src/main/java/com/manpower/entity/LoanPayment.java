@@ -0,0 +1,52 @@
+package com.manpower.entity;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One payment applied to a loan. The loan's totalPaid and outstandingBalance are the running sums of these
+// rows; a payment and its effect on the loan are written in one transaction. A client that retries a payment
+// sends the same idempotency key, which is unique per loan, so the retry finds the first attempt's row
+// instead of paying twice.
+@Entity
+@Table(name = "loan_payments", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_loan_payments_loan_key", columnNames = {"loan_id", "idempotency_key"})
+})
+public class LoanPayment implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "id", nullable = false, length = 40)
+    private String id;
+
+    @Column(name = "loan_id", nullable = false, length = 40)
+    private String loanId;
+
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    // Null for clients that send none: such payments are never matched as retries
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "paid_on", nullable = false, updatable = false)
+    private LocalDateTime paidOn = LocalDateTime.now();
+
+    // --- Getters and Setters ---
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getLoanId() { return loanId; }
+    public void setLoanId(String loanId) { this.loanId = loanId; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+
+    public LocalDateTime getPaidOn() { return paidOn; }
+    public void setPaidOn(LocalDateTime paidOn) { this.paidOn = paidOn; }
+}
@@ -1,5 +1,8 @@
 package com.manpower.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import javax.validation.constraints.*;
 import java.io.Serializable;
@@ -10,6 +13,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "meetings")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Meeting implements Serializable {
 
     @Id
@@ -5,6 +5,8 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.manpower.enums.MemberRole;
 import com.manpower.enums.MemberStatus;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -17,7 +19,12 @@ import java.time.LocalDateTime;
 
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // ✅ Avoid proxy issues
 @Entity
-@Table(name = "members")
+@Cacheable // Cached so cached group member lists and document uploaders resolve without a query each
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "members", indexes = {
+        // email already has a unique index (login lookup); group_id backs the members-by-group listing
+        @Index(name = "idx_members_group", columnList = "group_id")
+})
 public class Member implements Serializable {
 
     @Id
@@ -26,7 +33,7 @@ public class Member implements Serializable {
     @Column(name = "id", length = 40)
     private String id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY) // LAZY: member listings and login only need the group_id, never the row
     @JoinColumn(name = "group_id", referencedColumnName = "id")
     @JsonBackReference
     private Group group;
@@ -0,0 +1,34 @@
+package com.manpower.entity;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Number of unread notifications per member, so the badge count is a primary-key read instead of
+// a COUNT(*) over the member's notifications. Maintained by NotificationCounterService (single rows)
+// and NotificationBatchRepository (group fan-out) in the same transaction as the notification write.
+@Entity
+@Table(name = "member_notification_counters")
+public class MemberNotificationCounter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "member_id", nullable = false, length = 40)
+    private String memberId;
+
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+
+    @Column(name = "modified_on")
+    private LocalDateTime modifiedOn = LocalDateTime.now();
+
+    public String getMemberId() { return memberId; }
+    public void setMemberId(String memberId) { this.memberId = memberId; }
+
+    public long getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(long unreadCount) { this.unreadCount = unreadCount; }
+
+    public LocalDateTime getModifiedOn() { return modifiedOn; }
+    public void setModifiedOn(LocalDateTime modifiedOn) { this.modifiedOn = modifiedOn; }
+}
@@ -5,7 +5,11 @@ import java.io.Serializable;
 import java.util.Date;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_member_read", columnList = "member_id, is_read"),
+        // Member inbox, newest first (keyset over created_on, id)
+        @Index(name = "idx_notifications_member_created", columnList = "member_id, created_on, id")
+})
 public class Notification implements Serializable {
 
     @Id
@@ -0,0 +1,177 @@
+package com.manpower.entity;
+
+import com.manpower.enums.NotificationJobStatus;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.UUID;
+
+// Outbox row for a group notification broadcast. Written when the broadcast is requested and
+// advanced by NotificationDispatcher chunk by chunk, so a restart resumes from lastMemberId
+// instead of losing (or re-sending) the fan-out.
+@Entity
+@Table(name = "notification_jobs", indexes = {
+        @Index(name = "idx_notification_jobs_status", columnList = "status, created_on")
+})
+public class NotificationJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "id", nullable = false, length = 40)
+    private String id;
+
+    @Column(name = "group_id", nullable = false, length = 40)
+    private String groupId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private NotificationJobStatus status = NotificationJobStatus.Queued;
+
+    // --- Notification template ---
+    @Column(name = "type", length = 50)
+    private String type;
+
+    @Column(name = "message_content", columnDefinition = "TEXT")
+    private String messageContent;
+
+    @Column(name = "send_date")
+    @Temporal(TemporalType.DATE)
+    private Date sendDate;
+
+    @Column(name = "channel", length = 50)
+    private String channel;
+
+    // --- Progress ---
+    @Column(name = "total_recipients", nullable = false)
+    private long totalRecipients;
+
+    @Column(name = "sent_count", nullable = false)
+    private long sentCount;
+
+    // Keyset position: every member with an ID <= this one has already been notified
+    @Column(name = "last_member_id", length = 40)
+    private String lastMemberId;
+
+    // Set by each claim and cleared when the job is re-queued; a worker records progress and the outcome only
+    // while the job still carries its token, so one re-queued from under it cannot be written twice
+    @Column(name = "claim_token", length = 40)
+    private String claimToken;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Column(name = "created_by", length = 40)
+    private String createdBy;
+
+    @Column(name = "modified_by", length = 40)
+    private String modifiedBy;
+
+    @Column(name = "created_on", updatable = false)
+    private LocalDateTime createdOn = LocalDateTime.now();
+
+    @Column(name = "started_on")
+    private LocalDateTime startedOn;
+
+    @Column(name = "completed_on")
+    private LocalDateTime completedOn;
+
+    // Heartbeat: bumped after every delivered chunk; stale Running jobs are re-queued
+    @Column(name = "modified_on")
+    private LocalDateTime modifiedOn = LocalDateTime.now();
+
+    @Column(name = "mansoft_tenant_id", length = 100)
+    private String mansoftTenantId;
+
+    public NotificationJob() {
+    }
+
+    public NotificationJob(String groupId, Notification template, long totalRecipients) {
+        this.id = UUID.randomUUID().toString();
+        this.groupId = groupId;
+        this.type = template.getType();
+        this.messageContent = template.getMessageContent();
+        this.sendDate = template.getSendDate();
+        this.channel = template.getChannel();
+        this.createdBy = template.getCreatedBy();
+        this.modifiedBy = template.getModifiedBy();
+        this.mansoftTenantId = template.getMansoftTenantId();
+        this.totalRecipients = totalRecipients;
+    }
+
+    /**
+     * Rebuilds the notification template the job was created from.
+     */
+    public Notification toTemplate() {
+        Notification template = new Notification();
+        template.setType(type);
+        template.setMessageContent(messageContent);
+        template.setSendDate(sendDate);
+        template.setChannel(channel);
+        template.setCreatedBy(createdBy);
+        template.setModifiedBy(modifiedBy);
+        template.setMansoftTenantId(mansoftTenantId);
+        return template;
+    }
+
+    // === Getters and Setters ===
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getGroupId() { return groupId; }
+    public void setGroupId(String groupId) { this.groupId = groupId; }
+
+    public NotificationJobStatus getStatus() { return status; }
+    public void setStatus(NotificationJobStatus status) { this.status = status; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getMessageContent() { return messageContent; }
+    public void setMessageContent(String messageContent) { this.messageContent = messageContent; }
+
+    public Date getSendDate() { return sendDate; }
+    public void setSendDate(Date sendDate) { this.sendDate = sendDate; }
+
+    public String getChannel() { return channel; }
+    public void setChannel(String channel) { this.channel = channel; }
+
+    public long getTotalRecipients() { return totalRecipients; }
+    public void setTotalRecipients(long totalRecipients) { this.totalRecipients = totalRecipients; }
+
+    public long getSentCount() { return sentCount; }
+    public void setSentCount(long sentCount) { this.sentCount = sentCount; }
+
+    public String getLastMemberId() { return lastMemberId; }
+    public void setLastMemberId(String lastMemberId) { this.lastMemberId = lastMemberId; }
+
+    public String getClaimToken() { return claimToken; }
+    public void setClaimToken(String claimToken) { this.claimToken = claimToken; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+
+    public String getModifiedBy() { return modifiedBy; }
+    public void setModifiedBy(String modifiedBy) { this.modifiedBy = modifiedBy; }
+
+    public LocalDateTime getCreatedOn() { return createdOn; }
+    public void setCreatedOn(LocalDateTime createdOn) { this.createdOn = createdOn; }
+
+    public LocalDateTime getStartedOn() { return startedOn; }
+    public void setStartedOn(LocalDateTime startedOn) { this.startedOn = startedOn; }
+
+    public LocalDateTime getCompletedOn() { return completedOn; }
+    public void setCompletedOn(LocalDateTime completedOn) { this.completedOn = completedOn; }
+
+    public LocalDateTime getModifiedOn() { return modifiedOn; }
+    public void setModifiedOn(LocalDateTime modifiedOn) { this.modifiedOn = modifiedOn; }
+
+    public String getMansoftTenantId() { return mansoftTenantId; }
+    public void setMansoftTenantId(String mansoftTenantId) { this.mansoftTenantId = mansoftTenantId; }
+}
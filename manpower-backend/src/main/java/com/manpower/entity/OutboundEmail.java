@@ -0,0 +1,107 @@
+package com.manpower.entity;
+
+import com.manpower.enums.EmailOutboxStatus;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Outbox row for one email. Written in the transaction of the change that triggers it (e.g. a password
+// reset) and sent afterwards by EmailOutbox, so a slow or failing SMTP server neither holds the transaction
+// open nor rolls the change back. The body is cleared once the email has been sent.
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_email_outbox_claim", columnList = "claim_token")
+})
+public class OutboundEmail implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "id", nullable = false, length = 40)
+    private String id;
+
+    @Column(name = "recipient", nullable = false, length = 255)
+    private String recipient;
+
+    @Column(name = "subject", length = 255)
+    private String subject;
+
+    @Column(name = "body", columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private EmailOutboxStatus status = EmailOutboxStatus.Pending;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    // Set when a sender claims the row, so only that sender records the outcome
+    @Column(name = "claim_token", length = 40)
+    private String claimToken;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_on", updatable = false)
+    private LocalDateTime createdOn = LocalDateTime.now();
+
+    @Column(name = "sent_on")
+    private LocalDateTime sentOn;
+
+    // Claim time while Sending; rows Sending for too long (the node died mid-batch) are made Pending again
+    @Column(name = "modified_on")
+    private LocalDateTime modifiedOn = LocalDateTime.now();
+
+    public OutboundEmail() {
+    }
+
+    public OutboundEmail(String recipient, String subject, String body) {
+        this.id = UUID.randomUUID().toString();
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+
+    public EmailOutboxStatus getStatus() { return status; }
+    public void setStatus(EmailOutboxStatus status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public String getClaimToken() { return claimToken; }
+    public void setClaimToken(String claimToken) { this.claimToken = claimToken; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedOn() { return createdOn; }
+    public void setCreatedOn(LocalDateTime createdOn) { this.createdOn = createdOn; }
+
+    public LocalDateTime getSentOn() { return sentOn; }
+    public void setSentOn(LocalDateTime sentOn) { this.sentOn = sentOn; }
+
+    public LocalDateTime getModifiedOn() { return modifiedOn; }
+    public void setModifiedOn(LocalDateTime modifiedOn) { this.modifiedOn = modifiedOn; }
+}
@@ -0,0 +1,10 @@
+package com.manpower.enums;
+
+// Entity kinds whose changes are broadcast to the other nodes' caches (CacheInvalidationBus)
+public enum CachedEntity {
+    Group,
+    Member,
+    Loan, // Not published while loans are not cached; kept so events written by older nodes still load
+    Meeting,
+    Document
+}
@@ -0,0 +1,8 @@
+package com.manpower.enums;
+
+public enum EmailOutboxStatus {
+    Pending,
+    Sending,
+    Sent,
+    Failed
+}
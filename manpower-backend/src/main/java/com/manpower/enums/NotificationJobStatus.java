@@ -0,0 +1,8 @@
+package com.manpower.enums;
+
+public enum NotificationJobStatus {
+    Queued,
+    Running,
+    Completed,
+    Failed
+}
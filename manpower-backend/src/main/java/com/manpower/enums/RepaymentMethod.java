@@ -0,0 +1,6 @@
+package com.manpower.enums;
+
+public enum RepaymentMethod {
+    Flat,            // Interest on the original principal, spread evenly over the installments
+    ReducingBalance  // Equal installments; each month's interest is charged on the balance still owed
+}
@@ -0,0 +1,33 @@
+package com.manpower.repository;
+
+import com.manpower.entity.CacheInvalidationEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidationEvent, Long> {
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM CacheInvalidationEvent e")
+    long findMaxId();
+
+    // Primary-key range scan from the last event a node has seen
+    @Query("SELECT e FROM CacheInvalidationEvent e WHERE e.id > :afterId ORDER BY e.id")
+    List<CacheInvalidationEvent> findAfter(@Param("afterId") long afterId, Pageable limit);
+
+    // Re-checks IDs a node skipped because they were not committed yet
+    List<CacheInvalidationEvent> findByIdIn(Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CacheInvalidationEvent e WHERE e.createdOn < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,25 +1,159 @@
 package com.manpower.repository;
 
+import com.manpower.dto.ContributionAggregate;
+import com.manpower.dto.LedgerAggregate;
 import com.manpower.entity.Contribution;
 import com.manpower.entity.Member;
+import com.manpower.enums.TransactionStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ContributionRepository extends JpaRepository<Contribution, String> {
 
-    List<Contribution> findByMember(Member member);
+    // Filter on the foreign-key column directly (no join to members/group_info) so these
+    // range-scan idx_contributions_member_date / idx_contributions_group_date.
+    @Query("SELECT c FROM Contribution c WHERE c.member = :member ORDER BY c.transactionDate DESC, c.id DESC")
+    List<Contribution> findByMember(@Param("member") Member member);
 
-    List<Contribution> findByMemberId(String memberId);
+    @Query("SELECT c FROM Contribution c WHERE c.member.id = :memberId ORDER BY c.transactionDate DESC, c.id DESC")
+    List<Contribution> findByMemberId(@Param("memberId") String memberId);
 
-    List<Contribution> findByGroupId(String groupId);
+    @Query("SELECT c FROM Contribution c WHERE c.group.id = :groupId ORDER BY c.transactionDate DESC, c.id DESC")
+    List<Contribution> findByGroupId(@Param("groupId") String groupId);
 
     // ✅ NEW: Sum total contribution amount by group ID
     @Query("SELECT COALESCE(SUM(c.amount), 0) FROM Contribution c WHERE c.group.id = :groupId")
     BigDecimal sumByGroupId(@Param("groupId") String groupId);
+
+    // --- Aggregation (computed in the database, one row per group / type / status) ---
+
+    @Query("SELECT c.group.id AS groupId, c.transactionType AS transactionType, c.status AS status, " +
+           "COUNT(c) AS count, SUM(c.amount) AS total, MIN(c.amount) AS minAmount, MAX(c.amount) AS maxAmount " +
+           "FROM Contribution c WHERE c.group.id = :groupId " +
+           "GROUP BY c.group.id, c.transactionType, c.status")
+    List<ContributionAggregate> aggregateByGroupId(@Param("groupId") String groupId);
+
+    @Query("SELECT c.group.id AS groupId, c.transactionType AS transactionType, c.status AS status, " +
+           "COUNT(c) AS count, SUM(c.amount) AS total, MIN(c.amount) AS minAmount, MAX(c.amount) AS maxAmount " +
+           "FROM Contribution c WHERE c.group.id IN :groupIds " +
+           "GROUP BY c.group.id, c.transactionType, c.status")
+    List<ContributionAggregate> aggregateByGroupIds(@Param("groupIds") Collection<String> groupIds);
+
+    @Query("SELECT c.group.id AS groupId, c.transactionType AS transactionType, c.status AS status, " +
+           "COUNT(c) AS count, SUM(c.amount) AS total, MIN(c.amount) AS minAmount, MAX(c.amount) AS maxAmount " +
+           "FROM Contribution c " +
+           "GROUP BY c.group.id, c.transactionType, c.status")
+    List<ContributionAggregate> aggregateAllGroups();
+
+    // --- Keyset pagination (newest first, ordered by transactionDate DESC, id DESC) ---
+    // The Pageable is only used to apply a LIMIT; the position comes from the (date, id) cursor,
+    // so each page is a bounded range read no matter how deep the client has scrolled.
+    // The "(date, id) < cursor" test is written with a leading "transactionDate <= :date" so the
+    // optimiser can turn it into a range on the (group_id|member_id, transactionDate, id) indexes.
+
+    @Query("SELECT c FROM Contribution c JOIN FETCH c.member JOIN FETCH c.group " +
+           "ORDER BY c.transactionDate DESC, c.id DESC")
+    List<Contribution> findFirstPage(Pageable limit);
+
+    @Query("SELECT c FROM Contribution c JOIN FETCH c.member JOIN FETCH c.group " +
+           "WHERE c.transactionDate <= :date AND (c.transactionDate < :date OR c.id < :id) " +
+           "ORDER BY c.transactionDate DESC, c.id DESC")
+    List<Contribution> findPageAfter(@Param("date") LocalDate date, @Param("id") String id, Pageable limit);
+
+    @Query("SELECT c FROM Contribution c JOIN FETCH c.member JOIN FETCH c.group " +
+           "WHERE c.member.id = :memberId " +
+           "ORDER BY c.transactionDate DESC, c.id DESC")
+    List<Contribution> findFirstPageByMemberId(@Param("memberId") String memberId, Pageable limit);
+
+    @Query("SELECT c FROM Contribution c JOIN FETCH c.member JOIN FETCH c.group " +
+           "WHERE c.member.id = :memberId " +
+           "AND c.transactionDate <= :date AND (c.transactionDate < :date OR c.id < :id) " +
+           "ORDER BY c.transactionDate DESC, c.id DESC")
+    List<Contribution> findPageByMemberIdAfter(@Param("memberId") String memberId, @Param("date") LocalDate date,
+                                               @Param("id") String id, Pageable limit);
+
+    @Query("SELECT c FROM Contribution c JOIN FETCH c.member JOIN FETCH c.group " +
+           "WHERE c.group.id = :groupId " +
+           "ORDER BY c.transactionDate DESC, c.id DESC")
+    List<Contribution> findFirstPageByGroupId(@Param("groupId") String groupId, Pageable limit);
+
+    @Query("SELECT c FROM Contribution c JOIN FETCH c.member JOIN FETCH c.group " +
+           "WHERE c.group.id = :groupId " +
+           "AND c.transactionDate <= :date AND (c.transactionDate < :date OR c.id < :id) " +
+           "ORDER BY c.transactionDate DESC, c.id DESC")
+    List<Contribution> findPageByGroupIdAfter(@Param("groupId") String groupId, @Param("date") LocalDate date,
+                                              @Param("id") String id, Pageable limit);
+
+    // --- Ledger support ---
+
+    // Expected group_ledger_totals content, recomputed from the source rows (used to detect drift).
+    @Query("SELECT c.group.id AS groupId, c.member.id AS memberId, c.transactionType AS transactionType, " +
+           "COUNT(c) AS count, SUM(c.amount) AS total " +
+           "FROM Contribution c WHERE c.status = com.manpower.enums.TransactionStatus.Completed " +
+           "GROUP BY c.group.id, c.member.id, c.transactionType")
+    List<LedgerAggregate> aggregateCompletedForLedger();
+
+    @Query("SELECT c.group.id AS groupId, c.member.id AS memberId, c.transactionType AS transactionType, " +
+           "COUNT(c) AS count, SUM(c.amount) AS total " +
+           "FROM Contribution c WHERE c.status = com.manpower.enums.TransactionStatus.Completed AND c.group.id = :groupId " +
+           "GROUP BY c.group.id, c.member.id, c.transactionType")
+    List<LedgerAggregate> aggregateCompletedForLedgerByGroupId(@Param("groupId") String groupId);
+
+    // Compare-and-set status change: only one caller can win a given transition, so the
+    // ledger is adjusted exactly once even if the same payment status is applied twice.
+    @Modifying
+    @Query("UPDATE Contribution c SET c.status = :newStatus, c.modifiedOn = CURRENT_TIMESTAMP " +
+           "WHERE c.id = :id AND c.status = :expectedStatus")
+    int compareAndSetStatus(@Param("id") String id, @Param("expectedStatus") TransactionStatus expectedStatus,
+                            @Param("newStatus") TransactionStatus newStatus);
+
+    // Point lookups on the unique pesapal_tracking_id index (IPN, reconciler, client status polls).
+    Optional<Contribution> findByPesapalTrackingId(String pesapalTrackingId);
+
+    List<Contribution> findByPesapalTrackingIdIn(Collection<String> pesapalTrackingIds);
+
+    // Finalizes a reserved PesaPal payment with its order tracking ID, unless it has meanwhile left Pending.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Contribution c SET c.pesapalTrackingId = :trackingId, c.description = :description, " +
+           "c.modifiedOn = CURRENT_TIMESTAMP " +
+           "WHERE c.id = :id AND c.status = com.manpower.enums.TransactionStatus.Pending")
+    int attachPesapalOrder(@Param("id") String id, @Param("trackingId") String trackingId,
+                           @Param("description") String description);
+
+    // Reserved PesaPal payments that never got an order tracking ID because initiation stopped half-way.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Contribution c SET c.status = com.manpower.enums.TransactionStatus.Failed, " +
+           "c.modifiedOn = CURRENT_TIMESTAMP " +
+           "WHERE c.paymentMethod = 'PesaPal' AND c.status = com.manpower.enums.TransactionStatus.Pending " +
+           "AND c.createdOn < :reservedBefore AND c.pesapalTrackingId IS NULL")
+    int failAbandonedPesapalReservations(@Param("reservedBefore") LocalDateTime reservedBefore);
+
+    // Submitted PesaPal payments still awaiting a final status, oldest first (keyset pages over createdOn, id).
+    @Query("SELECT c FROM Contribution c WHERE c.paymentMethod = 'PesaPal' " +
+           "AND c.status = com.manpower.enums.TransactionStatus.Pending " +
+           "AND c.createdOn >= :createdFrom AND c.createdOn < :createdTo " +
+           "AND c.pesapalTrackingId IS NOT NULL ORDER BY c.createdOn, c.id")
+    List<Contribution> findPendingPesapalFirstPage(@Param("createdFrom") LocalDateTime createdFrom,
+                                                   @Param("createdTo") LocalDateTime createdTo, Pageable limit);
+
+    @Query("SELECT c FROM Contribution c WHERE c.paymentMethod = 'PesaPal' " +
+           "AND c.status = com.manpower.enums.TransactionStatus.Pending " +
+           "AND c.createdOn < :createdTo AND c.pesapalTrackingId IS NOT NULL " +
+           "AND (c.createdOn > :afterCreated OR (c.createdOn = :afterCreated AND c.id > :afterId)) " +
+           "ORDER BY c.createdOn, c.id")
+    List<Contribution> findPendingPesapalPageAfter(@Param("createdTo") LocalDateTime createdTo,
+                                                   @Param("afterCreated") LocalDateTime afterCreated,
+                                                   @Param("afterId") String afterId, Pageable limit);
 }
@@ -2,9 +2,16 @@ package com.manpower.repository;
 
 import com.manpower.entity.Document;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, String> {
-    // You can define custom queries here if needed later
+    // Listing served from the query cache until documents is written; the rows themselves are second-level cached
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Document> findAll();
 }
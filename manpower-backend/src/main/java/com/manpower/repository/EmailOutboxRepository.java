@@ -0,0 +1,64 @@
+package com.manpower.repository;
+
+import com.manpower.entity.OutboundEmail;
+import com.manpower.enums.EmailOutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<OutboundEmail, String> {
+
+    @Query("SELECT e.id FROM OutboundEmail e WHERE e.status = com.manpower.enums.EmailOutboxStatus.Pending " +
+           "AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<String> findDueIds(@Param("now") LocalDateTime now, Pageable limit);
+
+    // Claims due rows for one sender; rows another sender (or node) took first are skipped
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = com.manpower.enums.EmailOutboxStatus.Sending, " +
+           "e.claimToken = :token, e.modifiedOn = :now " +
+           "WHERE e.id IN :ids AND e.status = com.manpower.enums.EmailOutboxStatus.Pending")
+    int claim(@Param("ids") Collection<String> ids, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    List<OutboundEmail> findByClaimToken(String claimToken);
+
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = com.manpower.enums.EmailOutboxStatus.Sent, e.body = NULL, " +
+           "e.claimToken = NULL, e.attempts = e.attempts + 1, e.sentOn = :now, e.modifiedOn = :now, e.lastError = NULL " +
+           "WHERE e.id IN :ids AND e.claimToken = :token")
+    int markSent(@Param("ids") Collection<String> ids, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    // Records a failed attempt that will be retried: back to Pending with a later nextAttemptAt
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = com.manpower.enums.EmailOutboxStatus.Pending, " +
+           "e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.lastError = :error, e.claimToken = NULL, e.modifiedOn = :now WHERE e.id = :id AND e.claimToken = :token")
+    int markAttemptFailed(@Param("id") String id, @Param("token") String token,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error,
+                          @Param("now") LocalDateTime now);
+
+    // Records the last failed attempt: Failed, and like a sent email the body (e.g. a temporary password) is dropped
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = com.manpower.enums.EmailOutboxStatus.Failed, e.body = NULL, " +
+           "e.attempts = e.attempts + 1, e.nextAttemptAt = :now, " +
+           "e.lastError = :error, e.claimToken = NULL, e.modifiedOn = :now WHERE e.id = :id AND e.claimToken = :token")
+    int markAbandoned(@Param("id") String id, @Param("token") String token, @Param("error") String error,
+                      @Param("now") LocalDateTime now);
+
+    // Puts rows whose sender stopped mid-batch (e.g. the node crashed) back in the queue
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = com.manpower.enums.EmailOutboxStatus.Pending, e.claimToken = NULL " +
+           "WHERE e.status = com.manpower.enums.EmailOutboxStatus.Sending AND e.modifiedOn < :staleBefore")
+    int requeueStale(@Param("staleBefore") LocalDateTime staleBefore);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    List<OutboundEmail> findByRecipient(String recipient);
+}
@@ -0,0 +1,74 @@
+package com.manpower.repository;
+
+import com.manpower.dto.LedgerAggregate;
+import com.manpower.entity.GroupLedgerTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface GroupLedgerTotalRepository extends JpaRepository<GroupLedgerTotal, GroupLedgerTotal.Key> {
+
+    // The native statements declare the one table they write (native.spaces); otherwise Hibernate cannot
+    // tell what changed and empties the whole second-level cache each time a total moves.
+
+    // Atomically adds a delta to a running total, creating the row on first use.
+    // Done in SQL so concurrent contributions to the same bucket never lose an update.
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "group_ledger_totals"))
+    @Query(value = "INSERT INTO group_ledger_totals (group_id, member_id, transaction_type, total_amount, contribution_count, modified_on) " +
+                   "VALUES (:groupId, :memberId, :transactionType, :amount, :count, CURRENT_TIMESTAMP) " +
+                   "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), " +
+                   "contribution_count = contribution_count + VALUES(contribution_count), " +
+                   "modified_on = VALUES(modified_on)",
+           nativeQuery = true)
+    int applyDelta(@Param("groupId") String groupId, @Param("memberId") String memberId,
+                   @Param("transactionType") String transactionType,
+                   @Param("amount") BigDecimal amount, @Param("count") long count);
+
+    @Query("SELECT COALESCE(SUM(t.totalAmount), 0) FROM GroupLedgerTotal t WHERE t.groupId = :groupId")
+    BigDecimal sumByGroupId(@Param("groupId") String groupId);
+
+    List<GroupLedgerTotal> findByGroupId(String groupId);
+
+    // --- Rebuild from the source rows ---
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "group_ledger_totals"))
+    @Query(value = "DELETE FROM group_ledger_totals", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "group_ledger_totals"))
+    @Query(value = "DELETE FROM group_ledger_totals WHERE group_id = :groupId", nativeQuery = true)
+    int deleteRowsByGroupId(@Param("groupId") String groupId);
+
+    // Sets every total to what the contributions add up to, overwriting a row that already exists: running it
+    // twice (e.g. two nodes seeding an empty ledger at the same start-up) leaves the same totals as once.
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "group_ledger_totals"))
+    @Query(value = "INSERT INTO group_ledger_totals (group_id, member_id, transaction_type, total_amount, contribution_count, modified_on) " +
+                   "SELECT c.group_id, c.member_id, c.transaction_type, SUM(c.amount), COUNT(*), CURRENT_TIMESTAMP " +
+                   "FROM contributions c WHERE c.status = 'Completed' " +
+                   "GROUP BY c.group_id, c.member_id, c.transaction_type " +
+                   "ON DUPLICATE KEY UPDATE total_amount = VALUES(total_amount), " +
+                   "contribution_count = VALUES(contribution_count), modified_on = VALUES(modified_on)",
+           nativeQuery = true)
+    int rebuildAll();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "group_ledger_totals"))
+    @Query(value = "INSERT INTO group_ledger_totals (group_id, member_id, transaction_type, total_amount, contribution_count, modified_on) " +
+                   "SELECT c.group_id, c.member_id, c.transaction_type, SUM(c.amount), COUNT(*), CURRENT_TIMESTAMP " +
+                   "FROM contributions c WHERE c.status = 'Completed' AND c.group_id = :groupId " +
+                   "GROUP BY c.group_id, c.member_id, c.transaction_type",
+           nativeQuery = true)
+    int rebuildByGroupId(@Param("groupId") String groupId);
+}
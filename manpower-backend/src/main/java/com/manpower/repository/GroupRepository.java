@@ -1,14 +1,47 @@
 package com.manpower.repository;
 
+import com.manpower.dto.GroupRef;
 import com.manpower.entity.Group;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface GroupRepository extends JpaRepository<Group, String> {
 
+    // The group endpoints return each group with its member list, so these load the
+    // members in the same query instead of one extra SELECT per group.
+    // DISTINCT de-duplicates the fetched groups in memory only (not passed through to SQL).
+
+    // The two listings are also in the query cache: a result is reused until group_info or members is
+    // written, and its groups, member lists and members come from the second-level cache.
+
+    @EntityGraph(attributePaths = "members")
+    @Query("SELECT DISTINCT g FROM Group g")
+    @QueryHints({@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"),
+                 @QueryHint(name = "org.hibernate.cacheable", value = "true")})
+    List<Group> findAllWithMembers();
+
+    @EntityGraph(attributePaths = "members")
+    @Query("SELECT g FROM Group g WHERE g.id = :id")
+    Optional<Group> findWithMembersById(@Param("id") String id);
+
     // ✅ Add this method to fetch groups created by a specific GroupAdmin (by ID)
-    List<Group> findByCreatedBy(String createdBy);
+    // Served by idx_group_info_created_by
+    @EntityGraph(attributePaths = "members")
+    @Query("SELECT DISTINCT g FROM Group g WHERE g.createdBy = :createdBy")
+    @QueryHints({@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"),
+                 @QueryHint(name = "org.hibernate.cacheable", value = "true")})
+    List<Group> findByCreatedBy(@Param("createdBy") String createdBy);
+
+    // Reference fields only (no members), loaded by ReferenceDataCache
+    @Query("SELECT new com.manpower.dto.GroupRef(g.id, g.status, g.createdBy) FROM Group g WHERE g.id = :id")
+    GroupRef findRefById(@Param("id") String id);
 }
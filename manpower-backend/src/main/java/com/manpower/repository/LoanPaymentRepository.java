@@ -0,0 +1,13 @@
+package com.manpower.repository;
+
+import com.manpower.entity.LoanPayment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LoanPaymentRepository extends JpaRepository<LoanPayment, String> {
+
+    Optional<LoanPayment> findByLoanIdAndIdempotencyKey(String loanId, String idempotencyKey);
+}
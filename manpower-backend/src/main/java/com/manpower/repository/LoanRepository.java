@@ -1,9 +1,42 @@
 package com.manpower.repository;
 
+import com.manpower.dto.LoanRef;
 import com.manpower.entity.Loan;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, String> {
+
+    // The loan's own columns only: no member, group or approver rows
+    @Query("SELECT new com.manpower.dto.LoanRef(l.id, l.repaymentMethod, l.amount, l.calculatedInterest, " +
+           "l.totalPaid, l.outstandingBalance, l.status) FROM Loan l WHERE l.id = :id")
+    LoanRef findRefById(@Param("id") String id);
+
+    // Applies a payment in one statement, so concurrent payments on the same loan never lose an update.
+    // The balance stops at zero and the loan is marked PAID once it gets there. The status is assigned first:
+    // MySQL evaluates the assignments left to right, and the CASE must see the balance before the payment.
+    @Modifying
+    @Query("UPDATE Loan l SET " +
+           "l.status = CASE WHEN l.outstandingBalance <= :amount THEN 'PAID' ELSE l.status END, " +
+           "l.totalPaid = COALESCE(l.totalPaid, 0) + :amount, " +
+           "l.outstandingBalance = CASE WHEN l.outstandingBalance <= :amount THEN 0 " +
+           "ELSE (l.outstandingBalance - :amount) END, " +
+           "l.modifiedOn = CURRENT_TIMESTAMP " +
+           "WHERE l.id = :id")
+    int applyPayment(@Param("id") String id, @Param("amount") BigDecimal amount);
+
+    // Sets the balance from new terms against what has been paid, as the database holds it, in one statement:
+    // a payment landing at the same time is either already in totalPaid or applied to the new balance after it
+    @Modifying
+    @Query("UPDATE Loan l SET " +
+           "l.outstandingBalance = CASE WHEN COALESCE(l.totalPaid, 0) >= :repayable THEN 0 " +
+           "ELSE (:repayable - COALESCE(l.totalPaid, 0)) END " +
+           "WHERE l.id = :id")
+    int rebaseBalance(@Param("id") String id, @Param("repayable") BigDecimal repayable);
 }
@@ -0,0 +1,88 @@
+package com.manpower.repository;
+
+import com.manpower.entity.LoanInstallment;
+import com.manpower.entity.LoanPayment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Plain-JDBC access to a loan's schedule and payments. A schedule is written as batchSize rows per round-trip
+// with no persistence context in between, and read row by row so a caller can stream it out without holding
+// the whole list. Every statement is keyed by loan_id, so only the one loan's rows are touched.
+// (With MySQL, add rewriteBatchedStatements=true to the JDBC URL so each batch is sent as a multi-row insert.)
+@Repository
+public class LoanScheduleRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO loan_installments (loan_id, installment_number, due_date, principal_due, interest_due, " +
+            "total_due, balance_after) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_INSTALLMENTS_SQL =
+            "SELECT loan_id, installment_number, due_date, principal_due, interest_due, total_due, balance_after " +
+            "FROM loan_installments WHERE loan_id = ? ORDER BY installment_number";
+
+    private static final String SELECT_PAYMENTS_SQL =
+            "SELECT id, loan_id, amount, idempotency_key, paid_on FROM loan_payments WHERE loan_id = ? ORDER BY paid_on, id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${loan.schedule.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Replaces the loan's schedule with the given installments.
+     * Must be called inside a transaction so the loan never shows half of an old and half of a new schedule.
+     */
+    public void replaceSchedule(String loanId, List<LoanInstallment> installments) {
+        jdbcTemplate.update("DELETE FROM loan_installments WHERE loan_id = ?", loanId);
+        jdbcTemplate.batchUpdate(INSERT_SQL, installments, batchSize, (ps, installment) -> {
+            ps.setString(1, installment.getLoanId());
+            ps.setInt(2, installment.getInstallmentNumber());
+            ps.setDate(3, Date.valueOf(installment.getDueDate()));
+            ps.setBigDecimal(4, installment.getPrincipalDue());
+            ps.setBigDecimal(5, installment.getInterestDue());
+            ps.setBigDecimal(6, installment.getTotalDue());
+            ps.setBigDecimal(7, installment.getBalanceAfter());
+        });
+    }
+
+    // Removes the loan's schedule and payments, for when the loan itself is deleted
+    public void deleteByLoanId(String loanId) {
+        jdbcTemplate.update("DELETE FROM loan_installments WHERE loan_id = ?", loanId);
+        jdbcTemplate.update("DELETE FROM loan_payments WHERE loan_id = ?", loanId);
+    }
+
+    public void forEachInstallment(String loanId, Consumer<LoanInstallment> action) {
+        jdbcTemplate.query(SELECT_INSTALLMENTS_SQL, rs -> {
+            LoanInstallment installment = new LoanInstallment();
+            installment.setLoanId(rs.getString("loan_id"));
+            installment.setInstallmentNumber(rs.getInt("installment_number"));
+            installment.setDueDate(rs.getDate("due_date").toLocalDate());
+            installment.setPrincipalDue(rs.getBigDecimal("principal_due"));
+            installment.setInterestDue(rs.getBigDecimal("interest_due"));
+            installment.setTotalDue(rs.getBigDecimal("total_due"));
+            installment.setBalanceAfter(rs.getBigDecimal("balance_after"));
+            action.accept(installment);
+        }, loanId);
+    }
+
+    public void forEachPayment(String loanId, Consumer<LoanPayment> action) {
+        jdbcTemplate.query(SELECT_PAYMENTS_SQL, rs -> {
+            LoanPayment payment = new LoanPayment();
+            payment.setId(rs.getString("id"));
+            payment.setLoanId(rs.getString("loan_id"));
+            payment.setAmount(rs.getBigDecimal("amount"));
+            payment.setIdempotencyKey(rs.getString("idempotency_key"));
+            Timestamp paidOn = rs.getTimestamp("paid_on");
+            payment.setPaidOn(paidOn != null ? paidOn.toLocalDateTime() : null);
+            action.accept(payment);
+        }, loanId);
+    }
+}
@@ -2,8 +2,16 @@ package com.manpower.repository;
 
 import com.manpower.entity.Meeting;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+
 @Repository
 public interface MeetingRepository extends JpaRepository<Meeting, String> {
+    // Listing served from the query cache until meetings is written; the rows themselves are second-level cached
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Meeting> findAll();
 }
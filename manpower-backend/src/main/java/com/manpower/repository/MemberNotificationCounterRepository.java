@@ -0,0 +1,43 @@
+package com.manpower.repository;
+
+import com.manpower.entity.MemberNotificationCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.Optional;
+
+@Repository
+public interface MemberNotificationCounterRepository extends JpaRepository<MemberNotificationCounter, String> {
+
+    // The native statements declare the one table they write (native.spaces); otherwise Hibernate cannot
+    // tell what changed and empties the whole second-level cache each time a counter moves.
+
+    // Atomically adds a delta to a member's unread count, creating the row on first use
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "member_notification_counters"))
+    @Query(value = "INSERT INTO member_notification_counters (member_id, unread_count, modified_on) " +
+                   "VALUES (:memberId, :delta, CURRENT_TIMESTAMP) " +
+                   "ON DUPLICATE KEY UPDATE unread_count = unread_count + VALUES(unread_count), " +
+                   "modified_on = VALUES(modified_on)",
+           nativeQuery = true)
+    int applyDelta(@Param("memberId") String memberId, @Param("delta") long delta);
+
+    @Query("SELECT c.unreadCount FROM MemberNotificationCounter c WHERE c.memberId = :memberId")
+    Optional<Long> findUnreadCount(@Param("memberId") String memberId);
+
+    // Sets every count to the member's unread notifications, overwriting a row that already exists: running it
+    // twice (e.g. two nodes seeding empty counters at the same start-up) leaves the same counts as once.
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "member_notification_counters"))
+    @Query(value = "INSERT INTO member_notification_counters (member_id, unread_count, modified_on) " +
+                   "SELECT n.member_id, COUNT(*), CURRENT_TIMESTAMP FROM notifications n " +
+                   "WHERE n.is_read = FALSE GROUP BY n.member_id " +
+                   "ON DUPLICATE KEY UPDATE unread_count = VALUES(unread_count), modified_on = VALUES(modified_on)",
+           nativeQuery = true)
+    int rebuildAll();
+}
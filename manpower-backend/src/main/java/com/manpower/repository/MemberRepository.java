@@ -1,18 +1,57 @@
 package com.manpower.repository;
 
+import com.manpower.dto.MemberRef;
 import com.manpower.entity.Member;
 import com.manpower.enums.MemberRole;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.List; // ✅ Import List
 
 @Repository
 public interface MemberRepository extends JpaRepository<Member, String> {
-    Optional<Member> findByEmail(String email);
+    // Point lookup on the unique email index (login path)
+    @Query("SELECT m FROM Member m WHERE m.email = :email")
+    Optional<Member> findByEmail(@Param("email") String email);
+
     Optional<Member> findByRole(MemberRole role);
 
+    // Existence check that returns a count instead of hydrating Member rows
+    @Query("SELECT CASE WHEN COUNT(m) > 0 THEN true ELSE false END FROM Member m WHERE m.role = :role")
+    boolean existsByRole(@Param("role") MemberRole role);
+
     // ✅ Add this line to support fetching members by groupId
-    List<Member> findByGroupId(String groupId);
+    // Compares the group_id column directly so the query uses idx_members_group without joining group_info
+    @Query("SELECT m FROM Member m WHERE m.group.id = :groupId")
+    List<Member> findByGroupId(@Param("groupId") String groupId);
+
+    @Query("SELECT COUNT(m) FROM Member m WHERE m.group.id = :groupId")
+    long countByGroupId(@Param("groupId") String groupId);
+
+    // IDs only, in primary-key order (index-only read on idx_members_group) – used for notification fan-out.
+    // The "After" variant continues from the last ID of the previous chunk.
+    @Query("SELECT m.id FROM Member m WHERE m.group.id = :groupId ORDER BY m.id")
+    List<String> findIdsByGroupId(@Param("groupId") String groupId, Pageable limit);
+
+    @Query("SELECT m.id FROM Member m WHERE m.group.id = :groupId AND m.id > :afterId ORDER BY m.id")
+    List<String> findIdsByGroupIdAfter(@Param("groupId") String groupId, @Param("afterId") String afterId, Pageable limit);
+
+    // Compare-and-set password upgrade on login: a no-op if the password was changed or reset meanwhile.
+    // Runs in its own short transaction so no connection is held while the new hash is computed.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Member m SET m.password = :newPassword WHERE m.id = :id AND m.password = :expectedPassword")
+    int replacePassword(@Param("id") String id, @Param("expectedPassword") String expectedPassword,
+                        @Param("newPassword") String newPassword);
+
+    // Reference fields only, loaded by ReferenceDataCache; reads group_id without joining group_info
+    @Query("SELECT new com.manpower.dto.MemberRef(m.id, m.role, m.group.id, m.email, m.firstName, m.lastName) " +
+           "FROM Member m WHERE m.id = :id")
+    MemberRef findRefById(@Param("id") String id);
 }
@@ -0,0 +1,93 @@
+package com.manpower.repository;
+
+import com.manpower.dto.NotificationEvent;
+import com.manpower.entity.Notification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Plain-JDBC writer for notification fan-out. Bypasses the persistence context entirely:
+// no merge/SELECT per row, one batched INSERT statement per chunk of recipients.
+// (With MySQL, add rewriteBatchedStatements=true to the JDBC URL so each batch is sent as a multi-row insert.)
+@Repository
+public class NotificationBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (id, member_id, type, message_content, send_date, channel, is_read, " +
+            "created_by, modified_by, created_on, modified_on, mansoft_tenant_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Same upsert as MemberNotificationCounterRepository.applyDelta, batched per recipient
+    private static final String COUNTER_SQL =
+            "INSERT INTO member_notification_counters (member_id, unread_count, modified_on) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE unread_count = unread_count + VALUES(unread_count), modified_on = VALUES(modified_on)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${notifications.fanout.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Inserts one unread copy of the template per member, in member order, batchSize rows per round-trip,
+     * and bumps each recipient's unread counter by the same batching.
+     * Must be called inside a transaction so the whole fan-out commits (or fails) as one unit.
+     *
+     * @param memberIds Recipients; rows are written in this order.
+     * @param template  Supplies type, content, dates, channel, audit fields and tenant for every copy.
+     * @return The notifications written, one per recipient, ready to publish to stream subscribers.
+     */
+    public List<NotificationEvent> insertForMembers(List<String> memberIds, Notification template) {
+        if (memberIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Date sendDate = template.getSendDate() != null ? new Date(template.getSendDate().getTime()) : null;
+
+        List<NotificationEvent> rows = new ArrayList<>(memberIds.size());
+        for (String memberId : memberIds) {
+            rows.add(new NotificationEvent(UUID.randomUUID().toString(), memberId, template.getType(),
+                    template.getMessageContent(), template.getChannel(), sendDate, now, false));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, batchSize, (ps, row) -> {
+            ps.setString(1, row.getId());
+            ps.setString(2, row.getMemberId());
+            ps.setString(3, template.getType());
+            ps.setString(4, template.getMessageContent());
+            ps.setDate(5, sendDate);
+            ps.setString(6, template.getChannel());
+            ps.setBoolean(7, false); // ✅ New notifications are unread
+            ps.setString(8, template.getCreatedBy());
+            ps.setString(9, template.getModifiedBy());
+            ps.setTimestamp(10, now);
+            ps.setTimestamp(11, now);
+            ps.setString(12, template.getMansoftTenantId());
+        });
+
+        Map<String, Integer> perMember = new LinkedHashMap<>();
+        for (String memberId : memberIds) {
+            perMember.merge(memberId, 1, Integer::sum);
+        }
+        jdbcTemplate.batchUpdate(COUNTER_SQL, perMember.entrySet(), batchSize, (ps, entry) -> {
+            ps.setString(1, entry.getKey());
+            ps.setLong(2, entry.getValue());
+            ps.setTimestamp(3, now);
+        });
+        return rows;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
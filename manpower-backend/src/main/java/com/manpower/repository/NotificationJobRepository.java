@@ -0,0 +1,50 @@
+package com.manpower.repository;
+
+import com.manpower.entity.NotificationJob;
+import com.manpower.enums.NotificationJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationJobRepository extends JpaRepository<NotificationJob, String> {
+
+    // Claims a queued job for one worker under a fresh token; returns 0 if another worker (or node) already took it
+    @Modifying
+    @Query("UPDATE NotificationJob j SET j.status = com.manpower.enums.NotificationJobStatus.Running, " +
+           "j.claimToken = :token, j.startedOn = COALESCE(j.startedOn, :now), j.modifiedOn = :now " +
+           "WHERE j.id = :id AND j.status = com.manpower.enums.NotificationJobStatus.Queued")
+    int claim(@Param("id") String id, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    // Records a delivered chunk and bumps the heartbeat; returns 0 if the job is no longer held under this token
+    @Modifying
+    @Query("UPDATE NotificationJob j SET j.sentCount = j.sentCount + :sent, j.lastMemberId = :lastMemberId, " +
+           "j.modifiedOn = :now " +
+           "WHERE j.id = :id AND j.claimToken = :token AND j.status = com.manpower.enums.NotificationJobStatus.Running")
+    int recordProgress(@Param("id") String id, @Param("token") String token, @Param("sent") long sent,
+                       @Param("lastMemberId") String lastMemberId, @Param("now") LocalDateTime now);
+
+    // Records the outcome; returns 0 if the job is no longer held under this token
+    @Modifying
+    @Query("UPDATE NotificationJob j SET j.status = :outcome, j.error = :error, j.completedOn = :now, " +
+           "j.modifiedOn = :now, j.claimToken = NULL " +
+           "WHERE j.id = :id AND j.claimToken = :token AND j.status = com.manpower.enums.NotificationJobStatus.Running")
+    int finish(@Param("id") String id, @Param("token") String token, @Param("outcome") NotificationJobStatus outcome,
+               @Param("error") String error, @Param("now") LocalDateTime now);
+
+    // Puts Running jobs whose worker stopped heart-beating (e.g. the node crashed) back in the queue. Clearing
+    // the token stops that worker if it is only slow: its next progress or outcome update matches nothing.
+    @Modifying
+    @Query("UPDATE NotificationJob j SET j.status = com.manpower.enums.NotificationJobStatus.Queued, j.claimToken = NULL " +
+           "WHERE j.status = com.manpower.enums.NotificationJobStatus.Running AND j.modifiedOn < :staleBefore")
+    int requeueStale(@Param("staleBefore") LocalDateTime staleBefore);
+
+    @Query("SELECT j.id FROM NotificationJob j WHERE j.status = :status ORDER BY j.createdOn")
+    List<String> findIdsByStatus(@Param("status") NotificationJobStatus status, Pageable limit);
+}
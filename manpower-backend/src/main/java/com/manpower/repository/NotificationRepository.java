@@ -1,9 +1,69 @@
 package com.manpower.repository;
 
 import com.manpower.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, String> {
+
+    // --- Member inbox (keyset over member_id, created_on, id; newest first) ---
+    // The "After" variants continue strictly below the cursor row. The predicate is written as
+    // "createdOn <= :createdOn AND (createdOn < :createdOn OR id < :id)" so the leading range stays sargable.
+
+    @Query("SELECT n FROM Notification n JOIN FETCH n.member WHERE n.member.id = :memberId " +
+           "ORDER BY n.createdOn DESC, n.id DESC")
+    List<Notification> findInboxFirstPage(@Param("memberId") String memberId, Pageable limit);
+
+    @Query("SELECT n FROM Notification n JOIN FETCH n.member WHERE n.member.id = :memberId " +
+           "AND n.createdOn <= :createdOn AND (n.createdOn < :createdOn OR n.id < :id) " +
+           "ORDER BY n.createdOn DESC, n.id DESC")
+    List<Notification> findInboxPageAfter(@Param("memberId") String memberId, @Param("createdOn") Date createdOn,
+                                          @Param("id") String id, Pageable limit);
+
+    @Query("SELECT n FROM Notification n JOIN FETCH n.member WHERE n.member.id = :memberId AND n.isRead = false " +
+           "ORDER BY n.createdOn DESC, n.id DESC")
+    List<Notification> findUnreadInboxFirstPage(@Param("memberId") String memberId, Pageable limit);
+
+    @Query("SELECT n FROM Notification n JOIN FETCH n.member WHERE n.member.id = :memberId AND n.isRead = false " +
+           "AND n.createdOn <= :createdOn AND (n.createdOn < :createdOn OR n.id < :id) " +
+           "ORDER BY n.createdOn DESC, n.id DESC")
+    List<Notification> findUnreadInboxPageAfter(@Param("memberId") String memberId, @Param("createdOn") Date createdOn,
+                                                @Param("id") String id, Pageable limit);
+
+    // Oldest first, strictly after the cursor row: replays what a reconnecting stream subscriber missed
+    @Query("SELECT n FROM Notification n JOIN FETCH n.member WHERE n.member.id = :memberId " +
+           "AND n.createdOn >= :createdOn AND (n.createdOn > :createdOn OR n.id > :id) " +
+           "ORDER BY n.createdOn ASC, n.id ASC")
+    List<Notification> findInboxSince(@Param("memberId") String memberId, @Param("createdOn") Date createdOn,
+                                      @Param("id") String id, Pageable limit);
+
+    // --- Read-state transitions (only rows that were unread change, so the counter can trust the update count) ---
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true, n.modifiedOn = :now WHERE n.id = :id AND n.isRead = false")
+    int markReadIfUnread(@Param("id") String id, @Param("now") Date now);
+
+    @Query("SELECT DISTINCT n.member.id FROM Notification n WHERE n.id IN :ids AND n.isRead = false")
+    List<String> findUnreadMemberIds(@Param("ids") Collection<String> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true, n.modifiedOn = :now " +
+           "WHERE n.id IN :ids AND n.member.id = :memberId AND n.isRead = false")
+    int markReadIfUnreadForMember(@Param("ids") Collection<String> ids, @Param("memberId") String memberId,
+                                  @Param("now") Date now);
+
+    // Walks idx_notifications_member_read; no rows are loaded into the persistence context
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true, n.modifiedOn = :now " +
+           "WHERE n.member.id = :memberId AND n.isRead = false")
+    int markAllReadForMember(@Param("memberId") String memberId, @Param("now") Date now);
 }
@@ -0,0 +1,46 @@
+package com.manpower.service;
+
+import com.manpower.dto.AccessPrincipal;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * The caller of the current request, as verified from its access token by
+ * {@link com.manpower.config.AccessTokenFilter}.
+ *
+ * Services use it to skip member lookups that only establish who the caller is or what role they hold.
+ * Outside a request, or for a request sent without a token, there is no principal and callers fall back to
+ * reading the database.
+ */
+public final class AccessContext {
+
+    public static final String ATTRIBUTE = AccessContext.class.getName() + ".principal";
+
+    private AccessContext() {
+    }
+
+    /**
+     * @return the verified caller, or null if the request carried no token or there is no request.
+     */
+    public static AccessPrincipal current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null
+                : (AccessPrincipal) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * @return true if the request's token was issued to this member, so the member is known to exist.
+     */
+    public static boolean isCaller(String memberId) {
+        AccessPrincipal principal = current();
+        return principal != null && principal.isMember(memberId);
+    }
+
+    /**
+     * @return true if the request's token places the caller in this group, so the group is known to exist.
+     */
+    public static boolean isCallersGroup(String groupId) {
+        AccessPrincipal principal = current();
+        return principal != null && principal.isInGroup(groupId);
+    }
+}
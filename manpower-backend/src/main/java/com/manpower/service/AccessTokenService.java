@@ -0,0 +1,141 @@
+package com.manpower.service;
+
+import com.manpower.dto.AccessPrincipal;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Issues and verifies the short-lived access tokens handed out at login.
+ *
+ * A token is {@code base64url(payload) + "." + base64url(HMAC-SHA256(payload))}, where the payload is
+ * {@code v1|memberId|role|groupId|expiresAt|tenantId}. Verifying one is a MAC over a few dozen bytes, so the
+ * caller's identity, role and group are known on every request without reading the members table.
+ *
+ * What the token says is fixed until it expires: a role change or removal from a group shows up at the next
+ * login or refresh, which is why {@code security.token.ttl-seconds} is kept short. Every instance must share
+ * {@code security.token.secret}; with none configured a random key is made at start-up, so tokens stop
+ * verifying after a restart and are not accepted by other instances.
+ */
+@Service
+public class AccessTokenService {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    @Value("${security.token.secret:}")
+    private String secret;
+
+    @Value("${security.token.ttl-seconds:900}")
+    private long ttlSeconds;
+
+    private SecretKeySpec key;
+
+    // Mac instances are not thread-safe; one per request thread avoids a provider lookup per call
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes;
+        if (secret == null || secret.trim().isEmpty()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            System.out.println("⚠️ security.token.secret is not set: signing access tokens with a random key; "
+                    + "they will not survive a restart or verify on other instances.");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (keyBytes.length < 32) {
+                throw new IllegalArgumentException("security.token.secret must be at least 32 bytes");
+            }
+        }
+        if (ttlSeconds < 1) {
+            throw new IllegalArgumentException("security.token.ttl-seconds must be at least 1");
+        }
+        key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    /**
+     * Signs a token for the member as they are now.
+     */
+    public String issue(Member member) {
+        long expiresAt = System.currentTimeMillis() / 1000 + ttlSeconds;
+        String groupId = member.getGroup() != null ? member.getGroup().getId() : "";
+        String payload = VERSION + SEPARATOR + member.getId() + SEPARATOR + member.getRole().name() + SEPARATOR
+                + groupId + SEPARATOR + expiresAt + SEPARATOR
+                + (member.getMansoftTenantId() != null ? member.getMansoftTenantId() : "");
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payloadBytes) + "." + encoder.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * Checks the signature and expiry of a token.
+     * @throws InvalidAccessTokenException if the token is malformed, forged or expired.
+     */
+    public AccessPrincipal verify(String token) {
+        int dot = token == null ? -1 : token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            throw new InvalidAccessTokenException("Malformed access token", false);
+        }
+        byte[] payloadBytes;
+        byte[] signature;
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            payloadBytes = decoder.decode(token.substring(0, dot));
+            signature = decoder.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidAccessTokenException("Malformed access token", false);
+        }
+        if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+            throw new InvalidAccessTokenException("Access token signature does not match", false);
+        }
+
+        // Signed by us, so the layout is trusted; the tenant goes last so it may contain the separator
+        String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|", 6);
+        if (parts.length != 6 || !VERSION.equals(parts[0])) {
+            throw new InvalidAccessTokenException("Unsupported access token", false);
+        }
+        long expiresAt;
+        MemberRole role;
+        try {
+            expiresAt = Long.parseLong(parts[4]);
+            role = MemberRole.valueOf(parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidAccessTokenException("Unsupported access token", false);
+        }
+        if (System.currentTimeMillis() / 1000 >= expiresAt) {
+            throw new InvalidAccessTokenException("Access token has expired", true);
+        }
+        return new AccessPrincipal(parts[1], role, parts[3].isEmpty() ? null : parts[3],
+                parts[5].isEmpty() ? null : parts[5], expiresAt);
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
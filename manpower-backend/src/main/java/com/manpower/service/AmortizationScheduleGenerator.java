@@ -0,0 +1,115 @@
+package com.manpower.service;
+
+import com.manpower.entity.LoanInstallment;
+import com.manpower.enums.RepaymentMethod;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a loan's repayment schedule: one installment per month from the month after the start date.
+ *
+ * The per-loan figures (principal, monthly rate, installment amount) are worked out once in BigDecimal; the
+ * installments are then produced in one pass in whole cents, so a long schedule costs a few long operations
+ * per month. Rounding is settled on the last installment, which always clears the balance: the principal
+ * installments add up to the principal exactly and the interest installments to the loan's total interest.
+ *
+ * Flat: interest is charged on the original principal for every month, the same total as loans have always
+ * been given, split evenly. ReducingBalance: equal installments (annuity), each month's interest charged on
+ * the balance still owed, so less interest is paid overall.
+ */
+@Component
+public class AmortizationScheduleGenerator {
+
+    public List<LoanInstallment> generate(String loanId, BigDecimal principal, BigDecimal annualRatePercent,
+                                          LocalDate start, int months, RepaymentMethod method) {
+        if (months < 1) {
+            throw new IllegalArgumentException("A loan needs at least one installment.");
+        }
+        if (principal == null || principal.signum() <= 0) {
+            throw new IllegalArgumentException("Loan amount must be a positive value.");
+        }
+        BigDecimal monthlyRate = monthlyRate(annualRatePercent);
+        long principalCents = toCents(principal);
+
+        // Per-loan constants, so each installment below is whole-cent arithmetic
+        boolean reducing = method == RepaymentMethod.ReducingBalance && monthlyRate.signum() > 0;
+        long flatPrincipalCents = principalCents / months;
+        long flatInterestTotalCents = reducing ? 0 : toCents(flatInterest(principal, monthlyRate, months));
+        long flatInterestCents = flatInterestTotalCents / months;
+        long annuityCents = reducing ? annuityCents(principal, monthlyRate, months) : 0;
+        // The monthly rate has six decimal places, so balance * rate is exact in millionths of a cent
+        long ratePpm = monthlyRate.movePointRight(6).longValueExact();
+
+        List<LoanInstallment> schedule = new ArrayList<>(months);
+        long balance = principalCents;
+        long interestCharged = 0;
+        for (int i = 1; i <= months; i++) {
+            boolean last = i == months;
+            long interest;
+            long principalPart;
+            if (reducing) {
+                interest = (Math.multiplyExact(balance, ratePpm) + 500_000L) / 1_000_000L;
+                principalPart = last ? balance : Math.min(balance, Math.max(0, annuityCents - interest));
+            } else {
+                interest = last ? flatInterestTotalCents - interestCharged : flatInterestCents;
+                principalPart = last ? balance : flatPrincipalCents;
+            }
+            balance -= principalPart;
+            interestCharged += interest;
+
+            LoanInstallment installment = new LoanInstallment();
+            installment.setLoanId(loanId);
+            installment.setInstallmentNumber(i);
+            installment.setDueDate(start.plusMonths(i));
+            installment.setPrincipalDue(fromCents(principalPart));
+            installment.setInterestDue(fromCents(interest));
+            installment.setTotalDue(fromCents(principalPart + interest));
+            installment.setBalanceAfter(fromCents(balance));
+            schedule.add(installment);
+        }
+        return schedule;
+    }
+
+    public static BigDecimal totalInterest(List<LoanInstallment> schedule) {
+        BigDecimal total = BigDecimal.ZERO.setScale(2);
+        for (LoanInstallment installment : schedule) {
+            total = total.add(installment.getInterestDue());
+        }
+        return total;
+    }
+
+    // Same rounding the loan's flat interest has always used: annual % -> fraction -> monthly, 6 places each
+    private static BigDecimal monthlyRate(BigDecimal annualRatePercent) {
+        if (annualRatePercent == null || annualRatePercent.signum() < 0) {
+            throw new IllegalArgumentException("Interest rate must be zero or a positive value.");
+        }
+        return annualRatePercent.divide(BigDecimal.valueOf(100), 6, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(12), 6, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal flatInterest(BigDecimal principal, BigDecimal monthlyRate, int months) {
+        return principal.multiply(monthlyRate).multiply(BigDecimal.valueOf(months)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // P * r / (1 - (1 + r)^-n), to the cent
+    private static long annuityCents(BigDecimal principal, BigDecimal monthlyRate, int months) {
+        BigDecimal growth = BigDecimal.ONE.add(monthlyRate).pow(months, MathContext.DECIMAL64);
+        BigDecimal payment = principal.multiply(monthlyRate).multiply(growth)
+                .divide(growth.subtract(BigDecimal.ONE), MathContext.DECIMAL64);
+        return toCents(payment);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
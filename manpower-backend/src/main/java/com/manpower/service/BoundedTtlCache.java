@@ -0,0 +1,174 @@
+package com.manpower.service;
+
+import com.manpower.dto.CacheStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Small read-through cache bounded by entry count and age.
+ *
+ * Entries live in {@code stripes} access-ordered maps, each holding at most {@code maxEntries / stripes}
+ * with the least recently used evicted, and are reloaded once older than the TTL. A loader may return null
+ * ("no such row"), which is cached like any other value so repeated lookups of a missing ID stay cheap.
+ *
+ * Every invalidation bumps its stripe's generation. A load that started before an invalidation of its stripe
+ * is returned to its caller but not stored, so a value read just before a change cannot outlive it here.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAtNanos;
+
+        Entry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private final class Stripe extends LinkedHashMap<K, Entry<V>> {
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+        long generation;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            if (size() > capacity) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Stripe[] stripes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public BoundedTtlCache(String name, int maxEntries, long ttlMillis, int stripeCount) {
+        if (maxEntries < stripeCount || ttlMillis < 1 || stripeCount < 1) {
+            throw new IllegalArgumentException("Cache " + name + " needs maxEntries >= stripes and a positive TTL");
+        }
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.stripes = (Stripe[]) java.lang.reflect.Array.newInstance(Stripe.class, stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(maxEntries / stripeCount);
+        }
+    }
+
+    /**
+     * @return the cached value for the key, loading (and caching) it on a miss; null if the loader found nothing.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Stripe stripe = stripeFor(key);
+        long generation;
+        synchronized (stripe) {
+            Entry<V> entry = stripe.get(key);
+            if (entry != null) {
+                if (entry.expiresAtNanos - System.nanoTime() > 0) {
+                    hits.incrementAndGet();
+                    return entry.value;
+                }
+                stripe.remove(key);
+                expirations.incrementAndGet();
+            }
+            generation = stripe.generation;
+        }
+        misses.incrementAndGet();
+        V value = loader.apply(key); // Outside the lock: a slow load does not hold up the stripe
+        synchronized (stripe) {
+            if (stripe.generation == generation) {
+                stripe.put(key, new Entry<V>(value, System.nanoTime() + ttlNanos));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return the cached value for the key, or null if it is not cached (or has expired).
+     */
+    public V getIfPresent(K key) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Entry<V> entry = stripe.get(key);
+            if (entry != null) {
+                if (entry.expiresAtNanos - System.nanoTime() > 0) {
+                    hits.incrementAndGet();
+                    return entry.value;
+                }
+                stripe.remove(key);
+                expirations.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Caches a value loaded elsewhere, replacing any cached one; it expires a full TTL from now.
+     */
+    public void put(K key, V value) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.put(key, new Entry<V>(value, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    public void invalidate(K key) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.remove(key);
+            stripe.generation++;
+        }
+        invalidations.incrementAndGet();
+    }
+
+    public void invalidateAll() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+                stripe.generation++;
+            }
+        }
+        invalidations.incrementAndGet();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(name, size(), maxEntries, hits.get(), misses.get(), evictions.get(),
+                expirations.get(), invalidations.get());
+    }
+
+    private Stripe stripeFor(K key) {
+        int hash = key.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+}
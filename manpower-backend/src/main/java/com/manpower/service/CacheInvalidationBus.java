@@ -0,0 +1,83 @@
+package com.manpower.service;
+
+import com.manpower.enums.CachedEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the in-process caches of every node in step with writes to groups, members, meetings and documents.
+ *
+ * The services that change one of them call {@link #publish} in the same transaction: the caches of this node
+ * are invalidated when it commits, and the {@link InvalidationTransport} carries the change to the other nodes,
+ * whose caches are invalidated as it arrives. Entries a lost message leaves behind still expire with their cache's TTL.
+ */
+@Service
+public class CacheInvalidationBus {
+
+    @Autowired
+    private InvalidationTransport transport;
+
+    @Autowired
+    private List<CacheInvalidationListener> listeners;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        transport.subscribe(this::receive);
+    }
+
+    /**
+     * Call inside the transaction that makes the change: the transport writes the invalidation in it, so it
+     * reaches the other nodes only if the change commits. This node's caches are invalidated once it has
+     * committed, so a read in between cannot put the old row back into them.
+     */
+    public void publish(CachedEntity entity, String id) {
+        if (id == null) {
+            return;
+        }
+        transport.publish(entity, id);
+        published.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notifyListeners(entity, id, false);
+                }
+            });
+        } else {
+            notifyListeners(entity, id, false);
+        }
+    }
+
+    public long getPublished() {
+        return published.get();
+    }
+
+    public long getReceived() {
+        return received.get();
+    }
+
+    private void receive(CachedEntity entity, String id) {
+        notifyListeners(entity, id, true);
+        received.incrementAndGet();
+    }
+
+    private void notifyListeners(CachedEntity entity, String id, boolean fromPeer) {
+        for (CacheInvalidationListener listener : listeners) {
+            try {
+                listener.invalidate(entity, id, fromPeer);
+            } catch (RuntimeException e) {
+                // One failing cache must not keep the others stale
+                System.err.println("⚠️ Cache invalidation of " + entity + " " + id + " failed: " + e.getMessage());
+            }
+        }
+    }
+}
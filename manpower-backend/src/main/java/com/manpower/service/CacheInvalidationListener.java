@@ -0,0 +1,14 @@
+package com.manpower.service;
+
+import com.manpower.enums.CachedEntity;
+
+/**
+ * A cache that drops entries when {@link CacheInvalidationBus} reports a change.
+ */
+public interface CacheInvalidationListener {
+
+    /**
+     * @param fromPeer true if another node made the change, false if it was made (and is being made) here.
+     */
+    void invalidate(CachedEntity entity, String id, boolean fromPeer);
+}
@@ -1,23 +1,35 @@
 package com.manpower.service;
 
+import com.manpower.dto.ContributionCursor;
+import com.manpower.dto.ContributionPage;
 import com.manpower.entity.Contribution;
+import com.manpower.enums.TransactionStatus;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Map;
 
 public interface ContributionService {
     Contribution saveContribution(Contribution contribution);
-    List<Contribution> getAllContributions();
     Optional<Contribution> getContributionById(String id);
-    List<Contribution> getContributionsByMemberId(String memberId);
-    List<Contribution> getContributionsByGroupId(String groupId);
     void deleteContribution(String id);
 
+    // ✅ Moves a contribution to a new status (e.g. a PesaPal payment completing) and keeps the ledger in step.
+    // Returns false if the contribution already had that status.
+    boolean updateStatus(String id, TransactionStatus newStatus);
+
+    // ✅ Keyset-paginated listings (newest first). Pass the previous page's cursor, or null for the first page.
+    ContributionPage getContributions(ContributionCursor after, int limit);
+    ContributionPage getContributionsByMemberId(String memberId, ContributionCursor after, int limit);
+    ContributionPage getContributionsByGroupId(String groupId, ContributionCursor after, int limit);
+
     // ✅ Summary endpoint
     Map<String, Object> getContributionSummary(String groupId);
 
+    // ✅ Batch summary for several groups at once (all groups when groupIds is null or empty), keyed by group ID
+    Map<String, Map<String, Object>> getContributionSummaries(Collection<String> groupIds);
+
     // ✅ New method: Total contributions by group
     BigDecimal getTotalContributionsByGroup(String groupId);
 }
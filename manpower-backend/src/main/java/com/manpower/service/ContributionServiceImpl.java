@@ -1,12 +1,20 @@
 package com.manpower.service;
 
+import com.manpower.dto.ContributionAggregate;
+import com.manpower.dto.ContributionCursor;
+import com.manpower.dto.ContributionPage;
+import com.manpower.dto.ContributionStats;
 import com.manpower.entity.Contribution;
 import com.manpower.entity.Group;
 import com.manpower.entity.Member;
+import com.manpower.enums.TransactionStatus;
+import com.manpower.enums.TransactionType;
 import com.manpower.repository.ContributionRepository;
 import com.manpower.repository.GroupRepository;
 import com.manpower.repository.MemberRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +24,10 @@ import java.util.*;
 @Service
 public class ContributionServiceImpl implements ContributionService {
 
+    // Page size bounds for the keyset listings; keeps per-request memory flat regardless of table size.
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private ContributionRepository contributionRepository;
 
@@ -25,6 +37,12 @@ public class ContributionServiceImpl implements ContributionService {
     @Autowired
     private GroupRepository groupRepository;
 
+    @Autowired
+    private GroupLedgerService groupLedgerService;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Override
     @Transactional
     public Contribution saveContribution(Contribution contribution) {
@@ -48,12 +66,14 @@ public class ContributionServiceImpl implements ContributionService {
         contribution.setMember(memberOpt.get());
         contribution.setGroup(groupOpt.get());
 
-        return contributionRepository.save(contribution);
-    }
+        // For an update, take the previous version out of the ledger before it is overwritten
+        if (contribution.getId() != null) {
+            contributionRepository.findById(contribution.getId()).ifPresent(groupLedgerService::reverse);
+        }
 
-    @Override
-    public List<Contribution> getAllContributions() {
-        return contributionRepository.findAll();
+        Contribution saved = contributionRepository.save(contribution);
+        groupLedgerService.record(saved);
+        return saved;
     }
 
     @Override
@@ -62,61 +82,152 @@ public class ContributionServiceImpl implements ContributionService {
     }
 
     @Override
-    public List<Contribution> getContributionsByMemberId(String memberId) {
-        if (!memberRepository.existsById(memberId)) {
+    public ContributionPage getContributions(ContributionCursor after, int limit) {
+        Pageable page = pageOf(limit);
+        List<Contribution> rows = after == null
+                ? contributionRepository.findFirstPage(page)
+                : contributionRepository.findPageAfter(after.getTransactionDate(), after.getId(), page);
+        return toPage(rows, page.getPageSize() - 1);
+    }
+
+    @Override
+    public ContributionPage getContributionsByMemberId(String memberId, ContributionCursor after, int limit) {
+        if (!AccessContext.isCaller(memberId) && !referenceDataCache.memberExists(memberId)) {
             throw new IllegalArgumentException("Member with ID " + memberId + " not found.");
         }
-        return contributionRepository.findByMemberId(memberId);
+        Pageable page = pageOf(limit);
+        List<Contribution> rows = after == null
+                ? contributionRepository.findFirstPageByMemberId(memberId, page)
+                : contributionRepository.findPageByMemberIdAfter(memberId, after.getTransactionDate(), after.getId(), page);
+        return toPage(rows, page.getPageSize() - 1);
     }
 
     @Override
-    public List<Contribution> getContributionsByGroupId(String groupId) {
-        if (!groupRepository.existsById(groupId)) {
+    public ContributionPage getContributionsByGroupId(String groupId, ContributionCursor after, int limit) {
+        if (!AccessContext.isCallersGroup(groupId) && !referenceDataCache.groupExists(groupId)) {
             throw new IllegalArgumentException("Group with ID " + groupId + " not found.");
         }
-        return contributionRepository.findByGroupId(groupId);
+        Pageable page = pageOf(limit);
+        List<Contribution> rows = after == null
+                ? contributionRepository.findFirstPageByGroupId(groupId, page)
+                : contributionRepository.findPageByGroupIdAfter(groupId, after.getTransactionDate(), after.getId(), page);
+        return toPage(rows, page.getPageSize() - 1);
+    }
+
+    // Fetches one row more than requested so we can tell whether another page exists without a COUNT(*).
+    private Pageable pageOf(int limit) {
+        int size = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        return PageRequest.of(0, size + 1);
+    }
+
+    private ContributionPage toPage(List<Contribution> rows, int size) {
+        if (rows.size() <= size) {
+            return new ContributionPage(rows, null);
+        }
+        List<Contribution> items = new ArrayList<>(rows.subList(0, size));
+        Contribution last = items.get(size - 1);
+        return new ContributionPage(items, new ContributionCursor(last.getTransactionDate(), last.getId()).encode());
     }
 
     @Override
     @Transactional
     public void deleteContribution(String id) {
-        if (!contributionRepository.existsById(id)) {
-            throw new IllegalArgumentException("Contribution with ID " + id + " not found.");
+        Contribution existing = contributionRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Contribution with ID " + id + " not found."));
+        groupLedgerService.reverse(existing);
+        contributionRepository.delete(existing);
+    }
+
+    @Override
+    @Transactional
+    public boolean updateStatus(String id, TransactionStatus newStatus) {
+        Contribution existing = contributionRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Contribution with ID " + id + " not found."));
+        TransactionStatus oldStatus = existing.getStatus();
+        if (oldStatus == newStatus) {
+            return false;
         }
-        contributionRepository.deleteById(id);
+        // Only the caller that actually flips the status adjusts the ledger
+        if (contributionRepository.compareAndSetStatus(id, oldStatus, newStatus) == 0) {
+            return false;
+        }
+        groupLedgerService.recordStatusChange(existing, oldStatus, newStatus);
+        return true;
     }
 
     @Override
     public Map<String, Object> getContributionSummary(String groupId) {
-        List<Contribution> contributions;
+        List<ContributionAggregate> rows;
 
         if (groupId != null && !groupId.isEmpty()) {
-            if (!groupRepository.existsById(groupId)) {
+            if (!AccessContext.isCallersGroup(groupId) && !referenceDataCache.groupExists(groupId)) {
                 throw new IllegalArgumentException("Group with ID " + groupId + " not found.");
             }
-            contributions = contributionRepository.findByGroupId(groupId);
+            rows = contributionRepository.aggregateByGroupId(groupId);
         } else {
-            contributions = contributionRepository.findAll();
+            rows = contributionRepository.aggregateAllGroups();
         }
 
-        double total = contributions.stream()
-                .mapToDouble(c -> c.getAmount().doubleValue())
-                .sum();
+        return buildSummary(groupId, rows);
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getContributionSummaries(Collection<String> groupIds) {
+        List<ContributionAggregate> rows = (groupIds == null || groupIds.isEmpty())
+                ? contributionRepository.aggregateAllGroups()
+                : contributionRepository.aggregateByGroupIds(groupIds);
+
+        Map<String, List<ContributionAggregate>> rowsByGroup = new LinkedHashMap<>();
+        if (groupIds != null) {
+            // Requested groups with no contributions still get an (empty) summary
+            for (String groupId : groupIds) {
+                rowsByGroup.put(groupId, new ArrayList<>());
+            }
+        }
+        for (ContributionAggregate row : rows) {
+            rowsByGroup.computeIfAbsent(row.getGroupId(), id -> new ArrayList<>()).add(row);
+        }
+
+        Map<String, Map<String, Object>> summaries = new LinkedHashMap<>();
+        rowsByGroup.forEach((groupId, groupRows) -> summaries.put(groupId, buildSummary(groupId, groupRows)));
+        return summaries;
+    }
+
+    // Rolls the (group, type, status) aggregate rows up into overall, per-type and per-status buckets.
+    private Map<String, Object> buildSummary(String groupId, List<ContributionAggregate> rows) {
+        ContributionStats overall = new ContributionStats();
+        Map<TransactionType, ContributionStats> byType = new EnumMap<>(TransactionType.class);
+        Map<TransactionStatus, ContributionStats> byStatus = new EnumMap<>(TransactionStatus.class);
+
+        for (ContributionAggregate row : rows) {
+            overall.add(row);
+            if (row.getTransactionType() != null) {
+                byType.computeIfAbsent(row.getTransactionType(), t -> new ContributionStats()).add(row);
+            }
+            if (row.getStatus() != null) {
+                byStatus.computeIfAbsent(row.getStatus(), st -> new ContributionStats()).add(row);
+            }
+        }
 
-        Map<String, Object> summary = new HashMap<>();
+        Map<String, Object> summary = new LinkedHashMap<>();
         summary.put("groupId", groupId);
-        summary.put("totalContributions", total);
-        summary.put("numberOfContributions", contributions.size());
+        summary.put("totalContributions", overall.getTotal());
+        summary.put("numberOfContributions", overall.getCount());
+        summary.put("minAmount", overall.getMinAmount());
+        summary.put("maxAmount", overall.getMaxAmount());
+        summary.put("averageAmount", overall.getAverage());
+        summary.put("byTransactionType", byType);
+        summary.put("byStatus", byStatus);
 
         return summary;
     }
 
-    // ✅ NEW: Total contribution amount by group ID
+    // ✅ NEW: Total contribution amount by group ID (Completed contributions, read from the ledger)
     @Override
     public BigDecimal getTotalContributionsByGroup(String groupId) {
-        if (!groupRepository.existsById(groupId)) {
+        if (!AccessContext.isCallersGroup(groupId) && !referenceDataCache.groupExists(groupId)) {
             throw new IllegalArgumentException("Group with ID " + groupId + " not found.");
         }
-        return contributionRepository.sumByGroupId(groupId);
+        return groupLedgerService.getGroupTotal(groupId);
     }
 }
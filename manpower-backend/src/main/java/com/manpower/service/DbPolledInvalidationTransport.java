@@ -0,0 +1,140 @@
+package com.manpower.service;
+
+import com.manpower.entity.CacheInvalidationEvent;
+import com.manpower.enums.CachedEntity;
+import com.manpower.repository.CacheInvalidationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Default {@link InvalidationTransport}: the shared database is the message bus, so no broker is needed.
+ *
+ * {@link #publish} inserts a {@code cache_invalidations} row in the writer's transaction (the services publish
+ * from inside it), so a change that rolls back sends nothing. Every node polls the
+ * table every {@code cache.invalidation.poll-interval-ms} for rows after the last one it saw and hands the
+ * other nodes' rows to the bus.
+ *
+ * IDs are taken at insert but become visible at commit, so a slow transaction can commit an ID below ones
+ * already read. Each poll therefore reads on from the highest ID seen, and looks up by primary key only the
+ * IDs it skipped, for at most {@code gap-timeout-ms}; an ID still missing after that belonged to a
+ * rolled-back transaction, or to one open for longer than that, whose entry then lasts until the cache TTL.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "db", matchIfMissing = true)
+public class DbPolledInvalidationTransport implements InvalidationTransport {
+
+    @Autowired
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    @Value("${cache.invalidation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cache.invalidation.gap-timeout-ms:30000}")
+    private long gapTimeoutMs;
+
+    @Value("${cache.invalidation.retention-seconds:3600}")
+    private long retentionSeconds;
+
+    // Tells this node's rows from its peers'; a new value on every start
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile BiConsumer<CachedEntity, String> handler;
+
+    // Poll state, guarded by `this`: the highest ID read so far, and the IDs below it not seen yet, with
+    // the time each was first found missing
+    private long highestSeen;
+    private final Map<Long, Long> missingSince = new HashMap<>();
+    private long lastPurge;
+
+    @PostConstruct
+    void start() {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("cache.invalidation.batch-size must be at least 1");
+        }
+        // A starting node has empty caches: older events are of no interest
+        highestSeen = cacheInvalidationRepository.findMaxId();
+        lastPurge = System.currentTimeMillis();
+    }
+
+    @Override
+    @Transactional
+    public void publish(CachedEntity entity, String id) {
+        cacheInvalidationRepository.save(new CacheInvalidationEvent(entity, id, nodeId));
+    }
+
+    @Override
+    public void subscribe(BiConsumer<CachedEntity, String> handler) {
+        this.handler = handler;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Scheduled(fixedDelayString = "${cache.invalidation.poll-interval-ms:1000}",
+               initialDelayString = "${cache.invalidation.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        long now = System.currentTimeMillis();
+        recheckMissing(now);
+        List<CacheInvalidationEvent> events;
+        do {
+            events = cacheInvalidationRepository.findAfter(highestSeen, PageRequest.of(0, batchSize));
+            for (CacheInvalidationEvent event : events) {
+                for (long skipped = highestSeen + 1; skipped < event.getId(); skipped++) {
+                    missingSince.put(skipped, now);
+                }
+                highestSeen = event.getId();
+                handle(event);
+            }
+        } while (events.size() == batchSize);
+        purgeOldEvents();
+    }
+
+    // Looks up the IDs skipped so far, and gives up on those missing for longer than the gap timeout
+    private void recheckMissing(long now) {
+        if (missingSince.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(missingSince.keySet());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            for (CacheInvalidationEvent event : cacheInvalidationRepository.findByIdIn(chunk)) {
+                missingSince.remove(event.getId());
+                handle(event);
+            }
+        }
+        missingSince.values().removeIf(since -> now - since > gapTimeoutMs);
+    }
+
+    private void handle(CacheInvalidationEvent event) {
+        if (!nodeId.equals(event.getOriginNode()) && handler != null) {
+            handler.accept(event.getEntityType(), event.getEntityId());
+        }
+    }
+
+    private void purgeOldEvents() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurge < retentionSeconds * 1000 / 4) {
+            return;
+        }
+        lastPurge = now;
+        int purged = cacheInvalidationRepository.deleteCreatedBefore(LocalDateTime.now().minusSeconds(retentionSeconds));
+        if (purged > 0) {
+            System.out.println("♻️ Purged " + purged + " cache invalidation event(s) older than " + retentionSeconds + "s.");
+        }
+    }
+}
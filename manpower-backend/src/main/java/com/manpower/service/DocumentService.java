@@ -1,9 +1,11 @@
 package com.manpower.service;
 
 import com.manpower.entity.Document;
+import com.manpower.enums.CachedEntity;
 import com.manpower.repository.DocumentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +16,9 @@ public class DocumentService {
     @Autowired
     private DocumentRepository documentRepository;
 
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     public List<Document> getAllDocuments() {
         return documentRepository.findAll();
     }
@@ -22,11 +27,17 @@ public class DocumentService {
         return documentRepository.findById(id);
     }
 
+    @Transactional
     public Document saveDocument(Document document) {
-        return documentRepository.save(document);
+        Document saved = documentRepository.save(document);
+        // Other nodes hold documents in their second-level cache
+        cacheInvalidationBus.publish(CachedEntity.Document, saved.getId());
+        return saved;
     }
 
+    @Transactional
     public void deleteDocument(String id) {
         documentRepository.deleteById(id);
+        cacheInvalidationBus.publish(CachedEntity.Document, id);
     }
 }
@@ -0,0 +1,270 @@
+package com.manpower.service;
+
+import com.manpower.entity.OutboundEmail;
+import com.manpower.enums.EmailOutboxStatus;
+import com.manpower.repository.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional email outbox.
+ *
+ * {@link #enqueue} only inserts an {@link OutboundEmail} row, inside the caller's transaction: the email
+ * exists exactly when the change that triggered it commits. A single background sender then drains due rows
+ * in batches of {@code mail.outbox.batch-size}. Each batch is one {@link JavaMailSender#send(SimpleMailMessage...)}
+ * call, so its messages share one SMTP connection and login instead of opening one per email.
+ *
+ * A message that fails is retried with exponential backoff ({@code backoff-initial-ms} doubling up to
+ * {@code backoff-max-ms}, with jitter) and marked Failed after {@code max-attempts}. Delivery is at least
+ * once: if the node dies between the SMTP server accepting a batch and the rows being marked Sent, the
+ * stale-claim sweep sends that batch again.
+ */
+@Service
+public class EmailOutbox {
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.backoff-initial-ms:5000}")
+    private long backoffInitialMs;
+
+    @Value("${mail.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    @Value("${mail.outbox.stale-after-seconds:300}")
+    private long staleAfterSeconds;
+
+    @Value("${mail.from:}")
+    private String from;
+
+    private ThreadPoolExecutor sender;
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicLong sentEmails = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong abandonedEmails = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        if (batchSize < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("mail.outbox.batch-size and mail.outbox.max-attempts must be at least 1");
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // One sender thread; at most one drain waits behind the running one, further wake-ups are folded into it
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("email-outbox-");
+        threadFactory.setDaemon(true);
+        sender = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(1),
+                threadFactory, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Claimed rows go back to Pending through the stale sweep on the next start
+        sender.shutdownNow();
+        sender.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Adds an email to the outbox in the current transaction; it is sent once that transaction commits.
+     */
+    @Transactional
+    public OutboundEmail enqueue(String to, String subject, String text) {
+        OutboundEmail email = emailOutboxRepository.save(new OutboundEmail(to, subject, text));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+        return email;
+    }
+
+    /**
+     * Asks the sender to drain due emails now rather than at the next poll.
+     */
+    public void wakeUp() {
+        sender.execute(this::drain);
+    }
+
+    public long getSentEmails() {
+        return sentEmails.get();
+    }
+
+    public long getFailedAttempts() {
+        return failedAttempts.get();
+    }
+
+    public long getAbandonedEmails() {
+        return abandonedEmails.get();
+    }
+
+    public long getPendingEmails() {
+        return emailOutboxRepository.countByStatus(EmailOutboxStatus.Pending);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        poll();
+    }
+
+    // Picks up retries as they fall due and emails whose sender died mid-batch
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:5000}",
+               initialDelayString = "${mail.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        LocalDateTime staleBefore = LocalDateTime.now().minusSeconds(staleAfterSeconds);
+        Integer requeued = transactionTemplate.execute(status -> emailOutboxRepository.requeueStale(staleBefore));
+        if (requeued != null && requeued > 0) {
+            System.out.println("♻️ Re-queued " + requeued + " email(s) left mid-send.");
+        }
+        wakeUp();
+    }
+
+    void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            String token = UUID.randomUUID().toString();
+            List<OutboundEmail> batch = transactionTemplate.execute(status -> claimBatch(token));
+            if (batch == null || batch.isEmpty()) {
+                return;
+            }
+            sendBatch(token, batch);
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private List<OutboundEmail> claimBatch(String token) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> due = emailOutboxRepository.findDueIds(now, PageRequest.of(0, batchSize));
+        if (due.isEmpty() || emailOutboxRepository.claim(due, token, now) == 0) {
+            return Collections.emptyList();
+        }
+        return emailOutboxRepository.findByClaimToken(token);
+    }
+
+    private void sendBatch(String token, List<OutboundEmail> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < messages.length; i++) {
+            OutboundEmail email = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            if (!from.isEmpty()) {
+                message.setFrom(from);
+            }
+            message.setTo(email.getRecipient());
+            message.setSubject(email.getSubject());
+            message.setText(email.getBody());
+            messages[i] = message;
+        }
+
+        Map<Object, Exception> failures = Collections.emptyMap();
+        MailException batchFailure = null;
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages(); // Per message: the others in the batch were accepted
+        } catch (MailException e) {
+            batchFailure = e; // e.g. authentication failed: nothing was sent
+        }
+
+        List<String> sent = new ArrayList<>();
+        List<OutboundEmail> failed = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < messages.length; i++) {
+            Exception failure = batchFailure != null ? batchFailure : failures.get(messages[i]);
+            if (failure == null) {
+                sent.add(batch.get(i).getId());
+            } else {
+                failed.add(batch.get(i));
+                errors.add(failure.getMessage() == null ? failure.getClass().getSimpleName() : failure.getMessage());
+            }
+        }
+        record(token, sent, failed, errors);
+    }
+
+    private void record(String token, List<String> sent, List<OutboundEmail> failed, List<String> errors) {
+        transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (!sent.isEmpty()) {
+                emailOutboxRepository.markSent(sent, token, now);
+            }
+            for (int i = 0; i < failed.size(); i++) {
+                OutboundEmail email = failed.get(i);
+                int attempts = email.getAttempts() + 1;
+                boolean abandon = attempts >= maxAttempts;
+                String error = errors.get(i);
+                String storedError = error.substring(0, Math.min(error.length(), 500));
+                if (!abandon) {
+                    emailOutboxRepository.markAttemptFailed(email.getId(), token,
+                            now.plusNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs(attempts))), storedError, now);
+                } else {
+                    emailOutboxRepository.markAbandoned(email.getId(), token, storedError, now);
+                    abandonedEmails.incrementAndGet();
+                    System.err.println("❌ Giving up on email " + email.getId() + " to " + email.getRecipient()
+                            + " after " + attempts + " attempts: " + error);
+                }
+            }
+            return null;
+        });
+        sentEmails.addAndGet(sent.size());
+        failedAttempts.addAndGet(failed.size());
+        if (!failed.isEmpty()) {
+            System.out.println("⚠️ " + failed.size() + " of " + (sent.size() + failed.size())
+                    + " email(s) not sent; retrying with backoff. First error: " + errors.get(0));
+        }
+    }
+
+    // Delay before the next attempt after `attempts` failures: initial, doubling, capped, +/-20% jitter
+    private long backoffMs(int attempts) {
+        long delay = backoffInitialMs << Math.min(attempts - 1, 30);
+        if (delay <= 0 || delay > backoffMaxMs) {
+            delay = backoffMaxMs;
+        }
+        long jitter = delay / 5;
+        return jitter > 0 ? delay - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1) : delay;
+    }
+}
@@ -0,0 +1,153 @@
+package com.manpower.service;
+
+import com.manpower.dto.LedgerAggregate;
+import com.manpower.dto.LedgerDrift;
+import com.manpower.dto.LedgerVerificationReport;
+import com.manpower.entity.Contribution;
+import com.manpower.entity.GroupLedgerTotal;
+import com.manpower.enums.TransactionStatus;
+import com.manpower.repository.ContributionRepository;
+import com.manpower.repository.GroupLedgerTotalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Maintains the group_ledger_totals table: running totals of Completed contributions per
+ * (group, member, transaction type). Every method joins the caller's transaction, so a
+ * contribution write and its ledger adjustment commit or roll back together.
+ */
+@Service
+public class GroupLedgerService {
+
+    @Autowired
+    private GroupLedgerTotalRepository ledgerRepository;
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    /**
+     * Adds a contribution to the running totals. Only Completed contributions count towards the ledger.
+     */
+    @Transactional
+    public void record(Contribution contribution) {
+        apply(contribution, contribution.getStatus(), 1);
+    }
+
+    /**
+     * Removes a contribution (as it currently stands) from the running totals.
+     */
+    @Transactional
+    public void reverse(Contribution contribution) {
+        apply(contribution, contribution.getStatus(), -1);
+    }
+
+    /**
+     * Adjusts the totals for a contribution whose status moved from oldStatus to newStatus.
+     */
+    @Transactional
+    public void recordStatusChange(Contribution contribution, TransactionStatus oldStatus, TransactionStatus newStatus) {
+        apply(contribution, oldStatus, -1);
+        apply(contribution, newStatus, 1);
+    }
+
+    private void apply(Contribution contribution, TransactionStatus status, int sign) {
+        if (status != TransactionStatus.Completed || contribution.getAmount() == null) {
+            return;
+        }
+        BigDecimal amount = sign < 0 ? contribution.getAmount().negate() : contribution.getAmount();
+        ledgerRepository.applyDelta(
+                contribution.getGroup().getId(),
+                contribution.getMember().getId(),
+                contribution.getTransactionType().name(),
+                amount,
+                sign);
+    }
+
+    /**
+     * Total of all Completed contributions for a group, read from the ledger instead of the contributions table.
+     */
+    public BigDecimal getGroupTotal(String groupId) {
+        return ledgerRepository.sumByGroupId(groupId);
+    }
+
+    /**
+     * Recomputes the expected totals from the contributions table and reports every ledger row that differs.
+     *
+     * @param groupId Restrict the check to one group, or null for the whole ledger.
+     */
+    @Transactional(readOnly = true)
+    public LedgerVerificationReport verify(String groupId) {
+        List<LedgerAggregate> expected = groupId == null
+                ? contributionRepository.aggregateCompletedForLedger()
+                : contributionRepository.aggregateCompletedForLedgerByGroupId(groupId);
+        List<GroupLedgerTotal> actual = groupId == null
+                ? ledgerRepository.findAll()
+                : ledgerRepository.findByGroupId(groupId);
+
+        Map<GroupLedgerTotal.Key, GroupLedgerTotal> actualByKey = new HashMap<>();
+        for (GroupLedgerTotal row : actual) {
+            actualByKey.put(new GroupLedgerTotal.Key(row.getGroupId(), row.getMemberId(), row.getTransactionType()), row);
+        }
+
+        List<LedgerDrift> drift = new ArrayList<>();
+        for (LedgerAggregate row : expected) {
+            GroupLedgerTotal stored = actualByKey.remove(new GroupLedgerTotal.Key(row.getGroupId(), row.getMemberId(), row.getTransactionType()));
+            BigDecimal actualTotal = stored != null ? stored.getTotalAmount() : BigDecimal.ZERO;
+            long actualCount = stored != null ? stored.getContributionCount() : 0L;
+            if (row.getTotal().compareTo(actualTotal) != 0 || row.getCount() != actualCount) {
+                drift.add(new LedgerDrift(row.getGroupId(), row.getMemberId(), row.getTransactionType(),
+                        row.getTotal(), actualTotal, row.getCount(), actualCount));
+            }
+        }
+        // Whatever is left in the ledger has no matching contributions at all
+        for (GroupLedgerTotal stored : actualByKey.values()) {
+            if (stored.getTotalAmount().signum() != 0 || stored.getContributionCount() != 0) {
+                drift.add(new LedgerDrift(stored.getGroupId(), stored.getMemberId(), stored.getTransactionType(),
+                        BigDecimal.ZERO, stored.getTotalAmount(), 0L, stored.getContributionCount()));
+            }
+        }
+
+        return new LedgerVerificationReport(groupId, expected.size(), drift, false);
+    }
+
+    /**
+     * Verifies the ledger, then replaces it with totals recomputed from the contributions table.
+     * The returned report describes the drift that existed before the rebuild.
+     *
+     * @param groupId Rebuild only one group, or null for the whole ledger.
+     */
+    @Transactional
+    public LedgerVerificationReport rebuild(String groupId) {
+        LedgerVerificationReport before = verify(groupId);
+        if (groupId == null) {
+            ledgerRepository.deleteAllRows();
+            ledgerRepository.rebuildAll();
+        } else {
+            ledgerRepository.deleteRowsByGroupId(groupId);
+            ledgerRepository.rebuildByGroupId(groupId);
+        }
+        System.out.println("Group ledger rebuilt" + (groupId != null ? " for group " + groupId : "")
+                + ": " + before.getDrift().size() + " drifted row(s) corrected.");
+        return new LedgerVerificationReport(groupId, before.getRowsChecked(), before.getDrift(), true);
+    }
+
+    /**
+     * Seeds the ledger on first start-up after it was introduced, so existing contributions are counted.
+     * Nodes starting together may all find it empty; the seed is an upsert of the recomputed totals, so
+     * the ones that come second write the same totals again instead of adding them twice or failing.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeIfEmpty() {
+        if (ledgerRepository.count() == 0 && contributionRepository.count() > 0) {
+            ledgerRepository.rebuildAll();
+            System.out.println("Group ledger initialised from existing contributions.");
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.manpower.service;
 
+import com.manpower.dto.AccessPrincipal;
+import com.manpower.dto.MemberRef;
 import com.manpower.entity.Group;
-import com.manpower.entity.Member;
+import com.manpower.enums.CachedEntity;
 import com.manpower.enums.MemberRole;
 import com.manpower.repository.GroupRepository;
 import com.manpower.repository.MemberRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,39 +23,63 @@ public class GroupServiceImp implements GroupService {
     @Autowired
     private MemberRepository memberRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     @Override
     public List<Group> getAllGroups() {
-        return groupRepository.findAll();
+        return groupRepository.findAllWithMembers();
     }
 
     @Override
     public Optional<Group> getGroupById(String id) {
-        return groupRepository.findById(id);
+        return groupRepository.findWithMembersById(id);
     }
 
     @Override
+    @Transactional
     public Group saveGroup(Group group) {
-        Member creator = memberRepository.findById(group.getCreatedBy())
-                .orElseThrow(() -> new RuntimeException("❌ Creator not found: " + group.getCreatedBy()));
+        MemberRef creator = referenceDataCache.getMember(group.getCreatedBy());
+        if (creator == null) {
+            throw new RuntimeException("❌ Creator not found: " + group.getCreatedBy());
+        }
 
         if (creator.getRole() != MemberRole.GroupAdmin && creator.getRole() != MemberRole.SuperAdmin) {
             throw new RuntimeException("❌ Only GroupAdmin or SuperAdmin can create groups");
         }
 
-        return groupRepository.save(group);
+        Group saved = groupRepository.save(group);
+        // An update may change its status or creator; a new ID may be cached as "no such group"
+        cacheInvalidationBus.publish(CachedEntity.Group, saved.getId());
+        return saved;
     }
 
     @Override
+    @Transactional
     public void deleteGroup(String id) {
         groupRepository.deleteById(id);
+        cacheInvalidationBus.publish(CachedEntity.Group, id);
     }
 
     @Override
     public List<Group> getGroupsByCreator(String creatorId) {
-        Member creator = memberRepository.findById(creatorId)
-                .orElseThrow(() -> new RuntimeException("❌ Creator not found: " + creatorId));
+        // A creator asking for their own groups has their role in the access token: no member lookup
+        AccessPrincipal caller = AccessContext.current();
+        MemberRole creatorRole;
+        if (caller != null && caller.isMember(creatorId)) {
+            creatorRole = caller.getRole();
+        } else {
+            MemberRef creator = referenceDataCache.getMember(creatorId);
+            if (creator == null) {
+                throw new RuntimeException("❌ Creator not found: " + creatorId);
+            }
+            creatorRole = creator.getRole();
+        }
 
-        if (creator.getRole() != MemberRole.GroupAdmin && creator.getRole() != MemberRole.SuperAdmin) {
+        if (creatorRole != MemberRole.GroupAdmin && creatorRole != MemberRole.SuperAdmin) {
             throw new RuntimeException("❌ Only GroupAdmin or SuperAdmin can view their groups");
         }
 
@@ -60,11 +87,14 @@ public class GroupServiceImp implements GroupService {
     }
 
     @Override
+    @Transactional
     public Group terminateGroup(String id) {
-        Group group = groupRepository.findById(id)
+        Group group = groupRepository.findWithMembersById(id)
                 .orElseThrow(() -> new RuntimeException("❌ Group not found with ID: " + id));
 
         group.setStatus("Terminated");
-        return groupRepository.save(group);
+        Group saved = groupRepository.save(group);
+        cacheInvalidationBus.publish(CachedEntity.Group, id);
+        return saved;
     }
 }
\ No newline at end of file
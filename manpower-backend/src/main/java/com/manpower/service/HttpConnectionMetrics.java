@@ -0,0 +1,48 @@
+package com.manpower.service;
+
+import com.manpower.config.HttpClientConfig;
+import com.manpower.config.PesaPalConfig;
+import com.manpower.dto.HttpPoolStats;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Exposes the outbound HTTP connection pool: totals and the PesaPal route, and a periodic warning
+ * while requests are queueing for a connection (a sign PesaPal is slow or the pool is too small).
+ */
+@Service
+public class HttpConnectionMetrics {
+
+    @Autowired
+    private PoolingHttpClientConnectionManager httpConnectionManager;
+
+    @Autowired
+    private PesaPalConfig pesapalConfig;
+
+    public HttpPoolStats getTotalStats() {
+        return new HttpPoolStats("total", httpConnectionManager.getTotalStats());
+    }
+
+    /**
+     * @return null if no PesaPal base URL is configured.
+     */
+    public HttpPoolStats getPesaPalStats() {
+        HttpRoute route = HttpClientConfig.routeFor(pesapalConfig.getPesapalApiBaseUrl());
+        if (route == null) {
+            return null;
+        }
+        return new HttpPoolStats(route.getTargetHost().toURI(), httpConnectionManager.getStats(route));
+    }
+
+    @Scheduled(fixedDelayString = "${pesapal.http.stats-log-interval-ms:60000}")
+    public void logSaturation() {
+        HttpPoolStats total = getTotalStats();
+        if (total.getPending() > 0) {
+            System.out.println("⚠️ Outbound HTTP pool saturated: " + total.getLeased() + "/" + total.getMax()
+                    + " connections leased, " + total.getPending() + " request(s) waiting.");
+        }
+    }
+}
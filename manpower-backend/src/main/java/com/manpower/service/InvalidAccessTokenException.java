@@ -0,0 +1,17 @@
+package com.manpower.service;
+
+/**
+ * Thrown for an access token that is malformed, not signed by this server, or past its expiry.
+ * Callers should answer 401 so the client signs in (or refreshes) again.
+ */
+public class InvalidAccessTokenException extends RuntimeException {
+
+    private final boolean expired;
+
+    public InvalidAccessTokenException(String message, boolean expired) {
+        super(message);
+        this.expired = expired;
+    }
+
+    public boolean isExpired() { return expired; }
+}
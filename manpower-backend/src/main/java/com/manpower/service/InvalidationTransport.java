@@ -0,0 +1,24 @@
+package com.manpower.service;
+
+import com.manpower.enums.CachedEntity;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Carries cache invalidations between the nodes of a deployment for {@link CacheInvalidationBus}.
+ * Selected with {@code cache.invalidation.transport}: {@code db} (default, {@link DbPolledInvalidationTransport})
+ * or {@code none} for a single node. A broker-based transport only needs to implement this interface.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Sends an invalidation to the other nodes. Called inside the transaction that makes the change; a
+     * transport that can should join it, so the invalidation is only sent if the change commits.
+     */
+    void publish(CachedEntity entity, String id);
+
+    /**
+     * Registers the handler for invalidations made by other nodes.
+     */
+    void subscribe(BiConsumer<CachedEntity, String> handler);
+}
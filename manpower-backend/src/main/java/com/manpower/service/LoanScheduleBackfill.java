@@ -0,0 +1,146 @@
+package com.manpower.service;
+
+import com.manpower.entity.LoanInstallment;
+import com.manpower.enums.RepaymentMethod;
+import com.manpower.repository.LoanScheduleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * One-off generation of repayment schedules for loans saved before schedules existed.
+ *
+ * Those loans have no loan_installments rows and no repayment method (the column was added empty), so the
+ * schedule endpoint showed no installments for them. On start-up, if any loan still has no schedule, this walks
+ * the loans once in primary-key order (batch-size rows per page), marks a loan without a repayment method Flat,
+ * the flat interest saveLoan always charged, and writes the schedule its stored terms give. Each loan is written
+ * in its own transaction, and only while it still has no schedule, so a loan saved with new terms meanwhile
+ * keeps its own. Loans that have one are skipped, so it is safe to run on every start and returns after one
+ * query once migrated.
+ */
+@Service
+public class LoanScheduleBackfill {
+
+    private static final String PENDING_SQL =
+            "SELECT l.id FROM loans l WHERE NOT EXISTS " +
+            "(SELECT 1 FROM loan_installments i WHERE i.loan_id = l.id) LIMIT 1";
+
+    private static final String PAGE_SQL =
+            "SELECT l.id, l.amount, l.interest_rate, l.start_date, l.due_date, l.repayment_method FROM loans l " +
+            "WHERE l.id > ? AND NOT EXISTS (SELECT 1 FROM loan_installments i WHERE i.loan_id = l.id) " +
+            "ORDER BY l.id LIMIT ?";
+
+    private static final String HAS_SCHEDULE_SQL =
+            "SELECT COUNT(*) FROM loan_installments WHERE loan_id = ?";
+
+    private static final String SET_METHOD_SQL =
+            "UPDATE loans SET repayment_method = ? WHERE id = ? AND repayment_method IS NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LoanScheduleRepository loanScheduleRepository;
+
+    @Autowired
+    private AmortizationScheduleGenerator amortizationScheduleGenerator;
+
+    @Value("${loan.schedule.backfill-batch-size:1000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        int filled = backfill();
+        if (filled > 0) {
+            System.out.println("✅ Repayment schedules generated for loans saved before schedules existed: "
+                    + filled + " loan(s).");
+        }
+    }
+
+    /**
+     * @return the number of loans whose schedule was written.
+     */
+    public int backfill() {
+        if (jdbcTemplate.queryForList(PENDING_SQL, String.class).isEmpty()) {
+            return 0;
+        }
+        int filled = 0;
+        String afterId = "";
+        while (true) {
+            List<LoanTerms> page = jdbcTemplate.query(PAGE_SQL, (rs, rowNum) -> new LoanTerms(
+                    rs.getString("id"), rs.getBigDecimal("amount"), rs.getBigDecimal("interest_rate"),
+                    rs.getDate("start_date"), rs.getDate("due_date"), rs.getString("repayment_method")),
+                    afterId, batchSize);
+            if (page.isEmpty()) {
+                return filled;
+            }
+            for (LoanTerms loan : page) {
+                if (apply(loan)) {
+                    filled++;
+                }
+            }
+            afterId = page.get(page.size() - 1).id;
+        }
+    }
+
+    private boolean apply(LoanTerms loan) {
+        RepaymentMethod method = loan.repaymentMethod != null
+                ? RepaymentMethod.valueOf(loan.repaymentMethod) : RepaymentMethod.Flat;
+        List<LoanInstallment> schedule;
+        try {
+            if (loan.startDate == null || loan.dueDate == null) {
+                throw new IllegalArgumentException("Start and due dates are required.");
+            }
+            LocalDate start = loan.startDate.toLocalDate();
+            int months = (int) ChronoUnit.MONTHS.between(start, loan.dueDate.toLocalDate());
+            schedule = amortizationScheduleGenerator.generate(loan.id, loan.amount, loan.interestRate, start, months,
+                    method);
+        } catch (IllegalArgumentException e) {
+            System.err.println("⚠️ Loan " + loan.id + " has terms no schedule can be built from (" + e.getMessage()
+                    + "); left without one.");
+            return false;
+        }
+        Boolean written = transactionTemplate.execute(status -> {
+            Integer existing = jdbcTemplate.queryForObject(HAS_SCHEDULE_SQL, Integer.class, loan.id);
+            if (existing != null && existing > 0) {
+                return false; // Saved with new terms since the page was read
+            }
+            jdbcTemplate.update(SET_METHOD_SQL, method.name(), loan.id);
+            loanScheduleRepository.replaceSchedule(loan.id, schedule);
+            return true;
+        });
+        return Boolean.TRUE.equals(written);
+    }
+
+    private static final class LoanTerms {
+        final String id;
+        final BigDecimal amount;
+        final BigDecimal interestRate;
+        final Date startDate;
+        final Date dueDate;
+        final String repaymentMethod;
+
+        LoanTerms(String id, BigDecimal amount, BigDecimal interestRate, Date startDate, Date dueDate,
+                  String repaymentMethod) {
+            this.id = id;
+            this.amount = amount;
+            this.interestRate = interestRate;
+            this.startDate = startDate;
+            this.dueDate = dueDate;
+            this.repaymentMethod = repaymentMethod;
+        }
+    }
+}
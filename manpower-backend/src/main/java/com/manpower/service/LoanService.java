@@ -1,19 +1,34 @@
 package com.manpower.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manpower.dto.LoanRef;
 import com.manpower.entity.Loan;
+import com.manpower.entity.LoanInstallment;
+import com.manpower.entity.LoanPayment;
 import com.manpower.entity.Member;
 import com.manpower.entity.Group;
+import com.manpower.repository.LoanPaymentRepository;
 import com.manpower.repository.LoanRepository;
+import com.manpower.repository.LoanScheduleRepository;
 import com.manpower.repository.MemberRepository;
 import com.manpower.repository.GroupRepository;
 import com.manpower.enums.MemberRole;
+import com.manpower.enums.RepaymentMethod;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
 import javax.persistence.EntityNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
@@ -30,6 +45,28 @@ public class LoanService {
     @Autowired
     private GroupRepository groupRepository;
 
+    @Autowired
+    private LoanPaymentRepository loanPaymentRepository;
+
+    @Autowired
+    private LoanScheduleRepository loanScheduleRepository;
+
+    @Autowired
+    private AmortizationScheduleGenerator amortizationScheduleGenerator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     public List<Loan> getAllLoans() {
         return loanRepository.findAll();
     }
@@ -79,7 +116,7 @@ public class LoanService {
             throw new IllegalArgumentException("Approved by member is required and cannot be null for loan status " + loan.getStatus() + " or for existing loans.");
         }
 
-        // 4. Calculate interest and balances
+        // 4. Validate amount and term
         BigDecimal principal;
         if (loan.getAmount() instanceof BigDecimal) {
             principal = (BigDecimal) loan.getAmount();
@@ -88,30 +125,19 @@ public class LoanService {
         } else {
             throw new IllegalArgumentException("Loan amount must be a numeric type or BigDecimal.");
         }
-        BigDecimal annualRate = loan.getInterestRate();
-        BigDecimal monthlyRate = annualRate.divide(BigDecimal.valueOf(100), 6, RoundingMode.HALF_UP)
-                .divide(BigDecimal.valueOf(12), 6, RoundingMode.HALF_UP);
 
-        LocalDate start = loan.getStartDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-        LocalDate end = loan.getDueDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        // Through epoch millis: a loan read back from the database holds java.sql.Date, which has no toInstant()
+        LocalDate start = Instant.ofEpochMilli(loan.getStartDate().getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+        LocalDate end = Instant.ofEpochMilli(loan.getDueDate().getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
         long months = ChronoUnit.MONTHS.between(start, end);
 
         if (months <= 0) {
             throw new IllegalArgumentException("Due date must be at least 1 month after start date.");
         }
 
-        BigDecimal interest = principal.multiply(monthlyRate).multiply(BigDecimal.valueOf(months)).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal totalRepayable = principal.add(interest);
-
-        loan.setCalculatedInterest(interest);
-        loan.setOutstandingBalance(totalRepayable);
-        
-        // Ensure totalPaid is initialized to zero for a new loan
-        if (loan.getId() == null || loan.getId().trim().isEmpty()) {
-            loan.setTotalPaid(BigDecimal.ZERO);
-        }
-
         // 5. Set metadata
+        // The controller assigns IDs to new loans too, so whether one is new is decided by the stored row
+        boolean isNew = loan.getId() == null || loan.getId().trim().isEmpty() || !loanRepository.existsById(loan.getId());
         if (loan.getId() == null || loan.getId().trim().isEmpty()) {
             loan.setId(UUID.randomUUID().toString());
         }
@@ -122,53 +148,172 @@ public class LoanService {
 
         loan.setModifiedOn(new Date());
 
-        return loanRepository.save(loan);
+        // 6. Work out the repayment schedule; its interest is the loan's interest
+        if (loan.getRepaymentMethod() == null) {
+            loan.setRepaymentMethod(RepaymentMethod.Flat);
+        }
+        List<LoanInstallment> schedule = amortizationScheduleGenerator.generate(loan.getId(), principal,
+                loan.getInterestRate(), start, (int) months, loan.getRepaymentMethod());
+        BigDecimal interest = AmortizationScheduleGenerator.totalInterest(schedule);
+        loan.setCalculatedInterest(interest);
+
+        // Payments are the loan_payments rows, never the client's figures. The balance columns are only
+        // written on insert; an existing loan keeps what was paid on it, and new terms only change what is
+        // still owed, worked out by the database against its own totalPaid.
+        BigDecimal repayable = principal.add(interest);
+        if (isNew) {
+            loan.setTotalPaid(BigDecimal.ZERO);
+            loan.setOutstandingBalance(repayable);
+        }
+
+        // The loan and its schedule are saved together, so the schedule always matches the loan's terms
+        String loanId = transactionTemplate.execute(status -> {
+            Loan savedLoan = loanRepository.save(loan);
+            if (!isNew) {
+                loanRepository.rebaseBalance(savedLoan.getId(), repayable);
+            }
+            loanScheduleRepository.replaceSchedule(savedLoan.getId(), schedule);
+            return savedLoan.getId();
+        });
+        return loanRepository.findById(loanId)
+                .orElseThrow(() -> new EntityNotFoundException("Loan with ID " + loanId + " not found."));
+    }
+
+    /**
+     * @return the fields that head the loan's schedule, or null if there is no such loan.
+     */
+    public LoanRef getLoanRef(String loanId) {
+        return loanRepository.findRefById(loanId);
+    }
+
+    /**
+     * Writes the loan's schedule and the payments made so far as one JSON document, row by row as they are read.
+     */
+    public void writeSchedule(LoanRef loan, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("loanId", loan.getId());
+            json.writeStringField("repaymentMethod", loan.getRepaymentMethod().name());
+            json.writeStringField("status", loan.getStatus());
+            writeAmount(json, "amount", loan.getAmount());
+            writeAmount(json, "calculatedInterest", loan.getCalculatedInterest());
+            writeAmount(json, "totalPaid", loan.getTotalPaid());
+            writeAmount(json, "outstandingBalance", loan.getOutstandingBalance());
+
+            json.writeArrayFieldStart("installments");
+            loanScheduleRepository.forEachInstallment(loan.getId(), installment -> write(json, () -> {
+                json.writeStartObject();
+                json.writeNumberField("installmentNumber", installment.getInstallmentNumber());
+                json.writeStringField("dueDate", installment.getDueDate().toString());
+                writeAmount(json, "principalDue", installment.getPrincipalDue());
+                writeAmount(json, "interestDue", installment.getInterestDue());
+                writeAmount(json, "totalDue", installment.getTotalDue());
+                writeAmount(json, "balanceAfter", installment.getBalanceAfter());
+                json.writeEndObject();
+            }));
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("payments");
+            loanScheduleRepository.forEachPayment(loan.getId(), payment -> write(json, () -> {
+                json.writeStartObject();
+                json.writeStringField("id", payment.getId());
+                writeAmount(json, "amount", payment.getAmount());
+                json.writeStringField("paidOn", payment.getPaidOn() != null ? payment.getPaidOn().toString() : null);
+                json.writeEndObject();
+            }));
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private interface JsonWrite {
+        void run() throws IOException;
+    }
+
+    // Row callbacks cannot throw IOException; a client that hung up ends the query
+    private static void write(JsonGenerator json, JsonWrite write) {
+        try {
+            write.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeAmount(JsonGenerator json, String field, BigDecimal amount) throws IOException {
+        if (amount == null) {
+            json.writeNullField(field);
+        } else {
+            json.writeNumberField(field, amount);
+        }
     }
     
     /**
-     * This is the new method to process a payment for a loan.
-     * It updates both the totalPaid and outstandingBalance fields.
+     * Processes a payment for a loan: adds it to totalPaid and takes it off the outstanding balance.
      */
     public Loan processPayment(String loanId, BigDecimal paymentAmount) {
+        return processPayment(loanId, paymentAmount, null);
+    }
+
+    /**
+     * Processes a payment for a loan at most once per idempotency key.
+     *
+     * The loan row is updated by a single SQL statement and the payment recorded in the same transaction, so
+     * concurrent payments all count. A repeated key (a client retrying after a timeout, or the same request
+     * racing itself) applies nothing and returns the loan as it now stands.
+     */
+    public Loan processPayment(String loanId, BigDecimal paymentAmount, String idempotencyKey) {
         if (paymentAmount == null || paymentAmount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Payment amount must be a positive value.");
         }
-
-        Loan loan = loanRepository.findById(loanId)
-                .orElseThrow(() -> new EntityNotFoundException("Loan with ID " + loanId + " not found."));
-
-        // Add the new payment to the totalPaid amount
-        BigDecimal currentTotalPaid = loan.getTotalPaid();
-        BigDecimal newTotalPaid = currentTotalPaid.add(paymentAmount);
-        loan.setTotalPaid(newTotalPaid);
-
-        // Subtract the payment from the outstanding balance
-        BigDecimal currentOutstandingBalance = loan.getOutstandingBalance();
-        BigDecimal newOutstandingBalance = currentOutstandingBalance.subtract(paymentAmount);
-        
-        // Ensure the outstanding balance doesn't go below zero
-        if (newOutstandingBalance.compareTo(BigDecimal.ZERO) < 0) {
-            newOutstandingBalance = BigDecimal.ZERO;
+        String key = idempotencyKey == null || idempotencyKey.trim().isEmpty() ? null : idempotencyKey.trim();
+        if (key != null && key.length() > 100) {
+            throw new IllegalArgumentException("Idempotency key must be at most 100 characters.");
         }
-        
-        loan.setOutstandingBalance(newOutstandingBalance);
 
-        // Update the loan status if it's fully paid
-        if (newOutstandingBalance.compareTo(BigDecimal.ZERO) == 0) {
-            loan.setStatus("PAID");
-        } else if ("PAID".equalsIgnoreCase(loan.getStatus())) {
-             // If a payment is made on a loan that was already fully paid,
-             // it should be changed to 'PARTIALLY_PAID' or similar
-             // You may need to add a new status or adjust this logic as needed.
-             // For now, we'll assume it's a minor overpayment and keep the PAID status.
+        if (key != null) {
+            Optional<LoanPayment> earlier = loanPaymentRepository.findByLoanIdAndIdempotencyKey(loanId, key);
+            if (earlier.isPresent()) {
+                return replay(earlier.get(), paymentAmount);
+            }
         }
 
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (loanRepository.applyPayment(loanId, paymentAmount) == 0) {
+                    throw new EntityNotFoundException("Loan with ID " + loanId + " not found.");
+                }
+                LoanPayment payment = new LoanPayment();
+                payment.setId(UUID.randomUUID().toString());
+                payment.setLoanId(loanId);
+                payment.setAmount(paymentAmount);
+                payment.setIdempotencyKey(key);
+                loanPaymentRepository.saveAndFlush(payment);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another request with the same key committed first; this one rolled back, balance update included
+            LoanPayment earlier = key == null ? null
+                    : loanPaymentRepository.findByLoanIdAndIdempotencyKey(loanId, key).orElse(null);
+            if (earlier == null) {
+                throw e;
+            }
+            return replay(earlier, paymentAmount);
+        }
 
-        loan.setModifiedOn(new Date());
+        return loanRepository.findById(loanId)
+                .orElseThrow(() -> new EntityNotFoundException("Loan with ID " + loanId + " not found."));
+    }
 
-        return loanRepository.save(loan);
+    private Loan replay(LoanPayment earlier, BigDecimal paymentAmount) {
+        if (earlier.getAmount().compareTo(paymentAmount) != 0) {
+            throw new IllegalArgumentException("Idempotency key " + earlier.getIdempotencyKey()
+                    + " was already used for a payment of " + earlier.getAmount() + ".");
+        }
+        System.out.println("♻️ Payment " + earlier.getIdempotencyKey() + " on loan " + earlier.getLoanId()
+                + " was already applied; not applying it again.");
+        return loanRepository.findById(earlier.getLoanId())
+                .orElseThrow(() -> new EntityNotFoundException("Loan with ID " + earlier.getLoanId() + " not found."));
     }
-    
+
     public Loan approveLoan(String loanId, String approverMemberId) {
         Loan loan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new EntityNotFoundException("Loan with ID " + loanId + " not found."));
@@ -214,6 +359,9 @@ public class LoanService {
     }
 
     public void deleteLoan(String id) {
-        loanRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            loanRepository.deleteById(id);
+            loanScheduleRepository.deleteByLoanId(id);
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.manpower.service;
+
+import com.manpower.enums.CachedEntity;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Transport for a single node ({@code cache.invalidation.transport=none}): there is nobody to tell.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "none")
+public class LocalInvalidationTransport implements InvalidationTransport {
+
+    @Override
+    public void publish(CachedEntity entity, String id) {
+        // This node's caches were already invalidated by CacheInvalidationBus
+    }
+
+    @Override
+    public void subscribe(BiConsumer<CachedEntity, String> handler) {
+        // No other nodes
+    }
+}
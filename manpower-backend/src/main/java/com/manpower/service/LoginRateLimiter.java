@@ -0,0 +1,84 @@
+package com.manpower.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Locale;
+
+/**
+ * Throttles sign-in and forgot-password attempts per client IP and per email address.
+ *
+ * The IP limit stops one client spraying many accounts; the email limit stops many clients (or one behind
+ * rotating IPs) hammering one account. Forgot-password is limited much harder than login because each
+ * accepted attempt rewrites the password and sends an email. The IP bucket is charged first, so a request
+ * refused on its email still counts against its IP.
+ */
+@Service
+public class LoginRateLimiter {
+
+    @Value("${security.rate-limit.login.ip-capacity:30}")
+    private int loginIpCapacity;
+
+    @Value("${security.rate-limit.login.ip-per-minute:30}")
+    private double loginIpPerMinute;
+
+    @Value("${security.rate-limit.login.email-capacity:5}")
+    private int loginEmailCapacity;
+
+    @Value("${security.rate-limit.login.email-per-minute:1}")
+    private double loginEmailPerMinute;
+
+    @Value("${security.rate-limit.forgot-password.ip-capacity:5}")
+    private int forgotIpCapacity;
+
+    @Value("${security.rate-limit.forgot-password.ip-per-minute:1}")
+    private double forgotIpPerMinute;
+
+    @Value("${security.rate-limit.forgot-password.email-capacity:2}")
+    private int forgotEmailCapacity;
+
+    @Value("${security.rate-limit.forgot-password.email-per-minute:0.1}")
+    private double forgotEmailPerMinute;
+
+    @Value("${security.rate-limit.max-keys:20000}")
+    private int maxKeys;
+
+    @Value("${security.rate-limit.stripes:16}")
+    private int stripes;
+
+    private TokenBucketLimiter loginByIp;
+    private TokenBucketLimiter loginByEmail;
+    private TokenBucketLimiter forgotByIp;
+    private TokenBucketLimiter forgotByEmail;
+
+    @PostConstruct
+    void init() {
+        loginByIp = new TokenBucketLimiter(loginIpCapacity, loginIpPerMinute, maxKeys, stripes);
+        loginByEmail = new TokenBucketLimiter(loginEmailCapacity, loginEmailPerMinute, maxKeys, stripes);
+        forgotByIp = new TokenBucketLimiter(forgotIpCapacity, forgotIpPerMinute, maxKeys, stripes);
+        forgotByEmail = new TokenBucketLimiter(forgotEmailCapacity, forgotEmailPerMinute, maxKeys, stripes);
+    }
+
+    /**
+     * @return 0 if the login attempt may go ahead, otherwise the seconds to wait (for Retry-After).
+     */
+    public long checkLogin(String clientIp, String email) {
+        return check(loginByIp, loginByEmail, clientIp, email);
+    }
+
+    /**
+     * @return 0 if the password reset may go ahead, otherwise the seconds to wait (for Retry-After).
+     */
+    public long checkForgotPassword(String clientIp, String email) {
+        return check(forgotByIp, forgotByEmail, clientIp, email);
+    }
+
+    private long check(TokenBucketLimiter byIp, TokenBucketLimiter byEmail, String clientIp, String email) {
+        long waitMs = byIp.tryAcquire(clientIp == null ? "" : clientIp);
+        if (waitMs == 0 && email != null) {
+            waitMs = byEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+        }
+        return (waitMs + 999) / 1000;
+    }
+}
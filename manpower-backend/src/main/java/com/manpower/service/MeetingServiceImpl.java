@@ -1,9 +1,11 @@
 package com.manpower.service;
 
 import com.manpower.entity.Meeting;
+import com.manpower.enums.CachedEntity;
 import com.manpower.repository.MeetingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +16,9 @@ public class MeetingServiceImpl implements MeetingService {
     @Autowired
     private MeetingRepository meetingRepository;
 
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     @Override
     public List<Meeting> getAllMeetings() {
         return meetingRepository.findAll();
@@ -25,12 +30,18 @@ public class MeetingServiceImpl implements MeetingService {
     }
 
     @Override
+    @Transactional
     public Meeting saveMeeting(Meeting meeting) {
-        return meetingRepository.save(meeting);
+        Meeting saved = meetingRepository.save(meeting);
+        // Other nodes hold meetings in their second-level cache
+        cacheInvalidationBus.publish(CachedEntity.Meeting, saved.getId());
+        return saved;
     }
 
     @Override
+    @Transactional
     public void deleteMeeting(String id) {
         meetingRepository.deleteById(id);
+        cacheInvalidationBus.publish(CachedEntity.Meeting, id);
     }
 }
\ No newline at end of file
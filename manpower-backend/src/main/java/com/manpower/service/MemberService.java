@@ -16,6 +16,9 @@ public interface MemberService {
     // NEW: Method for password reset
     String resetPassword(String email);
 
+    // Verifies a login password; upgrades legacy plain-text or low-cost hashes on success
+    boolean checkPassword(Member member, String rawPassword);
+
     // ✅ NEW: Get members by groupId
     List<Member> findByGroupId(String groupId);
 }
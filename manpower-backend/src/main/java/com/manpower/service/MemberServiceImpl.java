@@ -1,6 +1,7 @@
 package com.manpower.service;
 
 import com.manpower.entity.Member;
+import com.manpower.enums.CachedEntity;
 import com.manpower.enums.MemberRole;
 import com.manpower.repository.MemberRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +12,7 @@ import java.time.LocalDateTime; // Import for LocalDateTime
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class MemberServiceImpl implements MemberService {
@@ -19,14 +21,23 @@ public class MemberServiceImpl implements MemberService {
     private MemberRepository memberRepository;
 
     @Autowired
-    private EmailService emailService;
+    private EmailOutbox emailOutbox;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
 
     @Override
     @Transactional
     public Member saveMember(Member member) {
-        if (member.getRole() == MemberRole.SuperAdmin && memberRepository.findByRole(MemberRole.SuperAdmin).isPresent()) {
+        if (member.getRole() == MemberRole.SuperAdmin && memberRepository.existsByRole(MemberRole.SuperAdmin)) {
             throw new RuntimeException("SuperAdmin already exists. Only one SuperAdmin is allowed.");
         }
+        if (!passwordHasher.isHashed(member.getPassword())) {
+            member.setPassword(passwordHasher.hash(member.getPassword())); // ✅ Only the BCrypt hash is stored
+        }
         // Set creation/modification timestamps and tenant ID upon creation
         member.setCreatedOn(LocalDateTime.now());
         member.setModifiedOn(LocalDateTime.now());
@@ -34,7 +45,9 @@ public class MemberServiceImpl implements MemberService {
         // For now, assuming they come from the request or are set by default in entity/DB
         // member.setMansoftTenantId("tenant-001"); // This might be dynamically set based on context
 
-        return memberRepository.save(member);
+        Member saved = memberRepository.save(member);
+        cacheInvalidationBus.publish(CachedEntity.Member, saved.getId()); // Drops a cached "no such member" or an older role
+        return saved;
     }
 
     @Override
@@ -85,6 +98,7 @@ public class MemberServiceImpl implements MemberService {
         // You might set modifiedBy based on the authenticated user performing the update
         // existingMember.setModifiedBy("current_authenticated_user_id"); // Or memberDetails.getModifiedBy() if sent in request
 
+        cacheInvalidationBus.publish(CachedEntity.Member, id); // Email, names and group are cached for the write paths
         return memberRepository.save(existingMember);
     }
 
@@ -92,6 +106,7 @@ public class MemberServiceImpl implements MemberService {
     @Transactional
     public void deleteMember(String id) {
         memberRepository.deleteById(id);
+        cacheInvalidationBus.publish(CachedEntity.Member, id);
     }
 
     @Override
@@ -105,9 +120,10 @@ public class MemberServiceImpl implements MemberService {
 
         Member member = memberOpt.get();
         String newPassword = UUID.randomUUID().toString().substring(0, 8);
-        member.setPassword(newPassword); // In a real app, you'd hash this password
+        member.setPassword(passwordHasher.hash(newPassword)); // ✅ Only the BCrypt hash is stored; the email carries the plain one
         member.setModifiedOn(LocalDateTime.now()); // Update modified timestamp
         memberRepository.save(member);
+        cacheInvalidationBus.publish(CachedEntity.Member, member.getId()); // Peers' cached rows hold the old hash
 
         String subject = "Your Manpower Account Password Reset";
         String text = "Dear " + member.getFirstName() + ",\n\n"
@@ -115,11 +131,38 @@ public class MemberServiceImpl implements MemberService {
                 + "Please log in with this password and change it immediately under your profile screen for security reasons.\n\n"
                 + "Thank you,\nManpower Team";
 
-        emailService.sendSimpleEmail(member.getEmail(), subject, text);
+        // Queued in this transaction and sent after commit: SMTP never holds the transaction or undoes the reset
+        emailOutbox.enqueue(member.getEmail(), subject, text);
 
         return "A new password has been sent to your email.";
     }
 
+    /**
+     * Checks the password given at login against the member's stored one. On success, a legacy
+     * plain-text password or a hash made at a lower BCrypt cost than configured is replaced by a
+     * fresh hash, so existing accounts migrate as their owners log in.
+     * @throws java.util.concurrent.RejectedExecutionException if password hashing is overloaded.
+     */
+    @Override
+    public boolean checkPassword(Member member, String rawPassword) {
+        String stored = member.getPassword();
+        if (!passwordHasher.matches(rawPassword, stored)) {
+            return false;
+        }
+        if (passwordHasher.needsRehash(stored)) {
+            try {
+                String upgraded = passwordHasher.hash(rawPassword);
+                if (memberRepository.replacePassword(member.getId(), stored, upgraded) > 0) {
+                    member.setPassword(upgraded);
+                }
+            } catch (RejectedExecutionException e) {
+                // The login itself succeeded; the upgrade is retried on the next one
+                System.out.println("⚠️ Password rehash for member " + member.getId() + " deferred: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
     @Override
     public List<Member> findByGroupId(String groupId) {
         return memberRepository.findByGroupId(groupId);
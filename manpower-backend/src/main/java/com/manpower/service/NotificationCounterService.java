@@ -0,0 +1,77 @@
+package com.manpower.service;
+
+import com.manpower.entity.Notification;
+import com.manpower.repository.MemberNotificationCounterRepository;
+import com.manpower.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains member_notification_counters: the number of unread notifications per member.
+ * Every method joins the caller's transaction, so a notification write and its counter
+ * adjustment commit or roll back together. Group fan-out bumps the counters directly in
+ * NotificationBatchRepository.
+ */
+@Service
+public class NotificationCounterService {
+
+    @Autowired
+    private MemberNotificationCounterRepository counterRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    /**
+     * Counts a newly stored notification (as it now stands). Only unread notifications count.
+     */
+    @Transactional
+    public void record(Notification notification) {
+        apply(notification, 1);
+    }
+
+    /**
+     * Removes a notification (as it currently stands) from the counter, before it is replaced or deleted.
+     */
+    @Transactional
+    public void reverse(Notification notification) {
+        apply(notification, -1);
+    }
+
+    /**
+     * Records that {@code count} of a member's notifications moved from unread to read.
+     */
+    @Transactional
+    public void recordRead(String memberId, int count) {
+        if (count > 0) {
+            counterRepository.applyDelta(memberId, -count);
+        }
+    }
+
+    private void apply(Notification notification, int sign) {
+        if (notification.isRead() || notification.getMember() == null) {
+            return;
+        }
+        counterRepository.applyDelta(notification.getMember().getId(), sign);
+    }
+
+    public long getUnreadCount(String memberId) {
+        return counterRepository.findUnreadCount(memberId).orElse(0L);
+    }
+
+    /**
+     * Seeds the counters on first start-up after they were introduced, so existing unread notifications are counted.
+     * Nodes starting together may all find them empty; the seed is an upsert, so the ones that come second
+     * write the same counts again instead of failing to start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeIfEmpty() {
+        if (counterRepository.count() == 0 && notificationRepository.count() > 0) {
+            counterRepository.rebuildAll();
+            System.out.println("Unread notification counters initialised from existing notifications.");
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.manpower.service;
+
+import com.manpower.dto.NotificationEvent;
+import com.manpower.entity.Notification;
+import com.manpower.entity.NotificationJob;
+import com.manpower.enums.NotificationJobStatus;
+import com.manpower.repository.MemberRepository;
+import com.manpower.repository.NotificationBatchRepository;
+import com.manpower.repository.NotificationJobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs group notification broadcasts off the request thread.
+ *
+ * A broadcast is first persisted as a {@link NotificationJob} (the outbox), then handed to a
+ * fixed pool of workers through a bounded queue. Workers deliver the fan-out in member-ID
+ * chunks and record their keyset position after every chunk, so a job interrupted by a
+ * restart resumes where it stopped. A periodic sweep re-submits queued jobs that never
+ * reached a worker and re-queues running jobs whose worker stopped heart-beating. Each claim
+ * carries a token, and a worker whose job was re-queued from under it stops at its next chunk.
+ */
+@Service
+public class NotificationDispatcher {
+
+    @Autowired
+    private NotificationJobRepository notificationJobRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private NotificationBatchRepository notificationBatchRepository;
+
+    @Autowired
+    private NotificationHub notificationHub;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${notifications.dispatch.workers:2}")
+    private int workers;
+
+    @Value("${notifications.dispatch.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${notifications.dispatch.stale-after-seconds:300}")
+    private long staleAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate transactionTemplate;
+
+    // Job IDs currently queued or running on this node, so the recovery sweep does not submit them twice
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong completedJobs = new AtomicLong();
+    private final AtomicLong failedJobs = new AtomicLong();
+    private final AtomicLong notificationsWritten = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity),
+                new CustomizableThreadFactory("notification-dispatch-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Unfinished jobs stay in the outbox and are picked up again on the next start
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Persists a broadcast job for the group and queues it for delivery.
+     * @throws RejectedExecutionException if the dispatch queue is full; nothing is persisted in that case.
+     */
+    public NotificationJob enqueue(String groupId, Notification template) {
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new RejectedExecutionException("Notification dispatch queue is full. Please retry later.");
+        }
+        NotificationJob job = transactionTemplate.execute(status -> notificationJobRepository.save(
+                new NotificationJob(groupId, template, memberRepository.countByGroupId(groupId))));
+        submit(job.getId());
+        return job;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveWorkers() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedJobs() {
+        return completedJobs.get();
+    }
+
+    public long getFailedJobs() {
+        return failedJobs.get();
+    }
+
+    public long getNotificationsWritten() {
+        return notificationsWritten.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        recoverJobs();
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.dispatch.recovery-interval-ms:30000}",
+               initialDelayString = "${notifications.dispatch.recovery-interval-ms:30000}")
+    public void recoverJobs() {
+        LocalDateTime staleBefore = LocalDateTime.now().minusSeconds(staleAfterSeconds);
+        Integer requeued = transactionTemplate.execute(status -> notificationJobRepository.requeueStale(staleBefore));
+        if (requeued != null && requeued > 0) {
+            System.out.println("♻️ Re-queued " + requeued + " stalled notification job(s).");
+        }
+
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        List<String> queued = notificationJobRepository.findIdsByStatus(
+                NotificationJobStatus.Queued, PageRequest.of(0, capacity));
+        for (String jobId : queued) {
+            if (!inFlight.contains(jobId) && !submit(jobId)) {
+                break;
+            }
+        }
+    }
+
+    private boolean submit(String jobId) {
+        if (!inFlight.add(jobId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(jobId);
+                } finally {
+                    inFlight.remove(jobId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            // The job stays Queued in the outbox; the recovery sweep submits it once there is room
+            inFlight.remove(jobId);
+            return false;
+        }
+    }
+
+    void process(String jobId) {
+        String token = UUID.randomUUID().toString();
+        Integer claimed = transactionTemplate.execute(status ->
+                notificationJobRepository.claim(jobId, token, LocalDateTime.now()));
+        if (claimed == null || claimed == 0) {
+            return; // Already taken by another worker or node, or no longer queued
+        }
+        try {
+            while (Boolean.TRUE.equals(transactionTemplate.execute(status -> deliverNextChunk(jobId, token)))) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return; // Shutting down: the heartbeat goes stale and the job is resumed later
+                }
+            }
+            if (finish(jobId, token, NotificationJobStatus.Completed, null)) {
+                completedJobs.incrementAndGet();
+            }
+        } catch (ClaimLostException e) {
+            System.err.println("⚠️ Notification job " + jobId + " was re-queued while this worker held it; stopping.");
+        } catch (RuntimeException e) {
+            System.err.println("❌ Notification job " + jobId + " failed: " + e.getMessage());
+            if (finish(jobId, token, NotificationJobStatus.Failed, e.getMessage())) {
+                failedJobs.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Delivers the next chunk of the job and records its keyset position in the same transaction,
+     * so a chunk is either fully written and recorded or not at all. If the job was re-queued
+     * (and possibly claimed by another worker) since this worker claimed it, the chunk is rolled back.
+     * @return true if more members may remain.
+     * @throws ClaimLostException if the job no longer carries this worker's claim token.
+     */
+    private boolean deliverNextChunk(String jobId, String token) {
+        NotificationJob job = notificationJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalStateException("Notification job disappeared: " + jobId));
+        if (!token.equals(job.getClaimToken())) {
+            throw new ClaimLostException();
+        }
+        int chunkSize = notificationBatchRepository.getBatchSize();
+        PageRequest limit = PageRequest.of(0, chunkSize);
+        List<String> memberIds = job.getLastMemberId() == null
+                ? memberRepository.findIdsByGroupId(job.getGroupId(), limit)
+                : memberRepository.findIdsByGroupIdAfter(job.getGroupId(), job.getLastMemberId(), limit);
+        if (memberIds.isEmpty()) {
+            return false;
+        }
+
+        List<NotificationEvent> written = notificationBatchRepository.insertForMembers(memberIds, job.toTemplate());
+        // Checked again as the chunk is recorded: the job may have been re-queued while the chunk was written
+        if (notificationJobRepository.recordProgress(jobId, token, written.size(),
+                memberIds.get(memberIds.size() - 1), LocalDateTime.now()) == 0) {
+            throw new ClaimLostException();
+        }
+        notificationHub.publishAfterCommit(written);
+        notificationsWritten.addAndGet(written.size());
+        return memberIds.size() == chunkSize;
+    }
+
+    // Returns false if the job was re-queued from under this worker, whose outcome is then dropped
+    private boolean finish(String jobId, String token, NotificationJobStatus outcome, String error) {
+        Integer updated = transactionTemplate.execute(status -> notificationJobRepository.finish(jobId, token, outcome,
+                error == null ? null : error.substring(0, Math.min(error.length(), 500)), LocalDateTime.now()));
+        return updated != null && updated > 0;
+    }
+
+    // Thrown inside a chunk's transaction so the chunk rolls back
+    private static class ClaimLostException extends RuntimeException {
+        ClaimLostException() {
+            super("Notification job is no longer held by this worker");
+        }
+    }
+}
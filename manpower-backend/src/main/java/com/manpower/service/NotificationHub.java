@@ -0,0 +1,295 @@
+package com.manpower.service;
+
+import com.manpower.dto.NotificationCursor;
+import com.manpower.dto.NotificationEvent;
+import com.manpower.entity.Notification;
+import com.manpower.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory pub/sub for member notification streams (Server-Sent Events).
+ *
+ * Connections are async servlet requests, so an idle subscriber costs an SseEmitter and a small
+ * buffer, not a request thread. Publishers only enqueue; a small sender pool writes to the sockets.
+ * Each subscriber buffers at most {@code notifications.stream.buffer-size} events: a client that
+ * falls further behind is disconnected and catches up from the notifications table when it
+ * reconnects with Last-Event-ID.
+ *
+ * The hub is per JVM: with several backend nodes, a member only hears about notifications created
+ * on the node they are connected to until they reconnect.
+ */
+@Service
+public class NotificationHub {
+
+    private static final Object HEARTBEAT = new Object();
+    private static final Object RESYNC = new Object();
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Value("${notifications.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${notifications.stream.buffer-size:100}")
+    private int bufferSize;
+
+    @Value("${notifications.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${notifications.stream.senders:2}")
+    private int senderThreads;
+
+    private final ConcurrentHashMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private ExecutorService senders;
+
+    @PostConstruct
+    void start() {
+        senders = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("notification-stream-"));
+    }
+
+    @PreDestroy
+    void stop() {
+        for (Set<Subscriber> set : subscribers.values()) {
+            for (Subscriber subscriber : set) {
+                subscriber.close();
+            }
+        }
+        senders.shutdownNow();
+    }
+
+    /**
+     * Opens a stream for a member. If a cursor is given, notifications created after it are replayed
+     * from the table first (at most one buffer's worth; beyond that the client gets a "resync" event
+     * and should reload its inbox).
+     *
+     * @throws RejectedExecutionException if the node already holds the maximum number of streams.
+     */
+    public SseEmitter subscribe(String memberId, NotificationCursor lastEventId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RejectedExecutionException("Too many open notification streams. Please retry later.");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(memberId, emitter, lastEventId != null);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        // Register before replaying so nothing committed in between is lost; live events are held back meanwhile
+        subscribers.compute(memberId, (key, set) -> {
+            Set<Subscriber> members = set != null ? set : ConcurrentHashMap.<Subscriber>newKeySet();
+            members.add(subscriber);
+            return members;
+        });
+        if (lastEventId != null) {
+            List<Notification> missed = notificationRepository.findInboxSince(memberId,
+                    lastEventId.getCreatedOn(), lastEventId.getId(), PageRequest.of(0, bufferSize));
+            List<NotificationEvent> replay = new ArrayList<>(missed.size());
+            for (Notification notification : missed) {
+                replay.add(NotificationEvent.from(notification));
+            }
+            subscriber.endReplay(replay, missed.size() == bufferSize);
+        }
+        subscriber.offerControl(HEARTBEAT); // Flushes the response headers right away
+        return emitter;
+    }
+
+    /**
+     * Publishes once the surrounding transaction commits (immediately if there is none),
+     * so subscribers never see a notification that was rolled back.
+     */
+    public void publishAfterCommit(List<NotificationEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(events);
+                }
+            });
+        } else {
+            publish(events);
+        }
+    }
+
+    void publish(List<NotificationEvent> events) {
+        for (NotificationEvent event : events) {
+            Set<Subscriber> set = subscribers.get(event.getMemberId());
+            if (set == null) {
+                continue;
+            }
+            for (Subscriber subscriber : set) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    // Comment frames keep proxies from closing idle streams and surface dead connections
+    @Scheduled(fixedDelayString = "${notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Set<Subscriber> set : subscribers.values()) {
+            for (Subscriber subscriber : set) {
+                subscriber.offerControl(HEARTBEAT);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private final class Subscriber {
+        private final String memberId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Object> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Live events that arrive while the replay query runs; null once the replay is done. Guarded by this.
+        private List<NotificationEvent> heldBack;
+
+        Subscriber(String memberId, SseEmitter emitter, boolean replaying) {
+            this.memberId = memberId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize + 1);
+            this.heldBack = replaying ? new ArrayList<>() : null;
+        }
+
+        void offer(NotificationEvent event) {
+            synchronized (this) {
+                if (heldBack != null) {
+                    if (heldBack.size() < bufferSize) {
+                        heldBack.add(event);
+                    } else {
+                        overflow();
+                    }
+                    return;
+                }
+            }
+            enqueue(event);
+        }
+
+        synchronized void endReplay(List<NotificationEvent> replay, boolean truncated) {
+            Set<String> replayed = new HashSet<>();
+            for (NotificationEvent event : replay) {
+                replayed.add(event.getId());
+                enqueue(event);
+            }
+            if (truncated) {
+                enqueue(RESYNC);
+            }
+            for (NotificationEvent event : heldBack) {
+                if (!replayed.contains(event.getId())) {
+                    enqueue(event);
+                }
+            }
+            heldBack = null;
+        }
+
+        // Heartbeats are best effort: skipped rather than counted against the buffer
+        void offerControl(Object control) {
+            if (!closed.get() && queue.offer(control)) {
+                scheduleDrain();
+            }
+        }
+
+        private void enqueue(Object item) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(item)) {
+                overflow();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    close(); // Shutting down
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Object item;
+                while (!closed.get() && (item = queue.poll()) != null) {
+                    send(item);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(); // Client went away
+            } finally {
+                draining.set(false);
+            }
+            // An item may have been queued after the last poll but before the flag was cleared
+            if (!closed.get() && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(Object item) throws IOException {
+            if (item == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            } else if (item == RESYNC) {
+                emitter.send(SseEmitter.event().name("resync").data("Too many missed notifications; reload the inbox."));
+            } else {
+                NotificationEvent event = (NotificationEvent) item;
+                emitter.send(SseEmitter.event().id(event.eventId()).name("notification")
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+        }
+
+        private void overflow() {
+            System.out.println("⚠️ Notification stream for member " + memberId
+                    + " fell more than " + bufferSize + " events behind; disconnecting so it resumes from Last-Event-ID.");
+            close();
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscriberCount.decrementAndGet();
+            subscribers.computeIfPresent(memberId, (key, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+            queue.clear();
+            try {
+                emitter.complete();
+            } catch (RuntimeException ignored) {
+                // Already completed, or the container has torn the connection down
+            }
+        }
+    }
+}
@@ -1,27 +1,57 @@
 package com.manpower.service;
 
-import com.manpower.entity.Member;
+import com.manpower.dto.NotificationCursor;
+import com.manpower.dto.NotificationEvent;
+import com.manpower.dto.NotificationJobProgress;
+import com.manpower.dto.NotificationPage;
 import com.manpower.entity.Notification;
-import com.manpower.repository.MemberRepository;
+import com.manpower.entity.NotificationJob;
+import com.manpower.repository.NotificationJobRepository;
 import com.manpower.repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set; // Import for Set
-import java.util.UUID;
 // import java.util.stream.Collectors; // Import for stream operations
 
 @Service
 public class NotificationService {
 
+    // Page size bounds for the member inbox
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // IDs per bulk mark-as-read UPDATE, keeping the IN list well under driver/statement limits
+    public static final int MARK_READ_CHUNK_SIZE = 500;
+
     @Autowired
     private NotificationRepository notificationRepository;
 
     @Autowired
-    private MemberRepository memberRepository; // Assuming this repository exists for Member entity
+    private NotificationJobRepository notificationJobRepository;
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private NotificationHub notificationHub;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
 
     public List<Notification> getAllNotifications() {
         return notificationRepository.findAll();
@@ -31,6 +61,61 @@ public class NotificationService {
         return notificationRepository.findById(id);
     }
 
+    /**
+     * Returns one page of a member's notifications, newest first.
+     * @param memberId The member whose inbox is listed.
+     * @param unreadOnly Restrict the page to unread notifications.
+     * @param after Cursor from the previous page, or null for the first page.
+     * @param limit Page size; defaults to 50 and is capped at 500.
+     * @throws IllegalArgumentException if the member does not exist.
+     */
+    @Transactional(readOnly = true)
+    public NotificationPage getInbox(String memberId, boolean unreadOnly, NotificationCursor after, int limit) {
+        if (!AccessContext.isCaller(memberId) && !referenceDataCache.memberExists(memberId)) {
+            throw new IllegalArgumentException("Member with ID " + memberId + " not found.");
+        }
+        int size = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        // One row more than requested tells us whether another page exists without a COUNT(*)
+        Pageable page = PageRequest.of(0, size + 1);
+        List<Notification> rows;
+        if (unreadOnly) {
+            rows = after == null
+                    ? notificationRepository.findUnreadInboxFirstPage(memberId, page)
+                    : notificationRepository.findUnreadInboxPageAfter(memberId, after.getCreatedOn(), after.getId(), page);
+        } else {
+            rows = after == null
+                    ? notificationRepository.findInboxFirstPage(memberId, page)
+                    : notificationRepository.findInboxPageAfter(memberId, after.getCreatedOn(), after.getId(), page);
+        }
+        if (rows.size() <= size) {
+            return new NotificationPage(rows, null);
+        }
+        List<Notification> items = new ArrayList<>(rows.subList(0, size));
+        Notification last = items.get(size - 1);
+        return new NotificationPage(items, new NotificationCursor(last.getCreatedOn(), last.getId()).encode());
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of the member's new notifications.
+     * @param lastEventId Position of the last event the client saw, or null to receive only new notifications.
+     * @throws IllegalArgumentException if the member does not exist.
+     * @throws java.util.concurrent.RejectedExecutionException if this server holds too many open streams.
+     */
+    public SseEmitter subscribe(String memberId, NotificationCursor lastEventId) {
+        if (!AccessContext.isCaller(memberId) && !referenceDataCache.memberExists(memberId)) {
+            throw new IllegalArgumentException("Member with ID " + memberId + " not found.");
+        }
+        return notificationHub.subscribe(memberId, lastEventId);
+    }
+
+    /**
+     * Number of unread notifications for a member, read from the maintained counter.
+     */
+    public long getUnreadCount(String memberId) {
+        return notificationCounterService.getUnreadCount(memberId);
+    }
+
+    @Transactional
     public Notification saveNotification(Notification notification) {
         // When saving (either creating or updating), ensure timestamps are managed.
         // For new notifications, createdOn and modifiedOn are set by entity.
@@ -39,39 +124,43 @@ public class NotificationService {
             notification.setCreatedOn(new Date());
         }
         notification.setModifiedOn(new Date());
-        return notificationRepository.save(notification);
+        // An update may change the read flag or the recipient: take the stored version out of the counter first
+        Optional<Notification> existing = notification.getId() != null
+                ? notificationRepository.findById(notification.getId())
+                : Optional.<Notification>empty();
+        existing.ifPresent(notificationCounterService::reverse);
+        Notification saved = notificationRepository.save(notification);
+        notificationCounterService.record(saved);
+        if (!existing.isPresent()) {
+            notificationHub.publishAfterCommit(Collections.singletonList(NotificationEvent.from(saved)));
+        }
+        return saved;
     }
 
+    @Transactional
     public void deleteNotification(String id) {
-        notificationRepository.deleteById(id);
+        notificationRepository.findById(id).ifPresent(existing -> {
+            notificationCounterService.reverse(existing);
+            notificationRepository.delete(existing);
+        });
     }
 
     /**
-     * Sends a notification to all members in a specified group.
-     * New notifications are initialized as unread.
+     * Queues a notification for all members in a specified group.
+     * The broadcast is persisted as a job and delivered in the background by NotificationDispatcher
+     * (batched JDBC inserts, new notifications unread), so the caller gets the job back immediately.
      * @param groupId The ID of the group whose members will receive the notification.
      * @param template A Notification object containing the common details for the notifications.
+     * @return The queued job; poll getJob(id) for progress.
+     * @throws java.util.concurrent.RejectedExecutionException if the dispatch queue is full.
      */
-    public void sendToGroupMembers(String groupId, Notification template) {
-        List<Member> members = memberRepository.findByGroupId(groupId); // Assuming findByGroupId method exists
-
-        for (Member member : members) {
-            Notification notif = new Notification();
-            notif.setId(UUID.randomUUID().toString());
-            notif.setMember(member);
-            notif.setType(template.getType());
-            notif.setMessageContent(template.getMessageContent());
-            notif.setSendDate(template.getSendDate());
-            notif.setChannel(template.getChannel());
-            notif.setCreatedBy(template.getCreatedBy());
-            notif.setModifiedBy(template.getModifiedBy());
-            notif.setCreatedOn(new Date()); // Set creation timestamp
-            notif.setModifiedOn(new Date()); // Set modification timestamp
-            notif.setMansoftTenantId(template.getMansoftTenantId());
-            notif.setRead(false); // ✅ IMPORTANT: Set new notifications as unread by default
-
-            notificationRepository.save(notif);
-        }
+    public NotificationJob sendToGroupMembers(String groupId, Notification template) {
+        return notificationDispatcher.enqueue(groupId, template);
+    }
+
+    public Optional<NotificationJobProgress> getJobProgress(String jobId) {
+        return notificationJobRepository.findById(jobId)
+                .map(job -> new NotificationJobProgress(job, notificationDispatcher.getQueueDepth()));
     }
 
     /**
@@ -80,30 +169,72 @@ public class NotificationService {
      * @return An Optional containing the updated Notification object if found,
      * or an empty Optional if the notification does not exist.
      */
+    @Transactional
     public Optional<Notification> markNotificationAsRead(String notificationId) {
-        return notificationRepository.findById(notificationId).map(notification -> {
-            notification.setRead(true); // Mark as read
-            notification.setModifiedOn(new Date()); // Update modified timestamp
-            return notificationRepository.save(notification); // Save the updated notification
-        });
+        // Conditional update: only an unread -> read transition changes the row and the member's counter
+        int changed = notificationRepository.markReadIfUnread(notificationId, new Date());
+        Optional<Notification> notification = notificationRepository.findById(notificationId);
+        if (changed == 1) {
+            notification.ifPresent(n -> notificationCounterService.recordRead(n.getMember().getId(), 1));
+        }
+        return notification;
     }
 
     /**
-     * Marks multiple notifications as read in a single batch operation.
+     * Marks multiple notifications as read, whoever they belong to.
+     * Resolves the owning members first, then runs the member-scoped bulk update for each.
      * @param notificationIds A Set of notification IDs to mark as read.
-     * @return A List of the updated Notification objects.
+     * @return The number of notifications that changed from unread to read.
      */
-    public List<Notification> markNotificationsAsRead(Set<String> notificationIds) {
-        // Fetch all notifications by their IDs
-        List<Notification> notificationsToUpdate = notificationRepository.findAllById(notificationIds);
-
-        // Update the 'isRead' status and 'modifiedOn' timestamp for each
-        notificationsToUpdate.forEach(notification -> {
-            notification.setRead(true);
-            notification.setModifiedOn(new Date());
-        });
+    @Transactional
+    public int markNotificationsAsRead(Set<String> notificationIds) {
+        Set<String> memberIds = new LinkedHashSet<>();
+        for (List<String> chunk : chunks(notificationIds)) {
+            memberIds.addAll(notificationRepository.findUnreadMemberIds(chunk));
+        }
+        int updated = 0;
+        for (String memberId : memberIds) {
+            updated += markNotificationsAsRead(memberId, notificationIds);
+        }
+        return updated;
+    }
+
+    /**
+     * Marks a member's notifications as read with set-based UPDATEs (MARK_READ_CHUNK_SIZE IDs per statement).
+     * IDs that belong to other members or are already read are left untouched.
+     * @param memberId The member whose notifications are marked.
+     * @param notificationIds The notification IDs to mark as read.
+     * @return The number of notifications that changed from unread to read.
+     */
+    @Transactional
+    public int markNotificationsAsRead(String memberId, Collection<String> notificationIds) {
+        Date now = new Date();
+        int updated = 0;
+        for (List<String> chunk : chunks(notificationIds)) {
+            updated += notificationRepository.markReadIfUnreadForMember(chunk, memberId, now);
+        }
+        // The UPDATE counts are exactly how far the member's unread counter drops
+        notificationCounterService.recordRead(memberId, updated);
+        return updated;
+    }
 
-        // Save all updated notifications in a batch
-        return notificationRepository.saveAll(notificationsToUpdate);
+    /**
+     * Marks every unread notification of a member as read in one UPDATE, without loading any rows.
+     * @return The number of notifications that changed from unread to read.
+     */
+    @Transactional
+    public int markAllAsRead(String memberId) {
+        int updated = notificationRepository.markAllReadForMember(memberId, new Date());
+        notificationCounterService.recordRead(memberId, updated);
+        return updated;
+    }
+
+    private static List<List<String>> chunks(Collection<String> ids) {
+        List<String> all = new ArrayList<>(ids);
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += MARK_READ_CHUNK_SIZE) {
+            chunks.add(all.subList(from, Math.min(from + MARK_READ_CHUNK_SIZE, all.size())));
+        }
+        return chunks;
     }
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.manpower.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt hashing and verification of member passwords.
+ *
+ * BCrypt is deliberately CPU-heavy (2^cost rounds), so every hash and verify runs on a small dedicated pool
+ * ({@code security.password.hash-threads}, a bounded queue in front of it). A burst of logins can then use
+ * at most that many cores; once the queue is full further logins are rejected at once instead of piling up
+ * request threads behind the CPU.
+ *
+ * Passwords stored before hashing was introduced are plain text. They still verify (compared in constant
+ * time) and {@link #needsRehash} reports them, along with hashes made at a lower cost than configured, so
+ * they are upgraded on the member's next successful login.
+ */
+@Service
+public class PasswordHasher {
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}$");
+
+    @Value("${security.password.bcrypt-cost:10}")
+    private int cost;
+
+    @Value("${security.password.hash-threads:0}") // 0 = one per CPU
+    private int hashThreads;
+
+    @Value("${security.password.hash-queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${security.password.hash-timeout-ms:5000}")
+    private long hashTimeoutMs;
+
+    private BCryptPasswordEncoder encoder;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        if (cost < 4 || cost > 31) {
+            throw new IllegalArgumentException("security.password.bcrypt-cost must be between 4 and 31");
+        }
+        encoder = new BCryptPasswordEncoder(cost);
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @throws RejectedExecutionException if too many hashes are already queued.
+     */
+    public String hash(String rawPassword) {
+        return runOnHashPool(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks a password against what is stored: a BCrypt hash or, for legacy rows, the plain text.
+     * @throws RejectedExecutionException if too many hashes are already queued.
+     */
+    public boolean matches(String rawPassword, String stored) {
+        if (rawPassword == null || stored == null) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        return runOnHashPool(() -> encoder.matches(rawPassword, stored));
+    }
+
+    /**
+     * @return true if the stored value is legacy plain text or a BCrypt hash below the configured cost.
+     */
+    public boolean needsRehash(String stored) {
+        return !isHashed(stored) || encoder.upgradeEncoding(stored);
+    }
+
+    public boolean isHashed(String stored) {
+        return stored != null && BCRYPT.matcher(stored).matches();
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T runOnHashPool(Callable<T> work) {
+        Future<T> result = executor.submit(work);
+        try {
+            return result.get(hashTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new RejectedExecutionException("Password hashing is overloaded. Please retry later.", e);
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing a password", e);
+        }
+    }
+}
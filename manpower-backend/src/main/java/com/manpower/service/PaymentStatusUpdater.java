@@ -0,0 +1,56 @@
+package com.manpower.service;
+
+import com.manpower.dto.PesaPalPaymentStatus;
+import com.manpower.entity.Contribution;
+import com.manpower.repository.ContributionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Applies PesaPal payment statuses to their contributions, a whole batch per transaction.
+ *
+ * Idempotent: each change goes through {@link ContributionService#updateStatus}, a compare-and-set
+ * that does nothing when the contribution already has the status, so replayed IPNs, overlapping
+ * reconciler runs and client polls never adjust the ledger twice.
+ */
+@Service
+public class PaymentStatusUpdater {
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    @Autowired
+    private ContributionService contributionService;
+
+    /**
+     * @return the number of contributions whose status actually changed.
+     */
+    @Transactional
+    public int applyAll(Collection<PesaPalPaymentStatus> statuses) {
+        // Last result wins if an order appears twice in the batch
+        Map<String, PesaPalPaymentStatus> byTrackingId = new LinkedHashMap<>();
+        for (PesaPalPaymentStatus status : statuses) {
+            if (status.getStatus() != null) {
+                byTrackingId.put(status.getOrderTrackingId(), status);
+            }
+        }
+        if (byTrackingId.isEmpty()) {
+            return 0;
+        }
+        // One IN query on the unique tracking-ID index for the whole batch
+        int changed = 0;
+        for (Contribution contribution : contributionRepository.findByPesapalTrackingIdIn(byTrackingId.keySet())) {
+            PesaPalPaymentStatus status = byTrackingId.get(contribution.getPesapalTrackingId());
+            if (contribution.getStatus() != status.getStatus()
+                    && contributionService.updateStatus(contribution.getId(), status.getStatus())) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
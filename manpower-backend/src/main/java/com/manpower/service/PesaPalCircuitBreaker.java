@@ -0,0 +1,239 @@
+package com.manpower.service;
+
+import com.manpower.dto.CircuitBreakerStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and bulkhead for every outbound PesaPal call (token, SubmitOrder, GetTransactionStatus).
+ *
+ * Bulkhead: at most {@code pesapal.bulkhead.max-concurrent} calls are in PesaPal at once; a caller waits up
+ * to {@code max-wait-ms} for a slot and is then rejected, so a slow PesaPal ties up a bounded number of
+ * request threads instead of the whole servlet pool.
+ *
+ * Breaker: the outcomes of the last {@code sliding-window-size} calls are kept; a call counts as failed if it
+ * throws (other than a 4xx answer, which means PesaPal is up) or takes longer than {@code slow-call-ms}.
+ * Once at least {@code minimum-calls} are recorded and the failure rate reaches the threshold the circuit
+ * OPENs and calls fail fast for {@code open-seconds}. It then goes HALF_OPEN and lets
+ * {@code half-open-probes} calls through: all succeeding closes it, any failing opens it again.
+ *
+ * Rejections throw {@link PesaPalUnavailableException}. Only the raw HTTP exchange should be wrapped, never a
+ * call that itself makes a guarded call (e.g. fetching a token), or one caller would hold two permits.
+ */
+@Service
+public class PesaPalCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @Value("${pesapal.circuit.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${pesapal.circuit.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${pesapal.circuit.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${pesapal.circuit.slow-call-ms:5000}")
+    private long slowCallMs;
+
+    @Value("${pesapal.circuit.open-seconds:30}")
+    private long openSeconds;
+
+    @Value("${pesapal.circuit.half-open-probes:3}")
+    private int halfOpenProbes;
+
+    @Value("${pesapal.bulkhead.max-concurrent:20}")
+    private int maxConcurrent;
+
+    @Value("${pesapal.bulkhead.max-wait-ms:250}")
+    private long maxWaitMs;
+
+    private Semaphore bulkhead;
+
+    // Breaker state and sliding window, guarded by "this"
+    private State state = State.CLOSED;
+    private long openedAtMillis;
+    private boolean[] window;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+    private int probesInFlight;
+    private int probeSuccesses;
+    private long halfOpenRound; // Tells a probe of the current half-open round from one left over from an earlier round
+
+    private final AtomicLong successfulCalls = new AtomicLong();
+    private final AtomicLong failedCalls = new AtomicLong();
+    private final AtomicLong slowCalls = new AtomicLong();
+    private final AtomicLong rejectedOpen = new AtomicLong();
+    private final AtomicLong rejectedBulkhead = new AtomicLong();
+    private final AtomicLong stateTransitions = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        if (slidingWindowSize < 1 || minimumCalls < 1 || minimumCalls > slidingWindowSize) {
+            throw new IllegalArgumentException("pesapal.circuit.minimum-calls must be between 1 and sliding-window-size");
+        }
+        if (halfOpenProbes < 1 || maxConcurrent < 1) {
+            throw new IllegalArgumentException("pesapal.circuit.half-open-probes and pesapal.bulkhead.max-concurrent must be at least 1");
+        }
+        window = new boolean[slidingWindowSize];
+        bulkhead = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Runs one PesaPal call through the breaker and the bulkhead.
+     * @throws PesaPalUnavailableException if the circuit is open or no bulkhead slot frees up in time.
+     */
+    public <T> T call(Supplier<T> pesapalCall) {
+        long probe = acquirePermission();
+        try {
+            if (!bulkhead.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                releaseProbe(probe);
+                rejectedBulkhead.incrementAndGet();
+                throw new PesaPalUnavailableException(PesaPalUnavailableException.Reason.BULKHEAD_FULL, 1,
+                        "Too many PesaPal calls in progress (" + maxConcurrent + "); try again shortly.");
+            }
+        } catch (InterruptedException e) {
+            releaseProbe(probe);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a PesaPal call slot", e);
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = pesapalCall.get();
+            onResult(probe, false, elapsedMs(start));
+            return result;
+        } catch (HttpClientErrorException e) {
+            onResult(probe, false, elapsedMs(start)); // PesaPal answered: the request was wrong, not the service
+            throw e;
+        } catch (RuntimeException e) {
+            onResult(probe, true, elapsedMs(start));
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized CircuitBreakerStats getStats() {
+        double failureRate = windowCount > 0 ? windowFailures * 100.0 / windowCount : 0;
+        return new CircuitBreakerStats(state.name(), failureRate, windowCount, maxConcurrent - bulkhead.availablePermits(),
+                maxConcurrent, successfulCalls.get(), failedCalls.get(), slowCalls.get(), rejectedOpen.get(),
+                rejectedBulkhead.get(), stateTransitions.get());
+    }
+
+    /**
+     * Forces the circuit closed and clears the window, e.g. after PesaPal confirms an outage is over.
+     */
+    public synchronized void reset() {
+        transitionTo(State.CLOSED);
+    }
+
+    // @return the half-open round the caller probes for, or -1 if the circuit is closed
+    private synchronized long acquirePermission() {
+        if (state == State.OPEN) {
+            long remainingMs = openedAtMillis + TimeUnit.SECONDS.toMillis(openSeconds) - System.currentTimeMillis();
+            if (remainingMs > 0) {
+                rejectedOpen.incrementAndGet();
+                throw new PesaPalUnavailableException(PesaPalUnavailableException.Reason.CIRCUIT_OPEN,
+                        Math.max(1, (remainingMs + 999) / 1000), "PesaPal is unavailable; payments are paused briefly.");
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight + probeSuccesses >= halfOpenProbes) {
+                rejectedOpen.incrementAndGet();
+                throw new PesaPalUnavailableException(PesaPalUnavailableException.Reason.CIRCUIT_OPEN, 1,
+                        "PesaPal is recovering; payments are paused briefly.");
+            }
+            probesInFlight++;
+            return halfOpenRound;
+        }
+        return -1;
+    }
+
+    private synchronized void releaseProbe(long probe) {
+        if (isCurrentProbe(probe)) {
+            probesInFlight--;
+        }
+    }
+
+    private boolean isCurrentProbe(long probe) {
+        return probe >= 0 && state == State.HALF_OPEN && probe == halfOpenRound;
+    }
+
+    private synchronized void onResult(long probe, boolean error, long elapsedMs) {
+        boolean slow = elapsedMs > slowCallMs;
+        boolean failed = error || slow;
+        if (slow) {
+            slowCalls.incrementAndGet();
+        }
+        (failed ? failedCalls : successfulCalls).incrementAndGet();
+
+        if (probe >= 0) {
+            if (!isCurrentProbe(probe)) {
+                return; // Another probe already decided this round
+            }
+            probesInFlight--;
+            if (failed) {
+                transitionTo(State.OPEN);
+            } else if (++probeSuccesses >= halfOpenProbes) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            return; // Started before the circuit opened
+        }
+        if (windowCount == window.length) {
+            windowFailures -= window[windowNext] ? 1 : 0;
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failed;
+        windowFailures += failed ? 1 : 0;
+        windowNext = (windowNext + 1) % window.length;
+        if (windowCount >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCount) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void transitionTo(State next) {
+        if (next == State.OPEN) {
+            System.out.println("⚠️ PesaPal circuit OPEN (" + (state == State.HALF_OPEN ? "probe call failed"
+                    : windowFailures + "/" + windowCount + " recent calls failed or slow")
+                    + "); failing fast for " + openSeconds + "s.");
+            openedAtMillis = System.currentTimeMillis();
+        } else if (next == State.HALF_OPEN) {
+            System.out.println("♻️ PesaPal circuit HALF_OPEN: letting " + halfOpenProbes + " probe call(s) through.");
+            halfOpenRound++;
+        } else if (state != State.CLOSED) {
+            System.out.println("✅ PesaPal circuit CLOSED: PesaPal is answering again.");
+        }
+        if (next != state) {
+            stateTransitions.incrementAndGet();
+        }
+        state = next;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        windowNext = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -2,10 +2,11 @@ package com.manpower.service;
 
 import com.manpower.dto.PesaPalInitiateRequest;
 import com.manpower.dto.PesaPalInitiateResponse;
+import com.manpower.dto.PesaPalPaymentStatus;
 
 // Interface for PesaPal payment operations
 public interface PesaPalService {
     PesaPalInitiateResponse initiatePayment(PesaPalInitiateRequest request);
     String checkPaymentStatus(String orderTrackingId);
-    // You might add methods for webhook handling here later
+    PesaPalPaymentStatus fetchPaymentStatus(String orderTrackingId);
 }
@@ -3,23 +3,28 @@ package com.manpower.service;
 import com.manpower.config.PesaPalConfig;
 import com.manpower.dto.PesaPalInitiateRequest;
 import com.manpower.dto.PesaPalInitiateResponse;
+import com.manpower.dto.PesaPalPaymentStatus;
 import com.manpower.entity.Contribution;
-import com.manpower.entity.Member;
-import com.manpower.entity.Group;
+import com.manpower.dto.MemberRef;
 import com.manpower.enums.TransactionStatus; // Import TransactionStatus enum
 import com.manpower.enums.TransactionType; // Import TransactionType enum
 import com.manpower.repository.ContributionRepository;
 import com.manpower.repository.MemberRepository;
 import com.manpower.repository.GroupRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 // import java.util.Base64; // REMOVED: Unused import
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -43,237 +48,264 @@ public class PesaPalServiceImpl implements PesaPalService {
     @Autowired
     private GroupRepository groupRepository;
 
-    private String pesapalAccessToken;
-    private LocalDateTime tokenExpiry;
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
 
-    /**
-     * Helper method to get or refresh PesaPal access token.
-     * Checks if the current token is null, expired, or about to expire.
-     * If so, it calls refreshToken() to obtain a new one.
-     * @return The valid PesaPal access token.
-     */
-    private String getPesapalAccessToken() {
-        if (pesapalAccessToken == null || tokenExpiry == null || LocalDateTime.now().isAfter(tokenExpiry.minusMinutes(5))) {
-            refreshToken();
-        }
-        return pesapalAccessToken;
-    }
+    @Autowired
+    private ContributionService contributionService;
 
-    /**
-     * Refreshes the PesaPal access token by making a request to the PesaPal authentication endpoint.
-     * Stores the new token and its expiry date.
-     * Throws a RuntimeException if token refresh fails.
-     */
-    @SuppressWarnings("unchecked") // Suppress unchecked cast warning for Map.class
-    private void refreshToken() {
-        String tokenUrl = pesapalConfig.getPesapalApiBaseUrl() + "/Auth/RequestToken";
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+    @Autowired
+    private PesaPalTokenProvider tokenProvider;
 
-        Map<String, String> requestBody = new HashMap<>();
-        requestBody.put("consumer_key", pesapalConfig.getPesapalConsumerKey());
-        requestBody.put("consumer_secret", pesapalConfig.getPesapalConsumerSecret());
+    @Autowired
+    private PesaPalCircuitBreaker circuitBreaker;
 
-        HttpEntity<Map<String, String>> entity = new HttpEntity<>(requestBody, headers);
+    @Autowired
+    private PaymentStatusUpdater paymentStatusUpdater;
 
-        try {
-            // Using explicit cast for Java 8 compatibility with generic type inference
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                tokenUrl,
-                HttpMethod.POST,
-                entity,
-                (Class<Map<String, Object>>) (Class<?>) Map.class
-            );
-            
-            // Re-assign body to a local variable after null check to satisfy cautious compilers
-            Map<String, Object> responseBody = response.getBody(); // Declare inside if for stricter compilers, or check here
-            if (response.getStatusCode().is2xxSuccessful() && responseBody != null) {
-                pesapalAccessToken = (String) responseBody.get("token");
-                Integer expiresIn = (Integer) responseBody.get("expiryDate"); // PesaPal returns expiryDate as int (seconds)
-                tokenExpiry = LocalDateTime.now().plusSeconds(expiresIn != null ? expiresIn : 3600); // Default 1 hour if null
-                System.out.println("PesaPal Token Refreshed. Expires: " + tokenExpiry);
-            } else {
-                String errorDetails = responseBody != null ? responseBody.toString() : "No error details"; // Use responseBody
-                System.err.println("Failed to refresh PesaPal token: " + response.getStatusCode() + " " + errorDetails);
-                throw new RuntimeException("Failed to refresh PesaPal token: " + errorDetails);
-            }
-        } catch (Exception e) {
-            System.err.println("Error refreshing PesaPal token: " + e.getMessage());
-            throw new RuntimeException("Error refreshing PesaPal token", e);
-        }
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Longer than a whole initiation can take (token + connect + read timeouts), so only dead ones are swept
+    @Value("${pesapal.reservation.stale-after-seconds:600}")
+    private long reservationStaleAfterSeconds;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private String getPesapalAccessToken() {
+        return tokenProvider.getToken();
     }
 
     /**
      * Initiates a PesaPal payment by sending an order request to the PesaPal API.
-     * Saves a pending Contribution record in the database before returning the redirect URL.
+     *
+     * Runs in three phases so no database connection is held during the PesaPal round-trip:
+     * a short transaction reserves a Pending Contribution, SubmitOrder is called outside any
+     * transaction, and a second short transaction records the order tracking ID. If PesaPal
+     * rejects the order the reservation is marked Failed; if the process dies in between,
+     * {@link #recoverAbandonedReservations()} fails it later.
      * @param request The PesaPalInitiateRequest DTO containing payment details.
      * @return PesaPalInitiateResponse containing the redirect URL and order tracking ID.
      * @throws IllegalArgumentException if Member or Group are not found.
+     * @throws PesaPalUnavailableException if the PesaPal circuit is open or its bulkhead is full.
      * @throws RuntimeException if PesaPal API interaction fails.
      */
     @Override
-    @Transactional // Ensure the database operation is transactional
     @SuppressWarnings("unchecked") // Suppress unchecked cast warning for Map.class
     public PesaPalInitiateResponse initiatePayment(PesaPalInitiateRequest request) {
         String orderUrl = pesapalConfig.getPesapalApiBaseUrl() + "/Transactions/SubmitOrder";
+        // Token first: while PesaPal is down this fails fast before any contribution is reserved
         String accessToken = getPesapalAccessToken();
 
+        // Phase 1: reserve the pending contribution (throws IllegalArgumentException for unknown member/group)
+        Reservation reservation = transactionTemplate.execute(status -> reserve(request));
+
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(accessToken);
-
-        // Fetch Member and Group entities
-        Optional<Member> memberOpt = memberRepository.findById(request.getMemberId());
-        // Use !isPresent() for Java 8 compatibility
-        if (!memberOpt.isPresent()) {
-            throw new IllegalArgumentException("Member not found with ID: " + request.getMemberId());
-        }
-
-        Optional<Group> groupOpt = groupRepository.findById(request.getGroupId());
-        // Use !isPresent() for Java 8 compatibility
-        if (!groupOpt.isPresent()) {
-            throw new IllegalArgumentException("Group not found with ID: " + request.getGroupId());
-        }
-
-        Member member = memberOpt.get();
-        Group group = groupOpt.get();
 
         // Construct PesaPal request body
         Map<String, Object> pesapalRequestBody = new HashMap<>();
-        pesapalRequestBody.put("id", UUID.randomUUID().toString()); // Unique ID for PesaPal transaction
+        pesapalRequestBody.put("id", reservation.contributionId); // Merchant reference: ties the PesaPal order to our row
         pesapalRequestBody.put("currency", "KES");
         pesapalRequestBody.put("amount", request.getAmount());
         pesapalRequestBody.put("description", request.getDescription());
         pesapalRequestBody.put("callback_url", pesapalConfig.getPesapalCallbackUrl()); // Your backend's webhook URL
-        pesapalRequestBody.put("notification_id", "YOUR_PESAPAL_NOTIFICATION_ID"); // PesaPal Notification ID (from your PesaPal dashboard)
+        pesapalRequestBody.put("notification_id", pesapalConfig.getPesapalIpnNotificationId()); // IPN ID registered with PesaPal for /api/payments/ipn
         pesapalRequestBody.put("branch", "DEFAULT"); // Example: default branch
 
         Map<String, String> billingAddress = new HashMap<>();
-        billingAddress.put("email_address", member.getEmail());
+        billingAddress.put("email_address", reservation.email);
         billingAddress.put("phone_number", request.getPhoneNumber()); // Use phone number from request
-        billingAddress.put("first_name", member.getFirstName());
-        billingAddress.put("last_name", member.getLastName());
+        billingAddress.put("first_name", reservation.firstName);
+        billingAddress.put("last_name", reservation.lastName);
         // Add more billing address details if required by PesaPal
         pesapalRequestBody.put("billing_address", billingAddress);
 
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(pesapalRequestBody, headers);
-
+        // Phase 2: call PesaPal outside any transaction
+        String redirectUrl;
+        String orderTrackingId;
         try {
-            // Parameterize Map for type safety and add null check for getBody()
+            headers.setBearerAuth(accessToken);
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(pesapalRequestBody, headers);
             // Using explicit cast for Java 8 compatibility with generic type inference
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+            ResponseEntity<Map<String, Object>> response = circuitBreaker.call(() -> restTemplate.exchange(
                 orderUrl,
                 HttpMethod.POST,
                 entity,
                 (Class<Map<String, Object>>) (Class<?>) Map.class
-            );
+            ));
 
-            // Re-assign body to a local variable after null check to satisfy cautious compilers
             Map<String, Object> responseBody = response.getBody();
-            if (response.getStatusCode().is2xxSuccessful() && responseBody != null) {
-                String redirectUrl = (String) responseBody.get("redirect_url");
-                String orderTrackingId = (String) responseBody.get("order_tracking_id");
-
-                if (redirectUrl == null || orderTrackingId == null) {
-                    throw new RuntimeException("PesaPal response missing redirectUrl or orderTrackingId");
-                }
-
-                // Save a pending Contribution record in your database
-                Contribution contribution = new Contribution();
-                // ID will be generated by JPA
-                contribution.setMember(member);
-                contribution.setGroup(group);
-                contribution.setAmount(request.getAmount());
-                contribution.setTransactionType(TransactionType.valueOf(request.getTransactionType())); // Convert string to enum
-                contribution.setTransactionDate(LocalDate.now());
-                contribution.setPaymentMethod("PesaPal");
-                // Correctly reference TransactionStatus enum constant
-                contribution.setStatus(TransactionStatus.Pending); // Initial status
-                contribution.setDescription(request.getDescription() + " (PesaPal Order ID: " + orderTrackingId + ")");
-                // Use getCreatedBy() from the request DTO
-                contribution.setCreatedBy(request.getCreatedBy()); // Assuming createdBy is passed in request
-                contribution.setModifiedBy(request.getCreatedBy()); // Modified by is same as createdBy for new contributions
-                contribution.setMansoftTenantId(request.getMansoftTenantId());
-                // Store PesaPal's orderTrackingId in the description or a dedicated field if you add one to Contribution
-                // This is crucial for later status updates
-                // For now, embedding in description. You might add a 'pesapalTrackingId' field to Contribution entity.
-
-                contributionRepository.save(contribution);
-
-                // Constructor PesaPalInitiateResponse(String, String) is now defined in the DTO
-                return new PesaPalInitiateResponse(redirectUrl, orderTrackingId);
-
-            } else {
-                String errorDetails = responseBody != null ? responseBody.toString() : "No error details"; // Use responseBody
+            if (!response.getStatusCode().is2xxSuccessful() || responseBody == null) {
+                String errorDetails = responseBody != null ? responseBody.toString() : "No error details";
                 System.err.println("Failed to initiate PesaPal payment: " + response.getStatusCode() + " " + errorDetails);
                 throw new RuntimeException("Failed to initiate PesaPal payment: " + errorDetails);
             }
+            redirectUrl = (String) responseBody.get("redirect_url");
+            orderTrackingId = (String) responseBody.get("order_tracking_id");
+            if (redirectUrl == null || orderTrackingId == null) {
+                throw new RuntimeException("PesaPal response missing redirectUrl or orderTrackingId");
+            }
         } catch (Exception e) {
             System.err.println("Error initiating PesaPal payment: " + e.getMessage());
+            contributionService.updateStatus(reservation.contributionId, TransactionStatus.Failed);
+            if (e instanceof PesaPalUnavailableException) {
+                throw (PesaPalUnavailableException) e;
+            }
             throw new RuntimeException("Error initiating PesaPal payment", e);
         }
+
+        // Phase 3: record PesaPal's orderTrackingId, which later status updates look the contribution up by
+        String description = (request.getDescription() != null ? request.getDescription() + " " : "")
+                + "(PesaPal Order ID: " + orderTrackingId + ")";
+        Integer attached = transactionTemplate.execute(status ->
+                contributionRepository.attachPesapalOrder(reservation.contributionId, orderTrackingId, description));
+        if (attached == null || attached == 0) {
+            throw new RuntimeException("PesaPal payment reservation " + reservation.contributionId + " is no longer pending");
+        }
+        return new PesaPalInitiateResponse(redirectUrl, orderTrackingId);
+    }
+
+    private Reservation reserve(PesaPalInitiateRequest request) {
+        // Existence and the member's contact details come from the reference cache; the contribution
+        // only needs the foreign keys, so the associations are uninitialized proxies rather than loaded rows
+        MemberRef member = referenceDataCache.getMember(request.getMemberId());
+        if (member == null) {
+            throw new IllegalArgumentException("Member not found with ID: " + request.getMemberId());
+        }
+        if (!referenceDataCache.groupExists(request.getGroupId())) {
+            throw new IllegalArgumentException("Group not found with ID: " + request.getGroupId());
+        }
+
+        Contribution contribution = new Contribution();
+        // ID will be generated by JPA
+        contribution.setMember(memberRepository.getReferenceById(member.getId()));
+        contribution.setGroup(groupRepository.getReferenceById(request.getGroupId()));
+        contribution.setAmount(request.getAmount());
+        contribution.setTransactionType(TransactionType.valueOf(request.getTransactionType())); // Convert string to enum
+        contribution.setTransactionDate(LocalDate.now());
+        contribution.setPaymentMethod("PesaPal");
+        contribution.setStatus(TransactionStatus.Pending); // Initial status
+        contribution.setDescription(request.getDescription()); // The order tracking ID is appended once PesaPal accepts the order
+        contribution.setCreatedBy(request.getCreatedBy()); // Assuming createdBy is passed in request
+        contribution.setModifiedBy(request.getCreatedBy()); // Modified by is same as createdBy for new contributions
+        contribution.setMansoftTenantId(request.getMansoftTenantId());
+        contribution = contributionRepository.save(contribution);
+
+        return new Reservation(contribution.getId(), member.getEmail(), member.getFirstName(), member.getLastName());
+    }
+
+    /**
+     * Fails PesaPal reservations that never received an order tracking ID, i.e. the process stopped
+     * between reserving and finalizing. The member never got a redirect URL for them, so they cannot
+     * have been paid. Pending to Failed does not touch the ledger, which only counts Completed rows.
+     */
+    @Scheduled(fixedDelayString = "${pesapal.reservation.sweep-interval-ms:60000}",
+               initialDelayString = "${pesapal.reservation.sweep-interval-ms:60000}")
+    public int recoverAbandonedReservations() {
+        LocalDateTime reservedBefore = LocalDateTime.now().minusSeconds(reservationStaleAfterSeconds);
+        Integer failed = transactionTemplate.execute(status ->
+                contributionRepository.failAbandonedPesapalReservations(reservedBefore));
+        if (failed != null && failed > 0) {
+            System.out.println("♻️ Marked " + failed + " abandoned PesaPal payment reservation(s) as Failed.");
+        }
+        return failed != null ? failed : 0;
     }
 
     /**
      * Checks the status of a PesaPal payment using the order tracking ID.
+     * Payments already Completed or Failed are answered from the database without calling PesaPal;
+     * otherwise PesaPal is asked and any final status is recorded on the Contribution.
      * @param orderTrackingId PesaPal's unique ID for the transaction.
      * @return The status of the payment (e.g., "COMPLETED", "FAILED", "PENDING", "UNKNOWN").
      */
     @Override
-    @SuppressWarnings("unchecked") // Suppress unchecked cast warning for Map.class
     public String checkPaymentStatus(String orderTrackingId) {
+        Optional<Contribution> contribution = contributionRepository.findByPesapalTrackingId(orderTrackingId);
+        if (contribution.isPresent() && contribution.get().getStatus() != TransactionStatus.Pending) {
+            return contribution.get().getStatus().name().toUpperCase();
+        }
+        try {
+            PesaPalPaymentStatus status = fetchPaymentStatus(orderTrackingId);
+            // Move the pending Contribution to its final status; the updater keeps the ledger in step
+            paymentStatusUpdater.applyAll(Collections.singletonList(status));
+            return status.getDescription().trim().toUpperCase(); // Return the status string
+        } catch (Exception e) {
+            System.err.println("Error checking PesaPal payment status: " + e.getMessage());
+            return "UNKNOWN"; // Return UNKNOWN on network/other error, and at once while the PesaPal circuit is open
+        }
+    }
+
+    /**
+     * Asks PesaPal for the current status of an order. Does not touch the database.
+     * @throws PesaPalUnavailableException if the PesaPal circuit is open or its bulkhead is full.
+     * @throws RuntimeException if PesaPal cannot be reached or answers with an error.
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Suppress unchecked cast warning for Map.class
+    public PesaPalPaymentStatus fetchPaymentStatus(String orderTrackingId) {
         String statusUrl = pesapalConfig.getPesapalApiBaseUrl() + "/Transactions/GetTransactionStatus?orderTrackingId=" + orderTrackingId;
-        String accessToken = getPesapalAccessToken();
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(accessToken);
-
+        headers.setBearerAuth(getPesapalAccessToken());
         HttpEntity<String> entity = new HttpEntity<>(headers);
 
-        try {
-            // Parameterize Map for type safety and add null check for getBody()
-            // Using explicit cast for Java 8 compatibility with generic type inference
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                statusUrl,
-                HttpMethod.GET,
-                entity,
-                (Class<Map<String, Object>>) (Class<?>) Map.class
-            );
+        // Using explicit cast for Java 8 compatibility with generic type inference
+        ResponseEntity<Map<String, Object>> response = circuitBreaker.call(() -> restTemplate.exchange(
+            statusUrl,
+            HttpMethod.GET,
+            entity,
+            (Class<Map<String, Object>>) (Class<?>) Map.class
+        ));
+
+        Map<String, Object> responseBody = response.getBody();
+        if (!response.getStatusCode().is2xxSuccessful() || responseBody == null) {
+            String errorDetails = responseBody != null ? responseBody.toString() : "No error details";
+            System.err.println("Failed to check PesaPal payment status: " + response.getStatusCode() + " " + errorDetails);
+            throw new RuntimeException("Failed to check PesaPal payment status: " + errorDetails);
+        }
+        Object description = responseBody.get("payment_status_description");
+        String reported = description != null ? description.toString() : String.valueOf(responseBody.get("status"));
+        return new PesaPalPaymentStatus(orderTrackingId, reported, toTransactionStatus(reported));
+    }
 
-            // Re-assign body to a local variable after null check to satisfy cautious compilers
-            Map<String, Object> responseBody = response.getBody();
-            if (response.getStatusCode().is2xxSuccessful() && responseBody != null) {
-                String status = (String) responseBody.get("status"); // PesaPal returns "status" field
-
-                // Optional: Update the Contribution status in your database here
-                // You would need to query your Contribution table using the orderTrackingId
-                // (if you stored it in a dedicated field or parsed it from description)
-                // and update its status.
-                // Example (assuming you add a pesapalTrackingId field to Contribution):
-                /*
-                Optional<Contribution> contributionOpt = contributionRepository.findByPesapalTrackingId(orderTrackingId);
-                if (contributionOpt.isPresent()) {
-                    Contribution contribution = contributionOpt.get();
-                    if ("COMPLETED".equals(status)) {
-                        contribution.setStatus(TransactionStatus.Completed);
-                    } else if ("FAILED".equals(status)) {
-                        contribution.setStatus(TransactionStatus.Status.Failed); // Corrected enum reference
-                    } else if ("CANCELLED".equals(status)) {
-                        contribution.setStatus(TransactionStatus.Cancelled);
-                    }
-                    contributionRepository.save(contribution);
-                }
-                */
-
-                return status; // Return the status string
-            } else {
-                String errorDetails = responseBody != null ? responseBody.toString() : "No error details"; // Use responseBody
-                System.err.println("Failed to check PesaPal payment status: " + response.getStatusCode() + " " + errorDetails);
-                return "UNKNOWN"; // Return UNKNOWN on API error
-            }
-        } catch (Exception e) {
-            System.err.println("Error checking PesaPal payment status: " + e.getMessage());
-            return "UNKNOWN"; // Return UNKNOWN on network/other error
+    /**
+     * Maps PesaPal's payment status to our TransactionStatus.
+     * PesaPal reports it as "payment_status_description" (Completed, Failed, Invalid, Reversed);
+     * the plain "status" field is used as a fallback.
+     * @return The mapped status, or null if the payment is still in progress or the status is unknown.
+     */
+    private TransactionStatus toTransactionStatus(String status) {
+        switch (status.trim().toUpperCase()) {
+            case "COMPLETED":
+                return TransactionStatus.Completed;
+            case "FAILED":
+            case "INVALID":
+            case "REVERSED":
+            case "CANCELLED":
+                return TransactionStatus.Failed;
+            default:
+                return null;
+        }
+    }
+
+    // What the PesaPal order needs from the reservation transaction, so no entity is used after it closes
+    private static final class Reservation {
+        private final String contributionId;
+        private final String email;
+        private final String firstName;
+        private final String lastName;
+
+        Reservation(String contributionId, String email, String firstName, String lastName) {
+            this.contributionId = contributionId;
+            this.email = email;
+            this.firstName = firstName;
+            this.lastName = lastName;
         }
     }
 }
@@ -0,0 +1,214 @@
+package com.manpower.service;
+
+import com.manpower.dto.PesaPalPaymentStatus;
+import com.manpower.entity.Contribution;
+import com.manpower.repository.ContributionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Brings Pending PesaPal payments up to date without a client having to poll.
+ *
+ * Order tracking IDs come in from PesaPal's IPN callback and from a periodic sweep of contributions
+ * still Pending. IDs already waiting in the queue are coalesced, so a burst of IPN retries for one
+ * order costs a single GetTransactionStatus call. A single drainer takes the queue in batches, looks
+ * the statuses up on {@code pesapal.reconcile.concurrency} threads (bounding the load on PesaPal),
+ * and applies each batch in one transaction through {@link PaymentStatusUpdater}.
+ */
+@Service
+public class PesaPalStatusReconciler {
+
+    @Autowired
+    private PesaPalService pesaPalService;
+
+    @Autowired
+    private PaymentStatusUpdater paymentStatusUpdater;
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    @Value("${pesapal.reconcile.concurrency:4}")
+    private int concurrency;
+
+    @Value("${pesapal.reconcile.batch-size:50}")
+    private int batchSize;
+
+    @Value("${pesapal.reconcile.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // Orders younger than this are left alone by the sweep: the member is most likely still paying
+    @Value("${pesapal.reconcile.min-age-seconds:60}")
+    private long minAgeSeconds;
+
+    // Orders older than this are no longer polled; the member abandoned the payment page
+    @Value("${pesapal.reconcile.max-age-hours:72}")
+    private long maxAgeHours;
+
+    private LinkedBlockingQueue<String> queue;
+    // Tracking IDs currently in the queue. An ID leaves it as soon as a drainer takes it, so a
+    // notification that arrives while its status is being looked up queues it again.
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private ExecutorService drainer;
+    private ExecutorService lookups;
+
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong statusLookups = new AtomicLong();
+    private final AtomicLong lookupFailures = new AtomicLong();
+    private final AtomicLong statusChanges = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        drainer = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("pesapal-reconcile-"));
+        lookups = Executors.newFixedThreadPool(concurrency, new CustomizableThreadFactory("pesapal-status-"));
+    }
+
+    @PreDestroy
+    void stop() {
+        drainer.shutdownNow();
+        lookups.shutdownNow();
+    }
+
+    /**
+     * Queues an order for a status lookup. A no-op if it is already queued.
+     * @return false if the queue is full; the caller should ask PesaPal to retry the notification.
+     */
+    public boolean enqueue(String orderTrackingId) {
+        if (!queued.add(orderTrackingId)) {
+            coalesced.incrementAndGet();
+            return true;
+        }
+        if (!queue.offer(orderTrackingId)) {
+            queued.remove(orderTrackingId);
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    /**
+     * Queues every PesaPal payment still Pending between min-age and max-age, oldest first.
+     * @return the number of orders queued (stops early if the queue fills up).
+     */
+    @Scheduled(fixedDelayString = "${pesapal.reconcile.interval-ms:300000}",
+               initialDelayString = "${pesapal.reconcile.interval-ms:300000}")
+    public int reconcilePending() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime createdTo = now.minusSeconds(minAgeSeconds);
+        PageRequest limit = PageRequest.of(0, batchSize);
+        List<Contribution> page = contributionRepository.findPendingPesapalFirstPage(now.minusHours(maxAgeHours), createdTo, limit);
+        int enqueued = 0;
+        while (!page.isEmpty()) {
+            for (Contribution contribution : page) {
+                if (!enqueue(contribution.getPesapalTrackingId())) {
+                    System.out.println("⚠️ PesaPal reconcile queue is full; the rest waits for the next sweep.");
+                    return enqueued;
+                }
+                enqueued++;
+            }
+            Contribution last = page.get(page.size() - 1);
+            page = page.size() < batchSize ? new ArrayList<Contribution>()
+                    : contributionRepository.findPendingPesapalPageAfter(createdTo, last.getCreatedOn(), last.getId(), limit);
+        }
+        return enqueued;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getCoalescedNotifications() {
+        return coalesced.get();
+    }
+
+    public long getStatusLookups() {
+        return statusLookups.get();
+    }
+
+    public long getLookupFailures() {
+        return lookupFailures.get();
+    }
+
+    public long getStatusChanges() {
+        return statusChanges.get();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                drainer.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false); // Shutting down; the sweep picks the orders up after a restart
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            List<String> batch = new ArrayList<>(batchSize);
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.clear();
+                String trackingId;
+                while (batch.size() < batchSize && (trackingId = queue.poll()) != null) {
+                    queued.remove(trackingId);
+                    batch.add(trackingId);
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+                reconcile(batch);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("❌ PesaPal status reconciliation failed: " + e.getMessage());
+        } finally {
+            draining.set(false);
+        }
+        // An ID may have been queued after the last poll but before the flag was cleared
+        if (!queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void reconcile(List<String> trackingIds) {
+        List<Future<PesaPalPaymentStatus>> pending = new ArrayList<>(trackingIds.size());
+        for (String trackingId : trackingIds) {
+            pending.add(lookups.submit(() -> pesaPalService.fetchPaymentStatus(trackingId)));
+        }
+        List<PesaPalPaymentStatus> statuses = new ArrayList<>(trackingIds.size());
+        for (int i = 0; i < pending.size(); i++) {
+            statusLookups.incrementAndGet();
+            try {
+                statuses.add(pending.get(i).get());
+            } catch (ExecutionException e) {
+                // Left Pending; the next sweep (or IPN) tries again
+                lookupFailures.incrementAndGet();
+                System.err.println("PesaPal status lookup failed for " + trackingIds.get(i) + ": " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        statusChanges.addAndGet(paymentStatusUpdater.applyAll(statuses));
+    }
+}
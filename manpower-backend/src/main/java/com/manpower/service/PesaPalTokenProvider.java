@@ -0,0 +1,254 @@
+package com.manpower.service;
+
+import com.manpower.config.PesaPalConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Supplies the PesaPal OAuth bearer token.
+ *
+ * The current token is an immutable value published through an AtomicReference, so readers never
+ * see a token paired with the wrong expiry. Refreshes are single-flight: whichever caller finds the
+ * token missing or expired performs the /Auth/RequestToken call and everyone else waits on the same
+ * future. A background refresh runs {@code pesapal.token.refresh-ahead-seconds} before expiry, so in
+ * steady state callers never wait at all.
+ */
+@Service
+public class PesaPalTokenProvider {
+
+    private static final long RETRY_DELAY_SECONDS = 5;
+
+    @Autowired
+    private PesaPalConfig pesapalConfig;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private PesaPalCircuitBreaker circuitBreaker;
+
+    @Value("${pesapal.token.refresh-ahead-seconds:60}")
+    private long refreshAheadSeconds;
+
+    // Treat the token as expired this long before PesaPal does, to allow for clock skew and request latency
+    @Value("${pesapal.token.expiry-skew-seconds:5}")
+    private long expirySkewSeconds;
+
+    // Lifetime assumed when the response carries no usable expiryDate (PesaPal tokens last 5 minutes)
+    @Value("${pesapal.token.default-ttl-seconds:300}")
+    private long defaultTtlSeconds;
+
+    @Value("${pesapal.token.wait-timeout-seconds:30}")
+    private long waitTimeoutSeconds;
+
+    private final AtomicReference<AccessToken> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<AccessToken>> inFlight = new AtomicReference<>();
+    private final AtomicLong tokenRequests = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void start() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("pesapal-token-");
+        threadFactory.setDaemon(true);
+        scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Returns a valid access token, fetching one only if there is none or it has expired.
+     * @throws PesaPalUnavailableException if the PesaPal circuit is open or its bulkhead is full.
+     * @throws RuntimeException if the token cannot be obtained.
+     */
+    public String getToken() {
+        AccessToken token = current.get();
+        if (token != null && !token.isExpired(Instant.now())) {
+            return token.value;
+        }
+        CompletableFuture<AccessToken> flight = refreshOnce(latest -> latest == null || latest.isExpired(Instant.now()));
+        try {
+            return flight.get(waitTimeoutSeconds, TimeUnit.SECONDS).value;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PesaPalUnavailableException) {
+                throw (PesaPalUnavailableException) e.getCause(); // Failed fast: keep it typed for the caller
+            }
+            throw new RuntimeException("Error refreshing PesaPal token", e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out waiting for PesaPal token refresh", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for PesaPal token refresh", e);
+        }
+    }
+
+    /**
+     * Drops the cached token (e.g. after PesaPal rejected it) so the next call fetches a new one.
+     */
+    public void invalidate() {
+        current.set(null);
+    }
+
+    /**
+     * Number of /Auth/RequestToken calls made since start-up.
+     */
+    public long getTokenRequestCount() {
+        return tokenRequests.get();
+    }
+
+    /**
+     * Joins the refresh already in progress, or starts one on the calling thread.
+     * @param stillNeeded Re-checked against the latest token after winning the flight, so a caller that
+     *                    lost a race with a just-finished refresh does not request another token.
+     */
+    private CompletableFuture<AccessToken> refreshOnce(Predicate<AccessToken> stillNeeded) {
+        CompletableFuture<AccessToken> mine = new CompletableFuture<>();
+        while (true) {
+            CompletableFuture<AccessToken> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+            if (inFlight.compareAndSet(null, mine)) {
+                break;
+            }
+        }
+        try {
+            AccessToken latest = current.get();
+            if (!stillNeeded.test(latest)) {
+                mine.complete(latest);
+                return mine;
+            }
+            AccessToken fresh = requestToken();
+            current.set(fresh);
+            scheduleRefresh(fresh);
+            mine.complete(fresh);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+        } finally {
+            inFlight.compareAndSet(mine, null);
+        }
+        return mine;
+    }
+
+    private void scheduleRefresh(AccessToken token) {
+        Instant refreshAt = token.expiresAt.minusSeconds(refreshAheadSeconds);
+        // Short-lived tokens: refresh half-way through rather than immediately and continuously
+        Instant halfLife = token.issuedAt.plus(Duration.between(token.issuedAt, token.expiresAt).dividedBy(2));
+        if (refreshAt.isBefore(halfLife)) {
+            refreshAt = halfLife;
+        }
+        long delayMs = Math.max(0L, Duration.between(Instant.now(), refreshAt).toMillis());
+        scheduler.schedule(() -> refreshInBackground(token), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshInBackground(AccessToken due) {
+        // Skip if the token was already replaced (or invalidated) since this refresh was scheduled
+        CompletableFuture<AccessToken> flight = refreshOnce(latest -> latest == due);
+        if (flight.isCompletedExceptionally() && current.get() == due) {
+            System.err.println("Background PesaPal token refresh failed; retrying in " + RETRY_DELAY_SECONDS + "s.");
+            scheduler.schedule(() -> refreshInBackground(due), RETRY_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    @SuppressWarnings("unchecked") // Suppress unchecked cast warning for Map.class
+    private AccessToken requestToken() {
+        String tokenUrl = pesapalConfig.getPesapalApiBaseUrl() + "/Auth/RequestToken";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(java.util.Collections.singletonList(MediaType.APPLICATION_JSON));
+
+        Map<String, String> requestBody = new HashMap<>();
+        requestBody.put("consumer_key", pesapalConfig.getPesapalConsumerKey());
+        requestBody.put("consumer_secret", pesapalConfig.getPesapalConsumerSecret());
+
+        tokenRequests.incrementAndGet();
+        Instant issuedAt = Instant.now();
+        ResponseEntity<Map<String, Object>> response;
+        try {
+            response = circuitBreaker.call(() -> restTemplate.exchange(
+                tokenUrl,
+                HttpMethod.POST,
+                new HttpEntity<>(requestBody, headers),
+                (Class<Map<String, Object>>) (Class<?>) Map.class
+            ));
+        } catch (PesaPalUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            System.err.println("Error refreshing PesaPal token: " + e.getMessage());
+            throw new RuntimeException("Error refreshing PesaPal token", e);
+        }
+
+        Map<String, Object> responseBody = response.getBody();
+        Object token = responseBody != null ? responseBody.get("token") : null;
+        if (!response.getStatusCode().is2xxSuccessful() || token == null) {
+            String errorDetails = responseBody != null ? responseBody.toString() : "No error details";
+            System.err.println("Failed to refresh PesaPal token: " + response.getStatusCode() + " " + errorDetails);
+            throw new RuntimeException("Failed to refresh PesaPal token: " + errorDetails);
+        }
+        AccessToken fresh = new AccessToken(token.toString(), issuedAt, parseExpiry(responseBody.get("expiryDate"), issuedAt));
+        System.out.println("PesaPal Token Refreshed. Expires: " + fresh.expiresAt);
+        return fresh;
+    }
+
+    // PesaPal sends expiryDate as an ISO-8601 timestamp; a number is taken as seconds from now
+    private Instant parseExpiry(Object expiryDate, Instant issuedAt) {
+        if (expiryDate instanceof Number) {
+            return issuedAt.plusSeconds(((Number) expiryDate).longValue());
+        }
+        if (expiryDate != null) {
+            String text = expiryDate.toString().trim();
+            try {
+                return OffsetDateTime.parse(text).toInstant();
+            } catch (DateTimeParseException e) {
+                try {
+                    return LocalDateTime.parse(text).toInstant(ZoneOffset.UTC);
+                } catch (DateTimeParseException ignored) {
+                    // Fall through to the default lifetime
+                }
+            }
+        }
+        return issuedAt.plusSeconds(defaultTtlSeconds);
+    }
+
+    private final class AccessToken {
+        private final String value;
+        private final Instant issuedAt;
+        private final Instant expiresAt;
+
+        AccessToken(String value, Instant issuedAt, Instant expiresAt) {
+            this.value = value;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(Instant now) {
+            return !now.isBefore(expiresAt.minusSeconds(expirySkewSeconds));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.manpower.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-off migration of PesaPal order tracking IDs into contributions.pesapal_tracking_id.
+ *
+ * Before that column existed the ID was only appended to the description as "(PesaPal Order ID: ...)",
+ * so status lookups had to scan the table with a LIKE. On start-up, if any PesaPal row still carries its
+ * ID only in the description, this walks the table once in primary-key order (batch-size rows per page and
+ * per transaction), parses the ID out of the description and writes it to the indexed column. Rows already
+ * filled are skipped, so it is safe to run on every start and returns after one query once migrated.
+ */
+@Service
+public class PesaPalTrackingIdBackfill {
+
+    private static final String TRACKING_ID_MARKER = "(PesaPal Order ID: ";
+
+    private static final String PENDING_SQL =
+            "SELECT id FROM contributions WHERE payment_method = 'PesaPal' AND pesapal_tracking_id IS NULL " +
+            "AND description LIKE '%(PesaPal Order ID: %' LIMIT 1";
+
+    // A plain primary-key range: filtering on "pesapal_tracking_id IS NULL" here lets the optimiser pick the
+    // tracking-ID index and sort every remaining row for each page, which makes the walk quadratic.
+    private static final String PAGE_SQL =
+            "SELECT id, payment_method, pesapal_tracking_id, description FROM contributions " +
+            "WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String UPDATE_SQL =
+            "UPDATE contributions SET pesapal_tracking_id = ? WHERE id = ? AND pesapal_tracking_id IS NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${pesapal.tracking-id.backfill-batch-size:1000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        int filled = backfill();
+        if (filled > 0) {
+            System.out.println("✅ PesaPal tracking IDs backfilled from descriptions: " + filled + " row(s).");
+        }
+    }
+
+    /**
+     * @return the number of contributions whose tracking ID was filled in.
+     */
+    public int backfill() {
+        if (jdbcTemplate.queryForList(PENDING_SQL, String.class).isEmpty()) {
+            return 0;
+        }
+        int filled = 0;
+        String afterId = "";
+        while (true) {
+            List<String[]> updates = new ArrayList<>();
+            List<String> pageIds = jdbcTemplate.query(PAGE_SQL, (rs, rowNum) -> {
+                String trackingId = "PesaPal".equals(rs.getString("payment_method"))
+                        && rs.getString("pesapal_tracking_id") == null ? trackingIdOf(rs.getString("description")) : null;
+                if (trackingId != null) {
+                    updates.add(new String[] {trackingId, rs.getString("id")});
+                }
+                return rs.getString("id");
+            }, afterId, batchSize);
+            if (pageIds.isEmpty()) {
+                return filled;
+            }
+            if (!updates.isEmpty()) {
+                filled += apply(updates);
+            }
+            afterId = pageIds.get(pageIds.size() - 1);
+        }
+    }
+
+    private int apply(List<String[]> updates) {
+        try {
+            // One transaction per batch, so a duplicate leaves none of it applied before the row-by-row retry
+            Integer filled = transactionTemplate.execute(status ->
+                    sum(jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(), (ps, update) -> {
+                        ps.setString(1, update[0]);
+                        ps.setString(2, update[1]);
+                    })));
+            return filled != null ? filled : 0;
+        } catch (DataIntegrityViolationException e) {
+            // A tracking ID already belongs to another row: apply this batch row by row and skip the duplicates
+            int filled = 0;
+            for (String[] update : updates) {
+                try {
+                    filled += jdbcTemplate.update(UPDATE_SQL, update[0], update[1]);
+                } catch (DataIntegrityViolationException duplicate) {
+                    System.err.println("⚠️ PesaPal tracking ID " + update[0] + " of contribution " + update[1]
+                            + " is already used by another contribution; left unset.");
+                }
+            }
+            return filled;
+        }
+    }
+
+    private static int sum(int[][] counts) {
+        int total = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                total += Math.max(count, 0);
+            }
+        }
+        return total;
+    }
+
+    // The tracking ID is recorded in the description as "... (PesaPal Order ID: <id>)"
+    private static String trackingIdOf(String description) {
+        int start = description != null ? description.lastIndexOf(TRACKING_ID_MARKER) : -1;
+        int end = start >= 0 ? description.indexOf(')', start) : -1;
+        String trackingId = end > 0 ? description.substring(start + TRACKING_ID_MARKER.length(), end).trim() : "";
+        return !trackingId.isEmpty() && trackingId.length() <= 64 ? trackingId : null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.manpower.service;
+
+/**
+ * Thrown without calling PesaPal when the circuit breaker is open (PesaPal has been failing or slow)
+ * or the payment bulkhead is full. Callers should answer 503 with {@link #getRetryAfterSeconds()}.
+ */
+public class PesaPalUnavailableException extends RuntimeException {
+
+    public enum Reason { CIRCUIT_OPEN, BULKHEAD_FULL }
+
+    private final Reason reason;
+    private final long retryAfterSeconds;
+
+    public PesaPalUnavailableException(Reason reason, long retryAfterSeconds, String message) {
+        super(message);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Reason getReason() { return reason; }
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
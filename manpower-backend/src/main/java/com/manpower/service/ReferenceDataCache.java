@@ -0,0 +1,110 @@
+package com.manpower.service;
+
+import com.manpower.dto.CacheStats;
+import com.manpower.dto.GroupRef;
+import com.manpower.dto.MemberRef;
+import com.manpower.enums.CachedEntity;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MemberRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-through cache of the group and member facts that write paths check on every request:
+ * does the group exist and is it terminated, does the member exist, what is their role and group.
+ *
+ * Entries are dropped after {@code reference-cache.ttl-seconds} and the cache holds at most
+ * {@code reference-cache.max-entries} per kind. Changes reach it through {@link CacheInvalidationBus}: a change
+ * made on this node drops the entry once its transaction has committed, and a change made on another node drops
+ * it when the bus delivers it, within a poll interval. Changes made straight in the database are seen once the
+ * TTL runs out.
+ */
+@Service
+public class ReferenceDataCache implements CacheInvalidationListener {
+
+    private static final int STRIPES = 16;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Value("${reference-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reference-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${reference-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private BoundedTtlCache<String, GroupRef> groups;
+    private BoundedTtlCache<String, MemberRef> members;
+
+    @PostConstruct
+    void start() {
+        groups = new BoundedTtlCache<>("groups", maxEntries, ttlSeconds * 1000, STRIPES);
+        members = new BoundedTtlCache<>("members", maxEntries, ttlSeconds * 1000, STRIPES);
+    }
+
+    /**
+     * @return the group's reference fields, or null if there is no such group.
+     */
+    public GroupRef getGroup(String groupId) {
+        if (groupId == null) {
+            return null;
+        }
+        if (!enabled) {
+            return groupRepository.findRefById(groupId);
+        }
+        return groups.get(groupId, groupRepository::findRefById);
+    }
+
+    public boolean groupExists(String groupId) {
+        return getGroup(groupId) != null;
+    }
+
+    /**
+     * @return the member's reference fields, or null if there is no such member.
+     */
+    public MemberRef getMember(String memberId) {
+        if (memberId == null) {
+            return null;
+        }
+        if (!enabled) {
+            return memberRepository.findRefById(memberId);
+        }
+        return members.get(memberId, memberRepository::findRefById);
+    }
+
+    public boolean memberExists(String memberId) {
+        return getMember(memberId) != null;
+    }
+
+    @Override
+    public void invalidate(CachedEntity entity, String id, boolean fromPeer) {
+        if (entity == CachedEntity.Group) {
+            invalidate(groups, id);
+        } else if (entity == CachedEntity.Member) {
+            invalidate(members, id);
+        }
+    }
+
+    public List<CacheStats> getStats() {
+        List<CacheStats> stats = new ArrayList<>();
+        stats.add(groups.getStats());
+        stats.add(members.getStats());
+        return stats;
+    }
+
+    // The bus calls this once the change has committed; a load already under way is not stored (BoundedTtlCache)
+    private static void invalidate(BoundedTtlCache<String, ?> cache, String id) {
+        cache.invalidate(id);
+    }
+}
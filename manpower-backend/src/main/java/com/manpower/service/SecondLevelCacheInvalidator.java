@@ -0,0 +1,61 @@
+package com.manpower.service;
+
+import com.manpower.entity.Document;
+import com.manpower.entity.Group;
+import com.manpower.entity.Loan;
+import com.manpower.entity.Meeting;
+import com.manpower.entity.Member;
+import com.manpower.enums.CachedEntity;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Drops another node's changes from this node's Hibernate second-level and query cache. Changes made on this
+ * node need nothing from here: Hibernate updates its own cache as it writes them.
+ */
+@Component
+public class SecondLevelCacheInvalidator implements CacheInvalidationListener {
+
+    private static final String GROUP_MEMBERS = Group.class.getName() + ".members";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void invalidate(CachedEntity entity, String id, boolean fromPeer) {
+        if (!fromPeer) {
+            return;
+        }
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        switch (entity) {
+            case Group:
+                cache.evictEntityData(Group.class, id);
+                cache.evictCollectionData(GROUP_MEMBERS, id);
+                cache.evictQueryRegions();
+                break;
+            case Member:
+                // The event does not say which group(s) the member left or joined
+                cache.evictEntityData(Member.class, id);
+                cache.evictCollectionData(GROUP_MEMBERS);
+                cache.evictQueryRegions();
+                break;
+            case Loan:
+                cache.evictEntityData(Loan.class, id); // No-op while Loan is not second-level cached
+                break;
+            case Meeting:
+                cache.evictEntityData(Meeting.class, id);
+                cache.evictQueryRegions();
+                break;
+            case Document:
+                cache.evictEntityData(Document.class, id);
+                cache.evictQueryRegions();
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.manpower.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-key token buckets: each key may take {@code capacity} permits at once, refilled at {@code perMinute}.
+ *
+ * A bucket is a single AtomicLong holding its "theoretical arrival time" (the GCRA form of a token bucket):
+ * the instant the bucket would be full again. Taking a permit pushes it one emission interval later with a
+ * CAS, and is refused while it lies more than {@code capacity - 1} intervals ahead of now. So taking a permit
+ * never locks, and under contention a key can never hand out more permits than its bucket holds.
+ *
+ * Buckets live in {@code stripes} access-ordered maps, each capped at {@code maxKeys / stripes} entries with
+ * the least recently used key evicted. Memory stays bounded however many distinct IPs or emails are seen, and
+ * only callers whose keys hash to the same stripe briefly contend on its lock for the lookup. An evicted key
+ * comes back with a full bucket, so maxKeys should comfortably exceed the keys active within one refill.
+ */
+public class TokenBucketLimiter {
+
+    private final long intervalNanos;   // Time to refill one permit
+    private final long burstNanos;      // How far ahead of now the arrival time may run: capacity - 1 intervals
+    private final Map<String, AtomicLong>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    public TokenBucketLimiter(int capacity, double perMinute, int maxKeys, int stripeCount) {
+        if (capacity < 1 || perMinute <= 0 || stripeCount < 1 || maxKeys < stripeCount) {
+            throw new IllegalArgumentException("A rate limit needs capacity >= 1, perMinute > 0 and maxKeys >= stripes");
+        }
+        this.intervalNanos = (long) (TimeUnit.MINUTES.toNanos(1) / perMinute);
+        this.burstNanos = intervalNanos * (capacity - 1);
+        final int keysPerStripe = maxKeys / stripeCount;
+        this.stripes = new Map[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new LinkedHashMap<String, AtomicLong>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, AtomicLong> eldest) {
+                    return size() > keysPerStripe;
+                }
+            };
+        }
+    }
+
+    /**
+     * Takes one permit for the key.
+     * @return 0 if granted, otherwise the milliseconds until a permit frees up (at least 1).
+     */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = bucketFor(key);
+        long now = System.nanoTime();
+        while (true) {
+            long arrival = bucket.get();
+            long start = arrival - now > 0 ? arrival : now; // An idle bucket has refilled to full
+            long ahead = start - now;
+            if (ahead > burstNanos) {
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(ahead - burstNanos));
+            }
+            if (bucket.compareAndSet(arrival, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Number of keys currently tracked, across all stripes.
+     */
+    public int size() {
+        int size = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private AtomicLong bucketFor(String key) {
+        int hash = key.hashCode();
+        Map<String, AtomicLong> stripe = stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+        synchronized (stripe) {
+            AtomicLong bucket = stripe.get(key);
+            if (bucket == null) {
+                // Starts "full": the arrival time is already in the past
+                bucket = new AtomicLong(System.nanoTime() - intervalNanos);
+                stripe.put(key, bucket);
+            }
+            return bucket;
+        }
+    }
+}
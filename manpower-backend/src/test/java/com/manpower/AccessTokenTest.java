@@ -0,0 +1,209 @@
+package com.manpower;
+
+import com.jayway.jsonpath.JsonPath;
+import com.manpower.config.AccessTokenFilter;
+import com.manpower.dto.AccessPrincipal;
+import com.manpower.entity.Group;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.AccessTokenService;
+import com.manpower.service.InvalidAccessTokenException;
+import com.manpower.service.PasswordHasher;
+import com.manpower.service.ReferenceDataCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Signed access tokens: login issues one, the filter verifies it and rejects forged or expired ones, and
+// requests carrying it skip the member / group lookups that only identify the caller, one statement fewer per
+// request on the endpoints that use the token. The opt-in benchmark (-Dbenchmarks=true) also times them.
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AccessTokenTest {
+
+    private static final int BENCHMARK_ROUNDS = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private AccessTokenFilter accessTokenFilter;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    private Statistics statistics;
+    private Group group;
+    private Member admin;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        group = groupRepository.save(TestData.group("Token", TestData.CREATED_BY));
+        Member member = TestData.member("Token", MemberRole.GroupAdmin, group);
+        member.setPassword(passwordHasher.hash("password123"));
+        admin = memberRepository.save(member);
+        group.setCreatedBy(admin.getId());
+        group = groupRepository.save(group);
+    }
+
+    @Test
+    void loginIssuesATokenCarryingTheMembersIdentity() throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + admin.getEmail() + "\",\"password\":\"password123\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(admin.getId()))
+                .andExpect(jsonPath("$.expiresIn").value(accessTokenService.getTtlSeconds()))
+                .andReturn().getResponse().getContentAsString();
+        String token = JsonPath.read(body, "$.accessToken");
+
+        AccessPrincipal principal = accessTokenService.verify(token);
+        assertEquals(admin.getId(), principal.getMemberId());
+        assertEquals(MemberRole.GroupAdmin, principal.getRole());
+        assertEquals(group.getId(), principal.getGroupId());
+        assertEquals("tenant001", principal.getTenantId());
+
+        // Refresh re-reads the member, so a role change reaches the new token
+        admin.setRole(MemberRole.SuperAdmin);
+        memberRepository.save(admin);
+        String refreshed = JsonPath.read(mockMvc.perform(post("/api/auth/refresh").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), "$.accessToken");
+        assertEquals(MemberRole.SuperAdmin, accessTokenService.verify(refreshed).getRole());
+    }
+
+    @Test
+    void forgedAndExpiredTokensAreRejected() throws Exception {
+        String token = accessTokenService.issue(admin);
+        String path = "/api/groups/groupadmin/" + admin.getId();
+
+        // Another member's ID in the payload, original signature
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("v1|someone-else|SuperAdmin||" + Long.MAX_VALUE + "|tenant001").getBytes(StandardCharsets.UTF_8));
+        String forged = forgedPayload + token.substring(token.indexOf('.'));
+        mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + forged))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\""))
+                .andExpect(jsonPath("$.errorCode").value("TOKEN_INVALID"));
+        mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token"))
+                .andExpect(status().isUnauthorized());
+
+        long ttl = accessTokenService.getTtlSeconds();
+        String expired;
+        try {
+            ReflectionTestUtils.setField(accessTokenService, "ttlSeconds", -1L);
+            expired = accessTokenService.issue(admin);
+        } finally {
+            ReflectionTestUtils.setField(accessTokenService, "ttlSeconds", ttl);
+        }
+        InvalidAccessTokenException e = assertThrows(InvalidAccessTokenException.class, () -> accessTokenService.verify(expired));
+        assertTrue(e.isExpired());
+        mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + expired))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.errorCode").value("TOKEN_EXPIRED"));
+
+        // No token: still served while tokens are optional, refused once they are required
+        mockMvc.perform(get(path)).andExpect(status().isOk());
+        try {
+            ReflectionTestUtils.setField(accessTokenFilter, "tokenRequired", true);
+            mockMvc.perform(get(path))
+                    .andExpect(status().isUnauthorized())
+                    .andExpect(jsonPath("$.errorCode").value("TOKEN_MISSING"));
+            mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)).andExpect(status().isOk());
+            mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"email\":\"" + admin.getEmail() + "\",\"password\":\"password123\"}"))
+                    .andExpect(status().isOk());
+        } finally {
+            ReflectionTestUtils.setField(accessTokenFilter, "tokenRequired", false);
+        }
+    }
+
+    @Test
+    void tokenSavesTheCallerLookupOnEachRequest() throws Exception {
+        compareWithAndWithoutToken(1, false);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkRequestsWithAndWithoutToken() throws Exception {
+        compareWithAndWithoutToken(BENCHMARK_ROUNDS, true);
+    }
+
+    private void compareWithAndWithoutToken(int rounds, boolean report) throws Exception {
+        String bearer = "Bearer " + accessTokenService.issue(admin);
+        String[] paths = {
+                "/api/groups/groupadmin/" + admin.getId(),
+                "/api/contributions/member/" + admin.getId(),
+                "/api/contributions/group/" + group.getId(),
+                "/api/notifications/member/" + admin.getId()
+        };
+        // Without the reference cache, so "without a token" pays for the caller lookup on every request
+        ReflectionTestUtils.setField(referenceDataCache, "enabled", false);
+        try {
+            if (report) {
+                System.out.println("Statements and mean time per request, without / with an access token (" + rounds + " rounds):");
+            }
+            for (String path : paths) {
+                long[] without = measure(get(path), rounds);
+                long[] with = measure(get(path).header(HttpHeaders.AUTHORIZATION, bearer), rounds);
+                if (report) {
+                    System.out.printf("  %-45s %d -> %d statements, %6.1f -> %6.1f us%n", path.replaceAll("/[0-9a-f-]{36}", "/{id}"),
+                            without[0], with[0], without[1] / 1000.0, with[1] / 1000.0);
+                }
+                assertEquals(without[0] - 1, with[0], path + " should skip its caller lookup");
+            }
+        } finally {
+            ReflectionTestUtils.setField(referenceDataCache, "enabled", true);
+        }
+    }
+
+    // @return {statements per request, mean nanoseconds per request}
+    private long[] measure(MockHttpServletRequestBuilder request, int rounds) throws Exception {
+        mockMvc.perform(request).andExpect(status().isOk()); // Warm-up
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            mockMvc.perform(request).andExpect(status().isOk());
+        }
+        long elapsed = System.nanoTime() - start;
+        return new long[] {statistics.getPrepareStatementCount() / rounds, elapsed / rounds};
+    }
+}
@@ -0,0 +1,216 @@
+package com.manpower;
+
+import com.manpower.entity.Group;
+import com.manpower.entity.Meeting;
+import com.manpower.enums.CachedEntity;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.enums.MemberStatus;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MeetingRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.CacheInvalidationBus;
+import com.manpower.service.GroupService;
+import com.manpower.service.MeetingService;
+import com.manpower.service.MemberService;
+import com.manpower.service.ReferenceDataCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two application contexts in one JVM stand in for two backend nodes sharing a database. A change made on
+// node A reaches node B's reference cache and Hibernate second-level/query cache (groups, members, meetings)
+// through the polled cache_invalidations table, an event that commits after a later one still arrives, and
+// a node does not re-apply its own events.
+public class CacheInvalidationBusTest {
+
+    private static final String DATABASE =
+            "jdbc:h2:mem:cache_invalidation_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("create-drop");
+        nodeB = startNode("none"); // The schema is node A's
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void aGroupChangeOnOneNodeReachesTheOtherNodesCaches() throws Exception {
+        Group group = saveGroup(nodeA, saveMember(nodeA, MemberRole.GroupAdmin, null));
+
+        // Node B caches the group in both caches
+        ReferenceDataCache referenceCacheB = nodeB.getBean(ReferenceDataCache.class);
+        GroupRepository groupsB = nodeB.getBean(GroupRepository.class);
+        assertFalse(referenceCacheB.getGroup(group.getId()).isTerminated());
+        assertEquals("Active", groupsB.findById(group.getId()).get().getStatus());
+        assertTrue(groupsB.findAllWithMembers().stream().anyMatch(g -> g.getId().equals(group.getId())));
+        Statistics statisticsB = statistics(nodeB);
+        long statementsBefore = statisticsB.getPrepareStatementCount();
+        assertEquals("Active", groupsB.findById(group.getId()).get().getStatus());
+        assertEquals(statementsBefore, statisticsB.getPrepareStatementCount(), "Node B serves the group from its cache");
+
+        nodeA.getBean(GroupService.class).terminateGroup(group.getId());
+
+        // The listeners run one after the other, so wait for both caches
+        awaitTrue(() -> referenceCacheB.getGroup(group.getId()).isTerminated()
+                && "Terminated".equals(groupsB.findById(group.getId()).get().getStatus()), "node B's caches");
+        assertEquals("Terminated", groupsB.findAllWithMembers().stream()
+                .filter(g -> g.getId().equals(group.getId())).findFirst().get().getStatus());
+    }
+
+    @Test
+    void aMemberChangeOnOneNodeReachesTheOtherNodesCaches() throws Exception {
+        Group group = saveGroup(nodeA, saveMember(nodeA, MemberRole.GroupAdmin, null));
+        Member member = saveMember(nodeA, MemberRole.Member, null);
+
+        ReferenceDataCache referenceCacheB = nodeB.getBean(ReferenceDataCache.class);
+        GroupService groupServiceB = nodeB.getBean(GroupService.class);
+        assertNull(referenceCacheB.getMember(member.getId()).getGroupId());
+        assertEquals(0, groupServiceB.getGroupById(group.getId()).get().getMembers().size());
+
+        Member details = new Member();
+        details.setFirstName(member.getFirstName());
+        details.setLastName(member.getLastName());
+        details.setEmail("moved." + member.getEmail());
+        details.setPhoneNumber(member.getPhoneNumber());
+        details.setStatus(MemberStatus.Active);
+        details.setGroup(group);
+        nodeA.getBean(MemberService.class).updateMember(member.getId(), details);
+
+        awaitTrue(() -> group.getId().equals(referenceCacheB.getMember(member.getId()).getGroupId())
+                && groupServiceB.getAllGroups().stream().filter(g -> g.getId().equals(group.getId()))
+                        .findFirst().get().getMembers().size() == 1, "node B's caches");
+        assertEquals("moved." + member.getEmail(), referenceCacheB.getMember(member.getId()).getEmail());
+    }
+
+    @Test
+    void aMeetingChangeOnOneNodeReachesTheOtherNodesCache() throws Exception {
+        Meeting meeting = new Meeting();
+        meeting.setGroup(saveGroup(nodeA, saveMember(nodeA, MemberRole.GroupAdmin, null)));
+        meeting.setTitle("Monthly");
+        meeting.setAgenda("Budget");
+        meeting.setMeetingDate(LocalDate.now().plusDays(7));
+        meeting.setMeetingTime(LocalTime.of(10, 0));
+        meeting.setMeetingLink("https://meet.example.com/monthly");
+        meeting.setCalledByRole("GroupAdmin");
+        meeting.setTargetAudience("GroupMembers");
+        Meeting saved = nodeA.getBean(MeetingService.class).saveMeeting(meeting);
+
+        MeetingRepository meetingsB = nodeB.getBean(MeetingRepository.class);
+        assertEquals("Monthly", meetingsB.findById(saved.getId()).get().getTitle()); // Cached on node B
+
+        saved.setTitle("Moved to Tuesday");
+        nodeA.getBean(MeetingService.class).saveMeeting(saved);
+
+        awaitTrue(() -> "Moved to Tuesday".equals(meetingsB.findById(saved.getId()).get().getTitle()), "node B's cache");
+    }
+
+    @Test
+    void aNodeDoesNotReapplyItsOwnEvents() throws Exception {
+        CacheInvalidationBus busA = nodeA.getBean(CacheInvalidationBus.class);
+        CacheInvalidationBus busB = nodeB.getBean(CacheInvalidationBus.class);
+        long receivedByA = busA.getReceived();
+        long receivedByB = busB.getReceived();
+
+        saveGroup(nodeA, saveMember(nodeA, MemberRole.GroupAdmin, null));
+
+        awaitTrue(() -> busB.getReceived() > receivedByB, "node B to receive the event");
+        Thread.sleep(300); // A few more polls of node A
+        assertEquals(receivedByA, busA.getReceived());
+    }
+
+    @Test
+    void anEventCommittedAfterALaterOneIsStillDelivered() throws Exception {
+        CacheInvalidationBus busA = nodeA.getBean(CacheInvalidationBus.class);
+        CacheInvalidationBus busB = nodeB.getBean(CacheInvalidationBus.class);
+        long receivedByB = busB.getReceived();
+        CountDownLatch published = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        // The first event takes the lower ID but commits last
+        TransactionTemplate transaction = new TransactionTemplate(nodeA.getBean(PlatformTransactionManager.class));
+        ExecutorService slowWriter = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slow = slowWriter.submit(() -> transaction.executeWithoutResult(status -> {
+                busA.publish(CachedEntity.Group, UUID.randomUUID().toString());
+                published.countDown();
+                try {
+                    commit.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            published.await();
+            busA.publish(CachedEntity.Group, UUID.randomUUID().toString());
+            awaitTrue(() -> busB.getReceived() == receivedByB + 1, "node B to read the later event");
+
+            commit.countDown();
+            slow.get();
+            awaitTrue(() -> busB.getReceived() == receivedByB + 2, "node B to pick up the skipped event");
+        } finally {
+            slowWriter.shutdownNow();
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(String ddlAuto) {
+        return new SpringApplicationBuilder(ManpowerBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                // Arguments rather than builder properties, which application.properties would override
+                .run("--spring.datasource.url=" + DATABASE,
+                        "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                        "--cache.invalidation.poll-interval-ms=50");
+    }
+
+    private static Statistics statistics(ConfigurableApplicationContext node) {
+        return node.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for " + what);
+            }
+            Thread.sleep(25);
+        }
+    }
+
+    private static Group saveGroup(ConfigurableApplicationContext node, Member admin) {
+        return node.getBean(GroupService.class).saveGroup(TestData.group("Bus", admin.getId()));
+    }
+
+    private static Member saveMember(ConfigurableApplicationContext node, MemberRole role, Group group) {
+        return node.getBean(MemberRepository.class).save(TestData.member("Bus", role, group));
+    }
+}
@@ -0,0 +1,152 @@
+package com.manpower;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manpower.entity.Contribution;
+import com.manpower.entity.Group;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.enums.TransactionType;
+import com.manpower.repository.ContributionRepository;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.ContributionServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Contribution listings page by cursor: following X-Next-Cursor visits every row once, newest first, even
+// where rows share a transaction date; a cursor the server did not hand out is a 400, and limit falls back to
+// the default page at 0 and is capped at the maximum page.
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ContributionPagingTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Test
+    void followingTheCursorVisitsEveryRowOnceNewestFirst() throws Exception {
+        Member member = TestData.groupWithMember(groupRepository, memberRepository, "Paging", MemberRole.Member);
+        // Three days, with three rows on the middle one so a page boundary falls between rows of the same date
+        List<Contribution> seeded = new ArrayList<>();
+        seeded.add(contribution(member, DAY));
+        for (int i = 0; i < 3; i++) {
+            seeded.add(contribution(member, DAY.plusDays(1)));
+        }
+        seeded.add(contribution(member, DAY.plusDays(2)));
+        seeded.add(contribution(member, DAY.plusDays(2)));
+        seeded.add(contribution(member, DAY.plusDays(3)));
+        contributionRepository.saveAll(seeded);
+
+        List<String> ids = new ArrayList<>();
+        List<LocalDate> dates = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = "/api/contributions/group/" + member.getGroup().getId() + "?limit=3"
+                    + (cursor == null ? "" : "&cursor=" + cursor);
+            MvcResult result = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+            for (JsonNode row : objectMapper.readTree(result.getResponse().getContentAsString())) {
+                ids.add(row.get("id").asText());
+                dates.add(LocalDate.parse(row.get("transactionDate").asText()));
+            }
+            cursor = result.getResponse().getHeader("X-Next-Cursor");
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(seeded.size(), ids.size());
+        assertEquals(seeded.size(), ids.stream().distinct().count(), "A row came back twice: " + ids);
+        for (int i = 1; i < ids.size(); i++) {
+            int byDate = dates.get(i - 1).compareTo(dates.get(i));
+            assertTrue(byDate > 0 || (byDate == 0 && ids.get(i - 1).compareTo(ids.get(i)) > 0),
+                    "Out of order at row " + i + ": " + dates + " " + ids);
+        }
+    }
+
+    @Test
+    void aCursorTheServerDidNotHandOutIsABadRequest() throws Exception {
+        Member member = TestData.groupWithMember(groupRepository, memberRepository, "Cursor", MemberRole.Member);
+        String url = "/api/contributions/group/" + member.getGroup().getId() + "?cursor=";
+
+        mockMvc.perform(get(url + "not-a-cursor!!"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid contribution cursor."));
+        mockMvc.perform(get(url + token("2026-13-45|some-id")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(url + token("no separator")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/contributions?cursor=" + token("2026-03-01|")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void limitFallsBackToTheDefaultAndIsCappedAtTheMaximum() throws Exception {
+        Member member = TestData.groupWithMember(groupRepository, memberRepository, "Limit", MemberRole.Member);
+        List<Contribution> seeded = new ArrayList<>();
+        for (int i = 0; i <= ContributionServiceImpl.MAX_PAGE_SIZE; i++) {
+            seeded.add(contribution(member, DAY.plusDays(i % 30)));
+        }
+        contributionRepository.saveAll(seeded);
+        String url = "/api/contributions/group/" + member.getGroup().getId();
+
+        mockMvc.perform(get(url + "?limit=0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ContributionServiceImpl.DEFAULT_PAGE_SIZE))
+                .andExpect(header().exists("X-Next-Cursor"));
+        mockMvc.perform(get(url + "?limit=1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ContributionServiceImpl.MAX_PAGE_SIZE))
+                .andExpect(header().exists("X-Next-Cursor"));
+        mockMvc.perform(get(url + "?limit=1000&cursor=" + cursorAfterAFullPage(url)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    private String cursorAfterAFullPage(String url) throws Exception {
+        return mockMvc.perform(get(url + "?limit=" + ContributionServiceImpl.MAX_PAGE_SIZE))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Contribution contribution(Member member, LocalDate date) {
+        Group group = member.getGroup();
+        return new Contribution(member, group, TransactionType.Contribution, new BigDecimal("10.00"),
+                date, "Cash", TestData.CREATED_BY, TestData.TENANT);
+    }
+}
@@ -0,0 +1,163 @@
+package com.manpower;
+
+import com.manpower.dto.ContributionStats;
+import com.manpower.entity.Contribution;
+import com.manpower.entity.Group;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.enums.TransactionStatus;
+import com.manpower.enums.TransactionType;
+import com.manpower.repository.ContributionRepository;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.ContributionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Contribution summaries: one group's, and several at once, roll the rows up into exact totals, min, max
+// and average, per transaction type and per status; a requested group with no contributions comes back empty.
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ContributionSummaryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContributionService contributionService;
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private Group first;
+    private Group second;
+    private Group empty;
+
+    @BeforeEach
+    void seed() {
+        Member firstMember = TestData.groupWithMember(groupRepository, memberRepository, "SummaryA", MemberRole.Member);
+        Member secondMember = TestData.groupWithMember(groupRepository, memberRepository, "SummaryB", MemberRole.Member);
+        first = firstMember.getGroup();
+        second = secondMember.getGroup();
+        empty = groupRepository.save(TestData.group("SummaryC", TestData.CREATED_BY));
+
+        contributionRepository.saveAll(Arrays.asList(
+                contribution(firstMember, TransactionType.Contribution, "100.00", TransactionStatus.Completed),
+                contribution(firstMember, TransactionType.Contribution, "250.50", TransactionStatus.Completed),
+                contribution(firstMember, TransactionType.Expense, "40.25", TransactionStatus.Completed),
+                contribution(firstMember, TransactionType.Contribution, "75.00", TransactionStatus.Pending),
+                contribution(secondMember, TransactionType.Monthly, "300.00", TransactionStatus.Completed),
+                contribution(secondMember, TransactionType.Loan_Payment, "20.10", TransactionStatus.Failed)));
+    }
+
+    @Test
+    void groupSummaryRollsUpEveryTypeAndStatus() {
+        Map<String, Object> summary = contributionService.getContributionSummary(first.getId());
+
+        assertEquals(first.getId(), summary.get("groupId"));
+        assertEquals(4L, summary.get("numberOfContributions"));
+        assertEquals(new BigDecimal("465.75"), summary.get("totalContributions"));
+        assertEquals(new BigDecimal("40.25"), summary.get("minAmount"));
+        assertEquals(new BigDecimal("250.50"), summary.get("maxAmount"));
+        assertEquals(new BigDecimal("116.44"), summary.get("averageAmount")); // 116.4375
+
+        Map<?, ?> byType = (Map<?, ?>) summary.get("byTransactionType");
+        assertEquals(2, byType.size());
+        assertStats((ContributionStats) byType.get(TransactionType.Contribution), 3, "425.50", "75.00", "250.50", "141.83");
+        assertStats((ContributionStats) byType.get(TransactionType.Expense), 1, "40.25", "40.25", "40.25", "40.25");
+
+        Map<?, ?> byStatus = (Map<?, ?>) summary.get("byStatus");
+        assertEquals(2, byStatus.size());
+        assertStats((ContributionStats) byStatus.get(TransactionStatus.Completed), 3, "390.75", "40.25", "250.50", "130.25");
+        assertStats((ContributionStats) byStatus.get(TransactionStatus.Pending), 1, "75.00", "75.00", "75.00", "75.00");
+    }
+
+    @Test
+    void summariesKeepGroupsApartAndReturnRequestedEmptyGroups() {
+        Map<String, Map<String, Object>> summaries = contributionService.getContributionSummaries(
+                Arrays.asList(first.getId(), second.getId(), empty.getId()));
+
+        assertEquals(3, summaries.size());
+        assertEquals(new BigDecimal("465.75"), summaries.get(first.getId()).get("totalContributions"));
+
+        Map<String, Object> secondSummary = summaries.get(second.getId());
+        assertEquals(2L, secondSummary.get("numberOfContributions"));
+        assertEquals(new BigDecimal("320.10"), secondSummary.get("totalContributions"));
+        assertEquals(new BigDecimal("20.10"), secondSummary.get("minAmount"));
+        assertEquals(new BigDecimal("300.00"), secondSummary.get("maxAmount"));
+        assertEquals(new BigDecimal("160.05"), secondSummary.get("averageAmount"));
+        Map<?, ?> byType = (Map<?, ?>) secondSummary.get("byTransactionType");
+        assertStats((ContributionStats) byType.get(TransactionType.Monthly), 1, "300.00", "300.00", "300.00", "300.00");
+        assertStats((ContributionStats) byType.get(TransactionType.Loan_Payment), 1, "20.10", "20.10", "20.10", "20.10");
+        Map<?, ?> byStatus = (Map<?, ?>) secondSummary.get("byStatus");
+        assertStats((ContributionStats) byStatus.get(TransactionStatus.Completed), 1, "300.00", "300.00", "300.00", "300.00");
+        assertStats((ContributionStats) byStatus.get(TransactionStatus.Failed), 1, "20.10", "20.10", "20.10", "20.10");
+
+        Map<String, Object> emptySummary = summaries.get(empty.getId());
+        assertEquals(empty.getId(), emptySummary.get("groupId"));
+        assertEquals(0L, emptySummary.get("numberOfContributions"));
+        assertEquals(BigDecimal.ZERO, emptySummary.get("totalContributions"));
+        assertNull(emptySummary.get("minAmount"));
+        assertNull(emptySummary.get("maxAmount"));
+        assertNull(emptySummary.get("averageAmount"));
+        assertTrue(((Map<?, ?>) emptySummary.get("byTransactionType")).isEmpty());
+        assertTrue(((Map<?, ?>) emptySummary.get("byStatus")).isEmpty());
+    }
+
+    @Test
+    void summariesEndpointReturnsOneSummaryPerRequestedGroup() throws Exception {
+        String a = "$['" + first.getId() + "']";
+        String c = "$['" + empty.getId() + "']";
+        mockMvc.perform(get("/api/contributions/summary/groups")
+                        .param("groupIds", first.getId() + "," + second.getId() + "," + empty.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath(a + ".totalContributions").value(465.75))
+                .andExpect(jsonPath(a + ".averageAmount").value(116.44))
+                .andExpect(jsonPath(a + ".byTransactionType.Contribution.count").value(3))
+                .andExpect(jsonPath(a + ".byStatus.Pending.total").value(75.0))
+                .andExpect(jsonPath("$['" + second.getId() + "'].byStatus.Failed.total").value(20.1))
+                .andExpect(jsonPath(c + ".numberOfContributions").value(0))
+                .andExpect(jsonPath(c + ".totalContributions").value(0))
+                .andExpect(jsonPath(c + ".minAmount").isEmpty())
+                .andExpect(jsonPath(c + ".byTransactionType").isEmpty());
+    }
+
+    private static void assertStats(ContributionStats stats, long count, String total, String min, String max,
+                                    String average) {
+        assertNotNull(stats);
+        assertEquals(count, stats.getCount());
+        assertEquals(new BigDecimal(total), stats.getTotal());
+        assertEquals(new BigDecimal(min), stats.getMinAmount());
+        assertEquals(new BigDecimal(max), stats.getMaxAmount());
+        assertEquals(new BigDecimal(average), stats.getAverage());
+    }
+
+    private static Contribution contribution(Member member, TransactionType type, String amount,
+                                             TransactionStatus status) {
+        Contribution contribution = new Contribution(member, member.getGroup(), type, new BigDecimal(amount),
+                LocalDate.now(), "Cash", TestData.CREATED_BY, TestData.TENANT);
+        contribution.setStatus(status);
+        return contribution;
+    }
+}
@@ -0,0 +1,172 @@
+package com.manpower;
+
+import com.manpower.entity.Contribution;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.repository.ContributionRepository;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.PesaPalTrackingIdBackfill;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PesaPal tracking IDs in their own uniquely indexed column: the start-up backfill from descriptions and
+// point lookups after it, plus an opt-in benchmark of those lookups against the old description LIKE scan
+// over 1M contributions (run with -Dbenchmarks=true).
+@SpringBootTest
+public class ContributionTrackingIdTest {
+
+    private static final int ROWS = 2_000;
+    private static final int BENCHMARK_ROWS = 1_000_000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO contributions (id, member_id, group_id, transaction_type, amount, transaction_date, " +
+            "payment_method, status, description, created_by, modified_by, created_on, modified_on, mansoft_tenant_id) " +
+            "VALUES (?, ?, ?, 'Contribution', 500.00, ?, 'PesaPal', 'Failed', ?, 'test-script', 'test-script', ?, ?, 'tenant001')";
+
+    private static final String LIKE_SQL =
+            "SELECT id FROM contributions WHERE payment_method = 'PesaPal' AND description LIKE ?";
+
+    @Autowired
+    private PesaPalTrackingIdBackfill backfill;
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Member member;
+
+    @AfterEach
+    void cleanUp() {
+        // The in-memory database is shared with the other test classes
+        if (member != null) {
+            jdbcTemplate.update("DELETE FROM contributions WHERE member_id = ?", member.getId());
+        }
+    }
+
+    @Test
+    void backfillSkipsDuplicateAndMalformedIds() {
+        seedMember();
+        String trackingId = UUID.randomUUID().toString();
+        String[] ids = insert(Arrays.asList(
+                "Monthly contribution (PesaPal Order ID: " + trackingId + ")",
+                "Retry (PesaPal Order ID: " + trackingId + ")",
+                "Monthly contribution (PesaPal Order ID: )",
+                "Monthly contribution"));
+
+        assertEquals(1, backfill.backfill());
+        assertEquals(0, backfill.backfill(), "Already migrated rows are left alone");
+
+        Contribution owner = contributionRepository.findByPesapalTrackingId(trackingId).get();
+        assertTrue(owner.getId().equals(ids[0]) || owner.getId().equals(ids[1]));
+        assertNull(contributionRepository.findById(ids[2]).get().getPesapalTrackingId());
+        assertNull(contributionRepository.findById(ids[3]).get().getPesapalTrackingId());
+    }
+
+    @Test
+    void pointLookupsFindEachRowAfterBackfill() {
+        backfillAndLookUp(ROWS, false);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkPointLookupsAgainstDescriptionScan() {
+        backfillAndLookUp(BENCHMARK_ROWS, true);
+    }
+
+    private void backfillAndLookUp(int rowCount, boolean report) {
+        seedMember();
+        List<String> descriptions = new ArrayList<>(rowCount);
+        List<String> trackingIds = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            String trackingId = UUID.randomUUID().toString();
+            trackingIds.add(trackingId);
+            descriptions.add("Monthly contribution (PesaPal Order ID: " + trackingId + ")");
+        }
+        long start = System.nanoTime();
+        String[] ids = insert(descriptions);
+        descriptions = null;
+        long insertNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        assertEquals(rowCount, backfill.backfill());
+        long backfillNanos = System.nanoTime() - start;
+
+        Random random = new Random(42);
+        int lookups = 1_000;
+        start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            int row = random.nextInt(rowCount);
+            Optional<Contribution> found = contributionRepository.findByPesapalTrackingId(trackingIds.get(row));
+            assertTrue(found.isPresent());
+            assertEquals(ids[row], found.get().getId());
+        }
+        double indexedMs = (System.nanoTime() - start) / 1e6 / lookups;
+        if (!report) {
+            return;
+        }
+
+        int scans = 5;
+        start = System.nanoTime();
+        for (int i = 0; i < scans; i++) {
+            int row = random.nextInt(rowCount);
+            List<String> found = jdbcTemplate.queryForList(LIKE_SQL, String.class,
+                    "%(PesaPal Order ID: " + trackingIds.get(row) + ")");
+            assertEquals(Arrays.asList(ids[row]), found);
+        }
+        double scanMs = (System.nanoTime() - start) / 1e6 / scans;
+        System.out.printf("Inserted %d PesaPal contributions in %.0f ms, backfilled their tracking IDs in %.0f ms%n",
+                rowCount, insertNanos / 1e6, backfillNanos / 1e6);
+        System.out.printf("%d rows: tracking-ID lookup %.3f ms (indexed column) vs %.1f ms (description LIKE scan)%n",
+                rowCount, indexedMs, scanMs);
+    }
+
+    private String[] insert(List<String> descriptions) {
+        String[] ids = new String[descriptions.size()];
+        List<Integer> rows = new ArrayList<>(descriptions.size());
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            rows.add(i);
+        }
+        Date today = new Date(System.currentTimeMillis());
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        // Failed rows stay out of the group ledger and the status reconciler
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, 5_000, (ps, row) -> {
+            ps.setString(1, ids[row]);
+            ps.setString(2, member.getId());
+            ps.setString(3, member.getGroup().getId());
+            ps.setDate(4, today);
+            ps.setString(5, descriptions.get(row));
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+        });
+        return ids;
+    }
+
+    private void seedMember() {
+        member = TestData.groupWithMember(groupRepository, memberRepository, "Tracking", MemberRole.Member);
+    }
+}
@@ -0,0 +1,182 @@
+package com.manpower;
+
+import com.manpower.entity.Member;
+import com.manpower.entity.OutboundEmail;
+import com.manpower.enums.EmailOutboxStatus;
+import com.manpower.enums.MemberRole;
+import com.manpower.enums.MemberStatus;
+import com.manpower.repository.EmailOutboxRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.EmailOutbox;
+import com.manpower.service.MemberService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The email outbox against a local SMTP stub: a password reset commits while SMTP is down and its email
+// follows once it is back, batches share one SMTP connection, a rolled-back change sends nothing, and a
+// recipient that keeps being refused is retried with backoff and then given up on.
+// Uses its own H2 database so the outbox senders of other cached test contexts cannot claim its rows.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:email_outbox_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "mail.outbox.batch-size=10", "mail.outbox.poll-interval-ms=100", "mail.outbox.max-attempts=4",
+        "mail.outbox.backoff-initial-ms=100", "mail.outbox.backoff-max-ms=300"})
+public class EmailOutboxTest {
+
+    private static final SmtpStub smtp = new SmtpStub();
+
+    @Autowired
+    private EmailOutbox emailOutbox;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void smtpStub(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", smtp::port);
+    }
+
+    @AfterAll
+    static void stopSmtp() {
+        smtp.stop();
+    }
+
+    @AfterEach
+    void restoreSmtp() {
+        smtp.refuseConnections = false;
+        smtp.rejectRecipient = null;
+    }
+
+    @Test
+    void passwordResetCommitsWhileSmtpIsDownAndItsEmailFollows() throws Exception {
+        smtp.refuseConnections = true;
+        Member member = saveMember();
+        String before = member.getPassword();
+
+        assertEquals("A new password has been sent to your email.", memberService.resetPassword(member.getEmail()));
+        assertNotEquals(before, memberRepository.findById(member.getId()).get().getPassword(), "The reset is committed");
+        awaitTrue(() -> outboxRow(member.getEmail()).getAttempts() >= 1, "a failed first attempt");
+        assertEquals(EmailOutboxStatus.Pending, outboxRow(member.getEmail()).getStatus());
+        assertEquals(0, smtp.receivedFor(member.getEmail()));
+
+        smtp.refuseConnections = false;
+        awaitTrue(() -> outboxRow(member.getEmail()).getStatus() == EmailOutboxStatus.Sent, "the retry to be sent");
+        assertEquals(1, smtp.receivedFor(member.getEmail()));
+        assertTrue(smtp.received.stream().anyMatch(email -> email.recipients.contains(member.getEmail())
+                && email.data.contains("temporary password")));
+        assertNull(outboxRow(member.getEmail()).getBody(), "The temporary password is not kept once sent");
+    }
+
+    @Test
+    void aBatchIsSentOverOneConnection() throws Exception {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        int emails = 25;
+        int connectionsBefore = smtp.connectionCount.get();
+        new TransactionTemplate(transactionManager).execute(status -> {
+            for (int i = 0; i < emails; i++) {
+                emailOutbox.enqueue("batch-" + i + "." + run + "@example.com", "Batch " + i, "Hello " + i);
+            }
+            return null;
+        });
+
+        awaitTrue(() -> countReceived(run) == emails, "all " + emails + " emails");
+        int connections = smtp.connectionCount.get() - connectionsBefore;
+        // Batches of 10: three connections (one more if a retry poll started a batch in between), not 25
+        assertTrue(connections <= 4, "SMTP connections opened: " + connections);
+    }
+
+    @Test
+    void aRolledBackChangeSendsNothing() throws Exception {
+        String recipient = "rolled-back." + UUID.randomUUID().toString().substring(0, 8) + "@example.com";
+        new TransactionTemplate(transactionManager).execute(status -> {
+            emailOutbox.enqueue(recipient, "Never", "Never sent");
+            status.setRollbackOnly();
+            return null;
+        });
+        Thread.sleep(300);
+        assertTrue(emailOutboxRepository.findByRecipient(recipient).isEmpty());
+        assertEquals(0, smtp.receivedFor(recipient));
+    }
+
+    @Test
+    void aRefusedRecipientIsRetriedThenGivenUpWithoutResendingTheRest() throws Exception {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        String good = "good." + run + "@example.com";
+        String refused = "refused." + run + "@example.com";
+        smtp.rejectRecipient = refused;
+        long abandonedBefore = emailOutbox.getAbandonedEmails();
+
+        new TransactionTemplate(transactionManager).execute(status -> {
+            emailOutbox.enqueue(good, "Hello", "Delivered once");
+            emailOutbox.enqueue(refused, "Hello", "Never delivered");
+            return null;
+        });
+
+        awaitTrue(() -> outboxRow(refused).getStatus() == EmailOutboxStatus.Failed, "the refused email to be given up");
+        OutboundEmail failed = outboxRow(refused);
+        assertEquals(4, failed.getAttempts());
+        assertNotNull(failed.getLastError());
+        assertNull(failed.getBody(), "A given-up email does not keep its body (e.g. a temporary password) either");
+        assertEquals(EmailOutboxStatus.Sent, outboxRow(good).getStatus());
+        assertEquals(1, smtp.receivedFor(good), "The accepted email of the batch is not sent again");
+        assertEquals(abandonedBefore + 1, emailOutbox.getAbandonedEmails());
+    }
+
+    private OutboundEmail outboxRow(String recipient) {
+        List<OutboundEmail> rows = emailOutboxRepository.findByRecipient(recipient);
+        assertEquals(1, rows.size(), "Outbox rows for " + recipient);
+        return rows.get(0);
+    }
+
+    private long countReceived(String run) {
+        return smtp.received.stream().filter(email -> email.recipients.stream().anyMatch(r -> r.contains(run))).count();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for " + what);
+            }
+            Thread.sleep(25);
+        }
+    }
+
+    private Member saveMember() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Member member = new Member();
+        member.setFirstName("Mail");
+        member.setLastName("Box");
+        member.setEmail("outbox." + suffix + "@example.com");
+        member.setPhoneNumber("0712345678");
+        member.setPassword("password123");
+        member.setStatus(MemberStatus.Active);
+        member.setRole(MemberRole.Member);
+        member.setCreatedBy("test-script");
+        member.setModifiedBy("test-script");
+        member.setMansoftTenantId("tenant001");
+        return memberRepository.save(member);
+    }
+}
@@ -0,0 +1,67 @@
+package com.manpower;
+
+import com.manpower.entity.Contribution;
+import com.manpower.entity.Group;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.enums.TransactionType;
+import com.manpower.repository.ContributionRepository;
+import com.manpower.repository.GroupLedgerTotalRepository;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.GroupLedgerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Seeding the ledger from existing contributions is an upsert: nodes that start together and all find the
+// ledger empty each seed it, and the totals still count every contribution once.
+@SpringBootTest
+public class GroupLedgerSeedTest {
+
+    @Autowired
+    private GroupLedgerService groupLedgerService;
+
+    @Autowired
+    private GroupLedgerTotalRepository ledgerRepository;
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void seedingTwiceCountsEachContributionOnce() {
+        Member member = TestData.groupWithMember(groupRepository, memberRepository, "Ledger", MemberRole.Member);
+        Group group = member.getGroup();
+        // Written straight to the table, as contributions made before the ledger existed were
+        contributionRepository.save(completed(member, group, "100.00"));
+        contributionRepository.save(completed(member, group, "50.00"));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> ledgerRepository.rebuildAll());
+        transaction.executeWithoutResult(status -> ledgerRepository.rebuildAll()); // The second node
+
+        assertEquals(0, new BigDecimal("150.00").compareTo(groupLedgerService.getGroupTotal(group.getId())));
+        assertTrue(groupLedgerService.verify(group.getId()).getDrift().isEmpty());
+    }
+
+    private static Contribution completed(Member member, Group group, String amount) {
+        return new Contribution(member, group, TransactionType.Contribution, new BigDecimal(amount),
+                LocalDate.now(), "Cash", TestData.CREATED_BY, TestData.TENANT);
+    }
+}
@@ -0,0 +1,128 @@
+package com.manpower;
+
+import com.manpower.repository.ContributionRepository;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.repository.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the hot repository lookups, captures the SQL Hibernate sends for them (SqlCapture) and EXPLAINs it
+// with the same parameters, checking that the embedded database picks the intended index instead of a full
+// table scan.
+@SpringBootTest
+public class IndexUsageTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 31);
+    private static final java.util.Date CREATED_ON = Timestamp.valueOf("2024-01-31 10:00:00");
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void loginLookupUsesEmailIndex() {
+        // members.email is unique through its column definition, so the index name is the one Hibernate generated
+        String emailIndex = jdbcTemplate.queryForObject(
+                "SELECT index_name FROM information_schema.index_columns " +
+                "WHERE table_name = 'members' AND column_name = 'email'", String.class);
+        assertUsesIndex("members", emailIndex.toLowerCase(),
+                () -> memberRepository.findByEmail("nobody@example.com"),
+                "nobody@example.com");
+    }
+
+    @Test
+    void membersByGroupUseGroupIndex() {
+        assertUsesIndex("members", "idx_members_group",
+                () -> memberRepository.findByGroupId("g1"),
+                "g1");
+    }
+
+    @Test
+    void contributionPagesUseGroupDateIndex() {
+        assertUsesIndex("contributions", "idx_contributions_group_date",
+                () -> contributionRepository.findPageByGroupIdAfter("g1", DATE, "x", PageRequest.of(0, 51)),
+                "g1", Date.valueOf(DATE), Date.valueOf(DATE), "x", 51);
+    }
+
+    @Test
+    void contributionPagesUseMemberDateIndex() {
+        assertUsesIndex("contributions", "idx_contributions_member_date",
+                () -> contributionRepository.findPageByMemberIdAfter("m1", DATE, "x", PageRequest.of(0, 51)),
+                "m1", Date.valueOf(DATE), Date.valueOf(DATE), "x", 51);
+    }
+
+    @Test
+    void pesapalStatusLookupsUseTrackingIdIndex() {
+        assertUsesIndex("contributions", "uk_contributions_pesapal_tracking_id",
+                () -> contributionRepository.findByPesapalTrackingId("x"),
+                "x");
+    }
+
+    @Test
+    void markingAllReadUsesMemberReadIndex() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        assertUsesIndex("notifications", "idx_notifications_member_read",
+                () -> transaction.executeWithoutResult(status ->
+                        notificationRepository.markAllReadForMember("m1", CREATED_ON)),
+                CREATED_ON, "m1");
+    }
+
+    @Test
+    void inboxPagesUseMemberCreatedIndex() {
+        assertUsesIndex("notifications", "idx_notifications_member_created",
+                () -> notificationRepository.findInboxPageAfter("m1", CREATED_ON, "x", PageRequest.of(0, 51)),
+                "m1", CREATED_ON, CREATED_ON, "x", 51);
+    }
+
+    @Test
+    void groupsByCreatorUseCreatedByIndex() {
+        String createdBy = "admin-" + System.nanoTime(); // Not a query cache hit, so the query is sent
+        assertUsesIndex("group_info", "idx_group_info_created_by",
+                () -> groupRepository.findByCreatedBy(createdBy),
+                createdBy);
+    }
+
+    /**
+     * Runs the repository call, takes the first statement it sent against the table and EXPLAINs it.
+     * @param parameters the statement's bind values, in the order they appear in it.
+     */
+    private void assertUsesIndex(String table, String expectedIndex, Runnable repositoryCall, Object... parameters) {
+        List<String> statements = SqlCapture.capture(repositoryCall);
+        String sql = statements.stream()
+                .filter(statement -> statement.toLowerCase().matches("(?s).*\\b(from|update) " + table + "\\b.*"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No statement against " + table + " in " + statements));
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+        assertNotNull(plan);
+        String normalized = plan.toLowerCase();
+        assertFalse(normalized.contains("tablescan"), "Expected an index lookup but got a table scan:\n" + plan);
+        assertTrue(normalized.contains(expectedIndex), "Expected " + expectedIndex + " in plan:\n" + plan);
+    }
+}
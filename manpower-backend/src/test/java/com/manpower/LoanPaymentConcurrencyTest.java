@@ -0,0 +1,187 @@
+package com.manpower;
+
+import com.manpower.entity.Group;
+import com.manpower.entity.Loan;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.LoanRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.LoanService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Loan payments: thousands of concurrent payments on one loan, each also retried, leave the balance exact;
+// an idempotency key is applied once, and overpayment stops the balance at zero.
+@SpringBootTest
+@AutoConfigureMockMvc
+public class LoanPaymentConcurrencyTest {
+
+    private static final int PAYMENTS = 2_000;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Member member;
+    private Group group;
+
+    @BeforeEach
+    void seed() {
+        member = memberRepository.save(TestData.member("Loans", MemberRole.GroupAdmin, null));
+        group = groupRepository.save(TestData.group("Loans", member.getId()));
+    }
+
+    @Test
+    void concurrentPaymentsAndRetriesLeaveAnExactBalance() throws Exception {
+        Loan loan = saveLoan(new BigDecimal("1000000.00"));
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < PAYMENTS; i++) {
+                String key = "payment-" + i;
+                // Every payment is sent twice, as a client retrying after a timeout would
+                for (int attempt = 0; attempt < 2; attempt++) {
+                    results.add(pool.submit((Callable<Loan>) () -> {
+                        start.await();
+                        return loanService.processPayment(loan.getId(), new BigDecimal("1.25"), key);
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Loan paid = loanRepository.findById(loan.getId()).get();
+        assertEquals(0, new BigDecimal("2500.00").compareTo(paid.getTotalPaid()), "Total paid: " + paid.getTotalPaid());
+        assertEquals(0, new BigDecimal("997500.00").compareTo(paid.getOutstandingBalance()),
+                "Outstanding: " + paid.getOutstandingBalance());
+        assertEquals(PAYMENTS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM loan_payments WHERE loan_id = ?", Integer.class, loan.getId()));
+        assertEquals("APPROVED", paid.getStatus());
+    }
+
+    @Test
+    void aRetriedPaymentIsAppliedOnceAndMustRepeatTheAmount() throws Exception {
+        Loan loan = saveLoan(new BigDecimal("100.00"));
+        String body = "{\"paymentAmount\": 40}";
+
+        mockMvc.perform(post("/api/loans/" + loan.getId() + "/pay").header("Idempotency-Key", "retry-me")
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.outstandingBalance").value(60.0));
+        mockMvc.perform(post("/api/loans/" + loan.getId() + "/pay").header("Idempotency-Key", "retry-me")
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.outstandingBalance").value(60.0));
+
+        // The same key with another amount is a client bug, not a retry
+        assertThrows(IllegalArgumentException.class,
+                () -> loanService.processPayment(loan.getId(), new BigDecimal("41.00"), "retry-me"));
+        assertEquals(0, new BigDecimal("40.00").compareTo(loanRepository.findById(loan.getId()).get().getTotalPaid()));
+    }
+
+    @Test
+    void overpaymentStopsAtZeroAndMarksTheLoanPaid() {
+        Loan loan = saveLoan(new BigDecimal("100.00"));
+        loanService.processPayment(loan.getId(), new BigDecimal("70.00"));
+        Loan paid = loanService.processPayment(loan.getId(), new BigDecimal("50.00"));
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(paid.getOutstandingBalance()));
+        assertEquals(0, new BigDecimal("120.00").compareTo(paid.getTotalPaid()));
+        assertEquals("PAID", paid.getStatus());
+    }
+
+    @Test
+    void paymentsDuringATermsUpdateAreNotLost() throws Exception {
+        Loan loan = saveLoan(new BigDecimal("1000.00"));
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?> payments = pool.submit((Callable<Void>) () -> {
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                    loanService.processPayment(loan.getId(), new BigDecimal("1.00"));
+                }
+                return null;
+            });
+            // The client's copy of the loan never sees a payment, as with a PUT sent from a stale form
+            Future<?> updates = pool.submit((Callable<Void>) () -> {
+                start.await();
+                for (int i = 0; i < 50; i++) {
+                    loanService.saveLoan(loan);
+                }
+                return null;
+            });
+            start.countDown();
+            payments.get();
+            updates.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Loan updated = loanRepository.findById(loan.getId()).get();
+        assertEquals(0, new BigDecimal("200.00").compareTo(updated.getTotalPaid()), "Total paid: " + updated.getTotalPaid());
+        assertEquals(0, new BigDecimal("800.00").compareTo(updated.getOutstandingBalance()),
+                "Outstanding: " + updated.getOutstandingBalance());
+    }
+
+    private Loan saveLoan(BigDecimal outstanding) {
+        Loan loan = new Loan();
+        loan.setId(UUID.randomUUID().toString());
+        loan.setMember(member);
+        loan.setGroup(group);
+        loan.setApprovedBy(member);
+        loan.setAmount(outstanding);
+        loan.setInterestRate(BigDecimal.ZERO);
+        loan.setCalculatedInterest(BigDecimal.ZERO);
+        loan.setStartDate(new Date());
+        loan.setDueDate(new Date(System.currentTimeMillis() + 90L * 24 * 3600 * 1000));
+        loan.setStatus("APPROVED");
+        loan.setOutstandingBalance(outstanding);
+        loan.setTotalPaid(BigDecimal.ZERO);
+        return loanRepository.save(loan);
+    }
+}
@@ -0,0 +1,234 @@
+package com.manpower;
+
+import com.manpower.entity.Group;
+import com.manpower.entity.Loan;
+import com.manpower.entity.LoanInstallment;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.enums.RepaymentMethod;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.LoanRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.AmortizationScheduleGenerator;
+import com.manpower.service.LoanScheduleBackfill;
+import com.manpower.service.LoanService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Repayment schedules: flat and reducing-balance installments add up to the loan, saving a loan stores its
+// schedule (flat interest unchanged from before schedules existed), loans saved before then get theirs at
+// start-up, and the schedule endpoint streams one loan's installments and payments.
+@SpringBootTest
+@AutoConfigureMockMvc
+public class LoanScheduleTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 15);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private AmortizationScheduleGenerator generator;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private LoanScheduleBackfill loanScheduleBackfill;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Member admin;
+    private Group group;
+
+    @BeforeEach
+    void seed() {
+        admin = memberRepository.save(TestData.member("Schedule", MemberRole.GroupAdmin, null));
+        group = groupRepository.save(TestData.group("Schedule", admin.getId()));
+    }
+
+    @Test
+    void flatScheduleSpreadsPrincipalAndInterestEvenly() {
+        List<LoanInstallment> schedule = generator.generate("loan", new BigDecimal("1000.00"), new BigDecimal("12"),
+                START, 3, RepaymentMethod.Flat);
+
+        assertEquals(3, schedule.size());
+        assertEquals(START.plusMonths(1), schedule.get(0).getDueDate());
+        assertEquals(new BigDecimal("333.33"), schedule.get(0).getPrincipalDue());
+        assertEquals(new BigDecimal("10.00"), schedule.get(0).getInterestDue());
+        assertEquals(new BigDecimal("333.34"), schedule.get(2).getPrincipalDue(), "The last installment takes the rounding");
+        assertEquals(0, BigDecimal.ZERO.compareTo(schedule.get(2).getBalanceAfter()));
+        assertEquals(new BigDecimal("30.00"), AmortizationScheduleGenerator.totalInterest(schedule));
+    }
+
+    @Test
+    void reducingBalanceScheduleHasEqualInstallmentsAndLessInterest() {
+        List<LoanInstallment> schedule = generator.generate("loan", new BigDecimal("1200.00"), new BigDecimal("12"),
+                START, 12, RepaymentMethod.ReducingBalance);
+
+        BigDecimal principal = BigDecimal.ZERO;
+        for (LoanInstallment installment : schedule) {
+            principal = principal.add(installment.getPrincipalDue());
+            assertTrue(installment.getTotalDue().subtract(new BigDecimal("106.62")).abs()
+                    .compareTo(new BigDecimal("0.05")) <= 0, "Installment " + installment.getInstallmentNumber());
+        }
+        assertEquals(new BigDecimal("1200.00"), principal);
+        assertEquals(new BigDecimal("12.00"), schedule.get(0).getInterestDue(), "First month: 1% of the full balance");
+        assertTrue(schedule.get(11).getInterestDue().compareTo(new BigDecimal("1.10")) < 0, "Last month: 1% of what is left");
+        assertEquals(0, BigDecimal.ZERO.compareTo(schedule.get(11).getBalanceAfter()));
+        assertEquals(new BigDecimal("79.42"), AmortizationScheduleGenerator.totalInterest(schedule));
+    }
+
+    @Test
+    void savingALoanStoresItsSchedule() {
+        Loan loan = loanService.saveLoan(newLoan(new BigDecimal("5000.00"), 24, RepaymentMethod.Flat));
+
+        // Flat interest as saveLoan has always worked it out: 5000 * 0.01 * 24
+        assertEquals(0, new BigDecimal("1200.00").compareTo(loan.getCalculatedInterest()));
+        assertEquals(0, new BigDecimal("6200.00").compareTo(loan.getOutstandingBalance()));
+        assertEquals(24, count("loan_installments", loan.getId()));
+        assertEquals(0, new BigDecimal("1200.00").compareTo(jdbcTemplate.queryForObject(
+                "SELECT SUM(interest_due) FROM loan_installments WHERE loan_id = ?", BigDecimal.class, loan.getId())));
+
+        // Saving new terms replaces the schedule
+        loan.setRepaymentMethod(RepaymentMethod.ReducingBalance);
+        loan.setDueDate(toDate(START.plusMonths(12)));
+        Loan changed = loanService.saveLoan(loan);
+        assertEquals(12, count("loan_installments", loan.getId()));
+        assertTrue(changed.getCalculatedInterest().compareTo(new BigDecimal("600.00")) < 0);
+    }
+
+    @Test
+    void savingNewTermsKeepsThePaymentsAlreadyMade() {
+        Loan loan = loanService.saveLoan(newLoan(new BigDecimal("1000.00"), 10, RepaymentMethod.Flat));
+        loanService.processPayment(loan.getId(), new BigDecimal("300.00"), "before-new-terms");
+
+        // The client still holds the loan as it was before the payment, and claims nothing was paid
+        loan.setTotalPaid(BigDecimal.ZERO);
+        loan.setDueDate(toDate(START.plusMonths(5)));
+        Loan changed = loanService.saveLoan(loan);
+
+        // 1000 at 1% a month for 5 months is 1050 to repay, less the 300 already paid
+        assertEquals(0, new BigDecimal("300.00").compareTo(changed.getTotalPaid()));
+        assertEquals(0, new BigDecimal("750.00").compareTo(changed.getOutstandingBalance()));
+
+        // Terms that ask for less than was paid leave nothing owed
+        loan.setAmount(new BigDecimal("200.00"));
+        Loan overpaid = loanService.saveLoan(loan);
+        assertEquals(0, new BigDecimal("300.00").compareTo(overpaid.getTotalPaid()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(overpaid.getOutstandingBalance()));
+    }
+
+    @Test
+    void scheduleEndpointStreamsOneLoansInstallmentsAndPayments() throws Exception {
+        Loan loan = loanService.saveLoan(newLoan(new BigDecimal("1200.00"), 12, RepaymentMethod.ReducingBalance));
+        Loan other = loanService.saveLoan(newLoan(new BigDecimal("300.00"), 3, RepaymentMethod.Flat));
+        loanService.processPayment(loan.getId(), new BigDecimal("106.62"), "first");
+        loanService.processPayment(loan.getId(), new BigDecimal("106.62"), "second");
+        loanService.processPayment(other.getId(), new BigDecimal("50.00"), "other");
+
+        MvcResult started = mockMvc.perform(get("/api/loans/" + loan.getId() + "/schedule"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.loanId").value(loan.getId()))
+                .andExpect(jsonPath("$.repaymentMethod").value("ReducingBalance"))
+                .andExpect(jsonPath("$.installments.length()").value(12))
+                .andExpect(jsonPath("$.installments[0].installmentNumber").value(1))
+                .andExpect(jsonPath("$.installments[0].interestDue").value(12.0))
+                .andExpect(jsonPath("$.installments[11].balanceAfter").value(0.0))
+                .andExpect(jsonPath("$.payments.length()").value(2))
+                .andExpect(jsonPath("$.payments[0].amount").value(106.62))
+                .andExpect(jsonPath("$.totalPaid").value(213.24));
+
+        MvcResult missing = mockMvc.perform(get("/api/loans/" + UUID.randomUUID() + "/schedule")).andReturn();
+        mockMvc.perform(asyncDispatch(missing))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    @Test
+    void aLoanSavedBeforeSchedulesGetsOneAtStartUp() throws Exception {
+        // Written as saveLoan did before schedules: flat interest, no installments and no repayment method
+        Loan loan = newLoan(new BigDecimal("1200.00"), 12, RepaymentMethod.Flat);
+        loan.setId(UUID.randomUUID().toString());
+        loan.setCalculatedInterest(new BigDecimal("144.00"));
+        loan.setTotalPaid(BigDecimal.ZERO);
+        loan.setOutstandingBalance(new BigDecimal("1344.00"));
+        loanRepository.save(loan);
+        jdbcTemplate.update("UPDATE loans SET repayment_method = NULL WHERE id = ?", loan.getId());
+
+        assertTrue(loanScheduleBackfill.backfill() >= 1);
+        assertEquals(12, count("loan_installments", loan.getId()));
+        assertEquals(0, new BigDecimal("144.00").compareTo(jdbcTemplate.queryForObject(
+                "SELECT SUM(interest_due) FROM loan_installments WHERE loan_id = ?", BigDecimal.class, loan.getId())));
+
+        MvcResult started = mockMvc.perform(get("/api/loans/" + loan.getId() + "/schedule"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.repaymentMethod").value("Flat"))
+                .andExpect(jsonPath("$.installments.length()").value(12))
+                .andExpect(jsonPath("$.installments[0].totalDue").value(112.0))
+                .andExpect(jsonPath("$.outstandingBalance").value(1344.0));
+
+        // Loans that have a schedule are left alone on the next start
+        loanScheduleBackfill.backfill();
+        assertEquals(12, count("loan_installments", loan.getId()));
+    }
+
+    private int count(String table, String loanId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE loan_id = ?", Integer.class, loanId);
+    }
+
+    private Loan newLoan(BigDecimal amount, int months, RepaymentMethod method) {
+        Loan loan = new Loan();
+        loan.setMember(admin);
+        loan.setGroup(group);
+        loan.setApprovedBy(admin);
+        loan.setAmount(amount);
+        loan.setInterestRate(new BigDecimal("12"));
+        loan.setRepaymentMethod(method);
+        loan.setStartDate(toDate(START));
+        loan.setDueDate(toDate(START.plusMonths(months)));
+        loan.setStatus("APPROVED");
+        loan.setMansoftTenantId("tenant001");
+        return loan;
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,175 @@
+package com.manpower;
+
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.enums.MemberStatus;
+import com.manpower.repository.EmailOutboxRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.TokenBucketLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sign-in rate limiting: token buckets never over-grant under contention, stay within their key bound, and
+// the login / forgot-password endpoints answer 429 with Retry-After once a client or account is over its limit.
+@SpringBootTest(properties = {"security.rate-limit.login.ip-capacity=6", "security.rate-limit.login.email-capacity=3",
+        "security.rate-limit.forgot-password.ip-capacity=10", "security.rate-limit.forgot-password.email-capacity=2"})
+@AutoConfigureMockMvc
+public class LoginRateLimitTest {
+
+    private static final double PRACTICALLY_NO_REFILL = 0.0001; // Per minute: no permit comes back during a test
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Test
+    void contendedBucketsGrantExactlyTheirCapacity() throws Exception {
+        int keys = 50;
+        int capacity = 7;
+        int threads = 16;
+        int attemptsPerThread = 400;
+        TokenBucketLimiter limiter = new TokenBucketLimiter(capacity, PRACTICALLY_NO_REFILL, 1000, 4);
+        AtomicIntegerArray granted = new AtomicIntegerArray(keys);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int offset = t;
+                results.add(pool.submit(() -> {
+                    go.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        int key = (i + offset) % keys; // Every thread hits every key, in a different order
+                        if (limiter.tryAcquire("key-" + key) == 0) {
+                            granted.incrementAndGet(key);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        for (int key = 0; key < keys; key++) {
+            assertEquals(capacity, granted.get(key), "Permits granted for key-" + key);
+        }
+        assertTrue(limiter.tryAcquire("key-0") > 0);
+    }
+
+    @Test
+    void bucketsRefillAndKeysStayBounded() throws Exception {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 600, 64, 4); // One permit back every 100 ms
+        assertEquals(0, limiter.tryAcquire("client"));
+        assertEquals(0, limiter.tryAcquire("client"));
+        long waitMs = limiter.tryAcquire("client");
+        assertTrue(waitMs > 0 && waitMs <= 100, "Wait: " + waitMs);
+        Thread.sleep(waitMs + 20);
+        assertEquals(0, limiter.tryAcquire("client"));
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("ip-" + i);
+        }
+        assertTrue(limiter.size() <= 64, "Keys tracked: " + limiter.size());
+    }
+
+    @Test
+    void loginIsThrottledPerEmailAndPerClientIp() throws Exception {
+        String email = saveMember().getEmail();
+
+        // Three wrong passwords for the account, then the account is throttled even with the right one
+        for (int i = 0; i < 3; i++) {
+            login("10.0.0.1", email, "wrong-password").andExpect(status().isUnauthorized());
+        }
+        login("10.0.0.2", email, "password123")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        // One client spraying other accounts runs into its IP limit (three attempts left of six)
+        for (int i = 0; i < 3; i++) {
+            login("10.0.0.1", "nobody-" + i + "@example.com", "x").andExpect(status().isNotFound());
+        }
+        login("10.0.0.1", "nobody-3@example.com", "x").andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void forgotPasswordBurstSendsAtMostTheAllowedEmails() throws Exception {
+        String email = saveMember().getEmail();
+        int accepted = 0;
+        for (int i = 0; i < 8; i++) {
+            int status = mockMvc.perform(post("/api/auth/forgot-password").with(remoteAddr("10.0.1." + i))
+                            .contentType(MediaType.APPLICATION_JSON).content("{\"email\":\"" + email + "\"}"))
+                    .andReturn().getResponse().getStatus();
+            if (status == 200) {
+                accepted++;
+            } else {
+                assertEquals(429, status);
+            }
+        }
+        // Two resets for the account, whatever IPs the requests come from, and its email in any case
+        assertEquals(2, accepted);
+        mockMvc.perform(post("/api/auth/forgot-password").with(remoteAddr("10.0.2.1"))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"email\":\"" + email.toUpperCase() + "\"}"))
+                .andExpect(status().isTooManyRequests());
+        assertEquals(2, emailOutboxRepository.findByRecipient(email).size(), "Reset emails queued");
+    }
+
+    private ResultActions login(String ip, String email, String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login").with(remoteAddr(ip)).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"));
+    }
+
+    private static RequestPostProcessor remoteAddr(String ip) {
+        return request -> {
+            request.setRemoteAddr(ip);
+            return request;
+        };
+    }
+
+    private Member saveMember() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Member member = new Member();
+        member.setFirstName("Rate");
+        member.setLastName("Limited");
+        member.setEmail("limited." + suffix + "@example.com");
+        member.setPhoneNumber("0712345678");
+        member.setPassword("password123");
+        member.setStatus(MemberStatus.Active);
+        member.setRole(MemberRole.Member);
+        member.setCreatedBy("test-script");
+        member.setModifiedBy("test-script");
+        member.setMansoftTenantId("tenant001");
+        return memberRepository.save(member);
+    }
+}
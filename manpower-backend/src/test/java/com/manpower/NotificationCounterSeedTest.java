@@ -0,0 +1,67 @@
+package com.manpower;
+
+import com.manpower.entity.Member;
+import com.manpower.entity.Notification;
+import com.manpower.enums.MemberRole;
+import com.manpower.repository.MemberNotificationCounterRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.repository.NotificationRepository;
+import com.manpower.service.NotificationCounterService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Seeding the unread counters from existing notifications is an upsert: nodes that start together and all
+// find the counters empty each seed them, and every unread notification is still counted once.
+@SpringBootTest
+public class NotificationCounterSeedTest {
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    @Autowired
+    private MemberNotificationCounterRepository counterRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void seedingTwiceCountsEachUnreadNotificationOnce() {
+        Member member = memberRepository.save(TestData.member("Counter", MemberRole.Member, null));
+        // Written straight to the table, as notifications sent before the counters existed were
+        notificationRepository.save(notification(member, false));
+        notificationRepository.save(notification(member, false));
+        notificationRepository.save(notification(member, true));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> counterRepository.rebuildAll());
+        transaction.executeWithoutResult(status -> counterRepository.rebuildAll()); // The second node
+
+        assertEquals(2, notificationCounterService.getUnreadCount(member.getId()));
+    }
+
+    private static Notification notification(Member member, boolean read) {
+        Notification notification = new Notification();
+        notification.setId(UUID.randomUUID().toString());
+        notification.setMember(member);
+        notification.setType("Announcement");
+        notification.setMessageContent("Seeded");
+        notification.setChannel("App");
+        notification.setRead(read);
+        notification.setCreatedBy(TestData.CREATED_BY);
+        notification.setMansoftTenantId(TestData.TENANT);
+        return notification;
+    }
+}
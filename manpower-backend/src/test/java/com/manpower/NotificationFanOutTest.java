@@ -0,0 +1,222 @@
+package com.manpower;
+
+import com.manpower.entity.Group;
+import com.manpower.entity.Member;
+import com.manpower.entity.Notification;
+import com.manpower.entity.NotificationJob;
+import com.manpower.enums.NotificationJobStatus;
+import com.manpower.enums.MemberRole;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.repository.NotificationBatchRepository;
+import com.manpower.repository.NotificationJobRepository;
+import com.manpower.repository.NotificationRepository;
+import com.manpower.service.NotificationDispatcher;
+import com.manpower.service.NotificationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Group notification fan-out: the queued job delivers every member (and resumes from its
+// keyset position), a worker whose job was re-queued from under it cannot record it again, plus an opt-in microbenchmark of the batched insert against the old
+// save-per-member loop (run with -Dbenchmarks=true).
+@SpringBootTest
+public class NotificationFanOutTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private NotificationBatchRepository notificationBatchRepository;
+
+    @Autowired
+    private NotificationJobRepository notificationJobRepository;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void queuedJobWritesOneUnreadRowPerMember() throws InterruptedException {
+        Group group = seedGroup(25);
+
+        NotificationJob job = notificationService.sendToGroupMembers(group.getId(), template());
+        assertEquals(25, job.getTotalRecipients());
+
+        NotificationJob done = awaitFinished(job.getId());
+        assertEquals(NotificationJobStatus.Completed, done.getStatus());
+        assertEquals(25, done.getSentCount());
+        assertEquals(25, countUnread(group.getId()));
+        assertEquals(1, notificationService.getUnreadCount(memberRepository
+                .findIdsByGroupId(group.getId(), Pageable.unpaged()).get(0)));
+    }
+
+    @Test
+    void recoveredJobResumesAfterLastDeliveredMember() throws InterruptedException {
+        Group group = seedGroup(25);
+        List<String> memberIds = memberRepository.findIdsByGroupId(group.getId(), Pageable.unpaged());
+
+        // Simulate a job interrupted after its first 10 recipients: still Queued, keyset at member #10
+        NotificationJob job = new NotificationJob(group.getId(), template(), 25);
+        job.setSentCount(10);
+        job.setLastMemberId(memberIds.get(9));
+        notificationJobRepository.save(job);
+
+        notificationDispatcher.recoverJobs();
+
+        NotificationJob done = awaitFinished(job.getId());
+        assertEquals(NotificationJobStatus.Completed, done.getStatus());
+        assertEquals(25, done.getSentCount());
+        assertEquals(15, countUnread(group.getId()));
+    }
+
+    @Test
+    void aWorkerWhoseJobWasRequeuedCannotRecordItAgain() throws InterruptedException {
+        Group group = seedGroup(25);
+
+        // A worker claimed the job and then went quiet past the stale limit, e.g. in a long GC pause
+        NotificationJob job = new NotificationJob(group.getId(), template(), 25);
+        job.setStatus(NotificationJobStatus.Running);
+        job.setClaimToken("stalled-worker");
+        job.setStartedOn(LocalDateTime.now().minusHours(1));
+        job.setModifiedOn(LocalDateTime.now().minusHours(1));
+        notificationJobRepository.save(job);
+
+        notificationDispatcher.recoverJobs(); // Re-queued and delivered by a fresh worker
+        assertEquals(NotificationJobStatus.Completed, awaitFinished(job.getId()).getStatus());
+
+        // The stalled worker wakes up: neither its chunk nor its outcome is recorded
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        assertEquals(Integer.valueOf(0), transaction.execute(status -> notificationJobRepository.recordProgress(
+                job.getId(), "stalled-worker", 10, "zzz", LocalDateTime.now())));
+        assertEquals(Integer.valueOf(0), transaction.execute(status -> notificationJobRepository.finish(
+                job.getId(), "stalled-worker", NotificationJobStatus.Failed, "late", LocalDateTime.now())));
+
+        NotificationJob done = notificationJobRepository.findById(job.getId()).get();
+        assertEquals(NotificationJobStatus.Completed, done.getStatus());
+        assertEquals(25, done.getSentCount());
+        assertNull(done.getError());
+        assertEquals(25, countUnread(group.getId()));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkBatchedFanOutAgainstPerMemberLoop() {
+        int members = 2000;
+        Group group = seedGroup(members);
+        Notification template = template();
+
+        // Warm up both paths once
+        legacyLoop(group.getId(), template);
+        batched(group.getId(), template);
+
+        long loopNanos = 0;
+        long batchNanos = 0;
+        int rounds = 5;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            legacyLoop(group.getId(), template);
+            loopNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int written = batched(group.getId(), template);
+            batchNanos += System.nanoTime() - start;
+            assertEquals(members, written);
+        }
+
+        System.out.printf("Fan-out to %d members: per-member save loop %.1f ms, batched JDBC %.1f ms (avg of %d)%n",
+                members, loopNanos / rounds / 1e6, batchNanos / rounds / 1e6, rounds);
+    }
+
+    // What a dispatch worker does for a whole group, minus the chunk bookkeeping
+    private int batched(String groupId, Notification template) {
+        return notificationBatchRepository.insertForMembers(
+                memberRepository.findIdsByGroupId(groupId, Pageable.unpaged()), template).size();
+    }
+
+    // The pre-batching implementation: hydrate every Member and save() one Notification at a time
+    private void legacyLoop(String groupId, Notification template) {
+        for (Member member : memberRepository.findByGroupId(groupId)) {
+            Notification notif = new Notification();
+            notif.setId(UUID.randomUUID().toString());
+            notif.setMember(member);
+            notif.setType(template.getType());
+            notif.setMessageContent(template.getMessageContent());
+            notif.setSendDate(template.getSendDate());
+            notif.setChannel(template.getChannel());
+            notif.setCreatedBy(template.getCreatedBy());
+            notif.setModifiedBy(template.getModifiedBy());
+            notif.setMansoftTenantId(template.getMansoftTenantId());
+            notif.setRead(false);
+            notificationRepository.save(notif);
+        }
+    }
+
+    private NotificationJob awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            NotificationJob job = notificationJobRepository.findById(jobId).orElseThrow(AssertionError::new);
+            if (job.getStatus() == NotificationJobStatus.Completed || job.getStatus() == NotificationJobStatus.Failed) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        return fail("Notification job " + jobId + " did not finish in time");
+    }
+
+    private int countUnread(String groupId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notifications n JOIN members m ON m.id = n.member_id " +
+                "WHERE m.group_id = ? AND n.is_read = FALSE AND n.message_content = 'Meeting moved to Friday'",
+                Integer.class, groupId);
+    }
+
+    private Notification template() {
+        Notification template = new Notification();
+        template.setType("Announcement");
+        template.setMessageContent("Meeting moved to Friday");
+        template.setSendDate(new java.util.Date());
+        template.setChannel("App");
+        template.setCreatedBy("test-script");
+        template.setModifiedBy("test-script");
+        template.setMansoftTenantId("tenant001");
+        return template;
+    }
+
+    private Group seedGroup(int memberCount) {
+        Group group = groupRepository.save(TestData.group("Fan-out", TestData.CREATED_BY));
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < memberCount; i++) {
+            members.add(TestData.member("Fan" + i, MemberRole.Member, group));
+        }
+        memberRepository.saveAll(members);
+        return group;
+    }
+}
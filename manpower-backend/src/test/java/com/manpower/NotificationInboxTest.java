@@ -0,0 +1,149 @@
+package com.manpower;
+
+import com.manpower.dto.NotificationCursor;
+import com.manpower.dto.NotificationPage;
+import com.manpower.entity.Member;
+import com.manpower.entity.Notification;
+import com.manpower.enums.MemberRole;
+import com.manpower.enums.MemberStatus;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.NotificationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Member inbox paging, bulk mark-as-read, and the unread counter kept by the create / mark-as-read / delete paths.
+@SpringBootTest
+public class NotificationInboxTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Test
+    void inboxPagesNewestFirstWithUnreadFilter() {
+        Member member = seedMember();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(notify(member, i).getId());
+        }
+        notificationService.markNotificationAsRead(ids.get(4));
+
+        NotificationPage first = notificationService.getInbox(member.getId(), false, null, 2);
+        assertEquals(Arrays.asList(ids.get(4), ids.get(3)), idsOf(first));
+        assertTrue(first.hasNext());
+
+        NotificationPage second = notificationService.getInbox(member.getId(), false,
+                NotificationCursor.decode(first.getNextCursor()), 2);
+        assertEquals(Arrays.asList(ids.get(2), ids.get(1)), idsOf(second));
+
+        NotificationPage third = notificationService.getInbox(member.getId(), false,
+                NotificationCursor.decode(second.getNextCursor()), 2);
+        assertEquals(Arrays.asList(ids.get(0)), idsOf(third));
+        assertFalse(third.hasNext());
+
+        NotificationPage unread = notificationService.getInbox(member.getId(), true, null, 10);
+        assertEquals(Arrays.asList(ids.get(3), ids.get(2), ids.get(1), ids.get(0)), idsOf(unread));
+    }
+
+    @Test
+    void unreadCounterFollowsReadTransitions() {
+        Member member = seedMember();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ids.add(notify(member, i).getId());
+        }
+        assertEquals(4, notificationService.getUnreadCount(member.getId()));
+
+        notificationService.markNotificationAsRead(ids.get(0));
+        notificationService.markNotificationAsRead(ids.get(0)); // Already read: must not count twice
+        assertEquals(3, notificationService.getUnreadCount(member.getId()));
+
+        int updated = notificationService.markNotificationsAsRead(new HashSet<>(Arrays.asList(ids.get(0), ids.get(1), ids.get(2))));
+        assertEquals(2, updated);
+        assertEquals(1, notificationService.getUnreadCount(member.getId()));
+
+        notificationService.deleteNotification(ids.get(3));
+        assertEquals(0, notificationService.getUnreadCount(member.getId()));
+        assertEquals(0, notificationService.getInbox(member.getId(), true, null, 10).getItems().size());
+    }
+
+    @Test
+    void memberScopedBulkMarkIgnoresOtherMembersAndSpansChunks() {
+        Member member = seedMember();
+        Member other = seedMember();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(notify(member, i).getId());
+        }
+        String othersId = notify(other, 0).getId();
+
+        // Enough unknown IDs to need several UPDATE statements; the real ones sit in different chunks
+        List<String> request = new ArrayList<>();
+        for (int i = 0; i < NotificationService.MARK_READ_CHUNK_SIZE * 2; i++) {
+            request.add(UUID.randomUUID().toString());
+        }
+        request.add(0, ids.get(0));
+        request.add(NotificationService.MARK_READ_CHUNK_SIZE + 10, ids.get(1));
+        request.add(othersId);
+
+        assertEquals(2, notificationService.markNotificationsAsRead(member.getId(), request));
+        assertEquals(1, notificationService.getUnreadCount(member.getId()));
+        assertEquals(1, notificationService.getUnreadCount(other.getId()));
+
+        assertEquals(1, notificationService.markAllAsRead(member.getId()));
+        assertEquals(0, notificationService.markAllAsRead(member.getId()));
+        assertEquals(0, notificationService.getUnreadCount(member.getId()));
+        assertEquals(1, notificationService.getUnreadCount(other.getId()));
+    }
+
+    private Notification notify(Member member, int seq) {
+        Notification notification = new Notification();
+        notification.setId(UUID.randomUUID().toString());
+        notification.setMember(member);
+        notification.setType("Announcement");
+        notification.setMessageContent("Message " + seq);
+        notification.setChannel("App");
+        notification.setRead(false);
+        // Distinct, increasing timestamps so the expected order is unambiguous
+        notification.setCreatedOn(new Date(System.currentTimeMillis() - 60_000L + seq * 1000L));
+        notification.setCreatedBy("test-script");
+        notification.setMansoftTenantId("tenant001");
+        return notificationService.saveNotification(notification);
+    }
+
+    private List<String> idsOf(NotificationPage page) {
+        List<String> ids = new ArrayList<>();
+        for (Notification notification : page.getItems()) {
+            ids.add(notification.getId());
+        }
+        return ids;
+    }
+
+    private Member seedMember() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Member member = new Member();
+        member.setFirstName("Inbox");
+        member.setLastName("Reader");
+        member.setEmail("inbox." + suffix + "@example.com");
+        member.setPhoneNumber("0712345678");
+        member.setPassword("password123");
+        member.setStatus(MemberStatus.Active);
+        member.setRole(MemberRole.Member);
+        member.setCreatedBy("test-script");
+        member.setModifiedBy("test-script");
+        member.setMansoftTenantId("tenant001");
+        return memberRepository.save(member);
+    }
+}
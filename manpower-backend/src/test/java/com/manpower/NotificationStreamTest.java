@@ -0,0 +1,184 @@
+package com.manpower;
+
+import com.manpower.dto.NotificationCursor;
+import com.manpower.entity.Member;
+import com.manpower.entity.Notification;
+import com.manpower.enums.MemberRole;
+import com.manpower.enums.MemberStatus;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.NotificationHub;
+import com.manpower.service.NotificationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Server-Sent Events notification streams over a real Tomcat with a deliberately tiny worker pool:
+// hundreds of idle streams must not use up request threads (run with -Dbenchmarks=true for 5000 streams).
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.tomcat.threads.max=8", "server.tomcat.threads.min-spare=2"})
+public class NotificationStreamTest {
+
+    private static final int MAX_REQUEST_THREADS = 8;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationHub notificationHub;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Test
+    void idleStreamsDoNotHoldRequestThreads() throws IOException {
+        int connections = Boolean.getBoolean("benchmarks") ? 5000 : 300;
+        Member member = seedMember();
+        int before = notificationHub.getSubscriberCount();
+
+        List<Socket> sockets = new ArrayList<>();
+        List<BufferedReader> readers = new ArrayList<>();
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < connections; i++) {
+                Socket socket = openStream(member.getId(), null);
+                sockets.add(socket);
+                readers.add(new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)));
+            }
+            for (BufferedReader reader : readers) {
+                assertTrue(reader.readLine().startsWith("HTTP/1.1 200"));
+            }
+            System.out.printf("Opened %d idle notification streams in %.0f ms%n",
+                    connections, (System.nanoTime() - start) / 1e6);
+            assertEquals(before + connections, notificationHub.getSubscriberCount());
+
+            // Far more open streams than request threads, yet an ordinary request is still served
+            HttpURLConnection plain = (HttpURLConnection) new URL(baseUrl() + "/api/notifications/member/"
+                    + member.getId() + "/unread-count").openConnection();
+            plain.setReadTimeout(5000);
+            assertEquals(200, plain.getResponseCode());
+            plain.disconnect();
+            assertTrue(requestThreadCount() <= MAX_REQUEST_THREADS, "Request threads: " + requestThreadCount());
+
+            // And a new notification reaches idle streams
+            notify(member, new Date());
+            assertTrue(readUntil(readers.get(0), "event:notification"));
+            assertTrue(readUntil(readers.get(connections - 1), "event:notification"));
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    void reconnectReplaysNotificationsAfterLastEventId() throws IOException {
+        Member member = seedMember();
+        long base = System.currentTimeMillis() - 60_000L;
+        Notification seen = notify(member, new Date(base));
+        Notification missed1 = notify(member, new Date(base + 1000));
+        Notification missed2 = notify(member, new Date(base + 2000));
+
+        // HttpURLConnection de-chunks the body, so each event's data arrives on one line
+        HttpURLConnection stream = (HttpURLConnection) new URL(baseUrl() + "/api/notifications/member/"
+                + member.getId() + "/stream").openConnection();
+        stream.setRequestProperty("Accept", "text/event-stream");
+        stream.setRequestProperty("Last-Event-ID", new NotificationCursor(seen.getCreatedOn(), seen.getId()).encode());
+        stream.setReadTimeout(10_000);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream.getInputStream(), StandardCharsets.UTF_8))) {
+            List<String> data = new ArrayList<>();
+            String line;
+            while (data.size() < 2 && (line = reader.readLine()) != null) {
+                if (line.startsWith("data:")) {
+                    data.add(line);
+                }
+            }
+            assertTrue(data.get(0).contains(missed1.getId()), data.get(0));
+            assertTrue(data.get(1).contains(missed2.getId()), data.get(1));
+        } finally {
+            stream.disconnect();
+        }
+    }
+
+    private Socket openStream(String memberId, String lastEventId) throws IOException {
+        Socket socket = new Socket("localhost", port);
+        socket.setSoTimeout(10_000);
+        String request = "GET /api/notifications/member/" + memberId + "/stream HTTP/1.1\r\n" +
+                "Host: localhost:" + port + "\r\n" +
+                "Accept: text/event-stream\r\n" +
+                (lastEventId != null ? "Last-Event-ID: " + lastEventId + "\r\n" : "") +
+                "\r\n";
+        OutputStream out = socket.getOutputStream();
+        out.write(request.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return socket;
+    }
+
+    private boolean readUntil(BufferedReader reader, String expected) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long requestThreadCount() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().startsWith("http-nio-" + port + "-exec-"))
+                .count();
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    private Notification notify(Member member, Date createdOn) {
+        Notification notification = new Notification();
+        notification.setId(UUID.randomUUID().toString());
+        notification.setMember(member);
+        notification.setType("Announcement");
+        notification.setMessageContent("Stream test");
+        notification.setChannel("App");
+        notification.setRead(false);
+        notification.setCreatedOn(createdOn);
+        notification.setCreatedBy("test-script");
+        notification.setMansoftTenantId("tenant001");
+        return notificationService.saveNotification(notification);
+    }
+
+    private Member seedMember() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Member member = new Member();
+        member.setFirstName("Stream");
+        member.setLastName("Listener");
+        member.setEmail("stream." + suffix + "@example.com");
+        member.setPhoneNumber("0712345678");
+        member.setPassword("password123");
+        member.setStatus(MemberStatus.Active);
+        member.setRole(MemberRole.Member);
+        member.setCreatedBy("test-script");
+        member.setModifiedBy("test-script");
+        member.setMansoftTenantId("tenant001");
+        return memberRepository.save(member);
+    }
+}
@@ -0,0 +1,84 @@
+package com.manpower;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// JMH benchmark of the BCrypt verify done on every login, per work factor, to choose
+// security.password.bcrypt-cost. Run with -Dbenchmarks=true (optionally -Dlogin.p99-target-ms=250):
+// prints the p50 / p99 verify time per cost and the highest cost whose p99 meets the target.
+// This is the time on one hashing thread; under load add the queueing in front of the hash-threads pool.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordHashBenchmarkTest {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"8", "9", "10", "11", "12"})
+    public int cost;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(cost);
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verifyLoginPassword() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void pickCostForLoginLatencyTarget() throws RunnerException {
+        double targetMs = Double.parseDouble(System.getProperty("login.p99-target-ms", "250"));
+        Options options = new OptionsBuilder()
+                .include(PasswordHashBenchmarkTest.class.getName() + ".verifyLoginPassword")
+                .forks(1)
+                .warmupIterations(2)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(3)
+                .measurementTime(TimeValue.seconds(2))
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        int recommended = -1;
+        for (RunResult result : results) {
+            int resultCost = Integer.parseInt(result.getParams().getParam("cost"));
+            double p50 = result.getPrimaryResult().getStatistics().getPercentile(50);
+            double p99 = result.getPrimaryResult().getStatistics().getPercentile(99);
+            System.out.printf("bcrypt cost %2d: verify p50 %7.1f ms, p99 %7.1f ms%s%n", resultCost, p50, p99,
+                    p99 <= targetMs ? "" : "  (over the " + targetMs + " ms target)");
+            if (p99 <= targetMs) {
+                recommended = Math.max(recommended, resultCost);
+            }
+        }
+        assertFalse(results.isEmpty());
+        System.out.println(recommended > 0
+                ? "Highest cost meeting a " + targetMs + " ms p99: security.password.bcrypt-cost=" + recommended
+                : "No benchmarked cost meets a " + targetMs + " ms p99.");
+    }
+}
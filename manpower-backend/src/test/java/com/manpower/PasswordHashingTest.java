@@ -0,0 +1,161 @@
+package com.manpower;
+
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.enums.MemberStatus;
+import com.manpower.repository.EmailOutboxRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.MemberService;
+import com.manpower.service.PasswordHasher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Hashed password storage: legacy plain-text rows and low-cost hashes are upgraded on login, new and reset
+// passwords are stored as BCrypt hashes, and a burst of logins beyond the hashing pool is answered 503.
+@SpringBootTest(properties = {"security.password.bcrypt-cost=6", "security.password.hash-threads=1",
+        "security.password.hash-queue-capacity=1",
+        // The burst below is one client and one account: keep it clear of the sign-in rate limits
+        "security.rate-limit.login.ip-capacity=1000", "security.rate-limit.login.email-capacity=1000"})
+@AutoConfigureMockMvc
+public class PasswordHashingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Test
+    void legacyPlainTextPasswordIsRehashedOnLogin() throws Exception {
+        Member member = saveMember("password123"); // As stored before hashing was introduced
+
+        login(member.getEmail(), "wrong-password").andExpect(status().isUnauthorized());
+        assertEquals("password123", storedPassword(member), "A failed login changes nothing");
+
+        login(member.getEmail(), "password123")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(member.getEmail()));
+        String stored = storedPassword(member);
+        assertTrue(stored.startsWith("$2a$06$"), "Stored: " + stored);
+
+        // Logs in with the same password against the hash, and the hash is left alone
+        login(member.getEmail(), "password123").andExpect(status().isOk());
+        assertEquals(stored, storedPassword(member));
+    }
+
+    @Test
+    void lowerCostHashIsUpgradedOnLogin() throws Exception {
+        Member member = saveMember(new BCryptPasswordEncoder(4).encode("password123"));
+
+        login(member.getEmail(), "password123").andExpect(status().isOk());
+
+        assertTrue(storedPassword(member).startsWith("$2a$06$"));
+        assertFalse(passwordHasher.needsRehash(storedPassword(member)));
+    }
+
+    @Test
+    void newAndResetPasswordsAreStoredHashed() {
+        Member member = newMember("password123");
+        member = memberService.saveMember(member);
+        assertTrue(passwordHasher.isHashed(storedPassword(member)));
+        assertTrue(memberService.checkPassword(memberRepository.findById(member.getId()).get(), "password123"));
+
+        memberService.resetPassword(member.getEmail());
+        assertTrue(emailOutboxRepository.findByRecipient(member.getEmail()).get(0).getSubject().contains("Password Reset"));
+        assertTrue(passwordHasher.isHashed(storedPassword(member)));
+        assertFalse(memberService.checkPassword(memberRepository.findById(member.getId()).get(), "password123"));
+    }
+
+    @Test
+    void loginBurstBeyondTheHashingPoolIsRejectedNotQueued() throws Exception {
+        Member member = saveMember(passwordHasher.hash("password123"));
+        int callers = 20;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch go = new CountDownLatch(1);
+        int ok = 0;
+        int rejected = 0;
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> {
+                    go.await();
+                    return login(member.getEmail(), "password123").andReturn().getResponse().getStatus();
+                }));
+            }
+            go.countDown();
+            for (Future<Integer> result : results) {
+                int status = result.get(30, TimeUnit.SECONDS);
+                if (status == 200) {
+                    ok++;
+                } else {
+                    assertEquals(503, status);
+                    rejected++;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        // One hashing thread and one queue slot: most of a simultaneous burst is turned away at once
+        assertTrue(ok >= 1, "Logins answered: " + ok);
+        assertTrue(rejected >= 1, "Logins rejected: " + rejected);
+        assertEquals(0, passwordHasher.getQueueDepth());
+    }
+
+    private ResultActions login(String email, String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"));
+    }
+
+    private String storedPassword(Member member) {
+        return memberRepository.findById(member.getId()).get().getPassword();
+    }
+
+    private Member saveMember(String storedPassword) {
+        return memberRepository.save(newMember(storedPassword));
+    }
+
+    private Member newMember(String password) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Member member = new Member();
+        member.setFirstName("Log");
+        member.setLastName("In");
+        member.setEmail("login." + suffix + "@example.com");
+        member.setPhoneNumber("0712345678");
+        member.setPassword(password);
+        member.setStatus(MemberStatus.Active);
+        member.setRole(MemberRole.Member);
+        member.setCreatedBy("test-script");
+        member.setModifiedBy("test-script");
+        member.setMansoftTenantId("tenant001");
+        return member;
+    }
+}
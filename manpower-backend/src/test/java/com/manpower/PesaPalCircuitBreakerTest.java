@@ -0,0 +1,188 @@
+package com.manpower;
+
+import com.manpower.entity.Group;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.enums.TransactionStatus;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.PesaPalCircuitBreaker;
+import com.manpower.service.PesaPalService;
+import com.manpower.service.PesaPalTokenProvider;
+import com.manpower.service.PesaPalUnavailableException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The PesaPal circuit breaker and bulkhead against the local PesaPal stub, which is made to fail (503) or
+// answer slowly: the circuit opens, fails fast without calling PesaPal, recovers through half-open probes,
+// and no more than max-concurrent calls are ever inside PesaPal.
+@SpringBootTest(properties = {"pesapal.circuit.sliding-window-size=4", "pesapal.circuit.minimum-calls=4",
+        "pesapal.circuit.open-seconds=1", "pesapal.circuit.half-open-probes=2",
+        "pesapal.bulkhead.max-concurrent=3", "pesapal.bulkhead.max-wait-ms=50"})
+@AutoConfigureMockMvc
+public class PesaPalCircuitBreakerTest {
+
+    private static final PesaPalStub stub = new PesaPalStub();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PesaPalService pesaPalService;
+
+    @Autowired
+    private PesaPalCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private PesaPalTokenProvider tokenProvider;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @DynamicPropertySource
+    static void pesapalStub(DynamicPropertyRegistry registry) {
+        registry.add("pesapal.api.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+    }
+
+    @BeforeEach
+    void reset() {
+        stub.failStatus = 0;
+        stub.statusLatencyMs = 0;
+        circuitBreaker.reset();
+        tokenProvider.getToken(); // Cached, so only the status / order calls below reach PesaPal
+        stub.peakStatusInFlight.set(0);
+    }
+
+    @Test
+    void failingPesaPalOpensTheCircuitAndHalfOpenProbesCloseIt() throws Exception {
+        stub.failStatus = 503;
+        for (int i = 0; i < 4; i++) {
+            String trackingId = "down-" + i;
+            assertThrows(HttpServerErrorException.class, () -> pesaPalService.fetchPaymentStatus(trackingId));
+        }
+        assertEquals(PesaPalCircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        // Open: fails fast, PesaPal is not called
+        long start = System.nanoTime();
+        PesaPalUnavailableException rejected = assertThrows(PesaPalUnavailableException.class,
+                () -> pesaPalService.fetchPaymentStatus("while-open"));
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 100);
+        assertEquals(PesaPalUnavailableException.Reason.CIRCUIT_OPEN, rejected.getReason());
+        assertFalse(stub.statusLookups.containsKey("while-open"));
+        assertEquals("UNKNOWN", pesaPalService.checkPaymentStatus("while-open"));
+
+        mockMvc.perform(post("/api/payments/initiate").contentType(MediaType.APPLICATION_JSON).content(seedRequestJson()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        mockMvc.perform(get("/api/payments/circuit"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("OPEN"));
+
+        // Half-open probe while PesaPal is still down: open again
+        Thread.sleep(1_100);
+        assertThrows(HttpServerErrorException.class, () -> pesaPalService.fetchPaymentStatus("probe-down"));
+        assertEquals(PesaPalCircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        // PesaPal back: the probes succeed and close the circuit
+        stub.failStatus = 0;
+        Thread.sleep(1_100);
+        assertEquals(TransactionStatus.Completed, pesaPalService.fetchPaymentStatus("probe-1").getStatus());
+        assertEquals(PesaPalCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertEquals(TransactionStatus.Completed, pesaPalService.fetchPaymentStatus("probe-2").getStatus());
+        assertEquals(PesaPalCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.getStats().getRejectedOpen() >= 2);
+    }
+
+    @Test
+    void bulkheadBoundsConcurrentPesaPalCalls() throws Exception {
+        stub.statusLatencyMs = 500;
+        int callers = 10;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch go = new CountDownLatch(1);
+        int answered = 0;
+        int rejected = 0;
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                String trackingId = "busy-" + i;
+                results.add(pool.submit(() -> {
+                    go.await();
+                    return pesaPalService.fetchPaymentStatus(trackingId);
+                }));
+            }
+            go.countDown();
+            for (Future<?> result : results) {
+                try {
+                    result.get(10, TimeUnit.SECONDS);
+                    answered++;
+                } catch (ExecutionException e) {
+                    PesaPalUnavailableException unavailable = findUnavailable(e);
+                    assertNotNull(unavailable, "Unexpected failure: " + e.getCause());
+                    assertEquals(PesaPalUnavailableException.Reason.BULKHEAD_FULL, unavailable.getReason());
+                    rejected++;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(3, answered);
+        assertEquals(callers - 3, rejected);
+        assertTrue(stub.peakStatusInFlight.get() <= 3, "Concurrent PesaPal calls: " + stub.peakStatusInFlight.get());
+        // Rejections are not PesaPal failures
+        assertEquals(PesaPalCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getStats().getInFlight());
+    }
+
+    private String seedRequestJson() {
+        Member member = TestData.groupWithMember(groupRepository, memberRepository, "Breaker", MemberRole.Member);
+        Group group = member.getGroup();
+
+        return "{\"memberId\":\"" + member.getId() + "\",\"groupId\":\"" + group.getId() + "\",\"amount\":500.00,"
+                + "\"transactionType\":\"Contribution\",\"description\":\"Monthly contribution\","
+                + "\"mansoftTenantId\":\"tenant001\",\"phoneNumber\":\"0712345678\",\"createdBy\":\"test-script\"}";
+    }
+
+    // The rejection as thrown by the service, under the executor's wrapping
+    private static PesaPalUnavailableException findUnavailable(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof PesaPalUnavailableException) {
+                return (PesaPalUnavailableException) t;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,194 @@
+package com.manpower;
+
+import com.manpower.dto.HttpPoolStats;
+import com.manpower.dto.PesaPalInitiateRequest;
+import com.manpower.entity.Group;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.HttpConnectionMetrics;
+import com.manpower.service.PesaPalService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The pooled PesaPal HTTP client against the local PesaPal stub: bounded read time, keep-alive reuse,
+// and (with -Dbenchmarks=true) latency / throughput of 200 concurrent initiatePayment calls.
+@SpringBootTest(properties = {"pesapal.http.read-timeout-ms=1000", "pesapal.http.max-per-route=50",
+        "pesapal.bulkhead.max-concurrent=200"})
+public class PesaPalHttpClientTest {
+
+    private static final PesaPalStub stub = new PesaPalStub();
+
+    @Autowired
+    private PesaPalService pesaPalService;
+
+    @Autowired
+    private HttpConnectionMetrics httpConnectionMetrics;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @DynamicPropertySource
+    static void pesapalStub(DynamicPropertyRegistry registry) {
+        registry.add("pesapal.api.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+    }
+
+    @BeforeEach
+    void reset() {
+        stub.orderLatencyMs = 0;
+        stub.orderConnections.clear();
+    }
+
+    @Test
+    void slowPesaPalFailsWithinReadTimeout() {
+        PesaPalInitiateRequest request = seedRequest();
+        stub.orderLatencyMs = 3_000;
+
+        long start = System.nanoTime();
+        RuntimeException failure = assertThrows(RuntimeException.class, () -> pesaPalService.initiatePayment(request));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs < 2_500, "Waited " + elapsedMs + " ms for a 1000 ms read timeout");
+        assertTrue(hasCause(failure, SocketTimeoutException.class), "Unexpected failure: " + failure);
+        assertEquals(0, httpConnectionMetrics.getPesaPalStats().getLeased());
+    }
+
+    @Test
+    void sequentialCallsReuseOneKeepAliveConnection() {
+        PesaPalInitiateRequest request = seedRequest();
+        for (int i = 0; i < 20; i++) {
+            assertNotNull(pesaPalService.initiatePayment(request).getOrderTrackingId());
+        }
+        assertEquals(1, stub.orderConnections.size(), "Connections opened: " + stub.orderConnections.size());
+        HttpPoolStats pesapal = httpConnectionMetrics.getPesaPalStats();
+        assertEquals(0, pesapal.getLeased());
+        assertEquals(50, pesapal.getMax());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkConcurrentInitiatePayment() throws Exception {
+        PesaPalInitiateRequest request = seedRequest();
+        stub.orderLatencyMs = 50;
+        pesaPalService.initiatePayment(request); // Warm up: token, JIT, first connection
+
+        report("pooled", runConcurrently(request, 200));
+
+        // Same load through a fresh HttpURLConnection-based factory, as with the old bare RestTemplate
+        ClientHttpRequestFactory pooled = restTemplate.getRequestFactory();
+        restTemplate.setRequestFactory(new SimpleClientHttpRequestFactory());
+        try {
+            report("unpooled", runConcurrently(request, 200));
+        } finally {
+            restTemplate.setRequestFactory(pooled);
+        }
+    }
+
+    private List<Long> runConcurrently(PesaPalInitiateRequest request, int callers) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        stub.orderConnections.clear();
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> {
+                    go.await();
+                    long start = System.nanoTime();
+                    try {
+                        pesaPalService.initiatePayment(request);
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                    return System.nanoTime() - start;
+                }));
+            }
+            long start = System.nanoTime();
+            go.countDown();
+            List<Long> latencies = new ArrayList<>();
+            for (Future<Long> result : results) {
+                latencies.add(result.get(120, TimeUnit.SECONDS));
+            }
+            latencies.add(System.nanoTime() - start); // Wall time last
+            assertEquals(0, failures.get());
+            return latencies;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void report(String label, List<Long> latencies) {
+        long wallNanos = latencies.remove(latencies.size() - 1);
+        Collections.sort(latencies);
+        System.out.printf("%s: %d initiatePayment calls in %.0f ms (%.0f/s), p50 %.1f ms, p95 %.1f ms, p99 %.1f ms,"
+                        + " %d TCP connections%n",
+                label, latencies.size(), wallNanos / 1e6, latencies.size() / (wallNanos / 1e9),
+                percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99),
+                stub.orderConnections.size());
+    }
+
+    private static double percentile(List<Long> sorted, int p) {
+        int index = Math.min(sorted.size() - 1, (int) Math.ceil(p / 100.0 * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+
+    private static boolean hasCause(Throwable failure, Class<? extends Throwable> type) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (type.isInstance(t)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private PesaPalInitiateRequest seedRequest() {
+        Member member = TestData.groupWithMember(groupRepository, memberRepository, "PesaPal", MemberRole.Member);
+        Group group = member.getGroup();
+
+        PesaPalInitiateRequest request = new PesaPalInitiateRequest();
+        request.setMemberId(member.getId());
+        request.setGroupId(group.getId());
+        request.setAmount(new BigDecimal("500.00"));
+        request.setTransactionType("Contribution");
+        request.setDescription("Monthly contribution");
+        request.setMansoftTenantId("tenant001");
+        request.setPhoneNumber("0712345678");
+        request.setCreatedBy("test-script");
+        return request;
+    }
+}
@@ -0,0 +1,213 @@
+package com.manpower;
+
+import com.manpower.dto.PesaPalInitiateRequest;
+import com.manpower.entity.Contribution;
+import com.manpower.entity.Group;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.enums.TransactionStatus;
+import com.manpower.enums.TransactionType;
+import com.manpower.repository.ContributionRepository;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.PesaPalServiceImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PesaPal payment initiation against the local PesaPal stub: no database connection is held during the
+// SubmitOrder round-trip, rejected orders fail their reservation, and the sweep fails abandoned ones.
+@SpringBootTest(properties = "pesapal.bulkhead.max-concurrent=100")
+public class PesaPalPaymentTest {
+
+    private static final PesaPalStub stub = new PesaPalStub();
+
+    @Autowired
+    private PesaPalServiceImpl pesaPalService;
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void pesapalStub(DynamicPropertyRegistry registry) {
+        registry.add("pesapal.api.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+    }
+
+    @BeforeEach
+    void reset() {
+        stub.orderLatencyMs = 0;
+        stub.rejectOrders = false;
+    }
+
+    @Test
+    void concurrentInitiationsHoldNoConnectionsWhileWaitingOnPesaPal() throws Exception {
+        HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+        int callers = 3 * pool.getTotalConnections() + 10; // Far more callers than pooled connections
+        PesaPalInitiateRequest request = seedRequest();
+        pesaPalService.initiatePayment(request); // Token fetched up front
+        stub.orderLatencyMs = 1_000;
+        stub.peakOrdersInFlight.set(0);
+
+        AtomicInteger peakActive = new AtomicInteger();
+        AtomicInteger peakWaiting = new AtomicInteger();
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (sampling.get()) {
+                peakActive.accumulateAndGet(pool.getActiveConnections(), Math::max);
+                peakWaiting.accumulateAndGet(pool.getThreadsAwaitingConnection(), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch go = new CountDownLatch(1);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    go.await();
+                    return pesaPalService.initiatePayment(request);
+                }));
+            }
+            go.countDown();
+
+            // Every caller is inside the PesaPal round-trip at once, yet no connection is checked out
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (stub.ordersInFlight.get() < callers && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(callers, stub.ordersInFlight.get(), "Callers inside SubmitOrder at once");
+            assertEquals(0, pool.getActiveConnections());
+
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+            sampling.set(false);
+            sampler.join();
+        }
+        // The only pool contention left is the burst of short reserve / finalize transactions
+        System.out.printf("%d concurrent initiations, 1000 ms PesaPal: done in %.0f ms, up to %d inside SubmitOrder at once,"
+                        + " peak %d/%d DB connections active, peak %d threads waiting for one%n",
+                callers, (System.nanoTime() - start) / 1e6, stub.peakOrdersInFlight.get(),
+                peakActive.get(), pool.getTotalConnections(), peakWaiting.get());
+        assertEquals(callers + 1, pendingWithTrackingId(request.getMemberId()));
+    }
+
+    @Test
+    void rejectedOrderFailsTheReservation() {
+        PesaPalInitiateRequest request = seedRequest();
+        stub.rejectOrders = true;
+
+        assertThrows(RuntimeException.class, () -> pesaPalService.initiatePayment(request));
+
+        List<Contribution> contributions = contributionRepository.findByMemberId(request.getMemberId());
+        assertEquals(1, contributions.size());
+        assertEquals(TransactionStatus.Failed, contributions.get(0).getStatus());
+    }
+
+    @Test
+    void sweepFailsOnlyAbandonedReservations() {
+        PesaPalInitiateRequest request = seedRequest();
+        Member member = memberRepository.findById(request.getMemberId()).get();
+        Group group = groupRepository.findById(request.getGroupId()).get();
+        Contribution abandoned = pending(member, group, "Monthly contribution");
+        Contribution submitted = pending(member, group, "Monthly contribution");
+        submitted.setPesapalTrackingId(UUID.randomUUID().toString());
+        submitted = contributionRepository.save(submitted);
+        Contribution inProgress = pending(member, group, null);
+        backdate(abandoned, 3_600);
+        backdate(submitted, 3_600);
+
+        assertTrue(pesaPalService.recoverAbandonedReservations() >= 1);
+
+        assertEquals(TransactionStatus.Failed, contributionRepository.findById(abandoned.getId()).get().getStatus());
+        assertEquals(TransactionStatus.Pending, contributionRepository.findById(submitted.getId()).get().getStatus());
+        assertEquals(TransactionStatus.Pending, contributionRepository.findById(inProgress.getId()).get().getStatus());
+    }
+
+    private long pendingWithTrackingId(String memberId) {
+        return contributionRepository.findByMemberId(memberId).stream()
+                .filter(c -> c.getStatus() == TransactionStatus.Pending)
+                .filter(c -> c.getPesapalTrackingId() != null)
+                .count();
+    }
+
+    private Contribution pending(Member member, Group group, String description) {
+        Contribution contribution = new Contribution(member, group, TransactionType.Contribution,
+                new BigDecimal("100.00"), LocalDate.now(), "PesaPal", "test-script", "tenant001");
+        contribution.setStatus(TransactionStatus.Pending);
+        contribution.setDescription(description);
+        return contributionRepository.save(contribution);
+    }
+
+    private void backdate(Contribution contribution, long seconds) {
+        jdbcTemplate.update("UPDATE contributions SET created_on = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(seconds)), contribution.getId());
+    }
+
+    private PesaPalInitiateRequest seedRequest() {
+        Member member = TestData.groupWithMember(groupRepository, memberRepository, "PesaPal", MemberRole.Member);
+        Group group = member.getGroup();
+
+        PesaPalInitiateRequest request = new PesaPalInitiateRequest();
+        request.setMemberId(member.getId());
+        request.setGroupId(group.getId());
+        request.setAmount(new BigDecimal("500.00"));
+        request.setTransactionType("Contribution");
+        request.setDescription("Monthly contribution");
+        request.setMansoftTenantId("tenant001");
+        request.setPhoneNumber("0712345678");
+        request.setCreatedBy("test-script");
+        return request;
+    }
+}
@@ -0,0 +1,198 @@
+package com.manpower;
+
+import com.manpower.dto.PesaPalInitiateRequest;
+import com.manpower.dto.PesaPalPaymentStatus;
+import com.manpower.entity.Contribution;
+import com.manpower.entity.Group;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.enums.TransactionStatus;
+import com.manpower.repository.ContributionRepository;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.GroupLedgerService;
+import com.manpower.service.PaymentStatusUpdater;
+import com.manpower.service.PesaPalService;
+import com.manpower.service.PesaPalStatusReconciler;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// PesaPal status reconciliation against the local PesaPal stub: IPN notifications and the sweep of
+// Pending payments, with duplicate coalescing, idempotent updates and bounded lookup concurrency.
+@SpringBootTest(properties = {"pesapal.reconcile.concurrency=3", "pesapal.reconcile.batch-size=5",
+        "pesapal.reconcile.min-age-seconds=0"})
+@AutoConfigureMockMvc
+public class PesaPalReconcileTest {
+
+    private static final PesaPalStub stub = new PesaPalStub();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PesaPalService pesaPalService;
+
+    @Autowired
+    private PesaPalStatusReconciler reconciler;
+
+    @Autowired
+    private PaymentStatusUpdater paymentStatusUpdater;
+
+    @Autowired
+    private GroupLedgerService groupLedgerService;
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @DynamicPropertySource
+    static void pesapalStub(DynamicPropertyRegistry registry) {
+        registry.add("pesapal.api.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+    }
+
+    @BeforeEach
+    void reset() {
+        stub.statusLatencyMs = 0;
+        stub.peakStatusInFlight.set(0);
+    }
+
+    @Test
+    void duplicateIpnsCoalesceAndApplyOnce() throws Exception {
+        PesaPalInitiateRequest request = seedRequest();
+        String first = pesaPalService.initiatePayment(request).getOrderTrackingId();
+        String second = pesaPalService.initiatePayment(request).getOrderTrackingId();
+        stub.statusLatencyMs = 500; // Keeps the reconciler busy with the first order while the retries arrive
+
+        mockMvc.perform(get("/api/payments/ipn").param("OrderTrackingId", first)
+                        .param("OrderMerchantReference", "ref").param("OrderNotificationType", "IPNCHANGE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderTrackingId").value(first))
+                .andExpect(jsonPath("$.status").value(200));
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/payments/ipn").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"OrderTrackingId\":\"" + second + "\",\"OrderMerchantReference\":\"ref\","
+                                    + "\"OrderNotificationType\":\"IPNCHANGE\"}"))
+                    .andExpect(status().isOk());
+        }
+
+        awaitStatus(first, TransactionStatus.Completed);
+        awaitStatus(second, TransactionStatus.Completed);
+        assertEquals(1, stub.statusLookups.get(second).get());
+
+        // Replays change nothing and the ledger counts each payment once
+        assertEquals(0, paymentStatusUpdater.applyAll(Collections.singletonList(
+                new PesaPalPaymentStatus(second, "Completed", TransactionStatus.Completed))));
+        assertEquals("COMPLETED", pesaPalService.checkPaymentStatus(second));
+        assertEquals(1, stub.statusLookups.get(second).get(), "Final statuses are answered from the database");
+        assertEquals(0, new BigDecimal("1000.00").compareTo(groupLedgerService.getGroupTotal(request.getGroupId())));
+        assertTrue(groupLedgerService.verify(request.getGroupId()).isConsistent());
+    }
+
+    @Test
+    void ipnWithoutTrackingIdIsRejected() throws Exception {
+        mockMvc.perform(get("/api/payments/ipn").param("OrderNotificationType", "IPNCHANGE"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void sweepReconcilesPendingPaymentsWithBoundedConcurrency() throws Exception {
+        PesaPalInitiateRequest request = seedRequest();
+        List<String> completed = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        List<String> stillPending = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            String trackingId = pesaPalService.initiatePayment(request).getOrderTrackingId();
+            List<String> bucket = i % 3 == 0 ? completed : i % 3 == 1 ? failed : stillPending;
+            bucket.add(trackingId);
+            stub.paymentStatuses.put(trackingId, bucket == completed ? "Completed" : bucket == failed ? "Failed" : "Pending");
+        }
+        stub.statusLatencyMs = 100;
+
+        assertTrue(reconciler.reconcilePending() >= 12);
+
+        for (String trackingId : completed) {
+            awaitStatus(trackingId, TransactionStatus.Completed);
+        }
+        for (String trackingId : failed) {
+            awaitStatus(trackingId, TransactionStatus.Failed);
+        }
+        awaitLookups(stillPending);
+        for (String trackingId : stillPending) {
+            assertEquals(TransactionStatus.Pending, statusOf(trackingId));
+        }
+        assertTrue(stub.peakStatusInFlight.get() <= 3, "Concurrent lookups: " + stub.peakStatusInFlight.get());
+        assertTrue(groupLedgerService.verify(request.getGroupId()).isConsistent());
+    }
+
+    private void awaitStatus(String trackingId, TransactionStatus expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (statusOf(trackingId) != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, statusOf(trackingId));
+    }
+
+    private void awaitLookups(List<String> trackingIds) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        for (String trackingId : trackingIds) {
+            while (!stub.statusLookups.containsKey(trackingId) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue(stub.statusLookups.containsKey(trackingId), "Never looked up: " + trackingId);
+        }
+        while (reconciler.getQueueDepth() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(200); // Let the last batch commit
+    }
+
+    private TransactionStatus statusOf(String trackingId) {
+        Contribution contribution = contributionRepository.findByPesapalTrackingId(trackingId).get();
+        return contribution.getStatus();
+    }
+
+    private PesaPalInitiateRequest seedRequest() {
+        Member member = TestData.groupWithMember(groupRepository, memberRepository, "PesaPal", MemberRole.Member);
+        Group group = member.getGroup();
+
+        PesaPalInitiateRequest request = new PesaPalInitiateRequest();
+        request.setMemberId(member.getId());
+        request.setGroupId(group.getId());
+        request.setAmount(new BigDecimal("500.00"));
+        request.setTransactionType("Contribution");
+        request.setDescription("Monthly contribution");
+        request.setMansoftTenantId("tenant001");
+        request.setPhoneNumber("0712345678");
+        request.setCreatedBy("test-script");
+        return request;
+    }
+}
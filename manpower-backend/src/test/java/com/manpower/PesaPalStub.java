@@ -0,0 +1,152 @@
+package com.manpower;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Local stand-in for the PesaPal v3 API (token, SubmitOrder, GetTransactionStatus) used by the payment tests.
+public class PesaPalStub {
+
+    private final HttpServer server;
+    private final AtomicInteger tokenSequence = new AtomicInteger();
+
+    // Timestamps of /Auth/RequestToken calls and the expiry of every token handed out
+    final List<Long> tokenRequestTimes = new CopyOnWriteArrayList<>();
+    final Map<String, Instant> issuedTokens = new ConcurrentHashMap<>();
+    // Client ports seen by SubmitOrder: one port per TCP connection
+    final Set<Integer> orderConnections = ConcurrentHashMap.newKeySet();
+    final AtomicInteger orders = new AtomicInteger();
+    final AtomicInteger ordersInFlight = new AtomicInteger();
+    final AtomicInteger peakOrdersInFlight = new AtomicInteger();
+    // Status reported by GetTransactionStatus per tracking ID (COMPLETED when not set), and the lookups made
+    final Map<String, String> paymentStatuses = new ConcurrentHashMap<>();
+    final Map<String, AtomicInteger> statusLookups = new ConcurrentHashMap<>();
+    final AtomicInteger statusInFlight = new AtomicInteger();
+    final AtomicInteger peakStatusInFlight = new AtomicInteger();
+
+    volatile long tokenLifetimeMs = 300_000;
+    volatile long tokenLatencyMs;
+    volatile long orderLatencyMs;
+    volatile boolean rejectOrders;
+    volatile long statusLatencyMs;
+    // When set, every endpoint answers with this HTTP status (e.g. 503) instead of its normal response
+    volatile int failStatus;
+
+    public PesaPalStub() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the PesaPal stub", e);
+        }
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v3/api/Auth/RequestToken", this::token);
+        server.createContext("/v3/api/Transactions/SubmitOrder", this::submitOrder);
+        server.createContext("/v3/api/Transactions/GetTransactionStatus", this::transactionStatus);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/v3/api";
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    private void token(HttpExchange exchange) throws IOException {
+        tokenRequestTimes.add(System.currentTimeMillis());
+        pause(tokenLatencyMs);
+        if (failStatus > 0) {
+            respondFailure(exchange);
+            return;
+        }
+        String token = "token-" + tokenSequence.incrementAndGet();
+        Instant expiry = Instant.now().plusMillis(tokenLifetimeMs);
+        issuedTokens.put(token, expiry);
+        respond(exchange, "{\"token\":\"" + token + "\",\"expiryDate\":\"" + expiry
+                + "\",\"error\":null,\"status\":\"200\",\"message\":\"Request processed successfully\"}");
+    }
+
+    private void submitOrder(HttpExchange exchange) throws IOException {
+        orders.incrementAndGet();
+        orderConnections.add(exchange.getRemoteAddress().getPort());
+        exchange.getRequestBody().close();
+        peakOrdersInFlight.accumulateAndGet(ordersInFlight.incrementAndGet(), Math::max);
+        try {
+            pause(orderLatencyMs);
+        } finally {
+            ordersInFlight.decrementAndGet();
+        }
+        if (failStatus > 0) {
+            respondFailure(exchange);
+            return;
+        }
+        if (rejectOrders) {
+            respond(exchange, 500, "{\"error\":{\"code\":\"payment_details_not_found\"},\"status\":\"500\"}");
+            return;
+        }
+        String trackingId = UUID.randomUUID().toString();
+        respond(exchange, "{\"order_tracking_id\":\"" + trackingId + "\",\"merchant_reference\":\"ref\","
+                + "\"redirect_url\":\"https://pay.example.com/" + trackingId + "\",\"error\":null,\"status\":\"200\"}");
+    }
+
+    private void transactionStatus(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        String trackingId = query != null ? query.substring(query.indexOf('=') + 1) : "";
+        statusLookups.computeIfAbsent(trackingId, id -> new AtomicInteger()).incrementAndGet();
+        peakStatusInFlight.accumulateAndGet(statusInFlight.incrementAndGet(), Math::max);
+        try {
+            pause(statusLatencyMs);
+        } finally {
+            statusInFlight.decrementAndGet();
+        }
+        if (failStatus > 0) {
+            respondFailure(exchange);
+            return;
+        }
+        String status = paymentStatuses.getOrDefault(trackingId, "COMPLETED");
+        respond(exchange, "{\"payment_status_description\":\"" + status + "\",\"status\":\"200\","
+                + "\"order_tracking_id\":\"" + trackingId + "\"}");
+    }
+
+    private void respondFailure(HttpExchange exchange) throws IOException {
+        respond(exchange, failStatus, "{\"error\":{\"code\":\"service_unavailable\"},\"status\":\"" + failStatus + "\"}");
+    }
+
+    private void respond(HttpExchange exchange, String json) throws IOException {
+        respond(exchange, 200, json);
+    }
+
+    private void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.manpower;
+
+import com.manpower.service.PesaPalTokenProvider;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PesaPal token caching against the local PesaPal stub, whose token endpoint answers slowly to widen the refresh race.
+@SpringBootTest(properties = {"pesapal.token.refresh-ahead-seconds=1", "pesapal.token.expiry-skew-seconds=0"})
+public class PesaPalTokenProviderTest {
+
+    private static final PesaPalStub stub = new PesaPalStub();
+
+    @Autowired
+    private PesaPalTokenProvider tokenProvider;
+
+    @DynamicPropertySource
+    static void pesapalStub(DynamicPropertyRegistry registry) {
+        registry.add("pesapal.api.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+    }
+
+    @BeforeEach
+    void reset() {
+        stub.tokenLatencyMs = 200;
+        tokenProvider.invalidate();
+        stub.tokenRequestTimes.clear();
+    }
+
+    @Test
+    void concurrentColdCallersShareOneTokenRequest() throws Exception {
+        stub.tokenLifetimeMs = 60_000;
+        int callers = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> {
+                    go.await();
+                    return tokenProvider.getToken();
+                }));
+            }
+            go.countDown();
+            Set<String> tokens = ConcurrentHashMap.newKeySet();
+            for (Future<String> result : results) {
+                tokens.add(result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, stub.tokenRequestTimes.size());
+            assertEquals(1, tokens.size());
+
+            // Cached from here on
+            tokenProvider.getToken();
+            assertEquals(1, stub.tokenRequestTimes.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void backgroundRefreshMakesOneRequestPerExpiryWindow() throws Exception {
+        stub.tokenLifetimeMs = 2_000;
+        int callers = 16;
+        long runMs = 5_000;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        List<String> expiredServed = new CopyOnWriteArrayList<>();
+        try {
+            tokenProvider.getToken();
+            long deadline = System.currentTimeMillis() + runMs;
+            List<Future<?>> loops = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                loops.add(pool.submit(() -> {
+                    while (System.currentTimeMillis() < deadline) {
+                        String token = tokenProvider.getToken();
+                        if (!Instant.now().isBefore(stub.issuedTokens.get(token))) {
+                            expiredServed.add(token);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> loop : loops) {
+                loop.get(runMs + 10_000, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(expiredServed.isEmpty(), "Expired tokens served: " + expiredServed);
+        // Refreshed ahead of expiry roughly every (lifetime - refresh-ahead), never twice in one window
+        assertTrue(stub.tokenRequestTimes.size() >= 3, "Token requests: " + stub.tokenRequestTimes.size());
+        for (int i = 1; i < stub.tokenRequestTimes.size(); i++) {
+            long gap = stub.tokenRequestTimes.get(i) - stub.tokenRequestTimes.get(i - 1);
+            assertTrue(gap >= 800, "Two token requests " + gap + " ms apart");
+        }
+    }
+}
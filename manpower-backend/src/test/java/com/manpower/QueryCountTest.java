@@ -0,0 +1,153 @@
+package com.manpower;
+
+import com.manpower.entity.Group;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.AccessTokenService;
+import com.manpower.service.PasswordHasher;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Counts the SQL statements each member/group endpoint issues (via Hibernate statistics)
+// and checks the count stays flat as the number of groups and members grows.
+@SpringBootTest
+@AutoConfigureMockMvc
+public class QueryCountTest {
+
+    private static final int GROUPS = 5;
+    private static final int MEMBERS_PER_GROUP = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    private Statistics statistics;
+    private final List<Group> groups = new ArrayList<>();
+    private Member admin;
+    private String adminEmail;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Member newAdmin = TestData.member("Admin", MemberRole.GroupAdmin, null);
+        newAdmin.setPassword(passwordHasher.hash("password123")); // Already hashed, so login does no rehash write
+        admin = memberRepository.save(newAdmin);
+        adminEmail = admin.getEmail();
+
+        for (int g = 0; g < GROUPS; g++) {
+            Group group = groupRepository.save(TestData.group("Group " + g, admin.getId()));
+            groups.add(group);
+            for (int m = 0; m < MEMBERS_PER_GROUP; m++) {
+                memberRepository.save(TestData.member("m" + g + "-" + m, MemberRole.Member, group));
+            }
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (Group group : groups) {
+            memberRepository.deleteAll(memberRepository.findByGroupId(group.getId()));
+            groupRepository.deleteById(group.getId());
+        }
+        memberRepository.deleteById(admin.getId());
+    }
+
+    @Test
+    void listingGroupsWithMembersIsOneQuery() throws Exception {
+        assertStatements(1, () -> mockMvc.perform(get("/api/groups")).andExpect(status().isOk()));
+    }
+
+    @Test
+    void groupsByCreatorIsBounded() throws Exception {
+        // creator lookup + groups-with-members
+        assertStatements(2, () -> mockMvc.perform(get("/api/groups/groupadmin/" + admin.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(GROUPS))
+                .andExpect(jsonPath("$[0].members.length()").value(MEMBERS_PER_GROUP)));
+    }
+
+    @Test
+    void groupsByCreatorWithAccessTokenIsOneQuery() throws Exception {
+        // The creator's role comes from the token: groups-with-members only
+        assertStatements(1, () -> mockMvc.perform(get("/api/groups/groupadmin/" + admin.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessTokenService.issue(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(GROUPS)));
+    }
+
+    @Test
+    void groupByIdIsOneQuery() throws Exception {
+        assertStatements(1, () -> mockMvc.perform(get("/api/groups/" + groups.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members.length()").value(MEMBERS_PER_GROUP)));
+    }
+
+    @Test
+    void listingMembersDoesNotLoadGroups() throws Exception {
+        assertStatements(1, () -> mockMvc.perform(get("/api/members")).andExpect(status().isOk()));
+    }
+
+    @Test
+    void membersByGroupIsOneQuery() throws Exception {
+        assertStatements(1, () -> mockMvc.perform(get("/api/members/by-group/" + groups.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(MEMBERS_PER_GROUP)));
+    }
+
+    @Test
+    void loginIsOneQuery() throws Exception {
+        assertStatements(1, () -> mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + adminEmail + "\",\"password\":\"password123\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    private void assertStatements(long maxStatements, RequestCall call) throws Exception {
+        statistics.clear();
+        call.run();
+        long executed = statistics.getPrepareStatementCount();
+        assertTrue(executed <= maxStatements,
+                "Expected at most " + maxStatements + " SQL statement(s) but " + executed + " were executed");
+    }
+
+    @FunctionalInterface
+    private interface RequestCall {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,245 @@
+package com.manpower;
+
+import com.manpower.dto.CacheStats;
+import com.manpower.dto.PesaPalInitiateRequest;
+import com.manpower.entity.Group;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.enums.MemberStatus;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.BoundedTtlCache;
+import com.manpower.service.GroupService;
+import com.manpower.service.MemberService;
+import com.manpower.service.PesaPalService;
+import com.manpower.service.ReferenceDataCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The group/member reference cache: the services that change a group or member drop its entry, entries are
+// bounded by count and age, a load racing an invalidation is not kept, and the write paths that check
+// groups and members issue fewer statements with the cache than without (printed as a small benchmark).
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ReferenceDataCacheTest {
+
+    private static final PesaPalStub stub = new PesaPalStub();
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PesaPalService pesaPalService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void pesapalStub(DynamicPropertyRegistry registry) {
+        registry.add("pesapal.api.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+    }
+
+    @AfterEach
+    void enableCache() {
+        ReflectionTestUtils.setField(referenceDataCache, "enabled", true);
+    }
+
+    @Test
+    void terminateGroupIsSeenAtOnce() {
+        Member admin = saveMember(MemberRole.GroupAdmin, null);
+        Group group = saveGroup(admin);
+        assertFalse(referenceDataCache.getGroup(group.getId()).isTerminated());
+
+        groupService.terminateGroup(group.getId());
+        assertTrue(referenceDataCache.getGroup(group.getId()).isTerminated());
+    }
+
+    @Test
+    void updateAndDeleteMemberAreSeenAtOnce() {
+        Member member = saveMember(MemberRole.Member, null);
+        assertEquals(member.getEmail(), referenceDataCache.getMember(member.getId()).getEmail());
+        assertNull(referenceDataCache.getMember(member.getId()).getGroupId(), "A member without a group is still found");
+
+        Group group = saveGroup(saveMember(MemberRole.GroupAdmin, null));
+        Member details = new Member();
+        details.setFirstName("Renamed");
+        details.setLastName(member.getLastName());
+        details.setEmail("renamed." + member.getEmail());
+        details.setPhoneNumber(member.getPhoneNumber());
+        details.setStatus(MemberStatus.Active);
+        details.setGroup(group);
+        memberService.updateMember(member.getId(), details);
+        assertEquals("renamed." + member.getEmail(), referenceDataCache.getMember(member.getId()).getEmail());
+        assertEquals(group.getId(), referenceDataCache.getMember(member.getId()).getGroupId());
+
+        memberService.deleteMember(member.getId());
+        assertFalse(referenceDataCache.memberExists(member.getId()));
+    }
+
+    @Test
+    void entriesAreBoundedBySizeAndAge() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        BoundedTtlCache<Integer, String> sized = new BoundedTtlCache<>("sized", 32, 60_000, 4);
+        for (int i = 0; i < 1_000; i++) {
+            sized.get(i, key -> "v" + key);
+        }
+        assertTrue(sized.size() <= 32, "Entries kept: " + sized.size());
+        assertEquals(1_000 - sized.size(), sized.getStats().getEvictions());
+
+        BoundedTtlCache<String, String> aged = new BoundedTtlCache<>("aged", 32, 50, 4);
+        aged.get("k", key -> "v" + loads.incrementAndGet());
+        aged.get("k", key -> "v" + loads.incrementAndGet());
+        assertEquals(1, loads.get(), "Served from the cache within the TTL");
+        Thread.sleep(100);
+        assertEquals("v2", aged.get("k", key -> "v" + loads.incrementAndGet()));
+        CacheStats stats = aged.getStats();
+        assertEquals(1, stats.getExpirations());
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+    }
+
+    @Test
+    void aLoadRacingAnInvalidationIsNotKept() throws Exception {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("race", 32, 60_000, 4);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // The loader read the old row, then the row changes and is invalidated before the load is stored
+            Future<String> stale = executor.submit(() -> cache.get("k", key -> {
+                loading.countDown();
+                try {
+                    invalidated.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "old";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            cache.invalidate("k");
+            invalidated.countDown();
+            assertEquals("old", stale.get(5, TimeUnit.SECONDS), "The racing caller still gets what it read");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("new", cache.get("k", key -> "new"), "The next lookup reloads instead of seeing the old value");
+    }
+
+    @Test
+    void writePathsIssueFewerStatementsWithTheCache() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Member admin = saveMember(MemberRole.GroupAdmin, null);
+        Group group = saveGroup(admin);
+        Member payer = saveMember(MemberRole.Member, group);
+        pesaPalService.initiatePayment(paymentRequest(payer, group)); // PesaPal token fetched up front
+        String meeting = "{\"title\":\"Monthly\",\"agenda\":\"Budget\",\"meetingDate\":\"2026-11-02\","
+                + "\"meetingTime\":\"10:00:00\",\"meetingLink\":\"https://meet.example.com/monthly\",\"calledByRole\":\"GroupAdmin\",\"targetAudience\":\"GroupMembers\","
+                + "\"group\":{\"id\":\"" + group.getId() + "\"},\"createdBy\":\"" + admin.getId() + "\"}";
+
+        Map<String, Workload> workloads = new LinkedHashMap<>();
+        workloads.put("PesaPal initiate", () -> pesaPalService.initiatePayment(paymentRequest(payer, group)));
+        workloads.put("Groups by creator", () -> mockMvc.perform(get("/api/groups/groupadmin/" + admin.getId()))
+                .andExpect(status().isOk()));
+        workloads.put("Create meeting", () -> mockMvc.perform(post("/api/meetings")
+                .contentType(MediaType.APPLICATION_JSON).content(meeting)).andExpect(status().isCreated()));
+        workloads.put("Group total", () -> mockMvc.perform(get("/api/contributions/group/" + group.getId() + "/total"))
+                .andExpect(status().isOk()));
+
+        int requests = 50;
+        System.out.println("Reference cache benchmark, " + requests + " requests each:");
+        for (Map.Entry<String, Workload> workload : workloads.entrySet()) {
+            double[] without = measure(statistics, workload.getValue(), requests, false);
+            double[] with = measure(statistics, workload.getValue(), requests, true);
+            System.out.printf("  %-18s without cache: %5.2f statements, %6.3f ms | with cache: %5.2f statements, %6.3f ms%n",
+                    workload.getKey(), without[0], without[1], with[0], with[1]);
+            assertTrue(with[0] < without[0], workload.getKey() + ": " + with[0] + " vs " + without[0] + " statements");
+        }
+        for (CacheStats stats : referenceDataCache.getStats()) {
+            System.out.printf("  %s cache: %d entries, hit ratio %.2f%n", stats.getName(), stats.getSize(), stats.getHitRatio());
+        }
+
+        mockMvc.perform(get("/api/groups/reference-cache")).andExpect(status().isOk());
+    }
+
+    private interface Workload {
+        void run() throws Exception;
+    }
+
+    // Statements and milliseconds per request, after one warm-up request
+    private double[] measure(Statistics statistics, Workload workload, int requests, boolean cached) throws Exception {
+        ReflectionTestUtils.setField(referenceDataCache, "enabled", cached);
+        workload.run();
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            workload.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long statements = statistics.getPrepareStatementCount() - statementsBefore;
+        return new double[] {(double) statements / requests, elapsed / 1_000_000.0 / requests};
+    }
+
+    private PesaPalInitiateRequest paymentRequest(Member member, Group group) {
+        PesaPalInitiateRequest request = new PesaPalInitiateRequest();
+        request.setMemberId(member.getId());
+        request.setGroupId(group.getId());
+        request.setAmount(new BigDecimal("500.00"));
+        request.setTransactionType("Contribution");
+        request.setDescription("Monthly contribution");
+        request.setMansoftTenantId("tenant001");
+        request.setPhoneNumber("0712345678");
+        request.setCreatedBy("test-script");
+        return request;
+    }
+
+    private Group saveGroup(Member admin) {
+        return groupService.saveGroup(TestData.group("Cached", admin.getId()));
+    }
+
+    private Member saveMember(MemberRole role, Group group) {
+        return memberRepository.save(TestData.member("Ref", role, group));
+    }
+}
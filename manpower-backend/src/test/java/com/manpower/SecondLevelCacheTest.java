@@ -0,0 +1,202 @@
+package com.manpower;
+
+import com.manpower.entity.Document;
+import com.manpower.entity.Group;
+import com.manpower.entity.Meeting;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.repository.DocumentRepository;
+import com.manpower.repository.GroupLedgerTotalRepository;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MeetingRepository;
+import com.manpower.repository.MemberRepository;
+import com.manpower.service.AccessTokenService;
+import com.manpower.service.GroupService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The Hibernate second-level and query cache: repeated group, meeting and document listings are served
+// without SQL, writes through JPA are visible on the next request, native ledger writes leave the cache
+// warm, and a change made behind Hibernate's back is seen once the region TTL has passed.
+@SpringBootTest(properties = "spring.jpa.properties.second-level-cache.ttl-seconds=3")
+@AutoConfigureMockMvc
+public class SecondLevelCacheTest {
+
+    private static final long TTL_MS = 3_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private GroupLedgerTotalRepository groupLedgerTotalRepository;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Member admin;
+    private Group group;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        admin = saveMember(MemberRole.GroupAdmin, null);
+        group = groupRepository.save(TestData.group("L2", admin.getId()));
+        saveMember(MemberRole.Member, group);
+    }
+
+    @Test
+    void repeatedGroupListingsAreServedFromTheCache() throws Exception {
+        mockMvc.perform(get("/api/groups")).andExpect(status().isOk()); // Loads and caches
+        long queryHits = statistics.getQueryCacheHitCount();
+        long secondLevelHits = statistics.getSecondLevelCacheHitCount();
+
+        assertStatements(0, () -> mockMvc.perform(get("/api/groups")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == '" + group.getId() + "')].members.length()").value(1)));
+        assertTrue(statistics.getQueryCacheHitCount() > queryHits);
+        assertTrue(statistics.getSecondLevelCacheHitCount() > secondLevelHits, "Groups and members come from the cache");
+
+        // A new member invalidates the cached listing and the group's cached member list
+        saveMember(MemberRole.Member, group);
+        assertStatements(1, () -> mockMvc.perform(get("/api/groups")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == '" + group.getId() + "')].members.length()").value(2)));
+    }
+
+    @Test
+    void groupsByCreatorSeeTerminationAtOnce() throws Exception {
+        String bearer = "Bearer " + accessTokenService.issue(admin);
+        mockMvc.perform(get("/api/groups/groupadmin/" + admin.getId()).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk());
+        assertStatements(0, () -> mockMvc.perform(get("/api/groups/groupadmin/" + admin.getId())
+                .header(HttpHeaders.AUTHORIZATION, bearer)).andExpect(jsonPath("$[0].status").value("Active")));
+
+        groupService.terminateGroup(group.getId());
+        mockMvc.perform(get("/api/groups/groupadmin/" + admin.getId()).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(jsonPath("$[0].status").value("Terminated"));
+    }
+
+    @Test
+    void meetingAndDocumentListingsAreCachedUntilWritten() throws Exception {
+        mockMvc.perform(get("/api/meetings")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/documents")).andExpect(status().isOk());
+        assertStatements(0, () -> {
+            mockMvc.perform(get("/api/meetings")).andExpect(status().isOk());
+            return mockMvc.perform(get("/api/documents")).andExpect(status().isOk());
+        });
+
+        Meeting meeting = saveMeeting();
+        Document document = saveDocument();
+        mockMvc.perform(get("/api/meetings")).andExpect(jsonPath("$[*].id", hasItem(meeting.getId())));
+        mockMvc.perform(get("/api/documents")).andExpect(jsonPath("$[*].id", hasItem(document.getId())));
+    }
+
+    @Test
+    void nativeLedgerWritesLeaveTheCacheWarm() throws Exception {
+        mockMvc.perform(get("/api/groups")).andExpect(status().isOk());
+        new TransactionTemplate(transactionManager).execute(status -> groupLedgerTotalRepository.applyDelta(
+                group.getId(), admin.getId(), "Contribution", new BigDecimal("10.00"), 1));
+        assertStatements(0, () -> mockMvc.perform(get("/api/groups")).andExpect(status().isOk()));
+    }
+
+    @Test
+    void changesBehindHibernatesBackAreSeenWithinTheTtl() throws Exception {
+        assertEquals(group.getGroupName(), groupRepository.findById(group.getId()).get().getGroupName());
+        jdbcTemplate.update("UPDATE group_info SET group_name = ? WHERE id = ?", "Renamed in SQL", group.getId());
+        long changedAt = System.currentTimeMillis();
+
+        // Still cached: the second-level cache did not see the SQL update
+        assertEquals(group.getGroupName(), groupRepository.findById(group.getId()).get().getGroupName());
+
+        String name = group.getGroupName();
+        while (!"Renamed in SQL".equals(name)) {
+            assertTrue(System.currentTimeMillis() - changedAt < TTL_MS + 2_000, "Stale for longer than the TTL");
+            Thread.sleep(100);
+            name = groupRepository.findById(group.getId()).get().getGroupName();
+        }
+    }
+
+    private interface Request {
+        ResultActions perform() throws Exception;
+    }
+
+    private void assertStatements(long expected, Request request) throws Exception {
+        long before = statistics.getPrepareStatementCount();
+        request.perform();
+        assertEquals(expected, statistics.getPrepareStatementCount() - before, "SQL statements");
+    }
+
+    private Member saveMember(MemberRole role, Group memberGroup) {
+        return memberRepository.save(TestData.member("L2", role, memberGroup));
+    }
+
+    private Meeting saveMeeting() {
+        Meeting meeting = new Meeting();
+        meeting.setGroup(group);
+        meeting.setTitle("Monthly");
+        meeting.setAgenda("Budget");
+        meeting.setMeetingDate(LocalDate.now().plusDays(7));
+        meeting.setMeetingTime(LocalTime.of(10, 0));
+        meeting.setMeetingLink("https://meet.example.com/monthly");
+        meeting.setCalledByRole("GroupAdmin");
+        meeting.setTargetAudience("GroupMembers");
+        return meetingRepository.save(meeting);
+    }
+
+    private Document saveDocument() {
+        Document document = new Document();
+        document.setId(UUID.randomUUID().toString());
+        document.setGroup(group);
+        document.setUploadedBy(admin);
+        document.setDocumentType("Minutes");
+        document.setFileName("minutes.pdf");
+        document.setFilePathUrl("https://files.example.com/minutes.pdf");
+        return documentRepository.save(document);
+    }
+}
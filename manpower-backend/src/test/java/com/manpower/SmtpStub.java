@@ -0,0 +1,140 @@
+package com.manpower;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Local SMTP server for the email tests: speaks enough SMTP for JavaMail, keeps what it receives, and can be
+// told to refuse service (421 on connect) or reject messages (a given reply code to RCPT TO).
+public class SmtpStub {
+
+    // One received email: its recipients and the raw DATA (headers and body)
+    static class Received {
+        final List<String> recipients;
+        final String data;
+
+        Received(List<String> recipients, String data) {
+            this.recipients = recipients;
+            this.data = data;
+        }
+    }
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool();
+
+    final List<Received> received = new CopyOnWriteArrayList<>();
+    final AtomicInteger connectionCount = new AtomicInteger();
+
+    // When set, every connection is greeted with 421 and closed, as by a server that is down
+    volatile boolean refuseConnections;
+    // When set, RCPT TO for this address is answered with rejectCode (e.g. 450 mailbox busy)
+    volatile String rejectRecipient;
+    volatile int rejectCode = 450;
+
+    public SmtpStub() {
+        try {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the SMTP stub", e);
+        }
+        Thread acceptor = new Thread(this::acceptLoop, "smtp-stub");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    public void stop() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // Closing anyway
+        }
+        connections.shutdownNow();
+    }
+
+    int receivedFor(String recipient) {
+        int count = 0;
+        for (Received email : received) {
+            if (email.recipients.contains(recipient)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> converse(socket));
+            } catch (IOException e) {
+                return; // Stopped
+            }
+        }
+    }
+
+    private void converse(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream out = s.getOutputStream()) {
+            connectionCount.incrementAndGet();
+            if (refuseConnections) {
+                reply(out, "421 Service not available");
+                return;
+            }
+            reply(out, "220 localhost SMTP stub");
+            List<String> recipients = new CopyOnWriteArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                if (command.equals("EHLO") || command.equals("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.equals("MAIL")) {
+                    recipients = new CopyOnWriteArrayList<>();
+                    reply(out, "250 OK");
+                } else if (command.equals("RCPT")) {
+                    String address = line.substring(line.indexOf('<') + 1, line.lastIndexOf('>'));
+                    if (address.equals(rejectRecipient)) {
+                        reply(out, rejectCode + " Mailbox unavailable");
+                    } else {
+                        recipients.add(address);
+                        reply(out, "250 OK");
+                    }
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        data.append(line.startsWith("..") ? line.substring(1) : line).append('\n');
+                    }
+                    received.add(new Received(recipients, data.toString()));
+                    reply(out, "250 OK queued");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "250 OK"); // RSET, NOOP
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    private static void reply(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+}
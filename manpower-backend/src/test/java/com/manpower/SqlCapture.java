@@ -0,0 +1,37 @@
+package com.manpower;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Records the SQL Hibernate prepares while a test captures on its own thread. Installed for every test context
+// through hibernate.session_factory.statement_inspector in the test application.properties; it only passes
+// the statements through unless capture() is running.
+public class SqlCapture implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * @return the statements Hibernate prepared on this thread while the action ran, in order.
+     */
+    public static List<String> capture(Runnable action) {
+        List<String> captured = new ArrayList<>();
+        CAPTURED.set(captured);
+        try {
+            action.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return captured;
+    }
+}
@@ -0,0 +1,64 @@
+package com.manpower;
+
+import com.manpower.entity.Group;
+import com.manpower.entity.Member;
+import com.manpower.enums.MemberRole;
+import com.manpower.enums.MemberStatus;
+import com.manpower.repository.GroupRepository;
+import com.manpower.repository.MemberRepository;
+
+import java.sql.Date;
+import java.util.UUID;
+
+// Groups and members for the tests. Every field a save needs is filled in, and group names and member emails
+// get a random suffix, so tests sharing a database never collide. group() and member() return unsaved
+// entities for tests that save through a service or another node.
+public final class TestData {
+
+    public static final String TENANT = "tenant001";
+    public static final String CREATED_BY = "test-script";
+
+    private TestData() {
+    }
+
+    public static Group group(String name, String createdBy) {
+        Group group = new Group();
+        group.setGroupName(name + " " + suffix());
+        group.setCreationDate(new Date(System.currentTimeMillis()));
+        group.setCreatedBy(createdBy);
+        group.setMansoftTenantId(TENANT);
+        return group;
+    }
+
+    // group may be null for a member who is in no group yet
+    public static Member member(String name, MemberRole role, Group group) {
+        Member member = new Member();
+        member.setFirstName(name);
+        member.setLastName("Test");
+        member.setEmail(name.toLowerCase() + "." + suffix() + "@example.com");
+        member.setPhoneNumber("0712345678");
+        member.setPassword("password123");
+        member.setStatus(MemberStatus.Active);
+        member.setRole(role);
+        member.setGroup(group);
+        member.setCreatedBy(CREATED_BY);
+        member.setModifiedBy(CREATED_BY);
+        member.setMansoftTenantId(TENANT);
+        return member;
+    }
+
+    /**
+     * Saves a new group and one member in it.
+     *
+     * @return the saved member; its group is {@link Member#getGroup()}.
+     */
+    public static Member groupWithMember(GroupRepository groupRepository, MemberRepository memberRepository,
+                                         String name, MemberRole role) {
+        Group group = groupRepository.save(group(name, CREATED_BY));
+        return memberRepository.save(member(name, role, group));
+    }
+
+    private static String suffix() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}